@@ -97,6 +97,11 @@ GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA ${PG_SCHEMA} TO ${PG_USER};
 GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA ${PG_SCHEMA} TO ${PG_USER};
 EOD
 
+announce "create extensions, this requires the admin user for postgres versions older than 13"
+docker exec -i ${PG_CONTAINER} psql -U ${PG_ADMIN_USER} ${PG_DATABASE} <<EOD
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA ${PG_SCHEMA};
+EOD
+
 announce "set search_path for user and database"
 docker exec -i ${PG_CONTAINER} psql -U ${PG_ADMIN_USER} <<EOD
 ALTER DATABASE ${PG_DATABASE} SET search_path TO ${PG_SCHEMA};
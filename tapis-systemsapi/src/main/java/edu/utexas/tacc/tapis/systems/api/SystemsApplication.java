@@ -13,6 +13,9 @@ import org.glassfish.jersey.internal.inject.InjectionManager;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ResourceConfig;
 
+import edu.utexas.tacc.tapis.systems.api.filters.JsonSearchFilter;
+import edu.utexas.tacc.tapis.systems.api.filters.ServerTimingFilter;
+import edu.utexas.tacc.tapis.systems.api.filters.TracingFilter;
 import edu.utexas.tacc.tapis.systems.api.resources.CredentialResource;
 import edu.utexas.tacc.tapis.systems.api.resources.GeneralResource;
 import edu.utexas.tacc.tapis.systems.api.resources.PermsResource;
@@ -31,8 +34,9 @@ import edu.utexas.tacc.tapis.sharedapi.providers.ApiExceptionMapper;
 import edu.utexas.tacc.tapis.sharedapi.providers.ObjectMapperContextResolver;
 import edu.utexas.tacc.tapis.sharedapi.providers.ValidationExceptionMapper;
 import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.dao.SystemUpdateWriter;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
-import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
 
 /*
  * Main startup class for the web application. Uses Jersey and Grizzly frameworks.
@@ -81,6 +85,11 @@ public class SystemsApplication extends ResourceConfig
     register(JWTValidateRequestFilter.class);
     register(ClearThreadLocalRequestFilter.class);
     register(QueryParametersRequestFilter.class);
+    register(TracingFilter.class);
+    register(TracingFilter.AuthDone.class);
+    register(TracingFilter.ResourceMethodScope.class);
+    register(ServerTimingFilter.class);
+    register(JsonSearchFilter.class);
 
     //Our APIs
     register(GeneralResource.class);
@@ -102,6 +111,12 @@ public class SystemsApplication extends ResourceConfig
       // Set site on which we are running. This is a required runtime parameter.
       siteId = runParms.getSiteId();
 
+      // Configure export of trace spans
+      SystemsTracing.init(runParms);
+
+      // Configure thresholds for reporting slow DB statements and outbound calls
+      SlowCallDetector.init(runParms);
+
       // Initialize security filter used when processing a request.
       JWTValidateRequestFilter.setService(TapisConstants.SERVICE_NAME_SYSTEMS);
       JWTValidateRequestFilter.setSiteId(siteId);
@@ -118,9 +133,10 @@ public class SystemsApplication extends ResourceConfig
       register(new AbstractBinder() {
         @Override
         protected void configure() {
-          bind(SystemsServiceImpl.class).to(SystemsService.class); // Used in Resource classes for most service calls
+          // SystemsService and SystemsDao are wrapped so that every call is timed, see SystemsMetrics
+          bindFactory(InstrumentedSystemsServiceFactory.class).to(SystemsService.class); // Used in Resource classes for most service calls
           bind(SystemsServiceImpl.class).to(SystemsServiceImpl.class); // Used in GeneralResource for checkDB
-          bind(SystemsDaoImpl.class).to(SystemsDao.class); // Used in service impl
+          bindFactory(InstrumentedSystemsDaoFactory.class).to(SystemsDao.class); // Used in service impl
           bind(SchedulerProfileServiceImpl.class).to(SchedulerProfileServiceImpl.class);
           bind(CredentialsServiceImpl.class).to(CredentialsServiceImpl.class);
           bind(SysUtils.class).to(SysUtils.class);
@@ -198,6 +214,8 @@ public class SystemsApplication extends ResourceConfig
     {
       System.out.printf("**** Stopping Systems Service. Version: %s ****%n", TapisUtils.getTapisFullVersion());
       // Perform any remaining shutdown steps
+      SystemUpdateWriter.shutdown();
+      SystemsTracing.shutdown();
 //      svc.shutDown();
     }
   }
@@ -0,0 +1,118 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.systems.utils.JsonSearchUtils;
+
+/*
+ * Takes search conditions on paths within the JSON attributes notes and jobCapabilities out of the search query
+ *   parameter, e.g. ?search=(notes.project.eq.my proj1)~(jobCapabilities[category=HARDWARE,name=gpus].gt.2)
+ *
+ * The search list is parsed and validated by QueryParametersRequestFilter using the shared search grammar, which
+ *   only accepts attr.op.value. JSON path conditions are removed from the query parameter before that filter runs
+ *   and kept as a request property. The resource adds them back to the search list and the service validates them
+ *   using JsonSearchUtils. The search query parameter is left as is if it has no JSON path conditions.
+ */
+@Provider
+@PreMatching
+@Priority(Priorities.AUTHENTICATION - 200)
+public class JsonSearchFilter implements ContainerRequestFilter
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String QUERY_PARM = "search";
+  public static final String PROP_JSON_SEARCH_LIST = "edu.utexas.tacc.tapis.systems.jsonSearchList";
+
+  private static final String COND_SEPARATOR = ")~(";
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    String searchStr = requestContext.getUriInfo().getQueryParameters().getFirst(QUERY_PARM);
+    if (StringUtils.isBlank(searchStr)) return;
+
+    var jsonSearchList = new ArrayList<String>();
+    var otherSearchList = new ArrayList<String>();
+    for (String cond : splitSearchList(searchStr))
+    {
+      if (JsonSearchUtils.isJsonSearchCondition(cond)) jsonSearchList.add(cond);
+      else otherSearchList.add(cond);
+    }
+    if (jsonSearchList.isEmpty()) return;
+
+    requestContext.setProperty(PROP_JSON_SEARCH_LIST, jsonSearchList);
+    String newSearchStr = otherSearchList.isEmpty() ? null : "(" + String.join(COND_SEPARATOR, otherSearchList) + ")";
+    requestContext.setRequestUri(replaceQueryParm(requestContext.getUriInfo().getRequestUri(), newSearchStr));
+  }
+
+  /**
+   * JSON path conditions taken out of the search query parameter of a request, empty if there were none
+   * @param requestContext - request
+   * @return search conditions
+   */
+  @SuppressWarnings("unchecked")
+  public static List<String> getJsonSearchList(ContainerRequestContext requestContext)
+  {
+    Object jsonSearchList = (requestContext == null) ? null : requestContext.getProperty(PROP_JSON_SEARCH_LIST);
+    return (jsonSearchList == null) ? Collections.emptyList() : (List<String>) jsonSearchList;
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Split a search list of the form (cond1)~(cond2)~... into conditions, without the enclosing parentheses.
+   * A search list that is not enclosed in parentheses is a single condition.
+   */
+  static List<String> splitSearchList(String searchStr)
+  {
+    String s = searchStr.trim();
+    if (!s.startsWith("(") || !s.endsWith(")")) return List.of(s);
+    return List.of(StringUtils.splitByWholeSeparatorPreserveAllTokens(s.substring(1, s.length() - 1), COND_SEPARATOR));
+  }
+
+  /*
+   * Replace the search query parameter of a URI, removing it if the value is null.
+   * The rest of the URI is kept as is, including any encoding.
+   */
+  static URI replaceQueryParm(URI uri, String value)
+  {
+    String rawQuery = uri.getRawQuery();
+    if (rawQuery == null) return uri;
+    List<String> kept = new ArrayList<>();
+    boolean replaced = false;
+    for (String parm : rawQuery.split("&"))
+    {
+      String name = parm.contains("=") ? parm.substring(0, parm.indexOf('=')) : parm;
+      if (!QUERY_PARM.equals(name)) kept.add(parm);
+      else if (value != null && !replaced)
+      {
+        kept.add(QUERY_PARM + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+        replaced = true;
+      }
+    }
+    String uriStr = uri.toString();
+    String base = uriStr.substring(0, uriStr.indexOf('?'));
+    return URI.create(kept.isEmpty() ? base : base + "?" + String.join("&", kept));
+  }
+}
@@ -0,0 +1,89 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.utils.RequestTiming;
+
+/*
+ * Adds a Server-Timing header to a response giving a breakdown of the time spent processing the request.
+ * See RequestTiming for the phases reported.
+ *
+ * The header is added to every response if enabled by env variable TAPIS_SERVER_TIMING_ENABLED, else only when
+ *   requested using the query parameter serverTiming, e.g. ?serverTiming=true
+ * The query parameter is removed from the request before it is matched, so it is not treated as a search condition.
+ * This filter runs before all other filters, so the total includes JWT validation. The priority of the response
+ *   filter is lower than that of TracingFilter so that the JWT validation time has been recorded when it runs.
+ */
+@Provider
+@PreMatching
+@Priority(Priorities.AUTHENTICATION - 300)
+public class ServerTimingFilter implements ContainerRequestFilter, ContainerResponseFilter
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String QUERY_PARM = "serverTiming";
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    boolean requested = false;
+    List<String> values = requestContext.getUriInfo().getQueryParameters().get(QUERY_PARM);
+    if (values != null)
+    {
+      // Flag with no value means true
+      requested = values.isEmpty() || StringUtils.isBlank(values.get(0)) || Boolean.parseBoolean(values.get(0));
+      requestContext.setRequestUri(removeQueryParm(requestContext.getUriInfo().getRequestUri()));
+    }
+    if (requested || RuntimeParameters.getInstance().isServerTimingEnabled()) RequestTiming.begin();
+    // Remove any context left on this thread by a request that did not complete normally
+    else RequestTiming.end();
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+  {
+    RequestTiming timing = RequestTiming.end();
+    if (timing != null) responseContext.getHeaders().putSingle(RequestTiming.HEADER_NAME, timing.toHeaderValue());
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Remove the serverTiming query parameter from a URI. The rest of the URI is kept as is, including any encoding.
+   */
+  static URI removeQueryParm(URI uri)
+  {
+    String rawQuery = uri.getRawQuery();
+    if (rawQuery == null) return uri;
+    List<String> kept = new ArrayList<>();
+    for (String parm : rawQuery.split("&"))
+    {
+      String name = parm.contains("=") ? parm.substring(0, parm.indexOf('=')) : parm;
+      if (!QUERY_PARM.equals(name)) kept.add(parm);
+    }
+    String uriStr = uri.toString();
+    String base = uriStr.substring(0, uriStr.indexOf('?'));
+    return URI.create(kept.isEmpty() ? base : base + "?" + String.join("&", kept));
+  }
+}
@@ -0,0 +1,186 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import edu.utexas.tacc.tapis.systems.service.SystemsTracing;
+import edu.utexas.tacc.tapis.systems.utils.RequestTiming;
+
+/*
+ * Creates a server span for each request.
+ * The parent is taken from the traceparent header, if present, so the span joins the trace of the caller.
+ * The span is named using the resource class and method, e.g. SystemResource.getSystem.
+ * A child span covers JWT validation. It is started here, before JWTValidateRequestFilter runs, and ended by
+ *   AuthDone, which runs after it. The time taken is also added to the Server-Timing breakdown, see RequestTiming.
+ * Only the span is kept in the request properties. It is made current by ResourceMethodScope while the resource
+ *   method runs, so spans created by the service, DAO and outbound calls are its children. The scope is opened and
+ *   closed on the thread running the resource method, so no context is left on a pooled thread when the response
+ *   is completed on another thread, e.g. for async or SSE requests.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 200)
+public class TracingFilter implements ContainerRequestFilter, ContainerResponseFilter
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  private static final String PROP_SPAN = TracingFilter.class.getName() + ".span";
+  private static final String PROP_AUTH_SPAN = TracingFilter.class.getName() + ".authSpan";
+  private static final String PROP_AUTH_START = TracingFilter.class.getName() + ".authStart";
+
+  private static final TextMapGetter<ContainerRequestContext> HEADER_GETTER = new TextMapGetter<>()
+  {
+    @Override
+    public Iterable<String> keys(ContainerRequestContext ctx) { return ctx.getHeaders().keySet(); }
+
+    @Override
+    public String get(ContainerRequestContext ctx, String key) { return ctx == null ? null : ctx.getHeaderString(key); }
+  };
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  @Context
+  private ResourceInfo resourceInfo;
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    var parent = SystemsTracing.getPropagators().getTextMapPropagator()
+                               .extract(io.opentelemetry.context.Context.root(), requestContext, HEADER_GETTER);
+    Span span = SystemsTracing.getTracer().spanBuilder(getSpanName(requestContext))
+                              .setParent(parent)
+                              .setSpanKind(SpanKind.SERVER)
+                              .setAttribute("http.request.method", requestContext.getMethod())
+                              .setAttribute("url.path", requestContext.getUriInfo().getPath())
+                              .startSpan();
+    Span authSpan = SystemsTracing.getTracer().spanBuilder("JWTValidateRequestFilter")
+                                  .setParent(parent.with(span))
+                                  .setSpanKind(SpanKind.INTERNAL)
+                                  .startSpan();
+    requestContext.setProperty(PROP_SPAN, span);
+    requestContext.setProperty(PROP_AUTH_SPAN, authSpan);
+    requestContext.setProperty(PROP_AUTH_START, System.nanoTime());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+  {
+    // If validation failed then the request was aborted before AuthDone ran
+    endAuthSpan(requestContext);
+    Object span = requestContext.getProperty(PROP_SPAN);
+    if (span instanceof Span)
+    {
+      int status = responseContext.getStatus();
+      ((Span) span).setAttribute("http.response.status_code", status);
+      if (status >= 500) ((Span) span).setStatus(StatusCode.ERROR);
+      ((Span) span).end();
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  private String getSpanName(ContainerRequestContext requestContext)
+  {
+    if (resourceInfo != null && resourceInfo.getResourceMethod() != null)
+      return resourceInfo.getResourceClass().getSimpleName() + "." + resourceInfo.getResourceMethod().getName();
+    return requestContext.getMethod() + " " + requestContext.getUriInfo().getPath();
+  }
+
+  private static void endAuthSpan(ContainerRequestContext requestContext)
+  {
+    Object authSpan = requestContext.getProperty(PROP_AUTH_SPAN);
+    if (authSpan instanceof Span)
+    {
+      requestContext.removeProperty(PROP_AUTH_SPAN);
+      ((Span) authSpan).end();
+    }
+    Object authStart = requestContext.getProperty(PROP_AUTH_START);
+    if (authStart instanceof Long)
+    {
+      requestContext.removeProperty(PROP_AUTH_START);
+      RequestTiming.record(RequestTiming.AUTH, System.nanoTime() - (Long) authStart);
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Ends the JWT validation span. Runs after JWTValidateRequestFilter and before filters that need an
+   *   authenticated user.
+   */
+  @Provider
+  @Priority(Priorities.AUTHENTICATION + 50)
+  public static class AuthDone implements ContainerRequestFilter
+  {
+    @Override
+    public void filter(ContainerRequestContext requestContext) { endAuthSpan(requestContext); }
+  }
+
+  /*
+   * Makes the server span current while the resource method runs. Both events are triggered on the thread running
+   *   the resource method, and the finished event is triggered even if the method throws.
+   */
+  @Provider
+  public static class ResourceMethodScope implements ApplicationEventListener
+  {
+    @Override
+    public void onEvent(ApplicationEvent event) {}
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) { return new ScopeListener(); }
+  }
+
+  /*
+   * Per request listener holding the scope opened for the resource method
+   */
+  private static final class ScopeListener implements RequestEventListener
+  {
+    private Scope scope;
+
+    @Override
+    public void onEvent(RequestEvent event)
+    {
+      switch (event.getType())
+      {
+        case RESOURCE_METHOD_START:
+          Object span = event.getContainerRequest().getProperty(PROP_SPAN);
+          if (span instanceof Span) scope = ((Span) span).makeCurrent();
+          break;
+        case RESOURCE_METHOD_FINISHED:
+          if (scope != null) scope.close();
+          scope = null;
+          break;
+        default:
+          break;
+      }
+    }
+  }
+}
@@ -269,8 +269,8 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemId, userName),
-                                                   PRETTY, resp1))
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemId, userName),
+                                             PRETTY, resp1))
       .build();
   }
 
@@ -353,7 +353,7 @@ public class CredentialResource
     // Return Status.OK = 200
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.OK)
-            .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_OK", rUser, systemId, userName),
+            .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_OK", rUser, systemId, userName),
                     PRETTY, resp1))
             .build();
   }
@@ -428,7 +428,7 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     // Success means we retrieved the information.
     RespCredential resp1 = new RespCredential(credential);
-    return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+    return Response.status(Status.OK).entity(ApiUtils.createSuccessResponse(
             ApiUtils.getMsgAuth("SYSAPI_CRED_FOUND", rUser, systemId, userName), PRETTY, resp1)).build();
   }
 
@@ -482,8 +482,8 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_DELETED", rUser, systemId,
-                                                                       userName), PRETTY, resp1))
+      .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_DELETED", rUser, systemId,
+                                                                 userName), PRETTY, resp1))
       .build();
   }
 
@@ -548,7 +548,7 @@ public class CredentialResource
     // All looks good. Create a response containing the result.
     RespGlobusAuthUrl resp1 = new RespGlobusAuthUrl(globusAuthInfo);
     msg = ApiUtils.getMsgAuth("SYSAPI_GLOBUS_AUTHURL", rUser, systemId);
-    return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp1)).build();
+    return Response.status(Status.OK).entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp1)).build();
   }
 
   /**
@@ -603,7 +603,7 @@ public class CredentialResource
     // ---------------------------- Success -------------------------------
     RespBasic resp1 = new RespBasic();
     return Response.status(Status.CREATED)
-            .entity(TapisRestUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemId, userName),
+            .entity(ApiUtils.createSuccessResponse(ApiUtils.getMsgAuth("SYSAPI_CRED_UPDATED", rUser, systemId, userName),
                     PRETTY, resp1))
             .build();
   }
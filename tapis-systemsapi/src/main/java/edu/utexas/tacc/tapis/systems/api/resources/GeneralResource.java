@@ -26,12 +26,13 @@ import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils.RESPONSE_STATUS;
 import edu.utexas.tacc.tapis.systems.api.SystemsApplication;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.service.SystemsMetrics;
 import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
 
 
 /*
- * Tapis Systems general resource endpoints including healthcheck and readycheck
+ * Tapis Systems general resource endpoints including healthcheck, readycheck and metrics
  *
  * The healthcheck corresponds to a kubernetes liveness probe and readycheck to a readiness probe. Please see:
  *   https://kubernetes.io/docs/tasks/configure-pod-container/configure-liveness-readiness-startup-probes/
@@ -254,6 +255,21 @@ public class GeneralResource
     return Response.ok(resp).build();
   }
 
+  /**
+   * Lightweight non-authenticated metrics endpoint in the Prometheus text format.
+   * Includes timers for service and DB calls and for calls to other services and to systems.
+   * Note that no JWT is required on this call and no logging is done.
+   * @return current values of all metrics
+   */
+  @GET
+  @Path("/metrics")
+  @Produces(SystemsMetrics.CONTENT_TYPE)
+  @PermitAll
+  public Response metrics()
+  {
+    return Response.ok(SystemsMetrics.scrape(), SystemsMetrics.CONTENT_TYPE).build();
+  }
+
   /* **************************************************************************** */
   /*                                Private Methods                               */
   /* **************************************************************************** */
@@ -33,7 +33,6 @@ import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespBasic;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespNameArray;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultNameArray;
-import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
@@ -167,7 +166,7 @@ public class PermsResource
     RespBasic resp1 = new RespBasic();
     msg = ApiUtils.getMsgAuth("SYSAPI_PERMS_GRANTED", rUser, systemId, userName, permsListStr);
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp1))
+      .entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp1))
       .build();
   }
 
@@ -223,7 +222,7 @@ public class PermsResource
     for (Permission perm : perms) { permNames.add(perm.name()); }
     names.names = permNames.toArray(TSystem.EMPTY_STR_ARRAY);
     RespNameArray resp1 = new RespNameArray(names);
-    return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+    return Response.status(Status.OK).entity(ApiUtils.createSuccessResponse(
       MsgUtils.getMsg("TAPIS_FOUND", "System permissions", perms.size() + " items"), PRETTY, resp1)).build();
   }
 
@@ -289,7 +288,7 @@ public class PermsResource
     RespBasic resp1 = new RespBasic();
     msg = ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId, userName, permissionStr);
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp1))
+      .entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp1))
       .build();
   }
 
@@ -364,7 +363,7 @@ public class PermsResource
     RespBasic resp1 = new RespBasic();
     msg = ApiUtils.getMsgAuth("SYSAPI_PERMS_REVOKED", rUser, systemId, userName, permsListStr);
     return Response.status(Status.CREATED)
-      .entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp1))
+      .entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp1))
       .build();
   }
 
@@ -418,6 +418,6 @@ public class SchedulerProfileResource
    */
   private static Response createSuccessResponse(Status status, String msg, RespAbstract resp)
   {
-    return Response.status(status).entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp)).build();
+    return Response.status(status).entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp)).build();
   }
 }
@@ -3,16 +3,23 @@ package edu.utexas.tacc.tapis.systems.api.resources;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.servlet.ServletContext;
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.PATCH;
@@ -22,15 +29,20 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.ServiceUnavailableException;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -65,19 +77,33 @@ import edu.utexas.tacc.tapis.sharedapi.responses.RespChangeCount;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespResourceUrl;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultChangeCount;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultResourceUrl;
+import edu.utexas.tacc.tapis.systems.api.filters.JsonSearchFilter;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPostSystem;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPostChildSystem;
 import edu.utexas.tacc.tapis.systems.api.requests.ReqPutSystem;
+import edu.utexas.tacc.tapis.systems.api.responses.RespAdminRoleCacheStats;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSkOutboxEntries;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSlowCalls;
 import edu.utexas.tacc.tapis.systems.api.responses.RespSystem;
+import edu.utexas.tacc.tapis.systems.api.responses.RespSystemChanges;
 import edu.utexas.tacc.tapis.systems.api.responses.RespSystemHistory;
 import edu.utexas.tacc.tapis.systems.api.responses.RespSystems;
 import edu.utexas.tacc.tapis.systems.api.utils.ApiUtils;
+import edu.utexas.tacc.tapis.systems.api.utils.SystemChangeStreamer;
+import edu.utexas.tacc.tapis.systems.service.AdminRoleCache;
+import edu.utexas.tacc.tapis.systems.service.SystemChangeBus;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
+import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
 import edu.utexas.tacc.tapis.systems.model.SystemHistoryItem;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.UnlinkInfo;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
 
 import static edu.utexas.tacc.tapis.systems.model.Credential.SECRETS_MASK;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.*;
@@ -122,6 +148,7 @@ public class SystemResource {
 
   // Format strings
   private static final String SYS_CNT_STR = "%d systems";
+  private static final String CHANGES_CNT_STR = "%d changes";
 
   // Operation names
   private static final String OP_ENABLE = "enableSystem";
@@ -167,6 +194,8 @@ public class SystemResource {
   private ServletContext _servletContext;
   @Context
   private Request _request;
+  @Context
+  private ContainerRequestContext _requestContext;
 
   // **************** Inject Services using HK2 ****************
   @Inject
@@ -299,6 +328,13 @@ public class SystemResource {
         _log.warn(msg);
         return Response.status(Status.CONFLICT).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
       }
+      else if (e.getMessage().contains("SYSLIB_SK_OUTBOX_PENDING"))
+      {
+        // SK updates for an earlier system with the same id have not yet been made - return 409 - Conflict
+        msg = ApiUtils.getMsgAuth(CREATE_ERR, rUser, systemId, e.getMessage());
+        _log.warn(msg);
+        return Response.status(Status.CONFLICT).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+      }
       else
       {
         // IllegalStateException indicates an Invalid TSystem was passed in
@@ -507,10 +543,13 @@ public class SystemResource {
     // No attributes are required. Constraints validated and defaults filled in on server side.
     // No secrets in PatchSystem so no need to scrub
 
+    // If client sent If-Match then only apply the update if the system is at the expected version.
+    Integer ifMatchVersion = ApiUtils.getIfMatchVersion(_httpHeaders.getHeaderString(HttpHeaders.IF_MATCH));
+
     // ---------------------------- Make service call to update the system -------------------------------
     try
     {
-      service.patchSystem(rUser, systemId, patchSystem, rawJson);
+      service.patchSystem(rUser, systemId, patchSystem, rawJson, ifMatchVersion);
     }
     catch (IllegalStateException e)
     {
@@ -526,8 +565,8 @@ public class SystemResource {
       _log.error(msg);
       throw new BadRequestException(msg, e);
     }
-    // Pass through not found or not auth to let exception mapper handle it.
-    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // Pass through not found, not auth, conflict or precondition failed to let exception mapper handle it.
+    catch (ClientErrorException | TapisClientException e) { throw e; }
     // As final fallback
     catch (Exception e)
     {
@@ -645,10 +684,13 @@ public class SystemResource {
     if (putSystem.getAuthnCredential() != null) scrubbedJson = maskCredSecrets(rawJson);
     if (_log.isTraceEnabled()) _log.trace(ApiUtils.getMsgAuth("SYSAPI_PUT_TRACE", rUser, scrubbedJson));
 
+    // If client sent If-Match then only apply the update if the system is at the expected version.
+    Integer ifMatchVersion = ApiUtils.getIfMatchVersion(_httpHeaders.getHeaderString(HttpHeaders.IF_MATCH));
+
     // ---------------------------- Make service call to update the system -------------------------------
     try
     {
-      putSystem = service.putSystem(rUser, putSystem, skipCredCheck, scrubbedJson);
+      putSystem = service.putSystem(rUser, putSystem, skipCredCheck, scrubbedJson, ifMatchVersion);
     }
     catch (IllegalStateException e)
     {
@@ -664,8 +706,8 @@ public class SystemResource {
       _log.error(msg);
       throw new BadRequestException(msg, e);
     }
-    // Pass through not found or not auth to let exception mapper handle it.
-    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // Pass through not found, not auth, conflict or precondition failed to let exception mapper handle it.
+    catch (ClientErrorException | TapisClientException e) { throw e; }
     // As final fallback
     catch (Exception e)
     {
@@ -883,6 +925,33 @@ public class SystemResource {
     // Determine if select contains shareInfo
     boolean fetchShareInfo = isShareInfoRequested(selectList);
 
+    // ---------------------------- Conditional request -------------------------------
+    // If client sent If-None-Match then do a cheap version check and return 304 if the system has not changed.
+    // Not supported when credentials are requested since credentials may change without the system changing.
+    String ifNoneMatch = _httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+    if (!getCreds && !StringUtils.isBlank(ifNoneMatch))
+    {
+      SystemVersion sysVersion;
+      try
+      {
+        sysVersion = service.getSystemVersion(rUser, systemId, requireExecPerm, impersonationId, sharedAppCtx,
+                                              resourceTenant, fetchShareInfo);
+      }
+      // Pass through not found or not auth to let exception mapper handle it.
+      catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+      // As final fallback
+      catch (Exception e)
+      {
+        String msg = ApiUtils.getMsgAuth("SYSAPI_SYS_GET_ERROR", rUser, systemId, e.getMessage());
+        _log.error(msg, e);
+        throw new WebApplicationException(msg);
+      }
+      // Resource was not found.
+      if (sysVersion == null) throw new NotFoundException(ApiUtils.getMsgAuth(NOT_FOUND, rUser, systemId));
+      EntityTag etag = ApiUtils.getSystemETag(sysVersion, selectList);
+      if (ApiUtils.ifNoneMatch(ifNoneMatch, etag)) return Response.notModified(etag).build();
+    }
+
     // ---------------------------- Make service call -------------------------------
     TSystem tSystem;
     try
@@ -904,8 +973,10 @@ public class SystemResource {
 
     // ---------------------------- Success -------------------------------
     // Success means we retrieved the system information.
-    RespSystem resp1 = new RespSystem(tSystem, selectList);
-    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "System", systemId), resp1);
+    // Include an ETag unless credentials were returned
+    EntityTag etag = getCreds ? null : ApiUtils.getSystemETag(new SystemVersion(tSystem, fetchShareInfo), selectList);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "System", systemId),
+                                 () -> new RespSystem(tSystem, selectList), etag);
   }
 
   /**
@@ -1216,7 +1287,11 @@ public class SystemResource {
 
   /**
    * getHistory
+   * History may be limited to a time range using the query parameters startTime and endTime, given as
+   *   ISO 8601 UTC timestamps, e.g. 2024-01-01T00:00:00Z.
    * @param systemId - name of the system
+   * @param startTimeStr - only records created at or after this time
+   * @param endTimeStr - only records created before this time
    * @param securityContext - user identity
    * @return Response with system history object as the result
    */
@@ -1225,6 +1300,8 @@ public class SystemResource {
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   public Response getHistory(@PathParam("systemId") String systemId,
+                             @QueryParam("startTime") String startTimeStr,
+                             @QueryParam("endTime") String endTimeStr,
                              @Context SecurityContext securityContext) throws TapisClientException
   {
     // Check that we have all we need from the context, the jwtTenantId and jwtUserId
@@ -1242,7 +1319,16 @@ public class SystemResource {
     try
     {
       // Retrieve system history List
-      systemHistory = service.getSystemHistory(rUser, systemId);
+      Instant startTime = StringUtils.isBlank(startTimeStr) ? null : Instant.parse(startTimeStr);
+      Instant endTime = StringUtils.isBlank(endTimeStr) ? null : Instant.parse(endTimeStr);
+      systemHistory = service.getSystemHistory(rUser, systemId, startTime, endTime);
+    }
+    catch (DateTimeParseException | IllegalArgumentException e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_HISTORY_TIME_ERROR", rUser, systemId, startTimeStr, endTimeStr,
+                                       e.getMessage());
+      _log.error(msg);
+      throw new BadRequestException(msg, e);
     }
     // Pass through not found or not auth to let exception mapper handle it.
     catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
@@ -1264,6 +1350,380 @@ public class SystemResource {
     return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "SystemHistory", systemId), resp1);
   }
 
+  /**
+   * getChanges
+   * Retrieve changes to systems in the tenant, in order, starting after the change identified by the cursor since.
+   * Each change contains the system id, operation, uuid and timestamp. Consumers keeping copies of systems may
+   *   use this to apply deltas rather than re-listing all systems.
+   * The seqId of the last change returned should be passed as since for the next request. Changes are returned in
+   *   the order in which they are known to be committed, so seqId is not always increasing.
+   * Number of changes returned may be limited using the query parameter limit.
+   * @param since - cursor, return changes after this one. Use 0 to start from the beginning.
+   * @param securityContext - user identity
+   * @return Response with list of changes as the result
+   */
+  @GET
+  @Path("changes")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getChanges(@QueryParam("since") @DefaultValue("0") int since,
+                             @Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "getChanges";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString(), "since="+since);
+
+    // Limit is handled by the query parameter filter. If not set or too large use the maximum.
+    Integer limitParm = threadContext.getSearchParameters().getLimit();
+    int limit = SystemsServiceImpl.MAX_CHANGES_LIMIT;
+    if (limitParm != null && limitParm > 0 && limitParm < limit) limit = limitParm;
+
+    List<SystemChange> changes;
+    try
+    {
+      changes = service.getSystemChanges(rUser, since, limit);
+    }
+    catch (IllegalArgumentException e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_CHANGES_ERROR", rUser, since, e.getMessage());
+      _log.error(msg);
+      throw new BadRequestException(msg, e);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_CHANGES_ERROR", rUser, since, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+    if (changes == null) changes = Collections.emptyList();
+
+    // ---------------------------- Success -------------------------------
+    RespSystemChanges resp1 = new RespSystemChanges(changes, limit, since);
+    String itemCountStr = String.format(CHANGES_CNT_STR, changes.size());
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "SystemChanges", itemCountStr), resp1);
+  }
+
+  /**
+   * Watch for changes to systems in the tenant using Server-Sent Events.
+   * Each event has the position of the change in the change feed (<txid>.<seqId>) as the id, the operation as the
+   *   name and the change as JSON data. Changes are sent in the same order as returned by GET /changes.
+   * Changes may be limited to a list of systems and/or to systems having at least one of a list of tags.
+   * To resume after a disconnect pass the id of the last event processed using the Last-Event-ID header.
+   *   The query parameter since may be used for the initial connection, either an event id or a sequence id
+   *   returned by GET /changes. If neither is set only new changes are sent.
+   * A comment is sent periodically as a heartbeat.
+   * @param systemIdsStr - comma separated list of system ids, all systems if not set
+   * @param tagsStr - comma separated list of tags, all systems if not set
+   * @param since - cursor, resume after this change
+   * @param lastEventId - cursor set by client when reconnecting, takes precedence over since
+   * @param sse - used to build events
+   * @param eventSink - stream to client
+   * @param securityContext - user identity
+   */
+  @GET
+  @Path("watch")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void watchSystems(@QueryParam("systemIds") String systemIdsStr,
+                           @QueryParam("tags") String tagsStr,
+                           @QueryParam("since") String since,
+                           @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                           @Context Sse sse,
+                           @Context SseEventSink eventSink,
+                           @Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "watchSystems";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) throw new WebApplicationException(resp);
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled())
+      ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString(), "systemIds="+systemIdsStr,
+                          "tags="+tagsStr, "since="+since, "lastEventId="+lastEventId);
+
+    // Last-Event-ID is set by the client when reconnecting and takes precedence. Null for new changes only.
+    String cursorStr = StringUtils.isBlank(lastEventId) ? since : lastEventId;
+    SystemChangeCursor cursor = null;
+    if (!StringUtils.isBlank(cursorStr))
+    {
+      try { cursor = SystemChangeCursor.parse(cursorStr); }
+      catch (IllegalArgumentException e)
+      {
+        String msg = ApiUtils.getMsgAuth("SYSAPI_WATCH_ERROR", rUser, cursorStr, "Invalid cursor");
+        _log.error(msg);
+        throw new BadRequestException(msg);
+      }
+    }
+
+    // Subscription is used to send changes made on this instance without waiting for the next read of the DB.
+    SystemChangeBus.Subscription subscription;
+    try
+    {
+      subscription = service.watchSystemChanges(rUser, splitCsv(systemIdsStr), splitCsv(tagsStr));
+    }
+    catch (IllegalArgumentException e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_WATCH_ERROR", rUser, cursor, e.getMessage());
+      _log.error(msg);
+      throw new BadRequestException(msg, e);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_WATCH_ERROR", rUser, cursor, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    // Events are sent from a separate thread, the request thread returns immediately.
+    if (!SystemChangeStreamer.start(service, rUser, subscription, cursor, sse, eventSink))
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_WATCH_LIMIT", rUser, SystemChangeStreamer.MAX_WATCHERS);
+      _log.warn(msg);
+      throw new ServiceUnavailableException(msg);
+    }
+  }
+
+  /**
+   * Get metrics for the cache of admin role checks.
+   * Must be a service or a tenant admin.
+   * @param securityContext - user identity
+   * @return Response with cache metrics as the result
+   */
+  @GET
+  @Path("admin/roleCache")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getAdminRoleCacheStats(@Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "getAdminRoleCacheStats";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString());
+
+    AdminRoleCache.Stats stats;
+    try
+    {
+      stats = service.getAdminRoleCacheStats(rUser);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_ROLECACHE_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespAdminRoleCacheStats resp1 = new RespAdminRoleCacheStats(stats);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "AdminRoleCache", stats.getSize()), resp1);
+  }
+
+  /**
+   * Remove cached results of admin role checks for the tenant, so that a change to a user's admin role
+   *   takes effect immediately.
+   * Must be a service or a tenant admin.
+   * @param userName - only remove the entry for this user. If not set all entries for the tenant are removed.
+   * @param securityContext - user identity
+   * @return Response with number of entries removed
+   */
+  @POST
+  @Path("admin/roleCache/flush")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response flushAdminRoleCache(@QueryParam("user") String userName,
+                                      @Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "flushAdminRoleCache";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString(), "user="+userName);
+
+    int changeCount;
+    try
+    {
+      changeCount = service.flushAdminRoleCache(rUser, userName);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_ROLECACHE_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    ResultChangeCount count = new ResultChangeCount();
+    count.changes = changeCount;
+    RespChangeCount resp1 = new RespChangeCount(count);
+    return createSuccessResponse(Status.OK, ApiUtils.getMsgAuth("SYSAPI_ROLECACHE_FLUSHED", rUser, userName, changeCount), resp1);
+  }
+
+  /**
+   * Get settings for detection of slow DB statements and outbound calls, and the most recent slow calls.
+   * Must be a service or a tenant admin. For a tenant admin only slow calls made for the tenant are included.
+   * @param securityContext - user identity
+   * @return Response with settings and recent slow calls as the result
+   */
+  @GET
+  @Path("admin/slowCalls")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getSlowCalls(@Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "getSlowCalls";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString());
+
+    SlowCallDetector.Snapshot snapshot;
+    try
+    {
+      snapshot = service.getSlowCalls(rUser);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_SLOWCALLS_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespSlowCalls resp1 = new RespSlowCalls(snapshot);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "SlowCalls", snapshot.getEvents().size()), resp1);
+  }
+
+  /**
+   * Get queued SK updates for the tenant that have failed too many times and are no longer sent.
+   * Until they are requeued or discarded the affected systems cannot be created again or undeleted.
+   * Must be a service or a tenant admin.
+   * @param securityContext - user identity
+   * @return Response with the dead letters as the result
+   */
+  @GET
+  @Path("admin/skOutbox")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getSkOutboxDeadLetters(@Context SecurityContext securityContext) throws TapisClientException
+  {
+    String opName = "getSkOutboxDeadLetters";
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString());
+
+    List<SkOutboxEntry> entries;
+    try
+    {
+      entries = service.getSkOutboxDeadLetters(rUser);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_SKOUTBOX_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    RespSkOutboxEntries resp1 = new RespSkOutboxEntries(entries);
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, "SkOutbox", entries.size()), resp1);
+  }
+
+  /**
+   * Put the dead letter SK updates for a system back in the queue and send them, e.g. once the cause of the
+   *   failures has been fixed. Must be a service or a tenant admin.
+   * @param systemId - id of system
+   * @param securityContext - user identity
+   * @return Response with number of entries requeued
+   */
+  @POST
+  @Path("admin/skOutbox/{systemId}/requeue")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response requeueSkOutboxDeadLetters(@PathParam("systemId") String systemId,
+                                             @Context SecurityContext securityContext) throws TapisClientException
+  {
+    return postSkOutboxDeadLetters("requeueSkOutboxDeadLetters", systemId, securityContext);
+  }
+
+  /**
+   * Remove the dead letter SK updates for a system without making them, e.g. when they have been made by other
+   *   means. Must be a service or a tenant admin.
+   * @param systemId - id of system
+   * @param securityContext - user identity
+   * @return Response with number of entries removed
+   */
+  @POST
+  @Path("admin/skOutbox/{systemId}/discard")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response discardSkOutboxDeadLetters(@PathParam("systemId") String systemId,
+                                             @Context SecurityContext securityContext) throws TapisClientException
+  {
+    return postSkOutboxDeadLetters("discardSkOutboxDeadLetters", systemId, securityContext);
+  }
+
   /**
    * isEnabled
    * Check if resource is enabled.
@@ -1329,6 +1789,55 @@ public class SystemResource {
    * @param securityContext Security context from client call
    * @return Response to be returned to the client.
    */
+  /*
+   * Requeue or discard the dead letter SK updates for a system
+   */
+  private Response postSkOutboxDeadLetters(String opName, String systemId, SecurityContext securityContext)
+          throws TapisClientException
+  {
+    // Check that we have all we need from the context, the jwtTenantId and jwtUserId
+    // Utility method returns null if all OK and appropriate error response if there was a problem.
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    Response resp = ApiUtils.checkContext(threadContext, PRETTY);
+    if (resp != null) return resp;
+
+    // Create a user that collects together tenant, user and request information needed by the service call
+    ResourceRequestUser rUser = new ResourceRequestUser((AuthenticatedUser) securityContext.getUserPrincipal());
+
+    // Trace this request.
+    if (_log.isTraceEnabled()) ApiUtils.logRequest(rUser, className, opName, _request.getRequestURL().toString(), "systemId="+systemId);
+
+    int changeCount;
+    try
+    {
+      if ("requeueSkOutboxDeadLetters".equals(opName))
+        changeCount = service.requeueSkOutboxDeadLetters(rUser, systemId);
+      else
+        changeCount = service.discardSkOutboxDeadLetters(rUser, systemId);
+    }
+    // Pass through not found or not auth to let exception mapper handle it.
+    catch (NotFoundException | NotAuthorizedException | ForbiddenException | TapisClientException e) { throw e; }
+    catch (IllegalArgumentException e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_SKOUTBOX_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg);
+      throw new BadRequestException(msg);
+    }
+    // As final fallback
+    catch (Exception e)
+    {
+      String msg = ApiUtils.getMsgAuth("SYSAPI_SKOUTBOX_ERROR", rUser, opName, e.getMessage());
+      _log.error(msg, e);
+      throw new WebApplicationException(msg);
+    }
+
+    // ---------------------------- Success -------------------------------
+    ResultChangeCount count = new ResultChangeCount();
+    count.changes = changeCount;
+    RespChangeCount resp1 = new RespChangeCount(count);
+    return createSuccessResponse(Status.OK, ApiUtils.getMsgAuth("SYSAPI_SKOUTBOX_CHANGED", rUser, systemId, opName, changeCount), resp1);
+  }
+
   private Response postSystemSingleUpdate(String opName, String systemId, Pair<ARGUMENT_TYPE, Object> additionalArg,
                                           SecurityContext securityContext)
           throws TapisClientException
@@ -1379,8 +1888,14 @@ public class SystemResource {
     }
     catch (IllegalStateException e)
     {
-      // IllegalStateException indicates an Invalid PatchSystem was passed in
       msg = ApiUtils.getMsgAuth(UPDATE_ERR, rUser, systemId, opName, e.getMessage());
+      if (e.getMessage().contains("SYSLIB_SK_OUTBOX_PENDING"))
+      {
+        // SK updates for an earlier change to the system have not yet been made - return 409 - Conflict
+        _log.warn(msg);
+        return Response.status(Status.CONFLICT).entity(TapisRestUtils.createErrorResponse(msg, PRETTY)).build();
+      }
+      // IllegalStateException indicates an Invalid PatchSystem was passed in
       _log.error(msg);
       throw new BadRequestException(msg, e);
     }
@@ -1523,12 +2038,18 @@ public class SystemResource {
                                      boolean showDeleted, String listType, String impersonationId)
           throws TapisException, TapisClientException
   {
-    RespAbstract resp1;
     List<TSystem> systems;
     int totalCount = -1;
     String itemCountStr;
 
     List<String> searchList = srchParms.getSearchList();
+    // Conditions on paths within JSON attributes are taken out of the search query parameter by JsonSearchFilter
+    List<String> jsonSearchList = JsonSearchFilter.getJsonSearchList(_requestContext);
+    if (!jsonSearchList.isEmpty())
+    {
+      searchList = (searchList == null) ? new ArrayList<>() : new ArrayList<>(searchList);
+      searchList.addAll(jsonSearchList);
+    }
     List<String> selectList = srchParms.getSelectList();
     if (selectList == null || selectList.isEmpty()) selectList = SUMMARY_ATTRS;
 
@@ -1565,10 +2086,23 @@ public class SystemResource {
                                                 listType, impersonationId);
     }
 
-    // ---------------------------- Success -------------------------------
-    resp1 = new RespSystems(systems, limit, orderBy, skip, startAfter, totalCount, selectList);
+    // ---------------------------- Conditional request -------------------------------
+    // ETag covers the systems returned plus everything else that affects the response.
+    // If client already has this version then skip building and serializing the response.
+    var sysVersions = new ArrayList<SystemVersion>(systems.size());
+    for (TSystem system : systems) { sysVersions.add(new SystemVersion(system, fetchShareInfo)); }
+    EntityTag etag = ApiUtils.getETag(sysVersions, selectList, limit, orderBy, skip, startAfter, totalCount);
+    if (ApiUtils.ifNoneMatch(_httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag))
+      return Response.notModified(etag).build();
 
-    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, itemCountStr), resp1);
+    // ---------------------------- Success -------------------------------
+    // Response is built within createSuccessResponse so that building it is timed as serialization
+    List<TSystem> respSystems = systems;
+    List<String> respSelectList = selectList;
+    int respTotalCount = totalCount;
+    return createSuccessResponse(Status.OK, MsgUtils.getMsg(TAPIS_FOUND, SYSTEMS_SVC, itemCountStr),
+                                 () -> new RespSystems(respSystems, limit, orderBy, skip, startAfter, respTotalCount,
+                                                       respSelectList), etag);
   }
 
   /**
@@ -1579,7 +2113,20 @@ public class SystemResource {
    */
   private static Response createSuccessResponse(Status status, String msg, RespAbstract resp)
   {
-    return Response.status(status).entity(TapisRestUtils.createSuccessResponse(msg, PRETTY, resp)).build();
+    return Response.status(status).entity(ApiUtils.createSuccessResponse(msg, PRETTY, resp)).build();
+  }
+
+  /**
+   * Create an OK response given message and base response to put in result, including an ETag header
+   * @param msg - message for resp.message
+   * @param respBuilder - builds the base response (the result)
+   * @param etag - ETag for the response, may be null
+   * @return - Final response to return to client
+   */
+  private static Response createSuccessResponse(Status status, String msg, Supplier<? extends RespAbstract> respBuilder,
+                                                EntityTag etag)
+  {
+    return Response.status(status).tag(etag).entity(ApiUtils.buildSuccessResponse(msg, PRETTY, respBuilder)).build();
   }
 
   /*
@@ -1609,4 +2156,18 @@ public class SystemResource {
             selectList.contains(SHARED_WITH_USERS_FIELD) ||
             selectList.contains(SEL_ALL_ATTRS));
   }
+
+  /*
+   * Split a comma separated query parameter into a set of trimmed values. Empty set if not set.
+   */
+  private static Set<String> splitCsv(String csvStr)
+  {
+    var values = new HashSet<String>();
+    if (StringUtils.isBlank(csvStr)) return values;
+    for (String val : StringUtils.split(csvStr, ','))
+    {
+      if (!StringUtils.isBlank(val)) values.add(val.trim());
+    }
+    return values;
+  }
 }
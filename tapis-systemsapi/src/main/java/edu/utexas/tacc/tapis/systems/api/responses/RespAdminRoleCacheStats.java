@@ -0,0 +1,17 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.service.AdminRoleCache;
+
+/*
+  Results from a retrieval of metrics for the admin role cache.
+ */
+public final class RespAdminRoleCacheStats extends RespAbstract
+{
+  public AdminRoleCache.Stats result;
+
+  public RespAdminRoleCacheStats(AdminRoleCache.Stats stats)
+  {
+    result = stats;
+  }
+}
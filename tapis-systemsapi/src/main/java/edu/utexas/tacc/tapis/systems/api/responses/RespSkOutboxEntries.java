@@ -0,0 +1,19 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+
+/*
+  Results from a retrieval of queued SK updates that have failed too many times and are no longer sent.
+ */
+public final class RespSkOutboxEntries extends RespAbstract
+{
+  public List<SkOutboxEntry> result;
+
+  public RespSkOutboxEntries(List<SkOutboxEntry> entries)
+  {
+    result = entries;
+  }
+}
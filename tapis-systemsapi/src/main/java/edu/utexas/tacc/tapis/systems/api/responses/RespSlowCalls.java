@@ -0,0 +1,17 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
+
+/*
+  Results from a retrieval of recent slow DB statements and outbound calls.
+ */
+public final class RespSlowCalls extends RespAbstract
+{
+  public SlowCallDetector.Snapshot result;
+
+  public RespSlowCalls(SlowCallDetector.Snapshot snapshot)
+  {
+    result = snapshot;
+  }
+}
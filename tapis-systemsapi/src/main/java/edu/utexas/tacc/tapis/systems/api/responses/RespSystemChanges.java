@@ -0,0 +1,27 @@
+package edu.utexas.tacc.tapis.systems.api.responses;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+
+/*
+  Results from a retrieval of changes to systems using the change feed.
+  The seqId of the last change is the cursor to use for the next request.
+ */
+public final class RespSystemChanges extends RespAbstract
+{
+  public List<SystemChange> result;
+
+  public RespSystemChanges(List<SystemChange> changes, int limit, int since)
+  {
+    result = changes;
+
+    ResultListMetadata meta = new ResultListMetadata();
+    meta.recordCount = changes.size();
+    meta.recordLimit = limit;
+    meta.startAfter = String.valueOf(since);
+    metadata = meta;
+  }
+}
@@ -1,9 +1,14 @@
 package edu.utexas.tacc.tapis.systems.api.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.function.Supplier;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Response;
 import com.google.gson.JsonElement;
 import org.apache.commons.lang3.StringUtils;
@@ -11,11 +16,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.model.Credential;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.service.SystemsService;
+import edu.utexas.tacc.tapis.systems.utils.RequestTiming;
 import static edu.utexas.tacc.tapis.systems.api.resources.SystemResource.PRETTY;
 
 /*
@@ -36,6 +44,15 @@ public class ApiUtils
   // Location of message bundle files
   private static final String MESSAGE_BUNDLE = "edu.utexas.tacc.tapis.systems.api.SysApiMessages";
 
+  // Used for building ETag values
+  private static final String ETAG_DIGEST_ALG = "SHA-256";
+  private static final String ETAG_WILDCARD = "*";
+  private static final String ETAG_WEAK_PREFIX = "W/";
+  private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+  private static final String ETAG_VERSION_SEPARATOR = "-";
+  // Version that never matches a system, used when If-Match header cannot be satisfied
+  public static final int INVALID_VERSION = -1;
+
   /* **************************************************************************** */
   /*                                Public Methods                                */
   /* **************************************************************************** */
@@ -144,6 +161,35 @@ public class ApiUtils
     return Response.status(Response.Status.BAD_REQUEST).entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
   }
 
+  /**
+   * Build the body of a success response. Time taken is recorded as serialization in the Server-Timing breakdown.
+   * @param msg - message for resp.message
+   * @param prettyPrint - print flag used to construct response
+   * @param resp - base response (the result)
+   * @return - JSON body of the response
+   */
+  public static String createSuccessResponse(String msg, boolean prettyPrint, RespAbstract resp)
+  {
+    return buildSuccessResponse(msg, prettyPrint, () -> resp);
+  }
+
+  /**
+   * Build the body of a success response. Time taken to build the base response, e.g. converting systems to JSON,
+   *   and the body is recorded as serialization in the Server-Timing breakdown.
+   * This is the only place serialization is recorded.
+   * @param msg - message for resp.message
+   * @param prettyPrint - print flag used to construct response
+   * @param respBuilder - builds the base response (the result)
+   * @return - JSON body of the response
+   */
+  public static String buildSuccessResponse(String msg, boolean prettyPrint,
+                                            Supplier<? extends RespAbstract> respBuilder)
+  {
+    long start = System.nanoTime();
+    try { return TapisRestUtils.createSuccessResponse(msg, prettyPrint, respBuilder.get()); }
+    finally { RequestTiming.record(RequestTiming.SERIALIZATION, System.nanoTime() - start); }
+  }
+
   /**
    * Check that system exists
    * @param rUser - principal user containing tenant and user info
@@ -261,6 +307,109 @@ public class ApiUtils
     return null;
   }
 
+  /**
+   * Build a strong ETag for a representation containing one or more systems.
+   * Value is a digest of the version key for each system plus any other inputs that affect the representation,
+   *   such as the select list and paging parameters.
+   * @param sysVersions - version information for the systems included in the representation
+   * @param extraParts - other values that affect the representation
+   * @return ETag for the representation
+   */
+  public static EntityTag getETag(List<SystemVersion> sysVersions, Object... extraParts)
+  {
+    return new EntityTag(getDigestHex(sysVersions, extraParts));
+  }
+
+  /**
+   * Build a strong ETag for a representation of a single system.
+   * Value is the version of the system record followed by a digest as computed for getETag.
+   * Including the version allows the ETag to be used in an If-Match header when updating the system.
+   * @param sysVersion - version information for the system
+   * @param extraParts - other values that affect the representation
+   * @return ETag for the representation
+   */
+  public static EntityTag getSystemETag(SystemVersion sysVersion, Object... extraParts)
+  {
+    return new EntityTag(sysVersion.getVersion() + ETAG_VERSION_SEPARATOR + getDigestHex(List.of(sysVersion), extraParts));
+  }
+
+  /**
+   * Extract the expected system version from an If-Match header value.
+   * Header may contain "*" or a list of ETags as returned by getSystemETag. Strong comparison is used as required for
+   *   If-Match, so weak ETags never match. Only a single version may be requested.
+   * @param ifMatch - value of If-Match header, may be null
+   * @return null if no version check should be made, else the expected version.
+   *         Version is INVALID_VERSION if header does not contain a usable ETag, so the check will fail.
+   */
+  public static Integer getIfMatchVersion(String ifMatch)
+  {
+    if (StringUtils.isBlank(ifMatch)) return null;
+    Integer version = null;
+    for (String tag : ifMatch.split(","))
+    {
+      tag = tag.strip();
+      // Any current version matches
+      if (ETAG_WILDCARD.equals(tag)) return null;
+      int v = INVALID_VERSION;
+      if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\""))
+      {
+        tag = tag.substring(1, tag.length()-1);
+        int idx = tag.indexOf(ETAG_VERSION_SEPARATOR);
+        if (idx > 0)
+        {
+          try { v = Integer.parseInt(tag.substring(0, idx)); }
+          catch (NumberFormatException e) { v = INVALID_VERSION; }
+        }
+      }
+      // Cannot require more than one version
+      if (version != null && version != v) return INVALID_VERSION;
+      version = v;
+    }
+    return version;
+  }
+
+  /*
+   * Compute hex string digest over the version key for each system plus any other inputs
+   */
+  private static String getDigestHex(List<SystemVersion> sysVersions, Object... extraParts)
+  {
+    var sb = new StringBuilder();
+    for (SystemVersion sv : sysVersions) { sb.append(sv.getVersionKey()).append('\n'); }
+    if (extraParts != null) { for (Object o : extraParts) { sb.append(o).append('\n'); } }
+    byte[] digest;
+    try { digest = MessageDigest.getInstance(ETAG_DIGEST_ALG).digest(sb.toString().getBytes(StandardCharsets.UTF_8)); }
+    // Every JVM is required to support SHA-256
+    catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
+    var hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++)
+    {
+      hex[i*2] = HEX_CHARS[(digest[i] >> 4) & 0xF];
+      hex[i*2+1] = HEX_CHARS[digest[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+  /**
+   * Determine if an If-None-Match header value matches an ETag.
+   * Header may contain "*" or a comma separated list of ETags. Weak comparison is used as required for If-None-Match.
+   * @param ifNoneMatch - value of If-None-Match header, may be null
+   * @param etag - current ETag for the resource
+   * @return true if header matches and a 304 Not Modified response should be returned
+   */
+  public static boolean ifNoneMatch(String ifNoneMatch, EntityTag etag)
+  {
+    if (StringUtils.isBlank(ifNoneMatch) || etag == null) return false;
+    for (String tag : ifNoneMatch.split(","))
+    {
+      tag = tag.strip();
+      if (ETAG_WILDCARD.equals(tag)) return true;
+      if (tag.startsWith(ETAG_WEAK_PREFIX)) tag = tag.substring(ETAG_WEAK_PREFIX.length());
+      if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) tag = tag.substring(1, tag.length()-1);
+      if (tag.equals(etag.getValue())) return true;
+    }
+    return false;
+  }
+
 // NOTE: If this is ever used it will strip off the description
 //  /**
 //   * Return String[] array of jobEnvVariables given list of KeyValuePair
@@ -0,0 +1,216 @@
+package edu.utexas.tacc.tapis.systems.api.utils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
+import edu.utexas.tacc.tapis.systems.service.SystemChangeBus;
+import edu.utexas.tacc.tapis.systems.service.SystemsService;
+import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
+
+/*
+ * Streams system changes to a single watcher as Server-Sent Events.
+ *
+ * Each event has the position of the change in the change feed (<txid>.<seqId>, see SystemChangeCursor) as the
+ *   event id, the operation as the event name and the change as JSON data. A client that reconnects with the
+ *   Last-Event-ID header resumes after that change.
+ * Changes are always read from the system_updates table, in change feed order and with the same visibility rule
+ *   as GET /changes, so a change committed late or made by another instance of the service is never skipped.
+ * Order of processing:
+ *   - If not resuming, the cursor starts at the last change currently in the feed.
+ *   - Changes after the cursor that match the subscription filters are read from the DB and sent.
+ *   - The stream then waits for a change published on this instance's change bus, or at most POLL_SECS, and reads
+ *     again. The bus only serves to send changes made on this instance without delay.
+ *   - A comment is sent as a heartbeat when nothing has been sent for HEARTBEAT_SECS.
+ * Each watcher is serviced by its own thread from a shared pool of at most MAX_WATCHERS threads. A watch
+ *   started when all threads are in use is rejected, see start().
+ */
+public final class SystemChangeStreamer implements Runnable
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger _log = LoggerFactory.getLogger(SystemChangeStreamer.class);
+
+  // Interval between heartbeats when there are no changes
+  public static final long HEARTBEAT_SECS = 20;
+
+  // Maximum time between reads of the DB, picks up changes made by other instances
+  public static final long POLL_SECS = 2;
+
+  // Maximum number of watchers streaming at the same time
+  public static final int MAX_WATCHERS = 200;
+
+  // Idle threads are released after this time
+  private static final long THREAD_KEEP_ALIVE_SECS = 60;
+
+  private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+  private static final AtomicInteger threadCount = new AtomicInteger(0);
+  // No queue, a watch is either given a thread or rejected
+  private static final ExecutorService executor =
+          new ThreadPoolExecutor(0, MAX_WATCHERS, THREAD_KEEP_ALIVE_SECS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                                 r -> {
+                                   Thread t = new Thread(r, "SystemChangeStreamer-" + threadCount.incrementAndGet());
+                                   t.setDaemon(true);
+                                   return t;
+                                 });
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final SystemsService service;
+  private final ResourceRequestUser rUser;
+  private final SystemChangeBus.Subscription subscription;
+  private final Sse sse;
+  private final SseEventSink sink;
+
+  // Position of the last change read from the DB
+  private SystemChangeCursor cursor;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemChangeStreamer(SystemsService service1, ResourceRequestUser rUser1,
+                               SystemChangeBus.Subscription subscription1, SystemChangeCursor since1, Sse sse1,
+                               SseEventSink sink1)
+  {
+    service = service1;
+    rUser = rUser1;
+    subscription = subscription1;
+    cursor = since1;
+    sse = sse1;
+    sink = sink1;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Start streaming changes for a subscription. Returns immediately.
+   * The subscription is removed from the bus when the stream ends, or now if the watch is rejected.
+   * @param since - send changes after this one, null for new changes only
+   * @return false if the watch was rejected because MAX_WATCHERS watchers are already streaming
+   */
+  public static boolean start(SystemsService service, ResourceRequestUser rUser,
+                              SystemChangeBus.Subscription subscription, SystemChangeCursor since, Sse sse,
+                              SseEventSink sink)
+  {
+    try
+    {
+      executor.execute(new SystemChangeStreamer(service, rUser, subscription, since, sse, sink));
+      return true;
+    }
+    catch (RejectedExecutionException e)
+    {
+      SystemChangeBus.getInstance().unsubscribe(subscription);
+      return false;
+    }
+  }
+
+  @Override
+  public void run()
+  {
+    String reason = "client disconnected";
+    try
+    {
+      if (cursor == null) cursor = service.getSystemChangesHead(rUser);
+      long lastSendMs = System.currentTimeMillis();
+      while (!sink.isClosed())
+      {
+        if (sendChanges()) lastSendMs = System.currentTimeMillis();
+        else if (System.currentTimeMillis() - lastSendMs >= TimeUnit.SECONDS.toMillis(HEARTBEAT_SECS))
+        {
+          send(sse.newEventBuilder().comment(HEARTBEAT_COMMENT).build());
+          lastSendMs = System.currentTimeMillis();
+        }
+        // Wait for a change on this instance, then drop whatever else is buffered since the DB is read anyway.
+        if (subscription.poll(POLL_SECS, TimeUnit.SECONDS) != null)
+        {
+          while (subscription.poll(0, TimeUnit.SECONDS) != null) { /* Drain */ }
+        }
+      }
+    }
+    catch (InterruptedException e)
+    {
+      reason = "interrupted";
+      Thread.currentThread().interrupt();
+    }
+    catch (Exception e)
+    {
+      // Most likely the client went away during a send.
+      reason = e.getMessage();
+    }
+    finally
+    {
+      SystemChangeBus.getInstance().unsubscribe(subscription);
+      try { sink.close(); } catch (Exception e) { /* Already closed */ }
+      _log.debug(ApiUtils.getMsgAuth("SYSAPI_WATCH_CLOSED", rUser, subscription.getId(), reason));
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Send all changes after the cursor that match the subscription filters and move the cursor past them.
+   * Returns true if anything was sent.
+   */
+  private boolean sendChanges() throws Exception
+  {
+    boolean sent = false;
+    List<SystemChangeEvent> events;
+    do
+    {
+      events = service.getSystemChangeEvents(rUser, cursor, SystemsServiceImpl.MAX_CHANGES_LIMIT);
+      for (SystemChangeEvent event : events)
+      {
+        cursor = event.getCursor();
+        if (!subscription.matches(event)) continue;
+        send(buildEvent(event));
+        sent = true;
+      }
+    }
+    while (events.size() == SystemsServiceImpl.MAX_CHANGES_LIMIT && !sink.isClosed());
+    return sent;
+  }
+
+  private OutboundSseEvent buildEvent(SystemChangeEvent event)
+  {
+    return sse.newEventBuilder()
+              .id(event.getCursor().toString())
+              .name(event.getChange().getOperation().name())
+              .mediaType(MediaType.APPLICATION_JSON_TYPE)
+              .data(SystemChange.class, event.getChange())
+              .build();
+  }
+
+  /*
+   * Send an event and wait for completion so that a disconnected client is detected.
+   */
+  private void send(OutboundSseEvent event) throws Exception
+  {
+    sink.send(event).toCompletableFuture().get();
+  }
+}
@@ -0,0 +1,46 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class JsonSearchFilterTest
+{
+  /*
+   * Check that a search list is split into its conditions, including conditions on JSON paths
+   */
+  @Test
+  public void testSplitSearchList()
+  {
+    assertEquals(JsonSearchFilter.splitSearchList("(host.eq.a)~(notes.project.eq.my proj1)"),
+                 List.of("host.eq.a", "notes.project.eq.my proj1"));
+    assertEquals(JsonSearchFilter.splitSearchList("(jobCapabilities[category=HARDWARE,name=gpus].gt.2)"),
+                 List.of("jobCapabilities[category=HARDWARE,name=gpus].gt.2"));
+    assertEquals(JsonSearchFilter.splitSearchList("host.eq.a"), List.of("host.eq.a"));
+  }
+
+  /*
+   * Check that only the search query parameter is replaced or removed and encoding of the rest is kept
+   */
+  @Test
+  public void testReplaceQueryParm()
+  {
+    String base = "http://localhost:8080/v3/systems";
+    URI uri = URI.create(base + "?limit=10&search=%28host.eq.a%29~%28notes.project.eq.my%20proj1%29&host.like=%25tacc%25");
+    URI newUri = JsonSearchFilter.replaceQueryParm(uri, "(host.eq.a)");
+    assertTrue(newUri.toString().startsWith(base + "?limit=10&search="), newUri.toString());
+    assertTrue(newUri.toString().endsWith("&host.like=%25tacc%25"), newUri.toString());
+    String search = newUri.getRawQuery().split("&")[1].substring("search=".length());
+    assertEquals(URLDecoder.decode(search, StandardCharsets.UTF_8), "(host.eq.a)");
+    // Removed if there are no other conditions
+    assertEquals(JsonSearchFilter.replaceQueryParm(uri, null).toString(), base + "?limit=10&host.like=%25tacc%25");
+    assertEquals(JsonSearchFilter.replaceQueryParm(URI.create(base + "?search=x"), null).toString(), base);
+    URI noQuery = URI.create(base);
+    assertSame(JsonSearchFilter.replaceQueryParm(noQuery, null), noQuery);
+  }
+}
@@ -0,0 +1,27 @@
+package edu.utexas.tacc.tapis.systems.api.filters;
+
+import java.net.URI;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class ServerTimingFilterTest
+{
+  /*
+   * Check that only the serverTiming query parameter is removed and encoding of the rest is kept
+   */
+  @Test
+  public void testRemoveQueryParm()
+  {
+    String base = "http://localhost:8080/v3/systems";
+    assertEquals(ServerTimingFilter.removeQueryParm(URI.create(base + "?serverTiming=true")).toString(), base);
+    assertEquals(ServerTimingFilter.removeQueryParm(URI.create(base + "?serverTiming")).toString(), base);
+    assertEquals(ServerTimingFilter.removeQueryParm(URI.create(base + "?limit=10&serverTiming=1&host.like=%25tacc%25")).toString(),
+                 base + "?limit=10&host.like=%25tacc%25");
+    assertEquals(ServerTimingFilter.removeQueryParm(URI.create(base + "?serverTimingX=1")).toString(),
+                 base + "?serverTimingX=1");
+    URI noQuery = URI.create(base);
+    assertSame(ServerTimingFilter.removeQueryParm(noQuery), noQuery);
+  }
+}
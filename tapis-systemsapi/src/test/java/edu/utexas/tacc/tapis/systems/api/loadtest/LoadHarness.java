@@ -0,0 +1,457 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.internal.inject.InjectionManager;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import edu.utexas.tacc.tapis.shared.TapisConstants;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.security.ServiceClients;
+import edu.utexas.tacc.tapis.shared.security.ServiceContext;
+import edu.utexas.tacc.tapis.sharedapi.jaxrs.filters.ClearThreadLocalRequestFilter;
+import edu.utexas.tacc.tapis.sharedapi.jaxrs.filters.QueryParametersRequestFilter;
+import edu.utexas.tacc.tapis.sharedapi.providers.ApiExceptionMapper;
+import edu.utexas.tacc.tapis.sharedapi.providers.ObjectMapperContextResolver;
+import edu.utexas.tacc.tapis.sharedapi.providers.ValidationExceptionMapper;
+import edu.utexas.tacc.tapis.systems.api.filters.JsonSearchFilter;
+import edu.utexas.tacc.tapis.systems.api.filters.ServerTimingFilter;
+import edu.utexas.tacc.tapis.systems.api.resources.CredentialResource;
+import edu.utexas.tacc.tapis.systems.api.resources.PermsResource;
+import edu.utexas.tacc.tapis.systems.api.resources.ShareResource;
+import edu.utexas.tacc.tapis.systems.api.resources.SystemResource;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.service.AuthUtils;
+import edu.utexas.tacc.tapis.systems.service.CredUtils;
+import edu.utexas.tacc.tapis.systems.service.CredentialsServiceImpl;
+import edu.utexas.tacc.tapis.systems.service.InstrumentedSystemsDaoFactory;
+import edu.utexas.tacc.tapis.systems.service.InstrumentedSystemsServiceFactory;
+import edu.utexas.tacc.tapis.systems.service.SchedulerProfileServiceImpl;
+import edu.utexas.tacc.tapis.systems.service.StubSysUtils;
+import edu.utexas.tacc.tapis.systems.service.SysUtils;
+import edu.utexas.tacc.tapis.systems.service.SystemsService;
+import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
+
+/*
+ * End-to-end load test of the Systems service against a local Postgres, with no other Tapis services.
+ *
+ * The service is run in process on 127.0.0.1 with the SystemResource, CredentialResource, PermsResource and
+ *   ShareResource endpoints. SK and GlobusProxy are replaced by the stub clients in this package, with
+ *   latency and failure injection set using --sk and --globus. Authentication is replaced by StubAuthFilter, so
+ *   the Tokens and Tenants services are not needed. Service initialization is limited to the DB migration.
+ *
+ * Before the run an owner creates the systems, a credential for each and grants access to a set of users.
+ * Requests are then sent open loop at the target rate: each request is started on schedule whether earlier
+ *   requests have completed or not, and latency is measured from the scheduled start. This way a slow service
+ *   shows up as higher latency rather than as a lower request rate. Requests that would take the number in flight
+ *   above --max-outstanding are dropped and counted.
+ *
+ * Alternatively the systems may be taken from the DB, e.g. as generated by DataGenJob. Use --skip-setup with
+ *   --sk-data set to the SK data file written by DataGenJob. Requests are then made as the owner of each system and
+ *   as the users found in the SK data. No credentials are created in this case, so getCredential requests fail.
+ *
+ * At the end throughput, errors and latency percentiles are reported for each operation.
+ *
+ * Run using the api test classpath, for example:
+ *   mvn -pl tapis-systemsapi test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=edu.utexas.tacc.tapis.systems.api.loadtest.LoadHarness -Dexec.args="--rps 200 --sk latencyMs=5"
+ * The DB should be a scratch DB. Systems created have ids starting with the --prefix value.
+ */
+public class LoadHarness
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  private static final String BASE_PATH = "/v3/systems";
+  private static final String CRED_SERVICE = "files";
+  private static final Duration REQ_TIMEOUT = Duration.ofSeconds(60);
+
+  private static final String SYSTEM_JSON =
+    "{\"id\":\"%s\",\"description\":\"Load test system\",\"systemType\":\"LINUX\",\"host\":\"%s.example.com\"," +
+    "\"effectiveUserId\":\"${apiUserId}\",\"defaultAuthnMethod\":\"PASSWORD\",\"rootDir\":\"/data\"," +
+    "\"canExec\":false,\"tags\":[\"load\",\"test\"],\"notes\":{\"purpose\":\"load test\"}}";
+  private static final String CRED_JSON = "{\"password\":\"load-test-password\"}";
+  private static final String PERMS_JSON = "{\"permissions\":[\"READ\"]}";
+  private static final String USERS_JSON = "{\"users\":[\"%s\"]}";
+
+  // Operations that may be used in the mix
+  enum Op {getSystem, getSystems, getPerms, getShares, getCredential, grantPerms, shareSystem}
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final LoadHarnessParameters parms;
+  private final String baseUrl;
+  private final List<String> systemIds = new ArrayList<>();
+  private final Map<String, String> owners = new HashMap<>();
+  private final List<String> users = new ArrayList<>();
+  private final Random random;
+  private HttpClient httpClient;
+
+  /* ********************************************************************** */
+  /*                              Constructors                              */
+  /* ********************************************************************** */
+  public LoadHarness(LoadHarnessParameters parms1)
+  {
+    parms = parms1;
+    baseUrl = "http://127.0.0.1:" + parms.port;
+    random = new Random(parms.seed);
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  public static void main(String[] args) throws Exception
+  {
+    var harness = new LoadHarness(new LoadHarnessParameters(args));
+    HttpServer server = harness.startServer();
+    try { harness.run(); }
+    finally { server.shutdownNow(); }
+    System.exit(0);
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /*
+   * Start the service with stub clients and migrate the DB
+   */
+  private HttpServer startServer() throws TapisException
+  {
+    StubSecurityKernel kernel;
+    if (StringUtils.isBlank(parms.skDataFile)) kernel = new StubSecurityKernel();
+    else
+    {
+      System.out.println("Loading SK data from " + parms.skDataFile);
+      try { kernel = StubSecurityKernel.load(Path.of(parms.skDataFile)); }
+      catch (IOException e) { throw new TapisException("Unable to load SK data from " + parms.skDataFile, e); }
+    }
+    var skClient = new StubSKClient(kernel, StubBehavior.parse(parms.skBehavior));
+    var globusClient = new StubGlobusProxyClient(StubBehavior.parse(parms.globusBehavior));
+    System.out.printf("Stub SK behavior: %s%nStub GlobusProxy behavior: %s%n", skClient.getBehavior(),
+                      globusClient.getBehavior());
+
+    SlowCallDetector.init(RuntimeParameters.getInstance());
+
+    var config = new ResourceConfig();
+    config.register(ObjectMapperContextResolver.class);
+    config.register(ApiExceptionMapper.class);
+    config.register(ValidationExceptionMapper.class);
+    config.register(StubAuthFilter.class);
+    config.register(ClearThreadLocalRequestFilter.class);
+    config.register(QueryParametersRequestFilter.class);
+    config.register(ServerTimingFilter.class);
+    config.register(JsonSearchFilter.class);
+    config.register(CredentialResource.class);
+    config.register(PermsResource.class);
+    config.register(ShareResource.class);
+    config.register(SystemResource.class);
+    config.setApplicationName(TapisConstants.SERVICE_NAME_SYSTEMS);
+    config.register(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bindFactory(InstrumentedSystemsServiceFactory.class).to(SystemsService.class);
+        bind(SystemsServiceImpl.class).to(SystemsServiceImpl.class);
+        bindFactory(InstrumentedSystemsDaoFactory.class).to(SystemsDao.class);
+        bind(SchedulerProfileServiceImpl.class).to(SchedulerProfileServiceImpl.class);
+        bind(CredentialsServiceImpl.class).to(CredentialsServiceImpl.class);
+        bind(StubSysUtils.class).to(SysUtils.class);
+        bind(AuthUtils.class).to(AuthUtils.class);
+        bind(CredUtils.class).to(CredUtils.class);
+        bind(skClient).to(StubSKClient.class);
+        bind(globusClient).to(StubGlobusProxyClient.class);
+        // Not initialized, so no service JWT is requested
+        bind(ServiceContext.getInstance()).to(ServiceContext.class);
+        bind(ServiceClients.getInstance()).to(ServiceClients.class);
+      }
+    });
+
+    // Only the DB part of SystemsServiceImpl.initService() is done
+    ApplicationHandler handler = new ApplicationHandler(config);
+    InjectionManager im = handler.getInjectionManager();
+    ServiceLocator locator = im.getInstance(ServiceLocator.class);
+    System.out.println("Migrating DB");
+    SystemsDao dao = locator.getService(SystemsDao.class);
+    dao.migrateDB();
+
+    // Systems, owners and users either from the DB and SK data, or created by setup()
+    if (parms.skipSetup)
+    {
+      for (String systemId : new TreeSet<>(dao.getSystemIDs(parms.tenant, false)))
+      {
+        systemIds.add(systemId);
+        owners.put(systemId, dao.getSystemOwner(parms.tenant, systemId));
+      }
+      users.addAll(kernel.getUsers(parms.tenant));
+      users.removeAll(owners.values());
+      if (systemIds.isEmpty() || users.isEmpty())
+        throw new TapisException("No systems in DB or no users in SK data for tenant " + parms.tenant);
+      System.out.printf("Found %d systems and %d users%n", systemIds.size(), users.size());
+    }
+    else
+    {
+      String owner = parms.prefix + "owner";
+      for (int i = 1; i <= parms.numSystems; i++)
+      {
+        String systemId = String.format("%s-sys-%06d", parms.prefix, i);
+        systemIds.add(systemId);
+        owners.put(systemId, owner);
+      }
+      for (int i = 1; i <= parms.numUsers; i++) users.add(String.format("%suser%d", parms.prefix, i));
+    }
+
+    System.out.println("Starting http server on " + baseUrl);
+    return GrizzlyHttpServerFactory.createHttpServer(URI.create(baseUrl + "/"), config, true);
+  }
+
+  /*
+   * Create systems, then send requests at the target rate and report results
+   */
+  private void run() throws Exception
+  {
+    ExecutorService clientExecutor = Executors.newFixedThreadPool(parms.threads);
+    httpClient = HttpClient.newBuilder().executor(clientExecutor).connectTimeout(Duration.ofSeconds(10)).build();
+    Map<Op, Integer> mix = parseMix(parms.mix);
+    if (!parms.skipSetup) setup();
+
+    var results = new LinkedHashMap<Op, OpResults>();
+    for (Op op : mix.keySet()) results.put(op, new OpResults());
+    Op[] ops = mix.keySet().toArray(new Op[0]);
+    int[] cumWeights = new int[ops.length];
+    int totalWeight = 0;
+    for (int i = 0; i < ops.length; i++) { totalWeight += mix.get(ops[i]); cumWeights[i] = totalWeight; }
+
+    System.out.printf("Running. Rate: %d/s Warmup: %ds Duration: %ds Mix: %s%n", parms.rps, parms.warmupSecs,
+                      parms.durationSecs, mix);
+    var outstanding = new Semaphore(parms.maxOutstanding);
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / parms.rps;
+    long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+    long measureStart = start + TimeUnit.SECONDS.toNanos(parms.warmupSecs);
+    long end = measureStart + TimeUnit.SECONDS.toNanos(parms.durationSecs);
+    for (long scheduled = start; scheduled < end; scheduled += intervalNanos)
+    {
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) LockSupport.parkNanos(wait);
+      int pick = random.nextInt(totalWeight);
+      int idx = 0;
+      while (cumWeights[idx] <= pick) idx++;
+      Op op = ops[idx];
+      OpResults opResults = scheduled >= measureStart ? results.get(op) : null;
+      if (!outstanding.tryAcquire())
+      {
+        if (opResults != null) opResults.dropped();
+        continue;
+      }
+      final long scheduledStart = scheduled;
+      httpClient.sendAsync(buildRequest(op), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((resp, ex) -> {
+                  outstanding.release();
+                  if (opResults == null) return;
+                  long latency = System.nanoTime() - scheduledStart;
+                  opResults.record(latency, ex == null && resp.statusCode() < 400);
+                });
+    }
+
+    // Wait for requests in flight
+    if (!outstanding.tryAcquire(parms.maxOutstanding, REQ_TIMEOUT.toSeconds(), TimeUnit.SECONDS))
+      System.out.println("WARNING: Requests still in flight at end of run");
+    report(results, parms.durationSecs);
+    clientExecutor.shutdownNow();
+  }
+
+  /*
+   * Create systems with a credential for the owner, grant READ to all users and share each system with one user.
+   * The owner is also made the target of credential fetches made by a service.
+   */
+  private void setup() throws Exception
+  {
+    System.out.printf("Creating %d systems with %d users%n", systemIds.size(), users.size());
+    for (String systemId : systemIds)
+    {
+      String owner = owners.get(systemId);
+      int status = send(post(owner, BASE_PATH + "?skipCredentialCheck=true", String.format(SYSTEM_JSON, systemId, systemId)));
+      // Systems may exist from an earlier run
+      if (status >= 400 && status != 409) throw new TapisException("Failed to create system. Status: " + status);
+      checkStatus(send(post(owner, BASE_PATH + "/credential/" + systemId + "/user/" + owner + "?skipCredentialCheck=true",
+                            CRED_JSON)), "create credential");
+      for (String user : users)
+        checkStatus(send(post(owner, BASE_PATH + "/perms/" + systemId + "/user/" + user, PERMS_JSON)), "grant permission");
+      String shareUser = users.get(Math.abs(systemId.hashCode()) % users.size());
+      checkStatus(send(post(owner, BASE_PATH + "/share/" + systemId, String.format(USERS_JSON, shareUser))), "share");
+    }
+  }
+
+  /*
+   * Build a request for an operation using a random system and user
+   */
+  private HttpRequest buildRequest(Op op)
+  {
+    String systemId = systemIds.get(random.nextInt(systemIds.size()));
+    String user = users.get(random.nextInt(users.size()));
+    String owner = owners.get(systemId);
+    return switch (op)
+    {
+      case getSystem -> get(user, null, BASE_PATH + "/" + systemId);
+      case getSystems -> get(user, null, BASE_PATH + "?listType=ALL&limit=100&orderBy=id");
+      case getPerms -> get(owner, null, BASE_PATH + "/perms/" + systemId + "/user/" + user);
+      case getShares -> get(owner, null, BASE_PATH + "/share/" + systemId);
+      case getCredential -> get(owner, CRED_SERVICE, BASE_PATH + "/credential/" + systemId + "/user/" + owner);
+      case grantPerms -> post(owner, BASE_PATH + "/perms/" + systemId + "/user/" + user, PERMS_JSON);
+      case shareSystem -> post(owner, BASE_PATH + "/share/" + systemId, String.format(USERS_JSON, user));
+    };
+  }
+
+  private HttpRequest get(String user, String service, String path)
+  {
+    var builder = requestBuilder(user, path).GET();
+    if (service != null) builder.header(StubAuthFilter.HDR_SERVICE, service);
+    return builder.build();
+  }
+
+  private HttpRequest post(String user, String path, String body)
+  {
+    return requestBuilder(user, path).header("Content-Type", "application/json")
+                                     .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+  }
+
+  private HttpRequest.Builder requestBuilder(String user, String path)
+  {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQ_TIMEOUT)
+                      .header(StubAuthFilter.HDR_TENANT, parms.tenant).header(StubAuthFilter.HDR_USER, user);
+  }
+
+  private int send(HttpRequest req) throws Exception
+  {
+    return httpClient.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  private static void checkStatus(int status, String what) throws TapisException
+  {
+    if (status >= 400) throw new TapisException(String.format("Setup failed to %s. Status: %d", what, status));
+  }
+
+  /*
+   * Parse mix of the form op=weight,op=weight
+   */
+  private static Map<Op, Integer> parseMix(String mixStr) throws TapisException
+  {
+    var mix = new LinkedHashMap<Op, Integer>();
+    for (String entry : mixStr.split(","))
+    {
+      String[] nameValue = entry.split("=", 2);
+      try
+      {
+        int weight = nameValue.length == 2 ? Integer.parseInt(nameValue[1].trim()) : 1;
+        if (weight > 0) mix.put(Op.valueOf(nameValue[0].trim()), weight);
+      }
+      catch (IllegalArgumentException e)
+      {
+        throw new TapisException("Invalid mix entry: " + entry + " Valid operations: " + Arrays.toString(Op.values()));
+      }
+    }
+    if (mix.isEmpty()) throw new TapisException("Mix has no operations: " + mixStr);
+    return mix;
+  }
+
+  /*
+   * Print throughput, errors and latency percentiles for each operation and in total
+   */
+  private static void report(Map<Op, OpResults> results, int durationSecs)
+  {
+    var total = new OpResults();
+    System.out.printf("%n%-14s %8s %7s %7s %9s %9s %9s %9s %9s%n", "operation", "count", "errors", "dropped",
+                      "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    for (Map.Entry<Op, OpResults> e : results.entrySet())
+    {
+      printLine(e.getKey().name(), e.getValue(), durationSecs);
+      total.addAll(e.getValue());
+    }
+    printLine("total", total, durationSecs);
+  }
+
+  private static void printLine(String name, OpResults r, int durationSecs)
+  {
+    long[] sorted = r.sortedLatencies();
+    System.out.printf("%-14s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, sorted.length, r.errors, r.dropped,
+                      sorted.length / (double) durationSecs, percentileMs(sorted, 50.0), percentileMs(sorted, 90.0),
+                      percentileMs(sorted, 99.0), percentileMs(sorted, 100.0));
+  }
+
+  /*
+   * Nearest rank percentile of sorted latencies in nanoseconds, reported in milliseconds
+   */
+  static double percentileMs(long[] sorted, double percentile)
+  {
+    if (sorted.length == 0) return 0.0;
+    int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+    return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1_000_000.0;
+  }
+
+  /* ********************************************************************** */
+  /*                              Nested Types                              */
+  /* ********************************************************************** */
+
+  /*
+   * Latencies and counts for one operation. Updated from client threads.
+   */
+  private static final class OpResults
+  {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private long dropped;
+
+    synchronized void record(long latencyNanos, boolean ok)
+    {
+      if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+      latencies[count++] = latencyNanos;
+      if (!ok) errors++;
+    }
+
+    synchronized void dropped() { dropped++; }
+
+    synchronized void addAll(OpResults other)
+    {
+      long[] otherLatencies = other.sortedLatencies();
+      for (long l : otherLatencies) record(l, true);
+      errors += other.errors;
+      dropped += other.dropped;
+    }
+
+    synchronized long[] sortedLatencies()
+    {
+      long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/*
+ * Parse, process and validate LoadHarness parameters.
+ */
+public class LoadHarnessParameters
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  public static final String DEFAULT_MIX =
+          "getSystem=40,getSystems=15,getPerms=10,getShares=10,getCredential=15,grantPerms=5,shareSystem=5";
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // --------- Optional Parameters -----------
+  @Option(name = "--port", usage = "Port for the local service. Default 8090")
+  public int port = 8090;
+
+  @Option(name = "--rps", usage = "Target requests per second. Default 100")
+  public int rps = 100;
+
+  @Option(name = "--duration", usage = "Measured duration of the run in seconds. Default 60")
+  public int durationSecs = 60;
+
+  @Option(name = "--warmup", usage = "Seconds of load before measurement starts. Default 10")
+  public int warmupSecs = 10;
+
+  @Option(name = "--threads", usage = "Client threads handling responses. Default 32")
+  public int threads = 32;
+
+  @Option(name = "--max-outstanding", usage = "Requests in flight before new requests are dropped. Default 2000")
+  public int maxOutstanding = 2000;
+
+  @Option(name = "--systems", usage = "Number of systems to create before the run. Default 100")
+  public int numSystems = 100;
+
+  @Option(name = "--users", usage = "Number of users given access to the systems. Default 10")
+  public int numUsers = 10;
+
+  @Option(name = "--tenant", usage = "Tenant for all systems and users. Default dev")
+  public String tenant = "dev";
+
+  @Option(name = "--prefix", usage = "Prefix for system ids and user names. Default load")
+  public String prefix = "load";
+
+  @Option(name = "--mix", usage = "Weighted mix of operations. Default " + DEFAULT_MIX)
+  public String mix = DEFAULT_MIX;
+
+  @Option(name = "--sk", usage = "Stub SK behavior, e.g. latencyMs=20,jitterMs=10,failureRate=0.01,seed=42")
+  public String skBehavior = "";
+
+  @Option(name = "--globus", usage = "Stub GlobusProxy behavior, same format as --sk")
+  public String globusBehavior = "";
+
+  @Option(name = "--seed", usage = "Seed for the choice of operation, system and user. Default 1")
+  public long seed = 1L;
+
+  @Option(name = "--sk-data", usage = "File with SK permissions and shares to load into the stub SK, e.g. from DataGenJob")
+  public String skDataFile = "";
+
+  @Option(name = "--skip-setup", usage = "Use the systems in the DB instead of creating systems. Usually used with --sk-data.")
+  public boolean skipSetup = false;
+
+  @Option(name = "-help", aliases = {"--help", "-h", "-?"}, usage = "display help information")
+  public boolean help;
+
+  /* ********************************************************************** */
+  /*                              Constructors                              */
+  /* ********************************************************************** */
+  public LoadHarnessParameters(String[] args) throws TapisException
+  {
+    initializeParms(args);
+  }
+
+  /* **************************************************************************** */
+  /*                               Private Methods                                */
+  /* **************************************************************************** */
+
+  /**
+   *  Parse and validate the input arguments.
+   */
+  private void initializeParms(String[] args) throws TapisException
+  {
+    // Get a command line parser to verify input.
+    CmdLineParser parser = new CmdLineParser(this);
+    parser.getProperties().withUsageWidth(120);
+    String errMsg = null;
+    try
+    {
+      // Parse the arguments.
+      parser.parseArgument(args);
+    }
+    catch (CmdLineException e)
+    {
+      errMsg = e.getMessage();
+    }
+    if (errMsg == null && !help)
+    {
+      if (rps <= 0 || durationSecs <= 0 || warmupSecs < 0 || threads <= 0 || maxOutstanding <= 0)
+        errMsg = "Values for --rps, --duration, --threads and --max-outstanding must be positive";
+      else if (numSystems <= 0 || numUsers <= 0)
+        errMsg = "Values for --systems and --users must be positive";
+    }
+    if (errMsg != null && !help)
+    {
+      // Create message buffer of sufficient size.
+      final int initialCapacity = 1024;
+      StringWriter writer = new StringWriter(initialCapacity);
+
+      // Write parser error message.
+      writer.write("\n******* Input Parameter Error *******\n");
+      writer.write(errMsg);
+      writer.write("\n\n");
+
+      // Write usage information--unfortunately we need an output stream.
+      writer.write("LoadHarness [options...]\n");
+      ByteArrayOutputStream ostream = new ByteArrayOutputStream(initialCapacity);
+      parser.printUsage(ostream);
+      try {writer.write(ostream.toString(StandardCharsets.UTF_8));} catch (Exception e1) {}
+      writer.write("\n");
+
+      // Throw exception.
+      throw new TapisException(writer.toString());
+    }
+
+    // Display help and exit program.
+    if (help)
+    {
+      String s = "\nLoadHarness for Tapis Systems Service.";
+      System.out.println(s);
+      System.out.println("\nLoadHarness [options...]\n");
+      parser.printUsage(System.out);
+      // Add a usage blurb.
+      s = "\nLoadHarness runs the Systems service in process with stub SK and GlobusProxy clients, creates systems\n" +
+          "and then sends requests at a fixed rate, reporting throughput and latency for each operation.\n" +
+          "The DB is configured using the usual TAPIS_DB_* environment variables.\n" +
+          "Operations for --mix: getSystem, getSystems, getPerms, getShares, getCredential, grantPerms, shareSystem\n" +
+          "To run against data from DataGenJob use --skip-setup --sk-data <file> and leave getCredential out of --mix.";
+      System.out.println(s);
+      System.exit(0);
+    }
+  }
+}
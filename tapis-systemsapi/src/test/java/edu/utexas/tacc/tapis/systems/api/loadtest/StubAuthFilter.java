@@ -0,0 +1,93 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.security.Principal;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+
+/*
+ * Request filter used by LoadHarness in place of JWTValidateRequestFilter, so no Tokens or Tenants service is needed.
+ * The caller is taken from request headers and is trusted as is:
+ *   X-Stub-Tenant, X-Stub-User - tenant and user for the request, required
+ *   X-Stub-Service - if present the request is a service request from this service, e.g. files, made on behalf of
+ *                    the tenant and user above. The service is in tenant X-Stub-Service-Tenant, default admin.
+ * Must never be registered in a deployed service.
+ */
+@Priority(Priorities.AUTHENTICATION)
+public class StubAuthFilter implements ContainerRequestFilter
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String HDR_TENANT = "X-Stub-Tenant";
+  public static final String HDR_USER = "X-Stub-User";
+  public static final String HDR_SERVICE = "X-Stub-Service";
+  public static final String HDR_SERVICE_TENANT = "X-Stub-Service-Tenant";
+
+  private static final String DEFAULT_SERVICE_TENANT = "admin";
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  @Override
+  public void filter(ContainerRequestContext requestContext)
+  {
+    String oboTenant = requestContext.getHeaderString(HDR_TENANT);
+    String oboUser = requestContext.getHeaderString(HDR_USER);
+    if (StringUtils.isBlank(oboTenant) || StringUtils.isBlank(oboUser))
+    {
+      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED)
+                                       .entity("Missing header " + HDR_TENANT + " or " + HDR_USER).build());
+      return;
+    }
+    String service = requestContext.getHeaderString(HDR_SERVICE);
+    TapisThreadContext.AccountType accountType;
+    String jwtTenant, jwtUser;
+    if (StringUtils.isBlank(service))
+    {
+      accountType = TapisThreadContext.AccountType.user;
+      jwtTenant = oboTenant;
+      jwtUser = oboUser;
+    }
+    else
+    {
+      accountType = TapisThreadContext.AccountType.service;
+      jwtTenant = StringUtils.defaultIfBlank(requestContext.getHeaderString(HDR_SERVICE_TENANT), DEFAULT_SERVICE_TENANT);
+      jwtUser = service;
+    }
+
+    // Fill in the thread context as JWTValidateRequestFilter would
+    TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+    threadContext.setJwtTenantId(jwtTenant);
+    threadContext.setJwtUser(jwtUser);
+    threadContext.setOboTenantId(oboTenant);
+    threadContext.setOboUser(oboUser);
+    threadContext.setAccountType(accountType);
+
+    var authUser = new AuthenticatedUser(jwtUser, jwtTenant, accountType.name(), null, oboUser, oboTenant,
+                                         null, null, null);
+    boolean secure = requestContext.getSecurityContext().isSecure();
+    requestContext.setSecurityContext(new SecurityContext()
+    {
+      @Override
+      public Principal getUserPrincipal() { return authUser; }
+      @Override
+      public boolean isUserInRole(String role) { return false; }
+      @Override
+      public boolean isSecure() { return secure; }
+      @Override
+      public String getAuthenticationScheme() { return "Stub"; }
+    });
+  }
+}
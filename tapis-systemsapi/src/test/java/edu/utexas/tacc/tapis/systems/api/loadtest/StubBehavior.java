@@ -0,0 +1,124 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+
+/*
+ * Latency and failure injection for the stub service clients.
+ *
+ * Each call to a stub client first calls apply(), which sleeps for the configured latency plus a random jitter and
+ *   then fails the call with the configured probability by throwing a TapisClientException.
+ * Behavior may be given as a spec string, e.g. "latencyMs=20,jitterMs=10,failureRate=0.01,seed=42"
+ * With the same seed the sequence of delays and failures is the same from run to run, although with concurrent
+ *   callers the order in which calls see them is not.
+ */
+public final class StubBehavior
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final StubBehavior NONE = new StubBehavior(0, 0, 0.0, 0L);
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final long latencyMs;
+  private final long jitterMs;
+  private final double failureRate;
+  private final long seed;
+  private final Random random;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  /**
+   * @param latencyMs1 - fixed delay added to each call
+   * @param jitterMs1 - maximum random delay added to each call
+   * @param failureRate1 - fraction of calls that fail, between 0 and 1
+   * @param seed1 - seed for the random delays and failures
+   */
+  public StubBehavior(long latencyMs1, long jitterMs1, double failureRate1, long seed1)
+  {
+    if (latencyMs1 < 0 || jitterMs1 < 0 || failureRate1 < 0.0 || failureRate1 > 1.0)
+      throw new IllegalArgumentException(String.format("Invalid stub behavior. latencyMs: %d jitterMs: %d failureRate: %s",
+                                                       latencyMs1, jitterMs1, failureRate1));
+    latencyMs = latencyMs1;
+    jitterMs = jitterMs1;
+    failureRate = failureRate1;
+    seed = seed1;
+    random = new Random(seed1);
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Create behavior from a spec string of comma separated name=value pairs.
+   * Names are latencyMs, jitterMs, failureRate and seed. All are optional, blank means no latency or failures.
+   * @param spec - spec string
+   * @return behavior
+   */
+  public static StubBehavior parse(String spec)
+  {
+    if (StringUtils.isBlank(spec)) return NONE;
+    long latency = 0, jitter = 0, seed1 = 0;
+    double rate = 0.0;
+    for (String entry : spec.split(","))
+    {
+      String[] nameValue = entry.split("=", 2);
+      if (nameValue.length != 2) throw new IllegalArgumentException("Invalid stub behavior entry: " + entry);
+      String value = nameValue[1].trim();
+      switch (nameValue[0].trim())
+      {
+        case "latencyMs" -> latency = Long.parseLong(value);
+        case "jitterMs" -> jitter = Long.parseLong(value);
+        case "failureRate" -> rate = Double.parseDouble(value);
+        case "seed" -> seed1 = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Invalid stub behavior entry: " + entry);
+      }
+    }
+    return new StubBehavior(latency, jitter, rate, seed1);
+  }
+
+  /**
+   * Delay and possibly fail a call
+   * @param service - stubbed service, e.g. sk
+   * @param operation - operation being called, e.g. isPermitted
+   * @throws TapisClientException - if the call is to fail
+   */
+  public void apply(String service, String operation) throws TapisClientException
+  {
+    long delayMs;
+    boolean fail;
+    synchronized (random)
+    {
+      delayMs = latencyMs + (jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0L);
+      fail = failureRate > 0.0 && random.nextDouble() < failureRate;
+    }
+    if (delayMs > 0)
+    {
+      try { TimeUnit.MILLISECONDS.sleep(delayMs); }
+      catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+    if (fail) throw new TapisClientException(String.format("Injected failure. Service: %s Operation: %s", service, operation));
+  }
+
+  public long getLatencyMs() { return latencyMs; }
+  public long getJitterMs() { return jitterMs; }
+  public double getFailureRate() { return failureRate; }
+  public long getSeed() { return seed; }
+
+  @Override
+  public String toString()
+  {
+    return String.format("latencyMs=%d,jitterMs=%d,failureRate=%s,seed=%d", latencyMs, jitterMs, failureRate, seed);
+  }
+}
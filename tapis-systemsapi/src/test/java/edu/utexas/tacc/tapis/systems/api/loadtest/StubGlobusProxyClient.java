@@ -0,0 +1,67 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.util.UUID;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.globusproxy.client.GlobusProxyClient;
+import edu.utexas.tacc.tapis.globusproxy.client.gen.model.AuthTokens;
+import edu.utexas.tacc.tapis.globusproxy.client.gen.model.ResultGlobusAuthInfo;
+
+/*
+ * GlobusProxy client that returns generated values instead of calling the GlobusProxy service.
+ * Only the methods used by the systems service are overridden.
+ * Each call is subject to the latency and failure injection of a StubBehavior.
+ */
+public class StubGlobusProxyClient extends GlobusProxyClient
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String SERVICE = "globus-proxy";
+
+  private static final String AUTH_URL_TEMPLATE = "https://auth.globus.org/v2/oauth2/authorize?client_id=%s&session=%s";
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final StubBehavior behavior;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public StubGlobusProxyClient(StubBehavior behavior1)
+  {
+    super();
+    behavior = behavior1 == null ? StubBehavior.NONE : behavior1;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  public StubBehavior getBehavior() { return behavior; }
+
+  @Override
+  public ResultGlobusAuthInfo getAuthInfo(String clientId, String endpointId) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "getAuthInfo");
+    String sessionId = UUID.randomUUID().toString();
+    var authInfo = new ResultGlobusAuthInfo();
+    authInfo.setUrl(String.format(AUTH_URL_TEMPLATE, clientId, sessionId));
+    authInfo.setSessionId(sessionId);
+    return authInfo;
+  }
+
+  @Override
+  public AuthTokens getTokens(String clientId, String sessionId, String authCode) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "getTokens");
+    var authTokens = new AuthTokens();
+    authTokens.setAccessToken("stub-access-" + sessionId);
+    authTokens.setRefreshToken("stub-refresh-" + sessionId);
+    return authTokens;
+  }
+}
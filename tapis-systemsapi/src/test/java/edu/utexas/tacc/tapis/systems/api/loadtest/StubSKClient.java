@@ -0,0 +1,212 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.security.client.gen.model.ReqShareResource;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecret;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretMetadata;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkSecretVersionMetadata;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkShare;
+import edu.utexas.tacc.tapis.security.client.gen.model.SkShareList;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretMetaParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretReadParms;
+import edu.utexas.tacc.tapis.security.client.model.SKSecretWriteParms;
+import edu.utexas.tacc.tapis.security.client.model.SKShareDeleteShareParms;
+import edu.utexas.tacc.tapis.security.client.model.SKShareGetSharesParms;
+import edu.utexas.tacc.tapis.security.client.model.SKShareHasPrivilegeParms;
+
+/*
+ * SK client that serves the calls made by the systems service from a StubSecurityKernel instead of calling SK.
+ * Only the methods used by the service are overridden. Any other method would attempt a call to SK and fail since
+ *   no base path is set.
+ * Each call is subject to the latency and failure injection of a StubBehavior.
+ */
+public class StubSKClient extends SKClient
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String SERVICE = "sk";
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final StubSecurityKernel kernel;
+  private final StubBehavior behavior;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public StubSKClient(StubSecurityKernel kernel1, StubBehavior behavior1)
+  {
+    super();
+    kernel = kernel1;
+    behavior = behavior1 == null ? StubBehavior.NONE : behavior1;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: permissions ********************
+  // ************************************************************************
+
+  public StubBehavior getBehavior() { return behavior; }
+  public StubSecurityKernel getKernel() { return kernel; }
+
+  @Override
+  public boolean isAdmin(String tenant, String user) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "isAdmin");
+    return kernel.isAdmin(tenant, user);
+  }
+
+  @Override
+  public boolean isPermitted(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "isPermitted");
+    return kernel.isPermitted(tenant, user, permSpec);
+  }
+
+  @Override
+  public boolean isPermittedAny(String tenant, String user, String[] permSpecs) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "isPermittedAny");
+    for (String permSpec : permSpecs) { if (kernel.isPermitted(tenant, user, permSpec)) return true; }
+    return false;
+  }
+
+  @Override
+  public List<String> getUserPerms(String tenant, String user, String implies, String impliedBy)
+          throws TapisClientException
+  {
+    behavior.apply(SERVICE, "getUserPerms");
+    return kernel.getUserPerms(tenant, user, implies, impliedBy);
+  }
+
+  @Override
+  public List<String> getUsersWithPermission(String tenant, String permSpec) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "getUsersWithPermission");
+    return kernel.getUsersWithPermission(tenant, permSpec);
+  }
+
+  @Override
+  public int grantUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "grantUserPermission");
+    return kernel.grantPermission(tenant, user, permSpec);
+  }
+
+  @Override
+  public int revokeUserPermission(String tenant, String user, String permSpec) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "revokeUserPermission");
+    return kernel.revokePermission(tenant, user, permSpec);
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: secrets ************************
+  // ************************************************************************
+
+  @Override
+  public SkSecret readSecret(SKSecretReadParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "readSecret");
+    String path = StubSecurityKernel.systemSecretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(),
+                                                      parms.getKeyType().name());
+    var data = kernel.readSecret(path);
+    if (data == null) throw new TapisClientException("Secret not found: " + path);
+    var skSecret = new SkSecret();
+    skSecret.setSecretMap(data);
+    return skSecret;
+  }
+
+  @Override
+  public SkSecretMetadata writeSecret(String tenant, String user, SKSecretWriteParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "writeSecret");
+    String path = StubSecurityKernel.systemSecretPath(tenant, parms.getSysId(), parms.getSysUser(),
+                                                      parms.getKeyType().name());
+    kernel.writeSecret(path, parms.getData());
+    return new SkSecretMetadata();
+  }
+
+  @Override
+  public SkSecretVersionMetadata readSecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "readSecretMeta");
+    String path = StubSecurityKernel.systemSecretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(),
+                                                      parms.getKeyType().name());
+    if (kernel.readSecret(path) == null) throw new TapisClientException("Secret not found: " + path);
+    return new SkSecretVersionMetadata();
+  }
+
+  @Override
+  public List<Integer> destroySecretMeta(SKSecretMetaParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "destroySecretMeta");
+    String path = StubSecurityKernel.systemSecretPath(parms.getTenant(), parms.getSysId(), parms.getSysUser(),
+                                                      parms.getKeyType().name());
+    // SK returns the versions destroyed. The stub keeps a single version.
+    var versions = new ArrayList<Integer>();
+    if (kernel.destroySecret(path)) versions.add(1);
+    return versions;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: shares *************************
+  // ************************************************************************
+
+  @Override
+  public SkShareList getShares(SKShareGetSharesParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "getShares");
+    var filter = new StubSecurityKernel.Share(parms.getTenant(), parms.getResourceType(), parms.getResourceId1(),
+                                              null, parms.getGrantee(), parms.getPrivilege());
+    var skShares = new ArrayList<SkShare>();
+    for (StubSecurityKernel.Share s : kernel.getShares(filter, parms.isIncludePublicGrantees()))
+    {
+      var skShare = new SkShare();
+      skShare.setTenant(s.getTenant());
+      skShare.setResourceType(s.getResourceType());
+      skShare.setResourceId1(s.getResourceId1());
+      skShare.setGrantor(s.getGrantor());
+      skShare.setGrantee(s.getGrantee());
+      skShare.setPrivilege(s.getPrivilege());
+      skShares.add(skShare);
+    }
+    var skShareList = new SkShareList();
+    skShareList.setShares(skShares);
+    return skShareList;
+  }
+
+  @Override
+  public String shareResource(ReqShareResource req) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "shareResource");
+    kernel.share(new StubSecurityKernel.Share(req.getTenant(), req.getResourceType(), req.getResourceId1(),
+                                              req.getGrantor(), req.getGrantee(), req.getPrivilege()));
+    return null;
+  }
+
+  @Override
+  public int deleteShare(SKShareDeleteShareParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "deleteShare");
+    return kernel.unshare(new StubSecurityKernel.Share(parms.getTenant(), parms.getResourceType(),
+                                                       parms.getResourceId1(), null, parms.getGrantee(),
+                                                       parms.getPrivilege()));
+  }
+
+  @Override
+  public boolean hasPrivilege(SKShareHasPrivilegeParms parms) throws TapisClientException
+  {
+    behavior.apply(SERVICE, "hasPrivilege");
+    return kernel.hasPrivilege(parms.getTenant(), parms.getResourceType(), parms.getResourceId1(),
+                               parms.getGrantee(), parms.getPrivilege());
+  }
+}
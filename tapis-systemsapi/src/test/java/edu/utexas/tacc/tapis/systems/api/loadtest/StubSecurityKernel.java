@@ -0,0 +1,389 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+
+/*
+ * In-memory stand-in for the state kept by the Security Kernel (SK) on behalf of the systems service:
+ *   user permissions, tenant admins, shares and system secrets.
+ * Used by StubSKClient so that the service can be run and load tested without SK.
+ *
+ * Permissions follow the SK wildcard rules. A permission is a colon separated list of parts, where a part may be
+ *   a comma separated list or *. Permission A implies B if each part of A is * or includes all of the corresponding
+ *   part of B. Missing trailing parts of A imply anything.
+ * Lookups using a permission pattern, see getUsersWithPermission(), use % to match any characters as SK does.
+ * All methods are thread safe.
+ * State may be saved to and loaded from a JSON file, e.g. to use data generated by DataGenJob in a load test.
+ */
+public final class StubSecurityKernel
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  private static final String WILDCARD = "*";
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  // Permissions keyed by tenant then user
+  private final Map<String, Map<String, Set<String>>> perms = new ConcurrentHashMap<>();
+  // Admin users keyed by tenant
+  private final Map<String, Set<String>> admins = new ConcurrentHashMap<>();
+  // Shares, guarded by the list lock
+  private final List<Share> shares = new ArrayList<>();
+  // Secret data keyed by secret path
+  private final Map<String, Map<String, String>> secrets = new ConcurrentHashMap<>();
+
+  // ************************************************************************
+  // *********************** Public methods: admins *************************
+  // ************************************************************************
+
+  public void addAdmin(String tenant, String user) { admins.computeIfAbsent(tenant, k -> ConcurrentHashMap.newKeySet()).add(user); }
+
+  public boolean isAdmin(String tenant, String user) { return admins.getOrDefault(tenant, Set.of()).contains(user); }
+
+  // ************************************************************************
+  // *********************** Public methods: permissions ********************
+  // ************************************************************************
+
+  /**
+   * Grant a permission to a user
+   * @return 1 if granted, 0 if the user already had it
+   */
+  public int grantPermission(String tenant, String user, String permSpec)
+  {
+    return userPerms(tenant, user).add(permSpec) ? 1 : 0;
+  }
+
+  /**
+   * Revoke a permission from a user. Any permissions the user has that are implied by permSpec are also revoked.
+   * @return number of permissions revoked
+   */
+  public int revokePermission(String tenant, String user, String permSpec)
+  {
+    Set<String> userPerms = userPerms(tenant, user);
+    int count = 0;
+    for (String perm : new ArrayList<>(userPerms))
+    {
+      if ((perm.equals(permSpec) || implies(permSpec, perm)) && userPerms.remove(perm)) count++;
+    }
+    return count;
+  }
+
+  /**
+   * Check if a user has a permission that implies permSpec
+   */
+  public boolean isPermitted(String tenant, String user, String permSpec)
+  {
+    for (String perm : userPerms(tenant, user)) { if (implies(perm, permSpec)) return true; }
+    return false;
+  }
+
+  /**
+   * Permissions of a user, optionally only those implied by impliesSpec and those implying impliedBySpec
+   */
+  public List<String> getUserPerms(String tenant, String user, String impliesSpec, String impliedBySpec)
+  {
+    var result = new TreeSet<String>();
+    for (String perm : userPerms(tenant, user))
+    {
+      if (!StringUtils.isBlank(impliesSpec) && !implies(impliesSpec, perm)) continue;
+      if (!StringUtils.isBlank(impliedBySpec) && !implies(perm, impliedBySpec)) continue;
+      result.add(perm);
+    }
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Users having a permission matching a pattern, where % in the pattern matches any characters
+   */
+  public List<String> getUsersWithPermission(String tenant, String permPattern)
+  {
+    Pattern pattern = Pattern.compile(Arrays.stream(permPattern.split("%", -1)).map(Pattern::quote)
+                                            .reduce((a, b) -> a + ".*" + b).orElse(""));
+    var result = new TreeSet<String>();
+    for (Map.Entry<String, Set<String>> entry : perms.getOrDefault(tenant, Map.of()).entrySet())
+    {
+      for (String perm : entry.getValue())
+      {
+        if (pattern.matcher(perm).matches()) { result.add(entry.getKey()); break; }
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Check if permission a implies permission b using the SK wildcard rules
+   */
+  public static boolean implies(String a, String b)
+  {
+    String[] aParts = a.split(":", -1);
+    String[] bParts = b.split(":", -1);
+    for (int i = 0; i < aParts.length; i++)
+    {
+      if (WILDCARD.equals(aParts[i])) continue;
+      // Missing parts in b are treated as wildcards, which are only implied by a wildcard
+      if (i >= bParts.length) return false;
+      Set<String> aSet = new HashSet<>(Arrays.asList(aParts[i].split(",")));
+      if (!aSet.containsAll(Arrays.asList(bParts[i].split(",")))) return false;
+    }
+    return true;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: shares *************************
+  // ************************************************************************
+
+  /**
+   * Add a share
+   * @return true if added, false if it already existed
+   */
+  public boolean share(Share share)
+  {
+    synchronized (shares)
+    {
+      for (Share s : shares) { if (s.sameAs(share)) return false; }
+      shares.add(share);
+      return true;
+    }
+  }
+
+  /**
+   * Remove shares matching all non-null attributes of a share
+   * @return number of shares removed
+   */
+  public int unshare(Share share)
+  {
+    synchronized (shares)
+    {
+      int before = shares.size();
+      shares.removeIf(s -> s.matches(share));
+      return before - shares.size();
+    }
+  }
+
+  /**
+   * Shares matching all non-null attributes of a share
+   * @param filter - share with the attributes to match
+   * @param includePublicGrantees - if the filter has a grantee also include public shares, as SK does by default
+   */
+  public List<Share> getShares(Share filter, boolean includePublicGrantees)
+  {
+    Share publicFilter = null;
+    if (includePublicGrantees && filter.grantee != null)
+      publicFilter = new Share(filter.tenant, filter.resourceType, filter.resourceId1, null, SKClient.PUBLIC_GRANTEE,
+                               filter.privilege);
+    synchronized (shares)
+    {
+      var result = new ArrayList<Share>();
+      for (Share s : shares)
+      {
+        if (s.matches(filter) || (publicFilter != null && s.matches(publicFilter))) result.add(s);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Check if a resource is shared with a user with a privilege, either directly or publicly
+   */
+  public boolean hasPrivilege(String tenant, String resourceType, String resourceId1, String grantee, String privilege)
+  {
+    synchronized (shares)
+    {
+      for (Share s : shares)
+      {
+        if (s.tenant.equals(tenant) && s.resourceType.equals(resourceType) && s.resourceId1.equals(resourceId1)
+            && s.privilege.equals(privilege)
+            && (s.grantee.equals(grantee) || SKClient.PUBLIC_GRANTEE.equals(s.grantee))) return true;
+      }
+      return false;
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: secrets ************************
+  // ************************************************************************
+
+  public void writeSecret(String path, Map<String, String> data) { secrets.put(path, new HashMap<>(data)); }
+
+  /**
+   * Secret data at a path, null if there is no secret
+   */
+  public Map<String, String> readSecret(String path)
+  {
+    Map<String, String> data = secrets.get(path);
+    return data == null ? null : new HashMap<>(data);
+  }
+
+  /**
+   * Remove a secret
+   * @return true if there was a secret at the path
+   */
+  public boolean destroySecret(String path) { return secrets.remove(path) != null; }
+
+  /**
+   * Path to a system secret, following the layout used by SK
+   */
+  public static String systemSecretPath(String tenant, String systemId, String targetUserPath, String keyType)
+  {
+    return String.format("tenant/%s/%s/user/%s/%s", tenant, systemId, targetUserPath, keyType);
+  }
+
+  // ************************************************************************
+  // *********************** Public methods: general ************************
+  // ************************************************************************
+
+  /**
+   * Remove all state
+   */
+  public void clear()
+  {
+    perms.clear();
+    admins.clear();
+    synchronized (shares) { shares.clear(); }
+    secrets.clear();
+  }
+
+  /**
+   * Write all state to a JSON file
+   */
+  public void save(Path path) throws IOException
+  {
+    var snapshot = new Snapshot();
+    snapshot.perms = perms;
+    snapshot.admins = admins;
+    synchronized (shares) { snapshot.shares = new ArrayList<>(shares); }
+    snapshot.secrets = secrets;
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+    {
+      TapisGsonUtils.getGson().toJson(snapshot, writer);
+    }
+  }
+
+  /**
+   * Create a kernel with the state in a JSON file written by save()
+   */
+  public static StubSecurityKernel load(Path path) throws IOException
+  {
+    Snapshot snapshot;
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+    {
+      snapshot = TapisGsonUtils.getGson().fromJson(reader, Snapshot.class);
+    }
+    var kernel = new StubSecurityKernel();
+    if (snapshot == null) return kernel;
+    if (snapshot.perms != null)
+      snapshot.perms.forEach((tenant, userPerms) -> userPerms.forEach((user, permSet) ->
+              permSet.forEach(perm -> kernel.grantPermission(tenant, user, perm))));
+    if (snapshot.admins != null)
+      snapshot.admins.forEach((tenant, users) -> users.forEach(user -> kernel.addAdmin(tenant, user)));
+    if (snapshot.shares != null) kernel.shares.addAll(snapshot.shares);
+    if (snapshot.secrets != null) snapshot.secrets.forEach(kernel::writeSecret);
+    return kernel;
+  }
+
+  /**
+   * Users with any permission in a tenant
+   */
+  public Set<String> getUsers(String tenant)
+  {
+    return new TreeSet<>(perms.getOrDefault(tenant, Map.of()).keySet());
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  private Set<String> userPerms(String tenant, String user)
+  {
+    return perms.computeIfAbsent(tenant, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(user, k -> ConcurrentHashMap.newKeySet());
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Form of the state written to and read from a JSON file
+   */
+  private static final class Snapshot
+  {
+    private Map<String, Map<String, Set<String>>> perms;
+    private Map<String, Set<String>> admins;
+    private List<Share> shares;
+    private Map<String, Map<String, String>> secrets;
+  }
+
+  /*
+   * A share of a resource with a user. When used as a filter null attributes match anything.
+   */
+  public static final class Share
+  {
+    private final String tenant;
+    private final String resourceType;
+    private final String resourceId1;
+    private final String grantor;
+    private final String grantee;
+    private final String privilege;
+
+    public Share(String tenant1, String resourceType1, String resourceId11, String grantor1, String grantee1,
+                 String privilege1)
+    {
+      tenant = tenant1;
+      resourceType = resourceType1;
+      resourceId1 = resourceId11;
+      grantor = grantor1;
+      grantee = grantee1;
+      privilege = privilege1;
+    }
+
+    public String getTenant() { return tenant; }
+    public String getResourceType() { return resourceType; }
+    public String getResourceId1() { return resourceId1; }
+    public String getGrantor() { return grantor; }
+    public String getGrantee() { return grantee; }
+    public String getPrivilege() { return privilege; }
+
+    // Grantor is not part of the identity of a share
+    private boolean sameAs(Share s)
+    {
+      return tenant.equals(s.tenant) && resourceType.equals(s.resourceType) && resourceId1.equals(s.resourceId1)
+             && grantee.equals(s.grantee) && privilege.equals(s.privilege);
+    }
+
+    private boolean matches(Share filter)
+    {
+      return matches(filter.tenant, tenant) && matches(filter.resourceType, resourceType)
+             && matches(filter.resourceId1, resourceId1) && matches(filter.grantee, grantee)
+             && matches(filter.privilege, privilege);
+    }
+
+    private static boolean matches(String filterValue, String value)
+    {
+      return filterValue == null || filterValue.equals(value);
+    }
+  }
+}
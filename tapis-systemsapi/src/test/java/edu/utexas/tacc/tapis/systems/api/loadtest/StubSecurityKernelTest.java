@@ -0,0 +1,99 @@
+package edu.utexas.tacc.tapis.systems.api.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.security.client.SKClient;
+
+/**
+ * Tests for the in-memory SK stand-in and stub behavior used for load testing.
+ */
+@Test(groups={"unit"})
+public class StubSecurityKernelTest
+{
+  private static final String tenant = "dev";
+
+  @Test
+  public void testImplies()
+  {
+    Assert.assertTrue(StubSecurityKernel.implies("system:dev:*:sys1", "system:dev:READ:sys1"));
+    Assert.assertTrue(StubSecurityKernel.implies("system:dev:READ,MODIFY:sys1", "system:dev:READ:sys1"));
+    Assert.assertTrue(StubSecurityKernel.implies("system:dev", "system:dev:READ:sys1"));
+    Assert.assertFalse(StubSecurityKernel.implies("system:dev:READ:sys1", "system:dev:MODIFY:sys1"));
+    Assert.assertFalse(StubSecurityKernel.implies("system:dev:READ:sys1", "system:dev:READ:sys2"));
+    Assert.assertFalse(StubSecurityKernel.implies("system:dev:READ:sys1", "system:dev:READ,MODIFY:sys1"));
+    Assert.assertFalse(StubSecurityKernel.implies("system:dev:READ:sys1", "system:dev"));
+  }
+
+  @Test
+  public void testPermissions()
+  {
+    var kernel = new StubSecurityKernel();
+    Assert.assertEquals(kernel.grantPermission(tenant, "user1", "system:dev:READ:sys1"), 1);
+    Assert.assertEquals(kernel.grantPermission(tenant, "user1", "system:dev:READ:sys1"), 0);
+    kernel.grantPermission(tenant, "user1", "system:dev:MODIFY:sys1");
+    kernel.grantPermission(tenant, "user2", "system:dev:*:sys2");
+    Assert.assertTrue(kernel.isPermitted(tenant, "user1", "system:dev:READ:sys1"));
+    Assert.assertFalse(kernel.isPermitted(tenant, "user1", "system:dev:READ:sys2"));
+    Assert.assertTrue(kernel.isPermitted(tenant, "user2", "system:dev:EXECUTE:sys2"));
+    Assert.assertFalse(kernel.isPermitted("other", "user2", "system:dev:EXECUTE:sys2"));
+
+    Assert.assertEquals(kernel.getUserPerms(tenant, "user1", "system:dev:*:sys1", null),
+                        List.of("system:dev:MODIFY:sys1", "system:dev:READ:sys1"));
+    Assert.assertEquals(kernel.getUsersWithPermission(tenant, "system:dev:%:sys1"), List.of("user1"));
+    Assert.assertEquals(kernel.getUsersWithPermission(tenant, "system:dev:%"), List.of("user1", "user2"));
+
+    // Revoking a wildcard permission revokes all permissions it implies
+    Assert.assertEquals(kernel.revokePermission(tenant, "user1", "system:dev:*:sys1"), 2);
+    Assert.assertFalse(kernel.isPermitted(tenant, "user1", "system:dev:READ:sys1"));
+    Assert.assertTrue(kernel.getUsersWithPermission(tenant, "system:dev:%:sys1").isEmpty());
+  }
+
+  @Test
+  public void testShares()
+  {
+    var kernel = new StubSecurityKernel();
+    Assert.assertTrue(kernel.share(new StubSecurityKernel.Share(tenant, "system", "sys1", "owner", "user1", "READ")));
+    Assert.assertFalse(kernel.share(new StubSecurityKernel.Share(tenant, "system", "sys1", "owner", "user1", "READ")));
+    kernel.share(new StubSecurityKernel.Share(tenant, "system", "sys2", "owner", SKClient.PUBLIC_GRANTEE, "READ"));
+    Assert.assertTrue(kernel.hasPrivilege(tenant, "system", "sys1", "user1", "READ"));
+    Assert.assertFalse(kernel.hasPrivilege(tenant, "system", "sys1", "user2", "READ"));
+    Assert.assertTrue(kernel.hasPrivilege(tenant, "system", "sys2", "user2", "READ"));
+
+    var filter = new StubSecurityKernel.Share(tenant, "system", null, null, "user1", null);
+    Assert.assertEquals(kernel.getShares(filter, false).size(), 1);
+    Assert.assertEquals(kernel.getShares(filter, true).size(), 2);
+
+    Assert.assertEquals(kernel.unshare(new StubSecurityKernel.Share(tenant, "system", "sys1", null, "user1", "READ")), 1);
+    Assert.assertFalse(kernel.hasPrivilege(tenant, "system", "sys1", "user1", "READ"));
+  }
+
+  @Test
+  public void testSecrets()
+  {
+    var kernel = new StubSecurityKernel();
+    String path = StubSecurityKernel.systemSecretPath(tenant, "sys1", "dynamic/user1", "password");
+    Assert.assertNull(kernel.readSecret(path));
+    kernel.writeSecret(path, Map.of("password", "secret1"));
+    Assert.assertEquals(kernel.readSecret(path), Map.of("password", "secret1"));
+    Assert.assertTrue(kernel.destroySecret(path));
+    Assert.assertFalse(kernel.destroySecret(path));
+  }
+
+  @Test
+  public void testBehavior() throws TapisClientException
+  {
+    Assert.assertSame(StubBehavior.parse(""), StubBehavior.NONE);
+    StubBehavior behavior = StubBehavior.parse("latencyMs=0, failureRate=1.0, seed=7");
+    Assert.assertEquals(behavior.getFailureRate(), 1.0);
+    Assert.assertEquals(behavior.getSeed(), 7L);
+    Assert.assertThrows(TapisClientException.class, () -> behavior.apply("sk", "isAdmin"));
+    StubBehavior.NONE.apply("sk", "isAdmin");
+    Assert.assertThrows(IllegalArgumentException.class, () -> StubBehavior.parse("failureRate=2"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> StubBehavior.parse("latency=10"));
+  }
+}
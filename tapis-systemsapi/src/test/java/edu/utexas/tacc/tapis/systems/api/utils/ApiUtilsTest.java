@@ -1,7 +1,13 @@
 package edu.utexas.tacc.tapis.systems.api.utils;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import javax.ws.rs.core.EntityTag;
+
 import com.google.gson.JsonElement;
 import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -37,4 +43,67 @@ public class ApiUtilsTest
     assertEquals(testStr, "notdefault",  "Incorrect string returned");
   }
 
-}
\ No newline at end of file
+  /*
+   * Test ETag generation and If-None-Match matching
+   */
+  @Test(groups={"unit"})
+  public void testETag()
+  {
+    Instant updated = Instant.now();
+    var sv1 = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 1);
+    var sv1Copy = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 1);
+    var sv1Later = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated.plusMillis(1), 1);
+    var sv1OtherUser = new SystemVersion("dev", "sys1", "owner1", "user2", true, updated, 1);
+    var sv1Shared = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 1, false, Set.of("u1", "u2"));
+    var sv1SharedMore = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 1, false, Set.of("u1", "u2", "u3"));
+    List<String> selectList = List.of("allAttributes");
+
+    EntityTag etag = ApiUtils.getETag(List.of(sv1), selectList);
+    // Same version gives same ETag
+    assertEquals(ApiUtils.getETag(List.of(sv1Copy), selectList), etag);
+    // Anything affecting the representation gives a different ETag
+    assertNotEquals(ApiUtils.getETag(List.of(sv1Later), selectList), etag);
+    assertNotEquals(ApiUtils.getETag(List.of(sv1OtherUser), selectList), etag);
+    assertNotEquals(ApiUtils.getETag(List.of(sv1), List.of("id")), etag);
+    assertNotEquals(ApiUtils.getETag(List.of(sv1Shared), selectList), ApiUtils.getETag(List.of(sv1SharedMore), selectList));
+    assertNotEquals(ApiUtils.getETag(List.of(sv1, sv1Later), selectList), etag);
+
+    // If-None-Match handling
+    String quoted = "\"" + etag.getValue() + "\"";
+    assertTrue(ApiUtils.ifNoneMatch(quoted, etag));
+    assertTrue(ApiUtils.ifNoneMatch("W/" + quoted, etag));
+    assertTrue(ApiUtils.ifNoneMatch("\"abc\", " + quoted, etag));
+    assertTrue(ApiUtils.ifNoneMatch("*", etag));
+    assertFalse(ApiUtils.ifNoneMatch("\"abc\"", etag));
+    assertFalse(ApiUtils.ifNoneMatch(null, etag));
+    assertFalse(ApiUtils.ifNoneMatch("", etag));
+  }
+
+  /*
+   * Test single system ETag and extraction of version from If-Match
+   */
+  @Test(groups={"unit"})
+  public void testIfMatchVersion()
+  {
+    Instant updated = Instant.now();
+    var sv1 = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 7);
+    var sv1Next = new SystemVersion("dev", "sys1", "owner1", "user1", true, updated, 8);
+    List<String> selectList = List.of("allAttributes");
+
+    EntityTag etag = ApiUtils.getSystemETag(sv1, selectList);
+    assertTrue(etag.getValue().startsWith("7-"));
+    assertNotEquals(ApiUtils.getSystemETag(sv1Next, selectList), etag);
+
+    String quoted = "\"" + etag.getValue() + "\"";
+    assertEquals(ApiUtils.getIfMatchVersion(quoted), Integer.valueOf(7));
+    assertEquals(ApiUtils.getIfMatchVersion(quoted + ", " + quoted), Integer.valueOf(7));
+    // No header or wildcard means no check
+    assertNull(ApiUtils.getIfMatchVersion(null));
+    assertNull(ApiUtils.getIfMatchVersion(""));
+    assertNull(ApiUtils.getIfMatchVersion("*"));
+    // Weak, malformed or conflicting tags never match
+    assertEquals(ApiUtils.getIfMatchVersion("W/" + quoted), Integer.valueOf(ApiUtils.INVALID_VERSION));
+    assertEquals(ApiUtils.getIfMatchVersion("\"abc\""), Integer.valueOf(ApiUtils.INVALID_VERSION));
+    assertEquals(ApiUtils.getIfMatchVersion(quoted + ", \"8-abc\""), Integer.valueOf(ApiUtils.INVALID_VERSION));
+  }
+}
@@ -0,0 +1,41 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import javax.inject.Inject;
+
+import edu.utexas.tacc.tapis.globusproxy.client.GlobusProxyClient;
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.api.loadtest.StubGlobusProxyClient;
+import edu.utexas.tacc.tapis.systems.api.loadtest.StubSKClient;
+
+/*
+ * SysUtils that hands out the stub SK and GlobusProxy clients in place of clients for the real services.
+ * To use, bind this class to SysUtils and bind instances of StubSKClient and StubGlobusProxyClient, e.g.
+ *     bind(StubSysUtils.class).to(SysUtils.class);
+ *     bind(new StubSKClient(kernel, skBehavior)).to(StubSKClient.class);
+ *     bind(new StubGlobusProxyClient(globusBehavior)).to(StubGlobusProxyClient.class);
+ * The stub clients are shared by all requests.
+ * Kept in the service package since the client getters of SysUtils are package-private.
+ */
+public class StubSysUtils extends SysUtils
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  // Use HK2 to inject singletons
+  @Inject
+  private StubSKClient skClient;
+  @Inject
+  private StubGlobusProxyClient globusProxyClient;
+
+  // ************************************************************************
+  // *********************** Package-private methods ************************
+  // ************************************************************************
+
+  @Override
+  SKClient getSKClient(ResourceRequestUser rUser) { return skClient; }
+
+  @Override
+  GlobusProxyClient getGlobusProxyClient(ResourceRequestUser rUser) { return globusProxyClient; }
+}
@@ -1,6 +1,7 @@
 package edu.utexas.tacc.tapis.systems.config;
 
 import java.text.NumberFormat;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -47,6 +48,23 @@ public final class RuntimeParameters implements EmailClientParameters
 
   // Parameter defaults.
   private static final int CONNECTION_POOL_SIZE = 10;
+  private static final int DEFAULT_ADMIN_ROLE_CACHE_TTL_SECS = 60;
+  // Local copy of permissions and shares is off by default. Changes made directly in SK, rather than through this
+  //   service, are not seen until entries are refreshed, so list results may be out of date by up to the TTL.
+  //   Deployments that accept this opt in by setting a TTL.
+  private static final int DEFAULT_SYSTEM_ACL_TTL_SECS = 0;
+  private static final int DEFAULT_SLOW_CALL_BUFFER_SIZE = 100;
+  private static final double DEFAULT_SLOW_CALL_SAMPLE_RATE = 1.0;
+  private static final int DEFAULT_SK_OUTBOX_POLL_SECS = 5;
+  private static final int DEFAULT_AUDIT_QUEUE_SIZE = 10000;
+  private static final int DEFAULT_AUDIT_BATCH_SIZE = 200;
+  private static final int DEFAULT_AUDIT_FLUSH_MS = 50;
+  public static final String AUDIT_WRITE_MODE_SYNC = "sync";
+  public static final String AUDIT_WRITE_MODE_GROUP = "group";
+  public static final String AUDIT_WRITE_MODE_ASYNC = "async";
+  public static final String TRACING_EXPORTER_NONE = "none";
+  public static final String TRACING_EXPORTER_LOGGING = "logging";
+  public static final String TRACING_EXPORTER_OTLP = "otlp";
 
   // Maximum size of a instance name string.
   private static final int MAX_INSTANCE_NAME_LEN = 26;
@@ -121,6 +139,50 @@ public final class RuntimeParameters implements EmailClientParameters
   // Tapis Globus client id
   private String globusClientId;
 
+  // How long results of admin role checks are cached. Zero or less to turn off caching.
+  private int adminRoleCacheTtlSecs;
+
+  // How long local copies of SK permissions and shares are used before being refreshed. Zero or less to turn off.
+  private int systemAclTtlSecs;
+
+  // Exporter for OpenTelemetry trace spans: none, logging or otlp. With none, incoming trace context is still
+  //   propagated to outbound calls but spans are not recorded.
+  private String tracingExporter;
+  // Endpoint used by the otlp exporter. If not set the exporter default is used.
+  private String tracingOtlpEndpoint;
+
+  // Add a Server-Timing header to every response. If false the header is only added when requested by a query flag.
+  private boolean serverTimingEnabled;
+
+  // Latency thresholds in milliseconds by call class, e.g. db=250,sk=1000. Calls slower than this are logged.
+  //   Classes not listed use the default threshold in SlowCallDetector.
+  private Map<String, Long> slowCallThresholdsMs = Map.of();
+  // Number of recent slow calls kept for the admin endpoint and the fraction of slow calls that are kept.
+  private int slowCallBufferSize;
+  private double slowCallSampleRate;
+
+  // How often pending SK updates in the outbox are retried. Zero or less to turn off the background dispatcher,
+  //   in which case pending updates are only sent right after the request that queued them.
+  private int skOutboxPollSecs;
+
+  // How update records that are not part of a larger transaction are written to system_updates:
+  //   sync - written by the caller, one connection and commit per record
+  //   group - queued and written in batches, the caller waits until its batch has been committed
+  //   async - queued and written in batches, the caller returns once the record is queued
+  private String auditWriteMode;
+  // Maximum number of queued update records. When full, callers wait for space and then write the record themselves.
+  private int auditQueueSize;
+  // Maximum number of update records in a batch and how long a partial batch waits for more records.
+  private int auditBatchSize;
+  private int auditFlushMs;
+
+  // Number of months of system update records kept in the system_updates table. Older monthly partitions are
+  //   detached. Zero or less to keep all records.
+  private int systemUpdatesRetentionMonths;
+  // Directory to which detached partitions are written as compressed NDJSON files before being dropped.
+  //   If not set detached partitions are left in the DB.
+  private String systemUpdatesArchiveDir;
+
   /* ********************************************************************** */
   /*                              Constructors                              */
   /* ********************************************************************** */
@@ -230,6 +292,207 @@ public final class RuntimeParameters implements EmailClientParameters
     parm = inputProperties.getProperty(EnvVar2.TAPIS_GLOBUS_CLIENT_ID.getEnvName());
     if (!StringUtils.isBlank(parm)) setGlobusClientId(parm);
 
+    // --------------------- Admin role cache ----------------------------
+    // Specify zero or less seconds to turn off caching of admin role checks.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_ADMIN_ROLE_CACHE_TTL_SECS.getEnvName());
+    if (StringUtils.isBlank(parm)) setAdminRoleCacheTtlSecs(DEFAULT_ADMIN_ROLE_CACHE_TTL_SECS);
+    else {
+      try {setAdminRoleCacheTtlSecs(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "adminRoleCacheTtlSecs",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- System ACL mirror ----------------------------
+    // Specify zero or less seconds to turn off use of the local copy of permissions and shares.
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SYSTEM_ACL_TTL_SECS.getEnvName());
+    if (StringUtils.isBlank(parm)) setSystemAclTtlSecs(DEFAULT_SYSTEM_ACL_TTL_SECS);
+    else {
+      try {setSystemAclTtlSecs(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "systemAclTtlSecs",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- Tracing ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_TRACING_EXPORTER.getEnvName());
+    if (StringUtils.isBlank(parm)) setTracingExporter(TRACING_EXPORTER_NONE);
+    else if (TRACING_EXPORTER_NONE.equalsIgnoreCase(parm) || TRACING_EXPORTER_LOGGING.equalsIgnoreCase(parm) ||
+             TRACING_EXPORTER_OTLP.equalsIgnoreCase(parm)) setTracingExporter(parm.toLowerCase());
+    else {
+      // Stop on bad input.
+      String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+              TapisConstants.SERVICE_NAME_SYSTEMS,
+              "tracingExporter",
+              "Exporter must be one of none, logging or otlp. Value: " + parm);
+      _log.error(msg);
+      throw new TapisRuntimeException(msg);
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_TRACING_OTLP_ENDPOINT.getEnvName());
+    if (!StringUtils.isBlank(parm)) setTracingOtlpEndpoint(parm);
+
+    // --------------------- Server-Timing header ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SERVER_TIMING_ENABLED.getEnvName());
+    if (StringUtils.isBlank(parm)) setServerTimingEnabled(false);
+    else {
+      try {setServerTimingEnabled(Boolean.parseBoolean(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "serverTimingEnabled",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- Slow call detection ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SLOW_CALL_THRESHOLDS_MS.getEnvName());
+    if (!StringUtils.isBlank(parm)) {
+      try {setSlowCallThresholdsMs(parseThresholds(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "slowCallThresholdsMs",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SLOW_CALL_BUFFER_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setSlowCallBufferSize(DEFAULT_SLOW_CALL_BUFFER_SIZE);
+    else {
+      try {setSlowCallBufferSize(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "slowCallBufferSize",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SLOW_CALL_SAMPLE_RATE.getEnvName());
+    if (StringUtils.isBlank(parm)) setSlowCallSampleRate(DEFAULT_SLOW_CALL_SAMPLE_RATE);
+    else {
+      try {setSlowCallSampleRate(Double.parseDouble(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "slowCallSampleRate",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- SK outbox ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SK_OUTBOX_POLL_SECS.getEnvName());
+    if (StringUtils.isBlank(parm)) setSkOutboxPollSecs(DEFAULT_SK_OUTBOX_POLL_SECS);
+    else {
+      try {setSkOutboxPollSecs(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "skOutboxPollSecs",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- Audit record writer ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_AUDIT_WRITE_MODE.getEnvName());
+    if (StringUtils.isBlank(parm)) setAuditWriteMode(AUDIT_WRITE_MODE_SYNC);
+    else if (AUDIT_WRITE_MODE_SYNC.equalsIgnoreCase(parm) || AUDIT_WRITE_MODE_GROUP.equalsIgnoreCase(parm) ||
+             AUDIT_WRITE_MODE_ASYNC.equalsIgnoreCase(parm)) setAuditWriteMode(parm.toLowerCase());
+    else {
+      // Stop on bad input.
+      String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+              TapisConstants.SERVICE_NAME_SYSTEMS,
+              "auditWriteMode",
+              "Mode must be one of sync, group or async. Value: " + parm);
+      _log.error(msg);
+      throw new TapisRuntimeException(msg);
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_AUDIT_QUEUE_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setAuditQueueSize(DEFAULT_AUDIT_QUEUE_SIZE);
+    else {
+      try {setAuditQueueSize(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "auditQueueSize",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_AUDIT_BATCH_SIZE.getEnvName());
+    if (StringUtils.isBlank(parm)) setAuditBatchSize(DEFAULT_AUDIT_BATCH_SIZE);
+    else {
+      try {setAuditBatchSize(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "auditBatchSize",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_AUDIT_FLUSH_MS.getEnvName());
+    if (StringUtils.isBlank(parm)) setAuditFlushMs(DEFAULT_AUDIT_FLUSH_MS);
+    else {
+      try {setAuditFlushMs(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "auditFlushMs",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+
+    // --------------------- System updates retention ----------------------------
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SYSTEM_UPDATES_RETENTION_MONTHS.getEnvName());
+    if (StringUtils.isBlank(parm)) setSystemUpdatesRetentionMonths(0);
+    else {
+      try {setSystemUpdatesRetentionMonths(Integer.parseInt(parm));}
+      catch (Exception e) {
+        // Stop on bad input.
+        String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                TapisConstants.SERVICE_NAME_SYSTEMS,
+                "systemUpdatesRetentionMonths",
+                e.getMessage());
+        _log.error(msg, e);
+        throw new TapisRuntimeException(msg, e);
+      }
+    }
+    parm = inputProperties.getProperty(EnvVar2.TAPIS_SYSTEM_UPDATES_ARCHIVE_DIR.getEnvName());
+    if (!StringUtils.isBlank(parm)) setSystemUpdatesArchiveDir(parm);
+
     // --------------------- Site on which we are running ----------------------------
     // Site is required. Throw runtime exception if not found.
     parm = inputProperties.getProperty(EnvVar.TAPIS_SITE_ID.getEnvName());
@@ -466,6 +729,50 @@ public final class RuntimeParameters implements EmailClientParameters
     buf.append("\ntapis.globus.client.id: ");
     buf.append(globusClientId);
 
+    buf.append("\n------- Admin Role Cache ------------------------------");
+    buf.append("\ntapis.admin.role.cache.ttl.secs: ");
+    buf.append(adminRoleCacheTtlSecs);
+
+    buf.append("\n------- System ACL ------------------------------------");
+    buf.append("\ntapis.system.acl.ttl.secs: ");
+    buf.append(systemAclTtlSecs);
+
+    buf.append("\n------- Tracing ---------------------------------------");
+    buf.append("\ntapis.tracing.exporter: ");
+    buf.append(tracingExporter);
+    buf.append("\ntapis.tracing.otlp.endpoint: ");
+    buf.append(tracingOtlpEndpoint);
+    buf.append("\ntapis.server.timing.enabled: ");
+    buf.append(serverTimingEnabled);
+
+    buf.append("\n------- Slow Call Detection ---------------------------");
+    buf.append("\ntapis.slow.call.thresholds.ms: ");
+    buf.append(slowCallThresholdsMs);
+    buf.append("\ntapis.slow.call.buffer.size: ");
+    buf.append(slowCallBufferSize);
+    buf.append("\ntapis.slow.call.sample.rate: ");
+    buf.append(slowCallSampleRate);
+
+    buf.append("\n------- SK Outbox -------------------------------------");
+    buf.append("\ntapis.sk.outbox.poll.secs: ");
+    buf.append(skOutboxPollSecs);
+
+    buf.append("\n------- Audit Record Writer ---------------------------");
+    buf.append("\ntapis.audit.write.mode: ");
+    buf.append(auditWriteMode);
+    buf.append("\ntapis.audit.queue.size: ");
+    buf.append(auditQueueSize);
+    buf.append("\ntapis.audit.batch.size: ");
+    buf.append(auditBatchSize);
+    buf.append("\ntapis.audit.flush.ms: ");
+    buf.append(auditFlushMs);
+
+    buf.append("\n------- System Updates Retention ----------------------");
+    buf.append("\ntapis.system.updates.retention.months: ");
+    buf.append(systemUpdatesRetentionMonths);
+    buf.append("\ntapis.system.updates.archive.dir: ");
+    buf.append(systemUpdatesArchiveDir);
+
     buf.append("\n------- Email Configuration -----------------------");
     buf.append("\ntapis.mail.provider: ");
     buf.append(this.getEmailProviderType().name());
@@ -766,6 +1073,51 @@ public final class RuntimeParameters implements EmailClientParameters
   public String getGlobusClientId() { return globusClientId; }
   private void setGlobusClientId(String s) {globusClientId = s; }
 
+  public int getAdminRoleCacheTtlSecs() { return adminRoleCacheTtlSecs; }
+  private void setAdminRoleCacheTtlSecs(int i) { adminRoleCacheTtlSecs = i; }
+
+  public int getSystemAclTtlSecs() { return systemAclTtlSecs; }
+  private void setSystemAclTtlSecs(int i) { systemAclTtlSecs = i; }
+
+  public String getTracingExporter() { return tracingExporter; }
+  private void setTracingExporter(String s) { tracingExporter = s; }
+
+  public String getTracingOtlpEndpoint() { return tracingOtlpEndpoint; }
+  private void setTracingOtlpEndpoint(String s) { tracingOtlpEndpoint = s; }
+
+  public boolean isServerTimingEnabled() { return serverTimingEnabled; }
+  private void setServerTimingEnabled(boolean b) { serverTimingEnabled = b; }
+
+  public Map<String, Long> getSlowCallThresholdsMs() { return slowCallThresholdsMs; }
+  private void setSlowCallThresholdsMs(Map<String, Long> m) { slowCallThresholdsMs = m; }
+
+  public int getSlowCallBufferSize() { return slowCallBufferSize; }
+  private void setSlowCallBufferSize(int i) { slowCallBufferSize = i; }
+
+  public double getSlowCallSampleRate() { return slowCallSampleRate; }
+  private void setSlowCallSampleRate(double d) { slowCallSampleRate = d; }
+
+  public int getSkOutboxPollSecs() { return skOutboxPollSecs; }
+  private void setSkOutboxPollSecs(int i) { skOutboxPollSecs = i; }
+
+  public String getAuditWriteMode() { return auditWriteMode; }
+  private void setAuditWriteMode(String s) { auditWriteMode = s; }
+
+  public int getAuditQueueSize() { return auditQueueSize; }
+  private void setAuditQueueSize(int i) { auditQueueSize = i; }
+
+  public int getAuditBatchSize() { return auditBatchSize; }
+  private void setAuditBatchSize(int i) { auditBatchSize = i; }
+
+  public int getAuditFlushMs() { return auditFlushMs; }
+  private void setAuditFlushMs(int i) { auditFlushMs = i; }
+
+  public int getSystemUpdatesRetentionMonths() { return systemUpdatesRetentionMonths; }
+  private void setSystemUpdatesRetentionMonths(int i) { systemUpdatesRetentionMonths = i; }
+
+  public String getSystemUpdatesArchiveDir() { return systemUpdatesArchiveDir; }
+  private void setSystemUpdatesArchiveDir(String s) { systemUpdatesArchiveDir = s; }
+
   /* ********************************************************************** */
   /*                            Private Methods                             */
   /* ********************************************************************** */
@@ -782,6 +1134,30 @@ public final class RuntimeParameters implements EmailClientParameters
     return _instance;
   }
 
+  /* ---------------------------------------------------------------------- */
+  /* parseThresholds:                                                       */
+  /* ---------------------------------------------------------------------- */
+  /** Parse latency thresholds of the form db=250,sk=1000
+   *
+   * @param s the comma separated list of call class and milliseconds
+   * @return map of call class to milliseconds
+   */
+  private static Map<String, Long> parseThresholds(String s)
+  {
+    var thresholds = new HashMap<String, Long>();
+    for (String entry : s.split(","))
+    {
+      if (StringUtils.isBlank(entry)) continue;
+      String[] kv = entry.split("=", 2);
+      if (kv.length != 2 || StringUtils.isBlank(kv[0]))
+        throw new IllegalArgumentException("Invalid threshold, expected <class>=<milliseconds>: " + entry);
+      long ms = Long.parseLong(kv[1].trim());
+      if (ms < 0) throw new IllegalArgumentException("Threshold must not be negative: " + entry);
+      thresholds.put(kv[0].trim(), ms);
+    }
+    return Map.copyOf(thresholds);
+  }
+
   /* ---------------------------------------------------------------------- */
   /* getNetworkAddresses:                                                   */
   /* ---------------------------------------------------------------------- */
@@ -844,7 +1220,22 @@ public final class RuntimeParameters implements EmailClientParameters
   {
     TAPIS_SVC_ADMIN_TENANT("tapis.svc.admin.tenant"),
     TAPIS_MIGRATE_JOB_APPLY("tapis.migrate.job.apply"),
-    TAPIS_GLOBUS_CLIENT_ID("tapis.globus.client.id");
+    TAPIS_GLOBUS_CLIENT_ID("tapis.globus.client.id"),
+    TAPIS_ADMIN_ROLE_CACHE_TTL_SECS("tapis.admin.role.cache.ttl.secs"),
+    TAPIS_SYSTEM_ACL_TTL_SECS("tapis.system.acl.ttl.secs"),
+    TAPIS_TRACING_EXPORTER("tapis.tracing.exporter"),
+    TAPIS_TRACING_OTLP_ENDPOINT("tapis.tracing.otlp.endpoint"),
+    TAPIS_SERVER_TIMING_ENABLED("tapis.server.timing.enabled"),
+    TAPIS_SLOW_CALL_THRESHOLDS_MS("tapis.slow.call.thresholds.ms"),
+    TAPIS_SLOW_CALL_BUFFER_SIZE("tapis.slow.call.buffer.size"),
+    TAPIS_SLOW_CALL_SAMPLE_RATE("tapis.slow.call.sample.rate"),
+    TAPIS_SK_OUTBOX_POLL_SECS("tapis.sk.outbox.poll.secs"),
+    TAPIS_AUDIT_WRITE_MODE("tapis.audit.write.mode"),
+    TAPIS_AUDIT_QUEUE_SIZE("tapis.audit.queue.size"),
+    TAPIS_AUDIT_BATCH_SIZE("tapis.audit.batch.size"),
+    TAPIS_AUDIT_FLUSH_MS("tapis.audit.flush.ms"),
+    TAPIS_SYSTEM_UPDATES_RETENTION_MONTHS("tapis.system.updates.retention.months"),
+    TAPIS_SYSTEM_UPDATES_ARCHIVE_DIR("tapis.system.updates.archive.dir");
     private final String _envName;
     EnvVar2(String envName) {
       _envName = envName;
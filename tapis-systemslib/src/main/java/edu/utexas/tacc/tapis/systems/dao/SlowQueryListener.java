@@ -0,0 +1,84 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.Optional;
+
+import org.jooq.ExecuteContext;
+import org.jooq.impl.DefaultExecuteListener;
+
+import edu.utexas.tacc.tapis.systems.service.SystemsEvents;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
+
+/*
+ * jOOQ listener timing each SQL statement executed by SystemsDaoImpl and reporting slow statements to
+ *   SlowCallDetector.
+ * The SQL reported is the SQL sent to the DB, with bind values as ? placeholders, so no values are logged.
+ * The operation is the SystemsDaoImpl method that executed the statement. It is only looked up for slow statements.
+ * Each statement is also recorded as a JFR event when a flight recording is running, see SystemsEvents.
+ */
+final class SlowQueryListener extends DefaultExecuteListener
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  private static final String DATA_START = SlowQueryListener.class.getName() + ".start";
+  private static final String DATA_EVENT = SlowQueryListener.class.getName() + ".event";
+  private static final String UNKNOWN_OPERATION = "unknown";
+
+  static final SlowQueryListener INSTANCE = new SlowQueryListener();
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  @Override
+  public void executeStart(ExecuteContext ctx)
+  {
+    ctx.data(DATA_START, System.nanoTime());
+    var event = new SystemsEvents.DbStatement();
+    if (event.isEnabled())
+    {
+      event.begin();
+      ctx.data(DATA_EVENT, event);
+    }
+  }
+
+  @Override
+  public void end(ExecuteContext ctx)
+  {
+    Object start = ctx.data(DATA_START);
+    if (!(start instanceof Long)) return;
+    long duration = System.nanoTime() - (Long) start;
+    Object event = ctx.data(DATA_EVENT);
+    if (event instanceof SystemsEvents.DbStatement) ((SystemsEvents.DbStatement) event).finish(ctx.sql(), getRows(ctx));
+    if (duration < SlowCallDetector.getThresholdMs(SlowCallDetector.CALL_CLASS_DB) * 1_000_000L) return;
+    SlowCallDetector.check(SlowCallDetector.CALL_CLASS_DB, getOperation(), duration, ctx.sql(), getRows(ctx));
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Rows affected by an update or fetched by a query, -1 if not known
+   */
+  private static long getRows(ExecuteContext ctx)
+  {
+    long rows = ctx.rows();
+    if (rows < 0 && ctx.result() != null) rows = ctx.result().size();
+    return rows;
+  }
+
+  /*
+   * Name of the SystemsDaoImpl method on the current stack
+   */
+  private static String getOperation()
+  {
+    Optional<String> method = StackWalker.getInstance().walk(frames ->
+            frames.filter(f -> f.getClassName().equals(SystemsDaoImpl.class.getName()))
+                  .map(StackWalker.StackFrame::getMethodName)
+                  .filter(m -> !m.startsWith("lambda$"))
+                  .findFirst());
+    return method.orElse(UNKNOWN_OPERATION);
+  }
+}
@@ -0,0 +1,271 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+/*
+ * Queue of records to be written to the system_updates table.
+ *
+ * Used by SystemsDaoImpl.addUpdateRecord() when the audit write mode is group or async and the record is not
+ *   part of a larger transaction. A single thread takes records from a bounded queue and writes them using one
+ *   transaction and commit per batch. A batch is written once it is full or once the oldest record has waited
+ *   for the flush interval.
+ * In group mode the caller waits until the batch containing its record has been committed, so a record is never
+ *   lost, but many callers share one connection and commit. In async mode the caller returns as soon as the
+ *   record is queued, and records still queued when the process dies are lost.
+ * When the queue is full the caller waits briefly for space and then writes the record itself, so a slow DB
+ *   slows callers down rather than records being dropped.
+ */
+public final class SystemUpdateWriter
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger log = LoggerFactory.getLogger(SystemUpdateWriter.class);
+
+  // How long a caller waits for space in a full queue before writing the record itself
+  private static final long QUEUE_WAIT_MS = 1000;
+  // How long a caller in group mode waits for its batch to be committed
+  private static final long COMMIT_WAIT_SECS = 60;
+  // How long shutdown waits for queued records to be written
+  private static final long SHUTDOWN_WAIT_SECS = 10;
+
+  private static SystemUpdateWriter instance;
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final boolean waitForCommit;
+  private final int batchSize;
+  private final long flushMs;
+  private final BlockingQueue<PendingUpdate> queue;
+  private final Thread writerThread;
+  private volatile boolean stopped = false;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemUpdateWriter(boolean waitForCommit1, int queueSize, int batchSize1, long flushMs1)
+  {
+    waitForCommit = waitForCommit1;
+    batchSize = Math.max(1, batchSize1);
+    flushMs = Math.max(1, flushMs1);
+    queue = new ArrayBlockingQueue<>(Math.max(batchSize, queueSize));
+    writerThread = new Thread(this::run, "SystemsUpdateWriter");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Get the writer, starting it on first use.
+   * @return the writer or null if update records are written by the caller
+   */
+  static synchronized SystemUpdateWriter getInstance()
+  {
+    if (instance != null) return instance;
+    var parms = RuntimeParameters.getInstance();
+    String mode = parms.getAuditWriteMode();
+    if (mode == null || RuntimeParameters.AUDIT_WRITE_MODE_SYNC.equals(mode)) return null;
+    instance = new SystemUpdateWriter(RuntimeParameters.AUDIT_WRITE_MODE_GROUP.equals(mode),
+                                      parms.getAuditQueueSize(), parms.getAuditBatchSize(), parms.getAuditFlushMs());
+    return instance;
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Stop accepting records and wait for queued records to be written. Safe to call if the writer was never started.
+   */
+  public static void shutdown()
+  {
+    SystemUpdateWriter writer;
+    synchronized (SystemUpdateWriter.class) { writer = instance; }
+    if (writer == null) return;
+    writer.stopped = true;
+    try { writer.writerThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_WAIT_SECS)); }
+    catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    if (!writer.queue.isEmpty()) log.warn(LibUtils.getMsg("SYSLIB_AUDIT_SHUTDOWN_LOST", writer.queue.size()));
+  }
+
+  // ************************************************************************
+  // *********************** Package methods ********************************
+  // ************************************************************************
+
+  /**
+   * Queue a record to be written. In group mode wait until the record has been committed.
+   * @return true if the record was queued, false if the writer is stopped or the queue stayed full, in which
+   *         case the caller must write the record itself
+   * @throws TapisException - in group mode if the record could not be written
+   */
+  boolean submit(ResourceRequestUser rUser, String sysId, SystemOperation op, String changeDescription,
+                 String rawData) throws TapisException
+  {
+    if (stopped) return false;
+    var update = new PendingUpdate(rUser, sysId, op, changeDescription, rawData, waitForCommit);
+    try
+    {
+      if (!queue.offer(update, QUEUE_WAIT_MS, TimeUnit.MILLISECONDS))
+      {
+        log.debug(LibUtils.getMsg("SYSLIB_AUDIT_QUEUE_FULL", rUser.getOboTenantId(), sysId, queue.size()));
+        return false;
+      }
+      if (update.committed == null) return true;
+      update.committed.get(COMMIT_WAIT_SECS, TimeUnit.SECONDS);
+      return true;
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new TapisException(LibUtils.getMsg("SYSLIB_AUDIT_WRITE_ERR", rUser.getOboTenantId(), sysId, op,
+                                               e.getMessage()), e);
+    }
+    catch (ExecutionException | TimeoutException e)
+    {
+      Throwable cause = (e.getCause() == null) ? e : e.getCause();
+      throw new TapisException(LibUtils.getMsg("SYSLIB_AUDIT_WRITE_ERR", rUser.getOboTenantId(), sysId, op,
+                                               cause.getMessage()), cause);
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Writer thread. Collect a batch, write it and repeat until stopped and the queue is empty.
+   */
+  private void run()
+  {
+    var batch = new ArrayList<PendingUpdate>(batchSize);
+    while (!stopped || !queue.isEmpty())
+    {
+      try
+      {
+        PendingUpdate first = queue.poll(flushMs, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+        batch.add(first);
+        // Fill the batch, waiting no longer than the flush interval measured from the first record
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+        while (batch.size() < batchSize)
+        {
+          queue.drainTo(batch, batchSize - batch.size());
+          long waitNs = deadline - System.nanoTime();
+          if (batch.size() >= batchSize || waitNs <= 0 || stopped) break;
+          PendingUpdate next = queue.poll(waitNs, TimeUnit.NANOSECONDS);
+          if (next == null) break;
+          batch.add(next);
+        }
+        write(batch);
+      }
+      catch (InterruptedException e)
+      {
+        // Nothing interrupts this thread on purpose. Keep going so that queued records are not lost.
+        Thread.interrupted();
+      }
+      catch (Exception e)
+      {
+        log.error(LibUtils.getMsg("SYSLIB_AUDIT_BATCH_ERR", batch.size(), e.getMessage()), e);
+      }
+      finally
+      {
+        batch.clear();
+      }
+    }
+  }
+
+  /*
+   * Write a batch in a single transaction. If that fails write the records one at a time so that one bad record
+   *   does not cause the rest of the batch to be lost.
+   */
+  private void write(List<PendingUpdate> batch)
+  {
+    var dao = new SystemsDaoImpl();
+    try
+    {
+      dao.addUpdateRecords(batch);
+      for (PendingUpdate update : batch) update.complete(null);
+      return;
+    }
+    catch (Exception e)
+    {
+      if (batch.size() == 1)
+      {
+        failed(batch.get(0), e);
+        return;
+      }
+      log.warn(LibUtils.getMsg("SYSLIB_AUDIT_BATCH_ERR", batch.size(), e.getMessage()));
+    }
+    for (PendingUpdate update : batch)
+    {
+      try
+      {
+        dao.addUpdateRecords(List.of(update));
+        update.complete(null);
+      }
+      catch (Exception e) { failed(update, e); }
+    }
+  }
+
+  private static void failed(PendingUpdate update, Exception e)
+  {
+    log.error(LibUtils.getMsg("SYSLIB_AUDIT_WRITE_ERR", update.rUser.getOboTenantId(), update.sysId, update.op,
+                              e.getMessage()), e);
+    update.complete(e);
+  }
+
+  // ************************************************************************
+  // *********************** PendingUpdate **********************************
+  // ************************************************************************
+
+  /*
+   * A record waiting to be written. committed is only set when the caller waits for the write.
+   */
+  static final class PendingUpdate
+  {
+    final ResourceRequestUser rUser;
+    final String sysId;
+    final SystemOperation op;
+    final String changeDescription;
+    final String rawData;
+    private final CompletableFuture<Void> committed;
+
+    PendingUpdate(ResourceRequestUser rUser1, String sysId1, SystemOperation op1, String changeDescription1,
+                  String rawData1, boolean waitForCommit)
+    {
+      rUser = rUser1;
+      sysId = sysId1;
+      op = op1;
+      changeDescription = changeDescription1;
+      rawData = rawData1;
+      committed = waitForCommit ? new CompletableFuture<>() : null;
+    }
+
+    private void complete(Exception e)
+    {
+      if (committed == null) return;
+      if (e == null) committed.complete(null);
+      else committed.completeExceptionally(e);
+    }
+  }
+}
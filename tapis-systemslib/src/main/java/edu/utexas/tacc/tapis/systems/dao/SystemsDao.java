@@ -1,14 +1,27 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.search.parser.ASTNode;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.model.ChildSyncEntry;
 import edu.utexas.tacc.tapis.systems.model.SchedulerProfile;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemAclSyncEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
 import edu.utexas.tacc.tapis.systems.model.SystemHistoryItem;
+import edu.utexas.tacc.tapis.systems.model.SystemUpdatesStorage;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
@@ -22,6 +35,17 @@ public interface SystemsDao
 
   void migrateDB() throws TapisException;
 
+  /**
+   * Work to be run as a single unit using one connection and transaction. See inTransaction().
+   */
+  @FunctionalInterface
+  interface UnitOfWork<T>
+  {
+    T execute(SystemsDao txDao) throws TapisException, TapisClientException;
+  }
+
+  <T> T inTransaction(UnitOfWork<T> work) throws TapisException, TapisClientException;
+
   /* ********************************************************************** */
   /*                             Systems                                    */
   /* ********************************************************************** */
@@ -29,10 +53,10 @@ public interface SystemsDao
   boolean createSystem(ResourceRequestUser rUser, TSystem system, String changeDescription, String rawData)
           throws TapisException, IllegalStateException;
 
-  void putSystem(ResourceRequestUser rUser, TSystem putSystem, String changeDescription, String rawData)
+  boolean putSystem(ResourceRequestUser rUser, TSystem putSystem, String changeDescription, String rawData)
           throws TapisException, IllegalStateException;
 
-  void patchSystem(ResourceRequestUser rUser, String systemId, TSystem patchedSystem, String changeDescription, String rawData)
+  boolean patchSystem(ResourceRequestUser rUser, String systemId, TSystem patchedSystem, String changeDescription, String rawData)
           throws TapisException, IllegalStateException;
 
   void updateSystemOwner(ResourceRequestUser rUser, String id, String oldOwner, String newOwner) throws TapisException;
@@ -62,6 +86,8 @@ public interface SystemsDao
 
   TSystem getSystem(String tenantId, String id, boolean includeDeleted) throws TapisException;
 
+  SystemVersion getSystemVersion(String tenantId, String id) throws TapisException;
+
   int getSystemsCount(ResourceRequestUser rUser, String oboUser, List<String> searchList, ASTNode searchAST,
                       List<OrderBy> orderByList, String startAfter, boolean includeDeleted, AuthListType listType,
                       Set<String> viewableIDs, Set<String> sharedIDs)
@@ -72,6 +98,16 @@ public interface SystemsDao
                            AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs)
           throws TapisException;
 
+  int getSystemsCount(ResourceRequestUser rUser, String oboUser, List<String> searchList, ASTNode searchAST,
+                      List<OrderBy> orderByList, String startAfter, boolean includeDeleted, AuthListType listType,
+                      Set<String> viewableIDs, Set<String> sharedIDs, boolean useAcl)
+          throws TapisException;
+
+  List<TSystem> getSystems(ResourceRequestUser rUser, String oboUser, List<String> searchList, ASTNode searchAST,
+                           int limit, List<OrderBy> orderByList, int skip, String startAfter, boolean includeDeleted,
+                           AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs, boolean useAcl)
+          throws TapisException;
+
   Set<String> getSystemIDs(String tenant, boolean includeDeleted) throws TapisException;
 
   List<TSystem> getSystemsSatisfyingConstraints(String tenantId, ASTNode matchAST, Set<String> setOfIDs) throws TapisException;
@@ -104,5 +140,95 @@ public interface SystemsDao
 
   String getSchedulerProfileOwner(String tenant, String name) throws TapisException;
 
-  List<SystemHistoryItem> getSystemHistory(String oboTenant, String systemId) throws TapisException;
+  List<SystemHistoryItem> getSystemHistory(String oboTenant, String systemId, Instant startTime, Instant endTime)
+          throws TapisException;
+
+  List<SystemChange> getSystemChanges(String oboTenant, int sinceSeqId, int limit) throws TapisException;
+
+  List<SystemChangeEvent> getSystemChangeEvents(String oboTenant, SystemChangeCursor since, int limit)
+          throws TapisException;
+
+  SystemChangeCursor getSystemChangesHead(String oboTenant) throws TapisException;
+
+  /* ********************************************************************** */
+  /*                             System ACL                                 */
+  /* ********************************************************************** */
+
+  SystemAclSyncEntry getAclSyncEntry(String tenant, String grantee) throws TapisException;
+
+  void markAclUsed(String tenant, String grantee) throws TapisException;
+
+  List<SystemAclSyncEntry> getStaleAclSyncEntries(Instant olderThan, int limit) throws TapisException;
+
+  int deleteUnusedAclSyncEntries(Instant olderThan) throws TapisException;
+
+  void invalidateAclSync(String tenant, String grantee) throws TapisException;
+
+  boolean replaceAcl(String tenant, String grantee, Map<String, Set<String>> permsBySystemId,
+                     Set<String> sharedSystemIds, long expectedVersion)
+          throws TapisException;
+
+  void addAclPerms(String tenant, String systemId, String grantee, Set<String> perms) throws TapisException;
+
+  void removeAclPerms(String tenant, String systemId, String grantee, Set<String> perms) throws TapisException;
+
+  void addAclShares(String tenant, String systemId, Set<String> grantees) throws TapisException;
+
+  void removeAclShares(String tenant, String systemId, Set<String> grantees) throws TapisException;
+
+  void removeAcl(String tenant, String systemId) throws TapisException;
+
+  Set<String> getAclViewableSystemIDs(String tenant, String grantee) throws TapisException;
+
+  Set<String> getAclSharedSystemIDs(String tenant, Set<String> grantees) throws TapisException;
+
+  /* ********************************************************************** */
+  /*                             SK Outbox                                  */
+  /* ********************************************************************** */
+
+  void addSkOutboxEntries(List<SkOutboxEntry> entries) throws TapisException;
+
+  List<SkOutboxEntry> claimSkOutboxEntries(String tenant, String systemId, int limit, Instant leaseUntil)
+          throws TapisException;
+
+  void deleteSkOutboxEntry(int seqId) throws TapisException;
+
+  void rescheduleSkOutboxEntry(int seqId, Instant nextAttempt, String errorMsg) throws TapisException;
+
+  void deadLetterSkOutboxEntry(int seqId, String errorMsg) throws TapisException;
+
+  List<SkOutboxEntry> getDeadLetterSkOutboxEntries(String tenant) throws TapisException;
+
+  int requeueSkOutboxEntries(String tenant, String systemId) throws TapisException;
+
+  int discardSkOutboxEntries(String tenant, String systemId) throws TapisException;
+
+  boolean hasSkOutboxEntries(String tenant, String systemId) throws TapisException;
+
+  /* ********************************************************************** */
+  /*                             Child Sync                                 */
+  /* ********************************************************************** */
+
+  List<ChildSyncEntry> getDueChildSyncEntries(String tenant, String parentId, int limit) throws TapisException;
+
+  boolean syncChildSystems(String tenant, String parentId) throws TapisException;
+
+  void rescheduleChildSync(String tenant, String parentId, Instant nextAttempt, String errorMsg)
+          throws TapisException;
+
+  /* ********************************************************************** */
+  /*                       System Updates Partitions                        */
+  /* ********************************************************************** */
+
+  List<String> createSystemUpdatesPartitions(YearMonth through) throws TapisException;
+
+  List<String> detachSystemUpdatesPartitions(YearMonth before) throws TapisException;
+
+  List<String> getDetachedSystemUpdatesPartitions() throws TapisException;
+
+  long archiveSystemUpdatesPartition(String partition, Path archiveFile) throws TapisException;
+
+  SystemUpdatesStorage getSystemUpdatesStorage() throws TapisException;
+
+  int compressSystemUpdatesRawData(int afterSeqId, int batchSize) throws TapisException;
 }
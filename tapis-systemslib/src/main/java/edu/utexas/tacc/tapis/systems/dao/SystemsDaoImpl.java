@@ -1,40 +1,76 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
 import java.util.UUID;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.sql.DataSource;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.flywaydb.core.Flyway;
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.InsertSetMoreStep;
 import org.jooq.OrderField;
+import org.jooq.Query;
 import org.jooq.Record;
+import org.jooq.Record2;
 import org.jooq.Result;
-import org.jooq.SelectConditionStep;
+import org.jooq.Row2;
+import org.jooq.Table;
+import org.jooq.UpdateResultStep;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.jooq.impl.SQLDataType;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.search.parser.ASTBinaryExpression;
 import edu.utexas.tacc.tapis.search.parser.ASTLeaf;
 import edu.utexas.tacc.tapis.search.parser.ASTNode;
 import edu.utexas.tacc.tapis.search.parser.ASTUnaryExpression;
 import edu.utexas.tacc.tapis.search.SearchUtils;
 import edu.utexas.tacc.tapis.search.SearchUtils.SearchOperator;
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.shared.TapisConstants;
 import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.utils.TapisUtils;
@@ -45,21 +81,38 @@ import edu.utexas.tacc.tapis.shared.exceptions.recoverable.TapisDBConnectionExce
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.shareddb.datasource.TapisDataSource;
 import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SchedulerProfilesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SchedProfileModLoadRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.ChildSyncRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SkOutboxRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemAclRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemAclSyncRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUpdatesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemsRecord;
 import edu.utexas.tacc.tapis.systems.model.KeyValuePair;
 import edu.utexas.tacc.tapis.systems.model.ModuleLoadSpec;
 import edu.utexas.tacc.tapis.systems.model.SchedulerProfile;
+import edu.utexas.tacc.tapis.systems.model.ChildSyncEntry;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry.SkOutboxOperation;
+import edu.utexas.tacc.tapis.systems.model.SystemAclSyncEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
 import edu.utexas.tacc.tapis.systems.model.SystemHistoryItem;
+import edu.utexas.tacc.tapis.systems.model.SystemUpdatesStorage;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import edu.utexas.tacc.tapis.systems.model.Capability;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
 import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
 import edu.utexas.tacc.tapis.systems.model.JobRuntime;
+import edu.utexas.tacc.tapis.systems.service.SystemChangeBus;
+import edu.utexas.tacc.tapis.systems.service.SystemsEvents;
 import edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl.AuthListType;
+import edu.utexas.tacc.tapis.systems.utils.JsonSearchUtils;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
 
 import static edu.utexas.tacc.tapis.search.SearchUtils.SearchOperator.CONTAINS;
@@ -83,21 +136,155 @@ public class SystemsDaoImpl implements SystemsDao
   private static final String EMPTY_JSON = "{}";
   private static final int INVALID_SEQ_ID = -1;
 
-  // Create a static Set of column names for table SYSTEMS
-  private static final Set<String> SYSTEMS_FIELDS = new HashSet<>();
-  static
-  {
-    for (Field<?> field : SYSTEMS.fields()) { SYSTEMS_FIELDS.add(field.getName()); }
-  }
+  // Oldest transaction still running. Records of transactions older than this have all been committed or rolled
+  //   back, so the change feed only returns those. See getSystemChanges().
+  private static final Field<Long> OLDEST_RUNNING_TXID =
+          DSL.field("txid_snapshot_xmin(txid_current_snapshot())", SQLDataType.BIGINT);
+
+  // Next sequence id for a system_updates record, and the value the created column defaults to. Used when the
+  //   sequence ids of several records are reserved up front.
+  private static final Field<Integer> NEXT_UPDATE_SEQ_ID =
+          DSL.field("nextval('system_updates_seq_id_seq')", SQLDataType.INTEGER);
+  private static final Field<LocalDateTime> SYSTEM_UPDATES_NOW =
+          DSL.field("timezone('utc'::text, now())", SQLDataType.LOCALDATETIME);
 
   // Compiled regexes for splitting around "\." and "\$"
   private static final Pattern DOT_SPLIT = Pattern.compile("\\.");
   private static final Pattern DOLLAR_SPLIT = Pattern.compile("\\$");
 
+  // Types of entries in the system_acl table
+  private static final String ACL_TYPE_PERM = "PERM";
+  private static final String ACL_TYPE_SHARE = "SHARE";
+  // Permissions recorded for a share and permissions that allow a user to see a system
+  private static final Set<String> ACL_SHARE_PERMS = Set.of(TSystem.Permission.READ.name(), TSystem.Permission.EXECUTE.name());
+  private static final String[] ACL_VIEW_PERMS = {TSystem.Permission.READ.name(), TSystem.Permission.MODIFY.name(),
+                                                  TSystem.PERMISSION_WILDCARD};
+  // Sync time recorded for ACL entries that must be refreshed from SK before use
+  private static final LocalDateTime ACL_NOT_SYNCED = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+  // Share attributes derived from the ACL entries. Used for search and sort when list queries use the ACL entries.
+  //   isPublic: system has a share with the public grantee
+  //   sharedWithUsers: sorted array of users the system is shared with, empty if none
+  private static final Field<Boolean> ACL_IS_PUBLIC =
+          DSL.field(DSL.exists(DSL.selectOne().from(SYSTEM_ACL)
+                                  .where(aclSharesOfSystem(), SYSTEM_ACL.GRANTEE.eq(SKClient.PUBLIC_GRANTEE))));
+  private static final Field<String[]> ACL_SHARED_WITH_USERS =
+          DSL.field(DSL.select(DSL.coalesce(DSL.arrayAgg(SYSTEM_ACL.GRANTEE).orderBy(SYSTEM_ACL.GRANTEE),
+                                            DSL.val(new String[0])))
+                       .from(SYSTEM_ACL)
+                       .where(aclSharesOfSystem(), SYSTEM_ACL.GRANTEE.ne(SKClient.PUBLIC_GRANTEE)));
+  private static final Map<String, Field<?>> ACL_SHARE_FIELDS =
+          Map.of(SearchUtils.camelCaseToSnakeCase(TSystem.IS_PUBLIC_FIELD), ACL_IS_PUBLIC,
+                 SearchUtils.camelCaseToSnakeCase(TSystem.SHARED_WITH_USERS_FIELD), ACL_SHARED_WITH_USERS);
+
+  // Monthly partitions of the system_updates table are named system_updates_pYYYYMM
+  private static final String SYS_UPD_PARTITION_PREFIX = "system_updates_p";
+  private static final Pattern SYS_UPD_PARTITION_PATTERN = Pattern.compile("system_updates_p\\d{6}");
+  private static final DateTimeFormatter SYS_UPD_PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+  private static final String SYS_UPD_DEFAULT_PARTITION = "system_updates_default";
+  // Advisory lock held while partitions are being changed, so only one instance of the service does the work
+  private static final long SYS_UPD_PARTITION_LOCK = 0x5359535550444154L;
+  // Number of rows fetched at a time when archiving a partition
+  private static final int SYS_UPD_ARCHIVE_FETCH_SIZE = 1000;
+
+  // Columns a child system takes from its parent
+  private static final List<Field<?>> CHILD_INHERITED_FIELDS =
+          List.of(SYSTEMS.DESCRIPTION, SYSTEMS.SYSTEM_TYPE, SYSTEMS.HOST, SYSTEMS.DEFAULT_AUTHN_METHOD,
+                  SYSTEMS.BUCKET_NAME, SYSTEMS.PORT, SYSTEMS.USE_PROXY, SYSTEMS.PROXY_HOST, SYSTEMS.PROXY_PORT,
+                  SYSTEMS.DTN_SYSTEM_ID, SYSTEMS.CAN_EXEC, SYSTEMS.CAN_RUN_BATCH, SYSTEMS.ENABLE_CMD_PREFIX,
+                  SYSTEMS.MPI_CMD, SYSTEMS.JOB_RUNTIMES, SYSTEMS.JOB_WORKING_DIR, SYSTEMS.JOB_ENV_VARIABLES,
+                  SYSTEMS.JOB_MAX_JOBS, SYSTEMS.JOB_MAX_JOBS_PER_USER, SYSTEMS.BATCH_SCHEDULER,
+                  SYSTEMS.BATCH_LOGICAL_QUEUES, SYSTEMS.BATCH_DEFAULT_LOGICAL_QUEUE, SYSTEMS.BATCH_SCHEDULER_PROFILE,
+                  SYSTEMS.JOB_CAPABILITIES, SYSTEMS.TAGS, SYSTEMS.NOTES, SYSTEMS.IMPORT_REF_ID, SYSTEMS.UUID,
+                  SYSTEMS.ALLOW_CHILDREN);
+  // Children of a parent with more than this many children are not updated in the same transaction as the parent.
+  //   The update is queued in table child_sync and made in chunks of this size, one transaction per chunk.
+  //   Not final so that tests can use a small value.
+  static int childUpdateChunkSize = 500;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // Connection for a unit of work started by inTransaction(). Null for the normal case where each call
+  //   gets, commits and returns its own connection.
+  private final Connection txConn;
+
+  // Changes made during a unit of work. Published once the unit of work has been committed.
+  private final List<SystemChangeEvent> txChanges;
+
+  // Applied to the DAO passed to a unit of work, e.g. to time and trace its calls the same way as calls made
+  //   through the DAO itself.
+  private final UnaryOperator<SystemsDao> txDaoWrapper;
+
+  /* ********************************************************************** */
+  /*                              Constructors                              */
+  /* ********************************************************************** */
+  public SystemsDaoImpl() { this(UnaryOperator.identity()); }
+
+  /**
+   * @param txDaoWrapper1 - applied to the DAO passed to each unit of work, see inTransaction()
+   */
+  public SystemsDaoImpl(UnaryOperator<SystemsDao> txDaoWrapper1) { this(null, txDaoWrapper1); }
+
+  private SystemsDaoImpl(Connection txConn1, UnaryOperator<SystemsDao> txDaoWrapper1)
+  {
+    txConn = txConn1;
+    txChanges = (txConn1 == null) ? null : new ArrayList<>();
+    txDaoWrapper = txDaoWrapper1;
+  }
+
   /* ********************************************************************** */
   /*                             Public Methods                             */
   /* ********************************************************************** */
 
+  /**
+   * Run a unit of work using a single connection and transaction.
+   * All calls made using the DAO passed to the work share the connection. Changes are committed when the work
+   *   completes normally and rolled back if it throws. Changes are published to watchers only after the commit.
+   * If called on a DAO that is already part of a unit of work, the work joins the existing transaction.
+   *
+   * @param work - work to be run
+   * @return result of the work
+   * @throws TapisException - on error
+   * @throws TapisClientException - if thrown by the work
+   */
+  @Override
+  public <T> T inTransaction(UnitOfWork<T> work) throws TapisException, TapisClientException
+  {
+    if (work == null) LibUtils.logAndThrowNullParmException("inTransaction", "work");
+    // Already part of a unit of work, join it.
+    if (txConn != null) return work.execute(txDaoWrapper.apply(this));
+
+    T result = null;
+    SystemsDaoImpl txDao = null;
+    Connection conn = null;
+    try
+    {
+      conn = getConnection();
+      txDao = new SystemsDaoImpl(conn, txDaoWrapper);
+      result = work.execute(txDaoWrapper.apply(txDao));
+      LibUtils.closeAndCommitDB(conn, null, null);
+    }
+    catch (RuntimeException | TapisClientException e)
+    {
+      // Exceptions meant for the caller, such as NotFound or Forbidden, are passed back unchanged.
+      try { if (conn != null) conn.rollback(); }
+      catch (Exception e1) { log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1); }
+      throw e;
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      LibUtils.rollbackDB(conn, e, "SYSLIB_DB_TX_ERROR", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      LibUtils.finalCloseDB(conn);
+    }
+    SystemChangeBus.getInstance().publish(txDao.txChanges);
+    return result;
+  }
+
   /**
    * Create a new system.
    *
@@ -141,8 +328,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       if(!StringUtils.isBlank(system.getParentId())) {
         // in the case of a child system (the parentId is not null) we must guard against race conditions related
@@ -220,20 +407,21 @@ public class SystemsDaoImpl implements SystemsDao
       if (seqId < 1) return false;
 
       // Persist change history record
-      addUpdate(db, rUser, system.getId(), seqId, SystemOperation.create, changeDescription, rawData, system.getUuid());
+      var change = addUpdate(db, rUser, system.getId(), seqId, SystemOperation.create, changeDescription, rawData, system.getUuid());
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return true;
   }
@@ -245,11 +433,13 @@ public class SystemsDaoImpl implements SystemsDao
    *   port, useProxy, proxyHost, proxyPort, dtnSystemId,
    *   jobRuntimes, jobWorkingDir, jobEnvVariables, jobMaxJobs, jobMaxJobsPerUers, canRunBatch,
    *   batchScheduler, batchLogicalQueues, batchDefaultLogicalQueue, batchSchedulerProfile, jobCapabilities, tags, notes.
+   * If the version of putSystem is set then the update is only applied if the version in the DB still matches.
+   * @return true if update applied, false if the system was modified concurrently
    * @throws TapisException - on error
    * @throws IllegalStateException - if system already exists
    */
   @Override
-  public void putSystem(ResourceRequestUser rUser, TSystem putSystem, String changeDescription, String rawData)
+  public boolean putSystem(ResourceRequestUser rUser, TSystem putSystem, String changeDescription, String rawData)
           throws TapisException, IllegalStateException {
     String opName = "putSystem";
     // ------------------------- Check Input -------------------------
@@ -285,24 +475,13 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       // Make sure system exists and has not been deleted.
       boolean doesExist = checkForSystem(db, tenantId, systemId, false);
       if (!doesExist) throw new IllegalStateException(LibUtils.getMsgAuth("SYSLIB_NOT_FOUND", rUser, systemId));
 
-      if(!putSystem.isAllowChildren()) {
-        // in the case of a parent system that has allowChildren set to false, we must guard against race conditions related
-        // to the allowChildren flag.  We will read the parent system for update ('lock'), and then check to see
-        // if the system has children.  If not we can proceed, but if it does have children we can't allow the patch to
-        // go through.
-        TSystem system = getSystemForUpdate(db, tenantId, systemId);
-        if((system != null) && hasChildren(tenantId, systemId)) {
-          throw new IllegalStateException(LibUtils.getMsg("SYSLIB_CHILD_ALLOW_CONFLICT_ERROR", rUser, opName, systemId));
-        }
-      }
-
       // Make sure UUID filled in, needed for update record. Pre-populated putSystem may not have it.
       UUID uuid = putSystem.getUuid();
       if (uuid == null) uuid = getUUIDUsingDb(db, tenantId, systemId);
@@ -335,34 +514,41 @@ public class SystemsDaoImpl implements SystemsDao
               .set(SYSTEMS.NOTES, notesObj)
               .set(SYSTEMS.IMPORT_REF_ID, putSystem.getImportRefId())
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
-              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(systemId))
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
+              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(systemId), versionCondition(putSystem.getVersion()))
               .returningResult(SYSTEMS.SEQ_ID)
               .fetchOne();
 
-      // If result is null it is an error
+      // If result is null then the version did not match, the system was modified after it was read.
       if (result == null)
       {
-        throw new TapisException(LibUtils.getMsgAuth("SYSLIB_DB_NULL_RESULT", rUser, systemId, opName));
+        closeAndCommitDB(conn);
+        return false;
       }
 
+      // Guard against a race with creation of child systems. See checkAllowChildrenConflict.
+      checkAllowChildrenConflict(db, rUser, opName, tenantId, systemId, putSystem.isAllowChildren());
+
       int seqId = result.getValue(SYSTEMS.SEQ_ID);
 
       // Persist update record
-      addUpdate(db, rUser, putSystem.getId(), seqId, SystemOperation.modify, changeDescription, rawData, uuid);
+      var change = addUpdate(db, rUser, putSystem.getId(), seqId, SystemOperation.modify, changeDescription, rawData, uuid);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
+    return true;
   }
 
   /**
@@ -372,11 +558,13 @@ public class SystemsDaoImpl implements SystemsDao
    *   port, useProxy, proxyHost, proxyPort, dtnSystemId,
    *   jobRuntimes, jobWorkingDir, jobEnvVariables, jobMaxJobs, jobMaxJobsPerUers, canRunBatch,
    *   batchScheduler, batchLogicalQueues, batchDefaultLogicalQueue, batchSchedulerProfile, jobCapabilities, tags, notes.
+   * If the version of patchedSystem is set then the update is only applied if the version in the DB still matches.
+   * @return true if update applied, false if the system was modified concurrently
    * @throws TapisException - on error
    * @throws IllegalStateException - if system already exists
    */
   @Override
-  public void patchSystem(ResourceRequestUser rUser, String systemId, TSystem patchedSystem, String changeDescription, String rawData)
+  public boolean patchSystem(ResourceRequestUser rUser, String systemId, TSystem patchedSystem, String changeDescription, String rawData)
           throws TapisException, IllegalStateException
   {
     String opName = "patchSystem";
@@ -413,25 +601,16 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
-
-      if(!patchedSystem.isAllowChildren()) {
-        // in the case of a parent system that has allowChildren set to false, we must guard against race conditions related
-        // to the allowChildren flag.  We will read the parent system for update ('lock'), and then check to see
-        // if the system has children.  If not we can proceed, but if it does have children we can't allow the patch to
-        // go through.
-        TSystem parentSystem = getSystemForUpdate(db, tenant, systemId);
-        if((parentSystem == null) && hasChildren(tenant, systemId)) {
-          throw new IllegalStateException(LibUtils.getMsg("SYSLIB_CHILD_ALLOW_CONFLICT_ERROR", rUser, opName, systemId));
-        }
-      }
-
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       // Make sure system exists and has not been deleted.
       boolean doesExist = checkForSystem(db, tenant, systemId, false);
       if (!doesExist) throw new IllegalStateException(LibUtils.getMsgAuth("SYSLIB_NOT_FOUND", rUser, systemId));
 
+      // Current values are needed to determine which columns children must be updated with
+      SystemsRecord before = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenant),SYSTEMS.ID.eq(systemId))
+                               .forUpdate().fetchOne();
 
       var result = db.update(SYSTEMS)
               .set(SYSTEMS.DESCRIPTION, patchedSystem.getDescription())
@@ -461,36 +640,46 @@ public class SystemsDaoImpl implements SystemsDao
               .set(SYSTEMS.IMPORT_REF_ID, patchedSystem.getImportRefId())
               .set(SYSTEMS.ALLOW_CHILDREN, patchedSystem.isAllowChildren())
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
-              .where(SYSTEMS.TENANT.eq(tenant),SYSTEMS.ID.eq(systemId))
-              .returningResult(SYSTEMS.SEQ_ID)
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
+              .where(SYSTEMS.TENANT.eq(tenant),SYSTEMS.ID.eq(systemId), versionCondition(patchedSystem.getVersion()))
+              .returning()
               .fetchOne();
 
-      // If result is null it is an error
+      // If result is null then the version did not match, the system was modified after it was read.
       if (result == null)
       {
-        throw new TapisException(LibUtils.getMsgAuth("SYSLIB_DB_NULL_RESULT", rUser, systemId, opName));
+        closeAndCommitDB(conn);
+        return false;
       }
 
-      updateChildSystemsFromParent(db, tenant, systemId);
+      // Guard against a race with creation of child systems. See checkAllowChildrenConflict.
+      checkAllowChildrenConflict(db, rUser, opName, tenant, systemId, patchedSystem.isAllowChildren());
 
       int seqId = result.getValue(SYSTEMS.SEQ_ID);
 
       // Persist update record
-      addUpdate(db, rUser, systemId, seqId, SystemOperation.modify, changeDescription, rawData, patchedSystem.getUuid());
+      var change = addUpdate(db, rUser, systemId, seqId, SystemOperation.modify, changeDescription, rawData, patchedSystem.getUuid());
+
+      var childChanges = updateChildSystemsFromParent(db, rUser.getJwtTenantId(), rUser.getJwtUserId(),
+                                                      rUser.getOboUserId(), tenant, systemId,
+                                                      getChangedInheritedFields(before, result));
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
+      publishChanges(childChanges);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
+    return true;
   }
 
   /**
@@ -512,30 +701,32 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.update(SYSTEMS)
               .set(SYSTEMS.ENABLED, enabled)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
       // Persist update record
       String changeDescription = "{\"enabled\":" +  enabled + "}";
-      addUpdate(db, rUser, id, INVALID_SEQ_ID, systemOp, changeDescription , null, getUUIDUsingDb(db, tenantId, id));
+      var change = addUpdate(db, rUser, id, INVALID_SEQ_ID, systemOp, changeDescription , null, getUUIDUsingDb(db, tenantId, id));
 
-      updateChildSystemsFromParent(db, tenantId, id);
+      // Nothing to update for child systems, enabled is not inherited.
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", id);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", id);
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -558,22 +749,24 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.update(SYSTEMS)
               .set(SYSTEMS.DELETED, deleted)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
               .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
       // Persist update record
       String changeDescription = "{\"deleted\":" +  deleted + "}";
-      addUpdate(db, rUser, id, INVALID_SEQ_ID, systemOp, changeDescription , null, getUUIDUsingDb(db, tenantId, id));
+      var change = addUpdate(db, rUser, id, INVALID_SEQ_ID, systemOp, changeDescription , null, getUUIDUsingDb(db, tenantId, id));
 
       // if we undeleted a child system, we need to make sure it has the current info from
       // the parent.
       if(!deleted) {
-        String parentId = db.selectFrom(SYSTEMS)
-                        .where(SYSTEMS.ID.eq(id).and(SYSTEMS.DELETED.eq(false)))
-                        .fetchOne(SYSTEMS.PARENT_ID);
+        SystemsRecord childRecord = db.selectFrom(SYSTEMS)
+                        .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.ID.eq(id), SYSTEMS.DELETED.isFalse())
+                        .fetchOne();
+        String parentId = (childRecord == null) ? null : childRecord.getParentId();
         if(!StringUtils.isBlank(parentId)) {
           TSystem parentSystem = getSystemForUpdate(db, tenantId, parentId);
           // Make sure we can still find the parent
@@ -587,25 +780,25 @@ public class SystemsDaoImpl implements SystemsDao
             throw new IllegalStateException(LibUtils.getMsg("SYSLIB_CHILD_NOT_PERMITTED", rUser, id));
           }
 
-          // we really only need to update a single system - the one that was undeleted.  This method
-          // updates all children of "parentId", but it should be relatively quick anyway. If it becomes
-          // a problem, this is a potential optimization.
-          updateChildSystemsFromParent(db, tenantId, parentId);
+          // Only the system that was undeleted needs to be updated. Other children are already up to date.
+          // The undelete record already covers the change, so no record is added for the update.
+          updateChildSystems(db, tenantId, parentId, CHILD_INHERITED_FIELDS, List.of(childRecord.getSeqId()));
         }
       }
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sytems", id);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sytems", id);
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -628,24 +821,25 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.update(SYSTEMS)
               .set(SYSTEMS.OWNER, newOwner)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
               .where(SYSTEMS.TENANT.eq(tenant),SYSTEMS.ID.eq(id)).execute();
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", id);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", id);
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -665,28 +859,30 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.update(SYSTEMS)
               .set(SYSTEMS.PARENT_ID, (String)null)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
-              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(childSystemId), SYSTEMS.DELETED.eq(false)).execute();
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
+              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(childSystemId), SYSTEMS.DELETED.isFalse()).execute();
 
       String changeDescription = "{\"parentId\":\"\"}";
-      addUpdate(db, rUser, childSystemId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childSystemId));
+      var change = addUpdate(db, rUser, childSystemId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childSystemId));
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", childSystemId);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", childSystemId);
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -707,36 +903,39 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       List<String> childIds = db.update(SYSTEMS)
               .set(SYSTEMS.PARENT_ID, (String)null)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
-              .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.PARENT_ID.eq(parentSystemId), SYSTEMS.ID.in(childSystemsToUnlink), SYSTEMS.DELETED.eq(false))
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
+              .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.PARENT_ID.eq(parentSystemId), idInSet(SYSTEMS.ID, childSystemsToUnlink), SYSTEMS.DELETED.isFalse())
               .returningResult(SYSTEMS.ID).fetch(SYSTEMS.ID);
 
 
+      List<SystemChangeEvent> changes = new ArrayList<>();
       if(childIds != null) {
         for (String childId : childIds) {
           String changeDescription = "{\"parentId\":\"\"}";
-          addUpdate(db, rUser, childId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childId));
+          changes.add(addUpdate(db, rUser, childId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childId)));
         }
       }
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(changes);
       return childIds.size();
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", parentSystemId);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", parentSystemId);
       return 0;
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -757,36 +956,39 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       List<String> childIds = db.update(SYSTEMS)
               .set(SYSTEMS.PARENT_ID, (String)null)
               .set(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow())
-              .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.PARENT_ID.eq(parentSystemId), SYSTEMS.DELETED.eq(false))
+              .set(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1))
+              .where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.PARENT_ID.eq(parentSystemId), SYSTEMS.DELETED.isFalse())
               .returningResult(SYSTEMS.ID).fetch(SYSTEMS.ID);
 
 
+      List<SystemChangeEvent> changes = new ArrayList<>();
       if(childIds != null) {
         for (String childId : childIds) {
           String changeDescription = "{\"parentId\":\"\"}";
-          addUpdate(db, rUser, childId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childId));
+          changes.add(addUpdate(db, rUser, childId, INVALID_SEQ_ID, SystemOperation.modify, changeDescription , null, getUUIDUsingDb(db, tenantId, childId)));
         }
       }
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(changes);
       return childIds.size();
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", parentSystemId);
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "systems", parentSystemId);
       return 0;
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -805,18 +1007,18 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.deleteFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).execute();
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
-      LibUtils.rollbackDB(conn, e,"DB_DELETE_FAILURE", "systems");
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "systems");
     }
     finally
     {
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return 1;
   }
@@ -833,8 +1035,8 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // execute SELECT to_regclass('tapis_sys.systems');
       // Build and execute a simple postgresql statement to check for the table
       String sql = "SELECT to_regclass('" + SYSTEMS.getName() + "')";
@@ -843,7 +1045,7 @@ public class SystemsDaoImpl implements SystemsDao
       {
         result = new TapisException(LibUtils.getMsg("SYSLIB_CHECKDB_NO_TABLE", SYSTEMS.getName()));
       }
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
@@ -851,7 +1053,7 @@ public class SystemsDaoImpl implements SystemsDao
     }
     finally
     {
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -886,22 +1088,22 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // Run the sql
       result = checkForSystem(db, tenantId, id, includeDeleted);
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_SELECT_NAME_ERROR", "System", tenantId, id, e.getMessage());
+      rollbackDB(conn, e,"DB_SELECT_NAME_ERROR", "System", tenantId, id, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -922,28 +1124,28 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // Run the sql
       Boolean b = db.selectFrom(SYSTEMS)
-              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.PARENT_ID.eq(systemId),SYSTEMS.DELETED.eq(false))
+              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.PARENT_ID.eq(systemId),SYSTEMS.DELETED.isFalse())
               .limit(1)
               .fetchOne(SYSTEMS.ENABLED);
       if (b != null) {
         result = b;
       }
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, systemId, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, systemId, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -963,25 +1165,25 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // Run the sql
       Boolean b = db.selectFrom(SYSTEMS)
-              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(sysId),SYSTEMS.DELETED.eq(false))
+              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(sysId),SYSTEMS.DELETED.isFalse())
               .fetchOne(SYSTEMS.ENABLED);
       if (b != null) result = b;
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, sysId, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, sysId, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -1001,25 +1203,25 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // Run the sql
       result = db.selectFrom(SYSTEMS)
-              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(sysId),SYSTEMS.DELETED.eq(false))
+              .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(sysId),SYSTEMS.DELETED.isFalse())
               .fetchOne(SYSTEMS.PARENT_ID);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, sysId, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, sysId, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -1054,28 +1256,75 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       SystemsRecord r;
       if (includeDeleted)
         r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne();
       else
-        r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.eq(false)).fetchOne();
+        r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.isFalse()).fetchOne();
       if (r == null) return null;
       else result = getSystemFromRecord(r);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, id, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, id, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
+    }
+    return result;
+  }
+
+  /**
+   * getSystemVersion
+   * Fetch only the attributes needed for an auth check and to determine if the system has changed.
+   * Avoids decoding the JSONB columns of the full record.
+   * @param id - system name
+   * @return SystemVersion object if found, null if not found or deleted
+   * @throws TapisException - on error
+   */
+  @Override
+  public SystemVersion getSystemVersion(String tenantId, String id) throws TapisException
+  {
+    // Initialize result.
+    SystemVersion result = null;
+
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      Record r = db.select(SYSTEMS.OWNER, SYSTEMS.EFFECTIVE_USER_ID, SYSTEMS.CAN_EXEC, SYSTEMS.UPDATED, SYSTEMS.VERSION)
+                   .from(SYSTEMS)
+                   .where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.isFalse()).fetchOne();
+      if (r != null)
+      {
+        result = new SystemVersion(tenantId, id, r.get(SYSTEMS.OWNER), r.get(SYSTEMS.EFFECTIVE_USER_ID),
+                                   r.get(SYSTEMS.CAN_EXEC), r.get(SYSTEMS.UPDATED).toInstant(ZoneOffset.UTC),
+                                   r.get(SYSTEMS.VERSION));
+      }
+
+      // Close out and commit
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "System", tenantId, id, e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      finalCloseDB(conn);
     }
     return result;
   }
@@ -1087,7 +1336,7 @@ public class SystemsDaoImpl implements SystemsDao
 
     // ------------------------- Call SQL ----------------------------
     SystemsRecord r;
-    r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.ID.eq(id), SYSTEMS.DELETED.eq(false)).forUpdate().fetchOne();
+    r = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId), SYSTEMS.ID.eq(id), SYSTEMS.DELETED.isFalse()).forUpdate().fetchOne();
     if (r == null) {
       return null;
     } else {
@@ -1122,6 +1371,26 @@ public class SystemsDaoImpl implements SystemsDao
                              List<OrderBy> orderByList, String startAfter, boolean includeDeleted,
                              AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs)
           throws TapisException
+  {
+    return getSystemsCount(rUser, oboUser, searchList, searchAST, orderByList, startAfter, includeDeleted, listType,
+                           viewableIDs, sharedIDs, false);
+  }
+
+  /**
+   * getSystemsCount
+   * Count all TSystems matching various search and sort criteria. See getSystemsCount() above.
+   * If useAcl is true the listType condition is built from the local ACL entries (the system_acl table) and
+   *   viewableIDs and sharedIDs are ignored. The share attributes isPublic and sharedWithUsers may then be used
+   *   in search conditions and orderBy. Entries for oboUser and for the public grantee must be up to date.
+   * @param useAcl - use the local ACL entries for authorization filtering and share attributes
+   * @return - count of items
+   * @throws TapisException - on error
+   */
+  @Override
+  public int getSystemsCount(ResourceRequestUser rUser, String oboUser, List<String> searchList, ASTNode searchAST,
+                             List<OrderBy> orderByList, String startAfter, boolean includeDeleted,
+                             AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs, boolean useAcl)
+          throws TapisException
   {
     // For convenience
     String oboTenant = rUser.getOboTenantId();
@@ -1133,7 +1402,7 @@ public class SystemsDaoImpl implements SystemsDao
     if (StringUtils.isBlank(oboUser)) oboUser = rUser.getOboUserId();
 
     // If only looking for public items and there are none in the list we are done.
-    if (publicOnly && (sharedIDs == null || sharedIDs.isEmpty())) return 0;
+    if (!useAcl && publicOnly && (sharedIDs == null || sharedIDs.isEmpty())) return 0;
 
     // Ensure we have a valid listType
     if (listType == null) listType = DEFAULT_LIST_TYPE;
@@ -1167,7 +1436,7 @@ public class SystemsDaoImpl implements SystemsDao
     for (OrderBy orderBy : tmpOrderByList)
     {
       String orderByStr = orderBy.getOrderByAttr();
-      if (StringUtils.isBlank(orderByStr) || !SYSTEMS_FIELDS.contains(SearchUtils.camelCaseToSnakeCase(orderByStr)))
+      if (StringUtils.isBlank(orderByStr) || getSearchField(orderByStr, useAcl) == null)
       {
         String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(orderByStr));
         throw new TapisException(msg);
@@ -1179,16 +1448,16 @@ public class SystemsDaoImpl implements SystemsDao
     //                   tenant = <tenant> and deleted = false
     Condition whereCondition;
     if (includeDeleted) whereCondition = SYSTEMS.TENANT.eq(oboTenant);
-    else whereCondition = (SYSTEMS.TENANT.eq(oboTenant)).and(SYSTEMS.DELETED.eq(false));
+    else whereCondition = (SYSTEMS.TENANT.eq(oboTenant)).and(SYSTEMS.DELETED.isFalse());
 
     // Add searchList or searchAST to where condition
     if (searchList != null)
     {
-      whereCondition = addSearchListToWhere(whereCondition, searchList);
+      whereCondition = addSearchListToWhere(whereCondition, searchList, useAcl);
     }
     else if (searchAST != null)
     {
-      Condition astCondition = createConditionFromAst(searchAST);
+      Condition astCondition = createConditionFromAst(searchAST, useAcl);
       if (astCondition != null) whereCondition = whereCondition.and(astCondition);
     }
 
@@ -1199,22 +1468,27 @@ public class SystemsDaoImpl implements SystemsDao
       String searchStr;
       if (sortAsc) searchStr = majorOrderByStr + ".gt." + startAfter;
       else searchStr = majorOrderByStr + ".lt." + startAfter;
-      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
+      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND", useAcl);
     }
 
     // Build and add the listType condition:
     //  OWNED = single condition where owner = oboUser
-    //  PUBLIC = single condition where id in setOfIDs
-    //  ALL = where (owner = oboUser) OR (id in setOfIDs)
+    //  PUBLIC = single condition where id = any(setOfIDs)
+    //  ALL = where (owner = oboUser) OR (id = any(setOfIDs))
+    // When using the ACL entries the IDs come from a subquery on system_acl, see aclListTypeCondition()
     Condition listTypeCondition = null;
-    if (ownedOnly)
+    if (useAcl)
+    {
+      listTypeCondition = aclListTypeCondition(listType, oboUser);
+    }
+    else if (ownedOnly)
     {
       listTypeCondition = SYSTEMS.OWNER.eq(oboUser);
     }
     else if (publicOnly)
     {
       // NOTE: We check above for sharedIDs == null or is empty so no need to do it here
-      listTypeCondition = SYSTEMS.ID.in(sharedIDs);
+      listTypeCondition = idInSet(SYSTEMS.ID, sharedIDs);
     }
     else if (allItems)
     {
@@ -1224,7 +1498,7 @@ public class SystemsDaoImpl implements SystemsDao
       if (viewableIDs != null && !viewableIDs.isEmpty()) setOfIDs.addAll(viewableIDs);
       if (!setOfIDs.isEmpty())
       {
-        listTypeCondition = listTypeCondition.or(SYSTEMS.ID.in(setOfIDs));
+        listTypeCondition = listTypeCondition.or(idInSet(SYSTEMS.ID, setOfIDs));
       }
     }
     whereCondition = whereCondition.and(listTypeCondition);
@@ -1235,8 +1509,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       // Execute the select including startAfter
       // NOTE: This is much simpler than the same section in getSystems() because we are not ordering since
@@ -1245,17 +1519,17 @@ public class SystemsDaoImpl implements SystemsDao
       count = (countInt == null) ? 0 : countInt;
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return count;
   }
@@ -1288,6 +1562,28 @@ public class SystemsDaoImpl implements SystemsDao
                                   List<OrderBy> orderByList, int skip, String startAfter, boolean includeDeleted,
                                   AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs)
           throws TapisException
+  {
+    return getSystems(rUser, oboUser, searchList, searchAST, limit, orderByList, skip, startAfter, includeDeleted,
+                      listType, viewableIDs, sharedIDs, false);
+  }
+
+  /**
+   * getSystems
+   * Retrieve all TSystems matching various search and sort criteria. See getSystems() above.
+   * If useAcl is true the listType condition is built from the local ACL entries (the system_acl table) and
+   *   viewableIDs and sharedIDs are ignored. The share attributes isPublic and sharedWithUsers may then be used
+   *   in search conditions and orderBy. Entries for oboUser and for the public grantee must be up to date.
+   * @param useAcl - use the local ACL entries for authorization filtering and share attributes
+   * @return - list of TSystem objects
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<TSystem> getSystems(ResourceRequestUser rUser, String oboUser,
+                                  List<String> searchList, ASTNode searchAST, int limit,
+                                  List<OrderBy> orderByList, int skip, String startAfter, boolean includeDeleted,
+                                  AuthListType listType, Set<String> viewableIDs, Set<String> sharedIDs,
+                                  boolean useAcl)
+          throws TapisException
   {
     // The result list should always be non-null.
     List<TSystem> retList = new ArrayList<>();
@@ -1305,7 +1601,7 @@ public class SystemsDaoImpl implements SystemsDao
     boolean ownedOnly = AuthListType.OWNED.equals(listType);
 
     // If only looking for public items and there are none in the list we are done.
-    if (publicOnly && (sharedIDs == null || sharedIDs.isEmpty())) return retList;
+    if (!useAcl && publicOnly && (sharedIDs == null || sharedIDs.isEmpty())) return retList;
 
     // Ensure we have a non-null orderByList
     List<OrderBy> tmpOrderByList = new ArrayList<>();
@@ -1348,8 +1644,8 @@ public class SystemsDaoImpl implements SystemsDao
     for (OrderBy orderBy : tmpOrderByList)
     {
       String orderByStr = orderBy.getOrderByAttr();
-      Field<?> colOrderBy = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(orderByStr)));
-      if (StringUtils.isBlank(orderByStr) || colOrderBy == null)
+      Field<?> colOrderBy = StringUtils.isBlank(orderByStr) ? null : getSearchField(orderByStr, useAcl);
+      if (colOrderBy == null)
       {
         String msg = LibUtils.getMsg("SYSLIB_DB_NO_COLUMN_SORT", SYSTEMS.getName(), DSL.name(orderByStr));
         throw new TapisException(msg);
@@ -1361,16 +1657,16 @@ public class SystemsDaoImpl implements SystemsDao
     // Begin where condition for the query
     Condition whereCondition;
     if (includeDeleted) whereCondition = SYSTEMS.TENANT.eq(oboTenant);
-    else whereCondition = (SYSTEMS.TENANT.eq(oboTenant)).and(SYSTEMS.DELETED.eq(false));
+    else whereCondition = (SYSTEMS.TENANT.eq(oboTenant)).and(SYSTEMS.DELETED.isFalse());
 
     // Add searchList or searchAST to where condition
     if (searchList != null)
     {
-      whereCondition = addSearchListToWhere(whereCondition, searchList);
+      whereCondition = addSearchListToWhere(whereCondition, searchList, useAcl);
     }
     else if (searchAST != null)
     {
-      Condition astCondition = createConditionFromAst(searchAST);
+      Condition astCondition = createConditionFromAst(searchAST, useAcl);
       if (astCondition != null) whereCondition = whereCondition.and(astCondition);
     }
 
@@ -1381,22 +1677,27 @@ public class SystemsDaoImpl implements SystemsDao
       String searchStr;
       if (sortAsc) searchStr = majorOrderByStr + ".gt." + startAfter;
       else searchStr = majorOrderByStr + ".lt." + startAfter;
-      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND");
+      whereCondition = addSearchCondStrToWhere(whereCondition, searchStr, "AND", useAcl);
     }
 
     // Build and add the listType condition:
     //  OWNED = single condition where owner = oboUser
-    //  PUBLIC = single condition where id in setOfIDs
-    //  ALL = where (owner = oboUser) OR (id in setOfIDs)
+    //  PUBLIC = single condition where id = any(setOfIDs)
+    //  ALL = where (owner = oboUser) OR (id = any(setOfIDs))
+    // When using the ACL entries the IDs come from a subquery on system_acl, see aclListTypeCondition()
     Condition listTypeCondition = null;
-    if (ownedOnly)
+    if (useAcl)
+    {
+      listTypeCondition = aclListTypeCondition(listType, oboUser);
+    }
+    else if (ownedOnly)
     {
       listTypeCondition = SYSTEMS.OWNER.eq(oboUser);
     }
     else if (publicOnly)
     {
       // NOTE: We check above for sharedIDs == null or is empty so no need to do it here
-      listTypeCondition = SYSTEMS.ID.in(sharedIDs);
+      listTypeCondition = idInSet(SYSTEMS.ID, sharedIDs);
     }
     else if (allItems)
     {
@@ -1406,7 +1707,7 @@ public class SystemsDaoImpl implements SystemsDao
       if (viewableIDs != null && !viewableIDs.isEmpty()) setOfIDs.addAll(viewableIDs);
       if (!setOfIDs.isEmpty())
       {
-        listTypeCondition = listTypeCondition.or(SYSTEMS.ID.in(setOfIDs));
+        listTypeCondition = listTypeCondition.or(idInSet(SYSTEMS.ID, setOfIDs));
       }
     }
     whereCondition = whereCondition.and(listTypeCondition);
@@ -1416,8 +1717,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       // Execute the select including limit, orderByAttrList, skip and startAfter
       // NOTE: LIMIT + OFFSET is not standard among DBs and often very difficult to get right.
@@ -1462,17 +1763,17 @@ public class SystemsDaoImpl implements SystemsDao
       for (SystemsRecord r : results) { TSystem s = getSystemFromRecord(r); retList.add(s); }
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return retList;
   }
@@ -1493,16 +1794,16 @@ public class SystemsDaoImpl implements SystemsDao
 
     Condition whereCondition;
     if (includeDeleted) whereCondition = SYSTEMS.TENANT.eq(tenant);
-    else whereCondition = (SYSTEMS.TENANT.eq(tenant)).and(SYSTEMS.DELETED.eq(false));
+    else whereCondition = (SYSTEMS.TENANT.eq(tenant)).and(SYSTEMS.DELETED.isFalse());
 
     Connection conn = null;
     try
     {
       // Get a database connection.
-      conn = getConnection();
+      conn = getConn();
       // ------------------------- Call SQL ----------------------------
       // Use jOOQ to build query string
-      DSLContext db = DSL.using(conn);
+      DSLContext db = dsl(conn);
       Result<?> result = db.select(SYSTEMS.ID).from(SYSTEMS).where(whereCondition).fetch();
       // Iterate over result
       for (Record r : result) { idList.add(r.get(SYSTEMS.ID)); }
@@ -1510,12 +1811,12 @@ public class SystemsDaoImpl implements SystemsDao
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return idList;
   }
@@ -1555,8 +1856,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       Set<String> allowedIDs = setOfIDs;
       // If IDs is null then all allowed. Use tenant to get all system IDs
@@ -1567,17 +1868,17 @@ public class SystemsDaoImpl implements SystemsDao
       systemsList = getSystemsHavingCapabilities(db, tenantId, capabilitiesInAST, allowedIDs);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
 
     // If there was a problem the list to match against might be null
@@ -1608,22 +1909,22 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       owner = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.OWNER);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return owner;
   }
@@ -1645,22 +1946,22 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       effectiveUserId = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.EFFECTIVE_USER_ID);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return effectiveUserId;
   }
@@ -1681,55 +1982,144 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       authnMethod = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.DEFAULT_AUTHN_METHOD);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "systems", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return authnMethod;
   }
 
   /**
    * Add an update record given the system Id and operation type
-   *
+   * Unless part of a unit of work the record may be handed to the SystemUpdateWriter, depending on
+   *   the audit write mode. If the writer cannot take the record it is written here.
    */
   @Override
   public void addUpdateRecord(ResourceRequestUser rUser, String sysId, SystemOperation op, String changeDescription, String rawData)
           throws TapisException
   {
+    if (txConn == null)
+    {
+      SystemUpdateWriter writer = SystemUpdateWriter.getInstance();
+      if (writer != null && writer.submit(rUser, sysId, op, changeDescription, rawData)) return;
+    }
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
-      addUpdate(db, rUser, sysId, INVALID_SEQ_ID, op, changeDescription, rawData, getUUIDUsingDb(db, rUser.getOboTenantId(), sysId));
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      var change = addUpdate(db, rUser, sysId, INVALID_SEQ_ID, op, changeDescription, rawData, getUUIDUsingDb(db, rUser.getOboTenantId(), sysId));
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
+      publishChanges(change);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Add a batch of update records queued by SystemUpdateWriter using a single transaction and commit.
+   * Sequence ids for the batch are reserved with one query and all records are written with one multi-row insert,
+   *   so a batch takes the same number of round trips whatever its size. Setting the sequence id explicitly means
+   *   each record keeps the id it was given, in the order the records were listed. The created timestamp is the
+   *   transaction start time, the same value the column default would give, and is read along with the ids.
+   * Records for systems that no longer exist are still written, with no system_seq_id or uuid, so that the
+   *   audit trail is complete.
+   * @param updates - records to add
+   * @throws TapisException - on error, in which case none of the records have been added
+   */
+  void addUpdateRecords(List<SystemUpdateWriter.PendingUpdate> updates) throws TapisException
+  {
+    if (updates == null || updates.isEmpty()) return;
+    var changes = new ArrayList<SystemChangeEvent>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      // Look up seq_id, tags and uuid for all systems in the batch with one query
+      var sysKeys = new HashSet<Row2<String, String>>();
+      for (var upd : updates) sysKeys.add(DSL.row(upd.rUser.getOboTenantId(), upd.sysId));
+      Map<List<String>, Record> sysRecs = new HashMap<>();
+      for (Record r : db.select(SYSTEMS.TENANT, SYSTEMS.ID, SYSTEMS.SEQ_ID, SYSTEMS.TAGS, SYSTEMS.UUID).from(SYSTEMS)
+                        .where(DSL.row(SYSTEMS.TENANT, SYSTEMS.ID).in(sysKeys)).fetch())
+      {
+        sysRecs.put(List.of(r.get(SYSTEMS.TENANT), r.get(SYSTEMS.ID)), r);
+      }
+      // Reserve a sequence id for each record
+      Result<Record2<Integer, LocalDateTime>> ids =
+              db.select(NEXT_UPDATE_SEQ_ID, SYSTEM_UPDATES_NOW)
+                .from(DSL.table("generate_series(1, {0})", DSL.val(updates.size())))
+                .fetch();
+      InsertSetMoreStep<SystemUpdatesRecord> insert = null;
+      for (int i = 0; i < updates.size(); i++)
+      {
+        var upd = updates.get(i);
+        Record sysRec = sysRecs.get(List.of(upd.rUser.getOboTenantId(), upd.sysId));
+        if (sysRec == null)
+          log.warn(LibUtils.getMsg("SYSLIB_AUDIT_NO_SYSTEM", upd.rUser.getOboTenantId(), upd.sysId, upd.op));
+        Integer sysSeqId = (sysRec == null) ? null : sysRec.get(SYSTEMS.SEQ_ID);
+        UUID uuid = (sysRec == null) ? null : sysRec.get(SYSTEMS.UUID);
+        int updSeqId = ids.get(i).value1();
+        LocalDateTime created = ids.get(i).value2();
+        byte[] rawDataGz = compressRawData(upd.rawData);
+        insert = ((insert == null) ? db.insertInto(SYSTEM_UPDATES) : insert.newRecord())
+                .set(SYSTEM_UPDATES.SEQ_ID, updSeqId)
+                .set(SYSTEM_UPDATES.SYSTEM_SEQ_ID, sysSeqId)
+                .set(SYSTEM_UPDATES.JWT_TENANT, upd.rUser.getJwtTenantId())
+                .set(SYSTEM_UPDATES.JWT_USER, upd.rUser.getJwtUserId())
+                .set(SYSTEM_UPDATES.OBO_TENANT, upd.rUser.getOboTenantId())
+                .set(SYSTEM_UPDATES.OBO_USER, upd.rUser.getOboUserId())
+                .set(SYSTEM_UPDATES.SYSTEM_ID, upd.sysId)
+                .set(SYSTEM_UPDATES.OPERATION, upd.op)
+                .set(SYSTEM_UPDATES.DESCRIPTION, descriptionField(upd.changeDescription))
+                .set(SYSTEM_UPDATES.RAW_DATA, (rawDataGz == null) ? upd.rawData : null)
+                .set(SYSTEM_UPDATES.RAW_DATA_GZ, rawDataGz)
+                .set(SYSTEM_UPDATES.UUID, uuid)
+                .set(SYSTEM_UPDATES.CREATED, created);
+        var change = new SystemChange(updSeqId, upd.sysId, upd.op, uuid, created.toInstant(ZoneOffset.UTC));
+        changes.add(new SystemChangeEvent(upd.rUser.getOboTenantId(),
+                                          (sysRec == null) ? null : sysRec.get(SYSTEMS.TAGS), change));
+      }
+      insert.execute();
+      // Close out and commit
+      closeAndCommitDB(conn);
+      publishChanges(changes);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "system_updates");
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      finalCloseDB(conn);
     }
   }
 
@@ -1753,24 +2143,24 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       // Run the sql
       loginUser = db.selectFrom(SYSTEMS_LOGIN_USER)
               .where(SYSTEMS_LOGIN_USER.TENANT.eq(tenantId),SYSTEMS_LOGIN_USER.SYSTEM_ID.eq(id),SYSTEMS_LOGIN_USER.TAPIS_USER.eq(tapisUser))
               .fetchOne(SYSTEMS_LOGIN_USER.LOGIN_USER);
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_SELECT_NAME_ERROR", "System_login_user", tenantId, id, e.getMessage());
+      rollbackDB(conn, e,"DB_SELECT_NAME_ERROR", "System_login_user", tenantId, id, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return loginUser;
   }
@@ -1791,8 +2181,8 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       boolean recordExists = db.fetchExists(SYSTEMS_LOGIN_USER,SYSTEMS_LOGIN_USER.TENANT.eq(tenantId),
                                             SYSTEMS_LOGIN_USER.SYSTEM_ID.eq(systemId),
                                             SYSTEMS_LOGIN_USER.TAPIS_USER.eq(tapisUser));
@@ -1820,17 +2210,17 @@ public class SystemsDaoImpl implements SystemsDao
                 .execute();
       }
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems_login_user");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "systems_login_user");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -1850,23 +2240,23 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.deleteFrom(SYSTEMS_LOGIN_USER)
               .where(SYSTEMS_LOGIN_USER.TENANT.eq(tenantId),SYSTEMS_LOGIN_USER.SYSTEM_ID.eq(sysId),SYSTEMS_LOGIN_USER.TAPIS_USER.eq(tapisUser))
               .execute();
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_DELETE_FAILURE", "systems_login_user");
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "systems_login_user");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -1912,8 +2302,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       // Check to see if it exists. If yes then throw IllegalStateException
       if (db.fetchExists(SCHEDULER_PROFILES,SCHEDULER_PROFILES.TENANT.eq(tenantId),SCHEDULER_PROFILES.NAME.eq(name)))
@@ -1955,17 +2345,17 @@ public class SystemsDaoImpl implements SystemsDao
         }
       }
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_INSERT_FAILURE", "scheduler_profiles");
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "scheduler_profiles");
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -1986,8 +2376,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       SchedulerProfilesRecord r;
       r = db.selectFrom(SCHEDULER_PROFILES).where(SCHEDULER_PROFILES.TENANT.eq(tenantId),SCHEDULER_PROFILES.NAME.eq(name)).fetchOne();
       if (r == null) return null;
@@ -2010,17 +2400,17 @@ public class SystemsDaoImpl implements SystemsDao
       sp = new SchedulerProfile(r.getTenant(), r.getName(), r.getDescription(), r.getOwner(), moduleLoads, hoList2,
                                 r.getUuid(), r.getCreated().toInstant(ZoneOffset.UTC), r.getUpdated().toInstant(ZoneOffset.UTC));
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SchedulerProfile", tenantId, name, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SchedulerProfile", tenantId, name, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return sp;
   }
@@ -2040,8 +2430,8 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
       var records = db.selectFrom(SCHEDULER_PROFILES).where(SCHEDULER_PROFILES.TENANT.eq(tenantId)).fetch();
       if (records == null || records.isEmpty()) return Collections.emptyList();
@@ -2071,17 +2461,17 @@ public class SystemsDaoImpl implements SystemsDao
         retList2.add(sp2);
       }
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "scheduler_profiles", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "scheduler_profiles", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return retList2;
   }
@@ -2101,18 +2491,18 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       db.deleteFrom(SCHEDULER_PROFILES).where(SCHEDULER_PROFILES.TENANT.eq(tenantId),SCHEDULER_PROFILES.NAME.eq(name)).execute();
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
-      LibUtils.rollbackDB(conn, e,"DB_DELETE_FAILURE", "scheduler_profiles");
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "scheduler_profiles");
     }
     finally
     {
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return 1;
   }
@@ -2129,8 +2519,8 @@ public class SystemsDaoImpl implements SystemsDao
     Connection conn = null;
     try
     {
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       return db.fetchExists(SCHEDULER_PROFILES,SCHEDULER_PROFILES.TENANT.eq(tenantId),SCHEDULER_PROFILES.NAME.eq(name));
     }
     catch (Exception e)
@@ -2141,7 +2531,7 @@ public class SystemsDaoImpl implements SystemsDao
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
   }
 
@@ -2161,84 +2551,1530 @@ public class SystemsDaoImpl implements SystemsDao
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
       owner = db.selectFrom(SCHEDULER_PROFILES)
                 .where(SCHEDULER_PROFILES.TENANT.eq(tenant),SCHEDULER_PROFILES.NAME.eq(name))
                 .fetchOne(SCHEDULER_PROFILES.OWNER);
 
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"DB_QUERY_ERROR", "scheduler_profiles", e.getMessage());
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "scheduler_profiles", e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return owner;
   }
 
   /**
    * Get systems updates records for given system ID
+   * The table is partitioned by month on created, so a time range limits the partitions that are scanned.
    * @param systemId - System name
-   * @return List of SystemHistoryItem objects
+   * @param startTime - only records created at or after this time, null for no lower bound
+   * @param endTime - only records created before this time, null for no upper bound
+   * @return List of SystemHistoryItem objects in the order created
    * @throws TapisException - for Tapis related exceptions
    */
   @Override
-  public List<SystemHistoryItem> getSystemHistory(String oboTenant, String systemId) throws TapisException {
+  public List<SystemHistoryItem> getSystemHistory(String oboTenant, String systemId, Instant startTime, Instant endTime)
+          throws TapisException
+  {
     // Initialize result.
     List<SystemHistoryItem> resultList = new ArrayList<SystemHistoryItem>();
 
     // Begin where condition for the query
     Condition whereCondition = SYSTEM_UPDATES.OBO_TENANT.eq(oboTenant).and(SYSTEM_UPDATES.SYSTEM_ID.eq(systemId));
+    if (startTime != null)
+      whereCondition = whereCondition.and(SYSTEM_UPDATES.CREATED.ge(LocalDateTime.ofInstant(startTime, ZoneOffset.UTC)));
+    if (endTime != null)
+      whereCondition = whereCondition.and(SYSTEM_UPDATES.CREATED.lt(LocalDateTime.ofInstant(endTime, ZoneOffset.UTC)));
     // ------------------------- Call SQL ----------------------------
     Connection conn = null;
     try
     {
       // Get a database connection.
-      conn = getConnection();
-      DSLContext db = DSL.using(conn);
+      conn = getConn();
+      DSLContext db = dsl(conn);
 
-      SelectConditionStep<SystemUpdatesRecord> results;
-      results = db.selectFrom(SYSTEM_UPDATES).where(whereCondition);
+      var results = db.selectFrom(SYSTEM_UPDATES).where(whereCondition).orderBy(SYSTEM_UPDATES.SEQ_ID.asc());
 
       for (Record r : results) { SystemHistoryItem s = getSystemHistoryFromRecord(r); resultList.add(s); }
       // Close out and commit
-      LibUtils.closeAndCommitDB(conn, null, null);
+      closeAndCommitDB(conn);
     }
     catch (Exception e)
     {
       // Rollback transaction and throw an exception
-      LibUtils.rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemUpdates", systemId, e.getMessage());
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemUpdates", systemId, e.getMessage());
     }
     finally
     {
       // Always return the connection back to the connection pool.
-      LibUtils.finalCloseDB(conn);
+      finalCloseDB(conn);
     }
     return resultList;
   }
 
-  /* ********************************************************************** */
-  /*                             Private Methods                            */
-  /* ********************************************************************** */
-
   /**
-   *  Return a connection from the static datasource.  Create the datasource
-   *  on demand if it doesn't exist.
-   *
-   * @return a database connection
-   * @throws TapisException on error
+   * getSystemChanges
+   * Retrieve changes to systems in a tenant made after the change with the specified sequence id.
+   * Keyset paging: caller passes in the sequence id of the last change seen.
+   * Sequence ids are assigned at insert but become visible at commit, so a change with a lower sequence id may
+   *   become visible after one with a higher id. To never skip such a change, results are ordered by the id of the
+   *   transaction that made the change and then by sequence id, and only changes made by transactions older than
+   *   the oldest transaction still running are returned. A change that becomes visible later always comes after
+   *   the cursor.
+   * If the change for the cursor no longer exists, e.g. it has been archived, changes with a greater sequence id
+   *   are returned.
+   * @param oboTenant - tenant
+   * @param sinceSeqId - return changes with a sequence id greater than this value
+   * @param limit - maximum number of changes to return
+   * @return list of changes, empty list if none
+   * @throws TapisException - on error
    */
-  private static synchronized Connection getConnection()
-          throws TapisException
+  @Override
+  public List<SystemChange> getSystemChanges(String oboTenant, int sinceSeqId, int limit) throws TapisException
   {
-    // Use the existing datasource.
+    // Initialize result.
+    List<SystemChange> resultList = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConn();
+      DSLContext db = dsl(conn);
+
+      Condition afterCursor = afterChangeCursor(db, oboTenant, new SystemChangeCursor(null, sinceSeqId));
+      var results = db.select(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.SYSTEM_ID, SYSTEM_UPDATES.OPERATION,
+                              SYSTEM_UPDATES.UUID, SYSTEM_UPDATES.CREATED)
+                      .from(SYSTEM_UPDATES)
+                      .where(SYSTEM_UPDATES.OBO_TENANT.eq(oboTenant), afterCursor,
+                             SYSTEM_UPDATES.TXID.lt(OLDEST_RUNNING_TXID))
+                      .orderBy(SYSTEM_UPDATES.TXID.asc(), SYSTEM_UPDATES.SEQ_ID.asc())
+                      .limit(limit)
+                      .fetch();
+
+      for (Record r : results)
+      {
+        resultList.add(new SystemChange(r.get(SYSTEM_UPDATES.SEQ_ID), r.get(SYSTEM_UPDATES.SYSTEM_ID),
+                                        r.get(SYSTEM_UPDATES.OPERATION), r.get(SYSTEM_UPDATES.UUID),
+                                        r.get(SYSTEM_UPDATES.CREATED).toInstant(ZoneOffset.UTC)));
+      }
+      // Close out and commit
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemUpdates", oboTenant, sinceSeqId, e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      finalCloseDB(conn);
+    }
+    return resultList;
+  }
+
+  /**
+   * getSystemChangeEvents
+   * Retrieve changes to systems in a tenant made after the specified position in the change feed, including the
+   *   current tags for each system. Used to stream changes to watchers.
+   * Same order and visibility as getSystemChanges, so a watcher that resumes from the cursor of the last event
+   *   it received never misses a change, whichever instance of the service made it.
+   * @param oboTenant - tenant
+   * @param since - return changes after this position
+   * @param limit - maximum number of changes to return
+   * @return list of change events with their cursors, empty list if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<SystemChangeEvent> getSystemChangeEvents(String oboTenant, SystemChangeCursor since, int limit)
+          throws TapisException
+  {
+    // Initialize result.
+    List<SystemChangeEvent> resultList = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConn();
+      DSLContext db = dsl(conn);
+
+      Condition afterCursor = afterChangeCursor(db, oboTenant, since);
+      var results = db.select(SYSTEM_UPDATES.TXID, SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.SYSTEM_ID,
+                              SYSTEM_UPDATES.OPERATION, SYSTEM_UPDATES.UUID, SYSTEM_UPDATES.CREATED, SYSTEMS.TAGS)
+                      .from(SYSTEM_UPDATES)
+                      .leftJoin(SYSTEMS).on(SYSTEMS.SEQ_ID.eq(SYSTEM_UPDATES.SYSTEM_SEQ_ID))
+                      .where(SYSTEM_UPDATES.OBO_TENANT.eq(oboTenant), afterCursor,
+                             SYSTEM_UPDATES.TXID.lt(OLDEST_RUNNING_TXID))
+                      .orderBy(SYSTEM_UPDATES.TXID.asc(), SYSTEM_UPDATES.SEQ_ID.asc())
+                      .limit(limit)
+                      .fetch();
+
+      for (Record r : results)
+      {
+        var change = new SystemChange(r.get(SYSTEM_UPDATES.SEQ_ID), r.get(SYSTEM_UPDATES.SYSTEM_ID),
+                                      r.get(SYSTEM_UPDATES.OPERATION), r.get(SYSTEM_UPDATES.UUID),
+                                      r.get(SYSTEM_UPDATES.CREATED).toInstant(ZoneOffset.UTC));
+        var cursor = new SystemChangeCursor(r.get(SYSTEM_UPDATES.TXID), r.get(SYSTEM_UPDATES.SEQ_ID));
+        resultList.add(new SystemChangeEvent(oboTenant, r.get(SYSTEMS.TAGS), change, cursor));
+      }
+      // Close out and commit
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemUpdates", oboTenant, since, e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      finalCloseDB(conn);
+    }
+    return resultList;
+  }
+
+  /**
+   * getSystemChangesHead
+   * Position of the last change to systems in a tenant that the change feed returns. Changes that become visible
+   *   later are all after this position. Used by watchers that only want new changes.
+   * @param oboTenant - tenant
+   * @return cursor of the last change, START if there are none
+   * @throws TapisException - on error
+   */
+  @Override
+  public SystemChangeCursor getSystemChangesHead(String oboTenant) throws TapisException
+  {
+    SystemChangeCursor cursor = SystemChangeCursor.START;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      // Get a database connection.
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      Record2<Long, Integer> r = db.select(SYSTEM_UPDATES.TXID, SYSTEM_UPDATES.SEQ_ID)
+                                   .from(SYSTEM_UPDATES)
+                                   .where(SYSTEM_UPDATES.OBO_TENANT.eq(oboTenant),
+                                          SYSTEM_UPDATES.TXID.lt(OLDEST_RUNNING_TXID))
+                                   .orderBy(SYSTEM_UPDATES.TXID.desc(), SYSTEM_UPDATES.SEQ_ID.desc())
+                                   .limit(1)
+                                   .fetchOne();
+      if (r != null) cursor = new SystemChangeCursor(r.value1(), r.value2());
+      // Close out and commit
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      // Rollback transaction and throw an exception
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemUpdates", oboTenant, "head", e.getMessage());
+    }
+    finally
+    {
+      // Always return the connection back to the connection pool.
+      finalCloseDB(conn);
+    }
+    return cursor;
+  }
+
+  /*
+   * Condition selecting changes after a cursor in change feed order.
+   * If the cursor has no transaction id it is looked up using the sequence id. If the change for the cursor no
+   *   longer exists, e.g. it has been archived, changes with a greater sequence id are selected.
+   */
+  private static Condition afterChangeCursor(DSLContext db, String oboTenant, SystemChangeCursor cursor)
+  {
+    Long cursorTxid = cursor.getTxid();
+    int cursorSeqId = cursor.getSeqId();
+    if (cursorTxid == null)
+    {
+      if (cursorSeqId <= 0) return DSL.trueCondition();
+      cursorTxid = db.select(SYSTEM_UPDATES.TXID).from(SYSTEM_UPDATES)
+                     .where(SYSTEM_UPDATES.OBO_TENANT.eq(oboTenant), SYSTEM_UPDATES.SEQ_ID.eq(cursorSeqId))
+                     .fetchOne(SYSTEM_UPDATES.TXID);
+      if (cursorTxid == null) return SYSTEM_UPDATES.SEQ_ID.gt(cursorSeqId);
+    }
+    return DSL.row(SYSTEM_UPDATES.TXID, SYSTEM_UPDATES.SEQ_ID).gt(cursorTxid, cursorSeqId);
+  }
+
+  /* ********************************************************************** */
+  /*                             System ACL Methods                         */
+  /* ********************************************************************** */
+
+  /**
+   * Get the sync entry for the ACL entries of a grantee
+   * @param tenant - tenant
+   * @param grantee - user or public grantee
+   * @return sync entry or null if entries have never been refreshed or changed
+   * @throws TapisException - on error
+   */
+  @Override
+  public SystemAclSyncEntry getAclSyncEntry(String tenant, String grantee) throws TapisException
+  {
+    SystemAclSyncRecord r = null;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      r = db.selectFrom(SYSTEM_ACL_SYNC)
+            .where(SYSTEM_ACL_SYNC.TENANT.eq(tenant), SYSTEM_ACL_SYNC.GRANTEE.eq(grantee))
+            .fetchOne();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemAclSync", tenant, grantee, e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return (r == null) ? null : getAclSyncEntryFromRecord(r);
+  }
+
+  /**
+   * Record that the ACL entries for a grantee have been read.
+   * Nothing is done if there is no sync entry for the grantee.
+   * @param tenant - tenant
+   * @param grantee - user or public grantee
+   * @throws TapisException - on error
+   */
+  @Override
+  public void markAclUsed(String tenant, String grantee) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.update(SYSTEM_ACL_SYNC).set(SYSTEM_ACL_SYNC.USED, TapisUtils.getUTCTimeNow())
+        .where(SYSTEM_ACL_SYNC.TENANT.eq(tenant), SYSTEM_ACL_SYNC.GRANTEE.eq(grantee))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl_sync", grantee);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Get ACL sync entries last refreshed before a given time that have been read since they were refreshed,
+   *   oldest first. Entries not read since they were refreshed are left to deleteUnusedAclSyncEntries().
+   * @param olderThan - cutoff time
+   * @param limit - maximum number of entries to return
+   * @return list of entries, empty list if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<SystemAclSyncEntry> getStaleAclSyncEntries(Instant olderThan, int limit) throws TapisException
+  {
+    List<SystemAclSyncEntry> resultList = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      var results = db.selectFrom(SYSTEM_ACL_SYNC)
+                      .where(SYSTEM_ACL_SYNC.SYNCED.lt(LocalDateTime.ofInstant(olderThan, ZoneOffset.UTC)),
+                             SYSTEM_ACL_SYNC.USED.ge(SYSTEM_ACL_SYNC.SYNCED))
+                      .orderBy(SYSTEM_ACL_SYNC.SYNCED.asc())
+                      .limit(limit)
+                      .fetch();
+      for (SystemAclSyncRecord r : results)
+      {
+        resultList.add(getAclSyncEntryFromRecord(r));
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemAclSync", "*", "*", e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return resultList;
+  }
+
+  /**
+   * Mark the ACL entries for a grantee as needing a refresh from SK.
+   * Used when an incremental update of the entries could not be made. The version is incremented so that a refresh
+   *   already in progress, which may have read SK before the change, does not replace the entries.
+   * @param tenant - tenant
+   * @param grantee - user or public grantee
+   * @throws TapisException - on error
+   */
+  @Override
+  public void invalidateAclSync(String tenant, String grantee) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.update(SYSTEM_ACL_SYNC)
+        .set(SYSTEM_ACL_SYNC.SYNCED, ACL_NOT_SYNCED)
+        .set(SYSTEM_ACL_SYNC.VERSION, SYSTEM_ACL_SYNC.VERSION.plus(1))
+        .where(SYSTEM_ACL_SYNC.TENANT.eq(tenant), SYSTEM_ACL_SYNC.GRANTEE.eq(grantee))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl_sync", grantee);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Replace all ACL entries for a grantee and record the time of the refresh.
+   * Entries for systems that do not exist or have been deleted are skipped.
+   * Entries are only replaced if the version of the sync entry is the one read before SK was called. Otherwise
+   *   the entries have been changed since then, by another refresh or by an update made through this service,
+   *   and the data from SK may be older than what is stored.
+   * @param tenant - tenant
+   * @param grantee - user or public grantee
+   * @param permsBySystemId - permissions held by the grantee keyed by system id
+   * @param sharedSystemIds - ids of systems shared with the grantee
+   * @param expectedVersion - version of the sync entry read before calling SK, 0 if there was no entry
+   * @return true if entries were replaced, false if the version did not match
+   * @throws TapisException - on error
+   */
+  @Override
+  public boolean replaceAcl(String tenant, String grantee, Map<String, Set<String>> permsBySystemId,
+                            Set<String> sharedSystemIds, long expectedVersion)
+          throws TapisException
+  {
+    boolean replaced = false;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      // Create the sync entry if needed and lock it, so a concurrent refresh or update waits for this one
+      db.insertInto(SYSTEM_ACL_SYNC)
+        .set(SYSTEM_ACL_SYNC.TENANT, tenant)
+        .set(SYSTEM_ACL_SYNC.GRANTEE, grantee)
+        .set(SYSTEM_ACL_SYNC.SYNCED, ACL_NOT_SYNCED)
+        .onConflictDoNothing()
+        .execute();
+      Long version = db.select(SYSTEM_ACL_SYNC.VERSION).from(SYSTEM_ACL_SYNC)
+                       .where(SYSTEM_ACL_SYNC.TENANT.eq(tenant), SYSTEM_ACL_SYNC.GRANTEE.eq(grantee))
+                       .forUpdate()
+                       .fetchOne(SYSTEM_ACL_SYNC.VERSION);
+      if (version == null || version != expectedVersion)
+      {
+        closeAndCommitDB(conn);
+        return false;
+      }
+
+      db.deleteFrom(SYSTEM_ACL).where(SYSTEM_ACL.TENANT.eq(tenant), SYSTEM_ACL.GRANTEE.eq(grantee)).execute();
+
+      // Look up all systems in a single query
+      var allIds = new HashSet<>(permsBySystemId.keySet());
+      allIds.addAll(sharedSystemIds);
+      Map<String, Integer> seqIds = getSystemSeqIds(db, tenant, allIds);
+
+      LocalDateTime updated = TapisUtils.getUTCTimeNow();
+      List<Query> inserts = new ArrayList<>();
+      for (Map.Entry<String, Set<String>> entry : permsBySystemId.entrySet())
+      {
+        Integer seqId = seqIds.get(entry.getKey());
+        if (seqId == null || entry.getValue().isEmpty()) continue;
+        inserts.add(insertAcl(db, seqId, tenant, entry.getKey(), grantee, ACL_TYPE_PERM, entry.getValue(), updated));
+      }
+      for (String systemId : sharedSystemIds)
+      {
+        Integer seqId = seqIds.get(systemId);
+        if (seqId == null) continue;
+        inserts.add(insertAcl(db, seqId, tenant, systemId, grantee, ACL_TYPE_SHARE, ACL_SHARE_PERMS, updated));
+      }
+      if (!inserts.isEmpty()) db.batch(inserts).execute();
+
+      db.update(SYSTEM_ACL_SYNC)
+        .set(SYSTEM_ACL_SYNC.SYNCED, updated)
+        .set(SYSTEM_ACL_SYNC.VERSION, SYSTEM_ACL_SYNC.VERSION.plus(1))
+        .where(SYSTEM_ACL_SYNC.TENANT.eq(tenant), SYSTEM_ACL_SYNC.GRANTEE.eq(grantee))
+        .execute();
+      closeAndCommitDB(conn);
+      replaced = true;
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl", grantee);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return replaced;
+  }
+
+  /**
+   * Delete ACL entries that are no longer needed:
+   *   - entries for grantees last refreshed before a given time and not read since, with their sync entries
+   *   - entries for grantees that have no sync entry, left by earlier versions of the service
+   * @param olderThan - cutoff time
+   * @return number of ACL entries deleted
+   * @throws TapisException - on error
+   */
+  @Override
+  public int deleteUnusedAclSyncEntries(Instant olderThan) throws TapisException
+  {
+    int numDeleted = 0;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.deleteFrom(SYSTEM_ACL_SYNC)
+        .where(SYSTEM_ACL_SYNC.SYNCED.lt(LocalDateTime.ofInstant(olderThan, ZoneOffset.UTC)),
+               SYSTEM_ACL_SYNC.USED.isNull().or(SYSTEM_ACL_SYNC.USED.lt(SYSTEM_ACL_SYNC.SYNCED)))
+        .execute();
+      // With their sync entries gone the ACL entries for unused grantees are removed along with any orphans
+      numDeleted = db.deleteFrom(SYSTEM_ACL)
+                     .whereNotExists(DSL.selectOne().from(SYSTEM_ACL_SYNC)
+                                        .where(SYSTEM_ACL_SYNC.TENANT.eq(SYSTEM_ACL.TENANT),
+                                               SYSTEM_ACL_SYNC.GRANTEE.eq(SYSTEM_ACL.GRANTEE)))
+                     .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "system_acl");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return numDeleted;
+  }
+
+  /**
+   * Add permissions for a grantee to the ACL entries for a system.
+   * Permissions already present are not duplicated. Nothing is done if the system does not exist.
+   * @throws TapisException - on error
+   */
+  @Override
+  public void addAclPerms(String tenant, String systemId, String grantee, Set<String> perms) throws TapisException
+  {
+    if (perms == null || perms.isEmpty()) return;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      incrementAclSyncVersions(db, tenant, Set.of(grantee));
+      Integer seqId = getSystemSeqIds(db, tenant, Set.of(systemId)).get(systemId);
+      if (seqId != null)
+      {
+        LocalDateTime updated = TapisUtils.getUTCTimeNow();
+        Field<String[]> permUnion = DSL.field("array(select distinct unnest({0} || {1}::text[]))",
+                                              SYSTEM_ACL.PERMS.getDataType(), SYSTEM_ACL.PERMS,
+                                              DSL.val(perms.toArray(new String[0])));
+        insertAcl(db, seqId, tenant, systemId, grantee, ACL_TYPE_PERM, perms, updated)
+          .onConflict(SYSTEM_ACL.TENANT, SYSTEM_ACL.SYSTEM_ID, SYSTEM_ACL.GRANTEE, SYSTEM_ACL.ACL_TYPE)
+          .doUpdate().set(SYSTEM_ACL.PERMS, permUnion).set(SYSTEM_ACL.UPDATED, updated)
+          .execute();
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl", systemId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Remove permissions for a grantee from the ACL entries for a system.
+   * If no permissions remain the entry is removed.
+   * @throws TapisException - on error
+   */
+  @Override
+  public void removeAclPerms(String tenant, String systemId, String grantee, Set<String> perms) throws TapisException
+  {
+    if (perms == null || perms.isEmpty()) return;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      incrementAclSyncVersions(db, tenant, Set.of(grantee));
+      Condition whereCondition = SYSTEM_ACL.TENANT.eq(tenant).and(SYSTEM_ACL.SYSTEM_ID.eq(systemId))
+                                   .and(SYSTEM_ACL.GRANTEE.eq(grantee)).and(SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_PERM));
+      Field<String[]> permExcept = DSL.field("array(select unnest({0}) except select unnest({1}::text[]))",
+                                             SYSTEM_ACL.PERMS.getDataType(), SYSTEM_ACL.PERMS,
+                                             DSL.val(perms.toArray(new String[0])));
+      db.update(SYSTEM_ACL).set(SYSTEM_ACL.PERMS, permExcept).set(SYSTEM_ACL.UPDATED, TapisUtils.getUTCTimeNow())
+        .where(whereCondition).execute();
+      db.deleteFrom(SYSTEM_ACL).where(whereCondition, DSL.condition("cardinality({0}) = 0", SYSTEM_ACL.PERMS)).execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl", systemId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Record that a system has been shared with a set of grantees.
+   * Nothing is done if the system does not exist.
+   * @throws TapisException - on error
+   */
+  @Override
+  public void addAclShares(String tenant, String systemId, Set<String> grantees) throws TapisException
+  {
+    if (grantees == null || grantees.isEmpty()) return;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      incrementAclSyncVersions(db, tenant, grantees);
+      Integer seqId = getSystemSeqIds(db, tenant, Set.of(systemId)).get(systemId);
+      if (seqId != null)
+      {
+        LocalDateTime updated = TapisUtils.getUTCTimeNow();
+        List<Query> inserts = new ArrayList<>();
+        for (String grantee : grantees)
+        {
+          inserts.add(insertAcl(db, seqId, tenant, systemId, grantee, ACL_TYPE_SHARE, ACL_SHARE_PERMS, updated)
+                        .onConflictDoNothing());
+        }
+        db.batch(inserts).execute();
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl", systemId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Record that a system is no longer shared with a set of grantees.
+   * @throws TapisException - on error
+   */
+  @Override
+  public void removeAclShares(String tenant, String systemId, Set<String> grantees) throws TapisException
+  {
+    if (grantees == null || grantees.isEmpty()) return;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      incrementAclSyncVersions(db, tenant, grantees);
+      db.deleteFrom(SYSTEM_ACL)
+        .where(SYSTEM_ACL.TENANT.eq(tenant), SYSTEM_ACL.SYSTEM_ID.eq(systemId),
+               SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_SHARE), idInSet(SYSTEM_ACL.GRANTEE, grantees))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_acl", systemId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Remove all ACL entries for a system
+   * @throws TapisException - on error
+   */
+  @Override
+  public void removeAcl(String tenant, String systemId) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.deleteFrom(SYSTEM_ACL).where(SYSTEM_ACL.TENANT.eq(tenant), SYSTEM_ACL.SYSTEM_ID.eq(systemId)).execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "system_acl");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Get IDs of systems for which a grantee has READ or MODIFY permission according to the ACL entries
+   * @return set of system IDs, empty set if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public Set<String> getAclViewableSystemIDs(String tenant, String grantee) throws TapisException
+  {
+    Set<String> systemIDs = new HashSet<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      systemIDs = db.selectDistinct(SYSTEM_ACL.SYSTEM_ID).from(SYSTEM_ACL)
+                    .where(SYSTEM_ACL.TENANT.eq(tenant), SYSTEM_ACL.GRANTEE.eq(grantee),
+                           SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_PERM),
+                           textArrayOverlaps(SYSTEM_ACL.PERMS, ACL_VIEW_PERMS, false))
+                    .fetchSet(SYSTEM_ACL.SYSTEM_ID);
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemAcl", tenant, grantee, e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return systemIDs;
+  }
+
+  /**
+   * Get IDs of systems shared with any of a set of grantees according to the ACL entries
+   * @return set of system IDs, empty set if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public Set<String> getAclSharedSystemIDs(String tenant, Set<String> grantees) throws TapisException
+  {
+    Set<String> systemIDs = new HashSet<>();
+    if (grantees == null || grantees.isEmpty()) return systemIDs;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      systemIDs = db.selectDistinct(SYSTEM_ACL.SYSTEM_ID).from(SYSTEM_ACL)
+                    .where(SYSTEM_ACL.TENANT.eq(tenant), SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_SHARE),
+                           idInSet(SYSTEM_ACL.GRANTEE, grantees))
+                    .fetchSet(SYSTEM_ACL.SYSTEM_ID);
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SystemAcl", tenant, grantees, e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return systemIDs;
+  }
+
+  /* ********************************************************************** */
+  /*                             SK Outbox Methods                          */
+  /* ********************************************************************** */
+
+  /**
+   * Queue updates to be made in SK. Entries with an idempotency key that is already present are skipped.
+   * Normally called using the DAO passed to a unit of work, so the entries are committed with the change
+   *   to the system that requires them.
+   * @param entries - entries to add
+   * @throws TapisException - on error
+   */
+  @Override
+  public void addSkOutboxEntries(List<SkOutboxEntry> entries) throws TapisException
+  {
+    if (entries == null || entries.isEmpty()) return;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      for (SkOutboxEntry entry : entries)
+      {
+        db.insertInto(SK_OUTBOX)
+          .set(SK_OUTBOX.IDEMPOTENCY_KEY, entry.getIdempotencyKey())
+          .set(SK_OUTBOX.TENANT, entry.getTenant())
+          .set(SK_OUTBOX.SYSTEM_ID, entry.getSystemId())
+          .set(SK_OUTBOX.OPERATION, entry.getOperation().name())
+          .set(SK_OUTBOX.TARGET_USER, entry.getTargetUser())
+          .set(SK_OUTBOX.PERM_SPEC, entry.getPermSpec())
+          .onConflict(SK_OUTBOX.IDEMPOTENCY_KEY).doNothing()
+          .execute();
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_INSERT_FAILURE", "sk_outbox");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Claim entries that are due to be sent to SK.
+   * Only the oldest entry for each system is eligible, so that updates for a system are made in the order queued.
+   *   Dead letters are never eligible and hold up later entries for the same system.
+   *   Claimed entries are not eligible again until the lease expires, which keeps other dispatchers from
+   *   sending the same entry at the same time. Rows locked by another dispatcher are skipped.
+   * @param tenant - if not null only entries for this tenant and systemId are claimed
+   * @param systemId - system, used only if tenant is not null
+   * @param limit - maximum number of entries to claim
+   * @param leaseUntil - time at which claimed entries become eligible again if not removed or rescheduled
+   * @return claimed entries in queue order, empty list if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<SkOutboxEntry> claimSkOutboxEntries(String tenant, String systemId, int limit, Instant leaseUntil)
+          throws TapisException
+  {
+    List<SkOutboxEntry> entries = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      var o = SK_OUTBOX.as("o");
+      var prior = SK_OUTBOX.as("prior");
+      Condition whereCondition = o.NEXT_ATTEMPT.le(LocalDateTime.now(ZoneOffset.UTC)).and(o.DEAD_LETTER.isFalse());
+      if (tenant != null) whereCondition = whereCondition.and(o.TENANT.eq(tenant)).and(o.SYSTEM_ID.eq(systemId));
+      var claimIds = db.select(o.SEQ_ID).from(o)
+                       .where(whereCondition)
+                       .andNotExists(db.selectOne().from(prior)
+                                       .where(prior.TENANT.eq(o.TENANT), prior.SYSTEM_ID.eq(o.SYSTEM_ID),
+                                              prior.SEQ_ID.lt(o.SEQ_ID)))
+                       .orderBy(o.SEQ_ID.asc())
+                       .limit(limit)
+                       .forUpdate().skipLocked();
+      var results = db.update(SK_OUTBOX)
+                      .set(SK_OUTBOX.NEXT_ATTEMPT, LocalDateTime.ofInstant(leaseUntil, ZoneOffset.UTC))
+                      .where(SK_OUTBOX.SEQ_ID.in(claimIds))
+                      .returning()
+                      .fetch();
+      for (SkOutboxRecord r : results) { entries.add(getSkOutboxEntryFromRecord(r)); }
+      entries.sort((e1, e2) -> Integer.compare(e1.getSeqId(), e2.getSeqId()));
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sk_outbox", "*");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return entries;
+  }
+
+  /**
+   * Remove an entry once the update has been made in SK.
+   * @param seqId - sequence id of entry
+   * @throws TapisException - on error
+   */
+  @Override
+  public void deleteSkOutboxEntry(int seqId) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.deleteFrom(SK_OUTBOX).where(SK_OUTBOX.SEQ_ID.eq(seqId)).execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "sk_outbox");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Record a failed attempt to send an entry to SK and set the time of the next attempt.
+   * @param seqId - sequence id of entry
+   * @param nextAttempt - time of next attempt
+   * @param errorMsg - reason for the failure
+   * @throws TapisException - on error
+   */
+  @Override
+  public void rescheduleSkOutboxEntry(int seqId, Instant nextAttempt, String errorMsg) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.update(SK_OUTBOX)
+        .set(SK_OUTBOX.ATTEMPTS, SK_OUTBOX.ATTEMPTS.plus(1))
+        .set(SK_OUTBOX.LAST_ERROR, errorMsg)
+        .set(SK_OUTBOX.NEXT_ATTEMPT, LocalDateTime.ofInstant(nextAttempt, ZoneOffset.UTC))
+        .where(SK_OUTBOX.SEQ_ID.eq(seqId))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sk_outbox", Integer.toString(seqId));
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Record the last failed attempt to send an entry to SK and mark it as a dead letter, so that it is no longer sent.
+   * @param seqId - sequence id of entry
+   * @param errorMsg - reason for the failure
+   * @throws TapisException - on error
+   */
+  @Override
+  public void deadLetterSkOutboxEntry(int seqId, String errorMsg) throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.update(SK_OUTBOX)
+        .set(SK_OUTBOX.ATTEMPTS, SK_OUTBOX.ATTEMPTS.plus(1))
+        .set(SK_OUTBOX.LAST_ERROR, errorMsg)
+        .set(SK_OUTBOX.DEAD_LETTER, true)
+        .where(SK_OUTBOX.SEQ_ID.eq(seqId))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sk_outbox", Integer.toString(seqId));
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /**
+   * Get the dead letters for a tenant in queue order.
+   * @param tenant - tenant
+   * @return list of entries, empty list if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<SkOutboxEntry> getDeadLetterSkOutboxEntries(String tenant) throws TapisException
+  {
+    List<SkOutboxEntry> entries = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      var results = db.selectFrom(SK_OUTBOX)
+                      .where(SK_OUTBOX.TENANT.eq(tenant), SK_OUTBOX.DEAD_LETTER.isTrue())
+                      .orderBy(SK_OUTBOX.SEQ_ID.asc())
+                      .fetch();
+      for (SkOutboxRecord r : results) { entries.add(getSkOutboxEntryFromRecord(r)); }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SkOutbox", tenant, "*", e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return entries;
+  }
+
+  /**
+   * Put the dead letters for a system back in the queue, to be sent again right away with a new attempt count.
+   * @param tenant - tenant
+   * @param systemId - system
+   * @return number of entries requeued
+   * @throws TapisException - on error
+   */
+  @Override
+  public int requeueSkOutboxEntries(String tenant, String systemId) throws TapisException
+  {
+    int count = 0;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      count = db.update(SK_OUTBOX)
+                .set(SK_OUTBOX.DEAD_LETTER, false)
+                .set(SK_OUTBOX.ATTEMPTS, 0)
+                .set(SK_OUTBOX.NEXT_ATTEMPT, TapisUtils.getUTCTimeNow())
+                .where(SK_OUTBOX.TENANT.eq(tenant), SK_OUTBOX.SYSTEM_ID.eq(systemId), SK_OUTBOX.DEAD_LETTER.isTrue())
+                .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "sk_outbox", systemId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return count;
+  }
+
+  /**
+   * Remove the dead letters for a system without making the updates in SK.
+   * @param tenant - tenant
+   * @param systemId - system
+   * @return number of entries removed
+   * @throws TapisException - on error
+   */
+  @Override
+  public int discardSkOutboxEntries(String tenant, String systemId) throws TapisException
+  {
+    int count = 0;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      count = db.deleteFrom(SK_OUTBOX)
+                .where(SK_OUTBOX.TENANT.eq(tenant), SK_OUTBOX.SYSTEM_ID.eq(systemId), SK_OUTBOX.DEAD_LETTER.isTrue())
+                .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", "sk_outbox");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return count;
+  }
+
+  /**
+   * Check if there are any entries still to be sent to SK for a system, including dead letters.
+   * When called as part of a unit of work that has locked the system row the result cannot be changed by another
+   *   request before the unit of work commits, since entries for a system are only queued by a change to its row.
+   * @param tenant - tenant
+   * @param systemId - system
+   * @return true if there are entries for the system
+   * @throws TapisException - on error
+   */
+  @Override
+  public boolean hasSkOutboxEntries(String tenant, String systemId) throws TapisException
+  {
+    boolean result = false;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      result = db.fetchExists(SK_OUTBOX, SK_OUTBOX.TENANT.eq(tenant), SK_OUTBOX.SYSTEM_ID.eq(systemId));
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "SkOutbox", tenant, systemId, e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return result;
+  }
+
+  /* ********************************************************************** */
+  /*                             Child Sync Methods                         */
+  /* ********************************************************************** */
+
+  /**
+   * Get queued updates of child systems that are due.
+   * @param tenant - if not null only the entry for this tenant and parentId is returned
+   * @param parentId - parent system, used only if tenant is not null
+   * @param limit - maximum number of entries to return
+   * @return entries in order of creation, empty list if none
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<ChildSyncEntry> getDueChildSyncEntries(String tenant, String parentId, int limit) throws TapisException
+  {
+    List<ChildSyncEntry> entries = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      Condition whereCondition = CHILD_SYNC.NEXT_ATTEMPT.le(TapisUtils.getUTCTimeNow());
+      if (tenant != null) whereCondition = whereCondition.and(CHILD_SYNC.TENANT.eq(tenant))
+                                                         .and(CHILD_SYNC.PARENT_ID.eq(parentId));
+      var results = db.selectFrom(CHILD_SYNC).where(whereCondition).orderBy(CHILD_SYNC.CREATED).limit(limit).fetch();
+      for (ChildSyncRecord r : results) { entries.add(getChildSyncEntryFromRecord(r)); }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"SYSLIB_DB_SELECT_ERROR", "ChildSync", tenant, parentId, e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return entries;
+  }
+
+  /**
+   * Make the next chunk of a queued update of child systems, in its own transaction.
+   * The entry is locked while the chunk is updated, so a concurrent change to the parent waits for the chunk and
+   *   then restarts the update from the first child. Nothing is done if the entry is locked by another instance
+   *   of the service, has been removed or is not yet due. The entry is removed once the last chunk is done.
+   * An update record, made by the service, is added for each child updated and the changes are published once
+   *   the chunk has been committed.
+   * @param tenant - tenant
+   * @param parentId - parent system
+   * @return true if there are more children to update
+   * @throws TapisException - on error, in which case the chunk is rolled back and the entry is left as it was
+   */
+  @Override
+  public boolean syncChildSystems(String tenant, String parentId) throws TapisException
+  {
+    boolean more = false;
+    List<SystemChangeEvent> childChanges = Collections.emptyList();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      ChildSyncRecord r = db.selectFrom(CHILD_SYNC)
+                            .where(CHILD_SYNC.TENANT.eq(tenant), CHILD_SYNC.PARENT_ID.eq(parentId),
+                                   CHILD_SYNC.NEXT_ATTEMPT.le(TapisUtils.getUTCTimeNow()))
+                            .forUpdate().skipLocked().fetchOne();
+      if (r != null)
+      {
+        List<String> fieldNames = Arrays.asList(r.getFields());
+        List<Field<?>> fields = CHILD_INHERITED_FIELDS.stream().filter(f -> fieldNames.contains(f.getName()))
+                                                      .collect(Collectors.toList());
+        List<Integer> childSeqIds = getChildSeqIds(db, tenant, parentId, r.getLastSeqId(), childUpdateChunkSize);
+        childChanges = updateChildSystems(db, tenant, TapisConstants.SERVICE_NAME_SYSTEMS,
+                                          TapisConstants.SERVICE_NAME_SYSTEMS, tenant, parentId, fields, childSeqIds);
+        more = (childSeqIds.size() == childUpdateChunkSize);
+        if (more)
+        {
+          db.update(CHILD_SYNC).set(CHILD_SYNC.LAST_SEQ_ID, childSeqIds.get(childSeqIds.size() - 1))
+            .where(CHILD_SYNC.TENANT.eq(tenant), CHILD_SYNC.PARENT_ID.eq(parentId)).execute();
+        }
+        else
+        {
+          db.deleteFrom(CHILD_SYNC).where(CHILD_SYNC.TENANT.eq(tenant), CHILD_SYNC.PARENT_ID.eq(parentId)).execute();
+        }
+        log.info(LibUtils.getMsg("SYSLIB_CHILD_SYNC", tenant, parentId, childChanges.size(), getFieldNames(fields)));
+      }
+      closeAndCommitDB(conn);
+      publishChanges(childChanges);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "child_sync", parentId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return more;
+  }
+
+  /**
+   * Record a failed attempt to update child systems and set the time of the next attempt.
+   * Children already updated are not updated again.
+   * @param tenant - tenant
+   * @param parentId - parent system
+   * @param nextAttempt - time of next attempt
+   * @param errorMsg - reason for the failure
+   * @throws TapisException - on error
+   */
+  @Override
+  public void rescheduleChildSync(String tenant, String parentId, Instant nextAttempt, String errorMsg)
+          throws TapisException
+  {
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      db.update(CHILD_SYNC)
+        .set(CHILD_SYNC.ATTEMPTS, CHILD_SYNC.ATTEMPTS.plus(1))
+        .set(CHILD_SYNC.LAST_ERROR, errorMsg)
+        .set(CHILD_SYNC.NEXT_ATTEMPT, LocalDateTime.ofInstant(nextAttempt, ZoneOffset.UTC))
+        .where(CHILD_SYNC.TENANT.eq(tenant), CHILD_SYNC.PARENT_ID.eq(parentId))
+        .execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "child_sync", parentId);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+  }
+
+  /* ********************************************************************** */
+  /*                   System Updates Partition Methods                     */
+  /* ********************************************************************** */
+
+  /**
+   * Make sure there is a monthly partition of system_updates for each month from the current month through
+   *   the given month. Rows for a new partition that have gone to the default partition are moved into it.
+   * Nothing is done if another instance of the service is changing partitions.
+   * @param through - last month for which a partition is needed
+   * @return names of partitions created
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<String> createSystemUpdatesPartitions(YearMonth through) throws TapisException
+  {
+    List<String> created = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      if (tryPartitionLock(db))
+      {
+        Set<String> partitions = new HashSet<>(getSystemUpdatesPartitionNames(db));
+        var defaultPartition = SYSTEM_UPDATES.rename(SYS_UPD_DEFAULT_PARTITION);
+        for (YearMonth month = YearMonth.now(ZoneOffset.UTC); !month.isAfter(through); month = month.plusMonths(1))
+        {
+          String name = getSystemUpdatesPartitionName(month);
+          if (partitions.contains(name)) continue;
+          var partition = SYSTEM_UPDATES.rename(name);
+          LocalDate from = month.atDay(1);
+          LocalDate to = month.plusMonths(1).atDay(1);
+          // Create the table, move in any rows from the default partition and then attach it.
+          db.execute("CREATE TABLE {0} (LIKE {1} INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", partition, SYSTEM_UPDATES);
+          Condition inRange = defaultPartition.CREATED.ge(from.atStartOfDay()).and(defaultPartition.CREATED.lt(to.atStartOfDay()));
+          db.insertInto(partition).select(db.selectFrom(defaultPartition).where(inRange)).execute();
+          db.deleteFrom(defaultPartition).where(inRange).execute();
+          // Bounds must be given as string literals
+          db.execute("ALTER TABLE {0} ATTACH PARTITION {1} FOR VALUES FROM ({2}) TO ({3})",
+                     SYSTEM_UPDATES, partition, DSL.inline(from.toString()), DSL.inline(to.toString()));
+          created.add(name);
+        }
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_updates", "partitions");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return created;
+  }
+
+  /**
+   * Detach the monthly partitions of system_updates for months before the given month.
+   * Detached partitions remain in the DB as ordinary tables until archived.
+   * Nothing is done if another instance of the service is changing partitions.
+   * @param before - partitions for months before this month are detached
+   * @return names of partitions detached
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<String> detachSystemUpdatesPartitions(YearMonth before) throws TapisException
+  {
+    List<String> detached = new ArrayList<>();
+    String cutoffName = getSystemUpdatesPartitionName(before);
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      if (tryPartitionLock(db))
+      {
+        for (String name : getSystemUpdatesPartitionNames(db))
+        {
+          // Names sort in month order
+          if (name.compareTo(cutoffName) >= 0) continue;
+          db.execute("ALTER TABLE {0} DETACH PARTITION {1}", SYSTEM_UPDATES, SYSTEM_UPDATES.rename(name));
+          detached.add(name);
+        }
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_updates", "partitions");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return detached;
+  }
+
+  /**
+   * Get the names of monthly partitions of system_updates that have been detached and not yet archived.
+   * @return names of detached partitions in month order
+   * @throws TapisException - on error
+   */
+  @Override
+  public List<String> getDetachedSystemUpdatesPartitions() throws TapisException
+  {
+    List<String> detached = new ArrayList<>();
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      detached = getDetachedSystemUpdatesPartitionNames(db);
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "system_updates", e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return detached;
+  }
+
+  /**
+   * Write all rows of a detached partition to a gzip compressed file with one JSON object per line and then
+   *   drop the partition. The file is written under a temporary name and renamed once complete. The partition
+   *   is only dropped after the file is in place.
+   * Nothing is done if another instance of the service is changing partitions or if the partition is not a
+   *   detached partition.
+   * @param partition - name of detached partition
+   * @param archiveFile - file to be written, replaced if it exists
+   * @return number of rows archived, -1 if nothing was done
+   * @throws TapisException - on error
+   */
+  @Override
+  public long archiveSystemUpdatesPartition(String partition, Path archiveFile) throws TapisException
+  {
+    long count = -1;
+    Path tmpFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".tmp");
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      if (tryPartitionLock(db) && getDetachedSystemUpdatesPartitionNames(db).contains(partition))
+      {
+        count = 0;
+        var table = SYSTEM_UPDATES.rename(partition);
+        if (archiveFile.getParent() != null) Files.createDirectories(archiveFile.getParent());
+        try (var out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tmpFile)),
+                                                                 StandardCharsets.UTF_8));
+             Cursor<SystemUpdatesRecord> cursor = db.selectFrom(table).orderBy(table.SEQ_ID)
+                                                    .fetchSize(SYS_UPD_ARCHIVE_FETCH_SIZE).fetchLazy())
+        {
+          for (SystemUpdatesRecord r : cursor)
+          {
+            out.write(getArchiveJson(r));
+            out.newLine();
+            count++;
+          }
+        }
+        Files.move(tmpFile, archiveFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        db.dropTable(table).execute();
+      }
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      try { Files.deleteIfExists(tmpFile); } catch (IOException e1) { log.warn(e1.getMessage()); }
+      rollbackDB(conn, e,"DB_DELETE_FAILURE", partition);
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return count;
+  }
+
+  /**
+   * Get the storage used by the system_updates table, including how much of it is raw data.
+   * This scans the whole table.
+   * @return storage used
+   * @throws TapisException - on error
+   */
+  @Override
+  public SystemUpdatesStorage getSystemUpdatesStorage() throws TapisException
+  {
+    SystemUpdatesStorage storage = null;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      // Size of a partitioned table is the sum of the sizes of its partitions
+      Long totalBytes = db.fetchOne("SELECT COALESCE(SUM(pg_total_relation_size(i.inhrelid)), 0) FROM pg_inherits i " +
+                                      "WHERE i.inhparent = CAST({0} AS regclass)",
+                                      DSL.inline(getQualifiedName(SYSTEM_UPDATES))).get(0, Long.class);
+      var rawDataSize = DSL.sum(DSL.field("pg_column_size({0})", SQLDataType.INTEGER, SYSTEM_UPDATES.RAW_DATA));
+      var rawDataGzSize = DSL.sum(DSL.field("pg_column_size({0})", SQLDataType.INTEGER, SYSTEM_UPDATES.RAW_DATA_GZ));
+      var r = db.select(DSL.count(), DSL.count(SYSTEM_UPDATES.RAW_DATA), rawDataSize,
+                        DSL.count(SYSTEM_UPDATES.RAW_DATA_GZ), rawDataGzSize)
+                .from(SYSTEM_UPDATES).fetchOne();
+      storage = new SystemUpdatesStorage(r.value1(), totalBytes, r.value2(),
+                                         (r.value3() == null) ? 0 : r.value3().longValue(), r.value4(),
+                                         (r.value5() == null) ? 0 : r.value5().longValue());
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_QUERY_ERROR", "system_updates", e.getMessage());
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return storage;
+  }
+
+  /**
+   * Compress the raw data for a batch of system_updates rows that have it stored uncompressed.
+   * Rows are processed in seq_id order starting after the given seq_id, so a caller can work through the whole
+   *   table by passing in the value returned by the previous call. Rows for which compressing does not make
+   *   the raw data smaller are left as is.
+   * @param afterSeqId - only rows with a larger seq_id are processed
+   * @param batchSize - maximum number of rows to process
+   * @return largest seq_id processed, -1 if there were no rows left to process
+   * @throws TapisException - on error
+   */
+  @Override
+  public int compressSystemUpdatesRawData(int afterSeqId, int batchSize) throws TapisException
+  {
+    int lastSeqId = -1;
+    // ------------------------- Call SQL ----------------------------
+    Connection conn = null;
+    try
+    {
+      conn = getConn();
+      DSLContext db = dsl(conn);
+      var recs = db.select(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.CREATED, SYSTEM_UPDATES.RAW_DATA)
+                   .from(SYSTEM_UPDATES)
+                   .where(SYSTEM_UPDATES.SEQ_ID.gt(afterSeqId), SYSTEM_UPDATES.RAW_DATA.isNotNull())
+                   .orderBy(SYSTEM_UPDATES.SEQ_ID).limit(batchSize).fetch();
+      var queries = new ArrayList<Query>();
+      for (var r : recs)
+      {
+        lastSeqId = r.value1();
+        byte[] rawDataGz = compressRawData(r.value3());
+        if (rawDataGz == null) continue;
+        // Include the partition key so that only one partition is searched
+        queries.add(db.update(SYSTEM_UPDATES)
+                      .set(SYSTEM_UPDATES.RAW_DATA_GZ, rawDataGz)
+                      .setNull(SYSTEM_UPDATES.RAW_DATA)
+                      .where(SYSTEM_UPDATES.SEQ_ID.eq(r.value1()), SYSTEM_UPDATES.CREATED.eq(r.value2())));
+      }
+      if (!queries.isEmpty()) db.batch(queries).execute();
+      closeAndCommitDB(conn);
+    }
+    catch (Exception e)
+    {
+      rollbackDB(conn, e,"DB_UPDATE_FAILURE", "system_updates", "raw_data");
+    }
+    finally
+    {
+      finalCloseDB(conn);
+    }
+    return lastSeqId;
+  }
+
+  /* ********************************************************************** */
+  /*                             Private Methods                            */
+  /* ********************************************************************** */
+
+  /**
+   *  Return a connection from the static datasource.  Create the datasource
+   *  on demand if it doesn't exist.
+   *
+   * @return a database connection
+   * @throws TapisException on error
+   */
+  private static synchronized Connection getConnection()
+          throws TapisException
+  {
+    // Use the existing datasource.
     DataSource ds = getDataSource();
 
     // Get the connection.
@@ -2253,6 +4089,51 @@ public class SystemsDaoImpl implements SystemsDao
     return conn;
   }
 
+  /*
+   * Helpers used by DAO methods so that they work either standalone or as part of a unit of work.
+   * When part of a unit of work the shared connection is used and commit, rollback and close are left
+   *   to inTransaction(). Changes are held until the unit of work is committed.
+   */
+  private Connection getConn() throws TapisException
+  {
+    return (txConn != null) ? txConn : getConnection();
+  }
+
+  /*
+   * DSL context for a connection. Statements are timed and slow ones reported, see SlowQueryListener.
+   */
+  private static DSLContext dsl(Connection conn)
+  {
+    return DSL.using(DSL.using(conn).configuration().derive(new DefaultExecuteListenerProvider(SlowQueryListener.INSTANCE)));
+  }
+
+  private void closeAndCommitDB(Connection conn) throws SQLException
+  {
+    if (conn != txConn) LibUtils.closeAndCommitDB(conn, null, null);
+  }
+
+  private void rollbackDB(Connection conn, Exception e, String msgKey, Object... parms) throws TapisException
+  {
+    LibUtils.rollbackDB((conn != txConn) ? conn : null, e, msgKey, parms);
+  }
+
+  private void finalCloseDB(Connection conn)
+  {
+    if (conn != txConn) LibUtils.finalCloseDB(conn);
+  }
+
+  private void publishChanges(SystemChangeEvent change)
+  {
+    if (txChanges != null) { if (change != null) txChanges.add(change); }
+    else SystemChangeBus.getInstance().publish(change);
+  }
+
+  private void publishChanges(List<SystemChangeEvent> changes)
+  {
+    if (txChanges != null) txChanges.addAll(changes);
+    else SystemChangeBus.getInstance().publish(changes);
+  }
+
   /* ---------------------------------------------------------------------- */
   /* getDataSource:                                                         */
   /* ---------------------------------------------------------------------- */
@@ -2296,18 +4177,21 @@ public class SystemsDaoImpl implements SystemsDao
    * @param op - Operation, such as create, modify, etc.
    * @param changeDescriptionJson - JSON representing the update - with secrets scrubbed
    * @param rawData - Json supplied by client - secrets should be scrubbed
+   * @return event describing the change, to be published once the transaction has been committed
    */
-  private void addUpdate(DSLContext db, ResourceRequestUser rUser, String id, int seqId,
-                         SystemOperation op, String changeDescriptionJson, String rawData, UUID uuid)
+  private SystemChangeEvent addUpdate(DSLContext db, ResourceRequestUser rUser, String id, int seqId,
+                                      SystemOperation op, String changeDescriptionJson, String rawData, UUID uuid)
   {
-    // Make sure we have something for the description since it cannot be null.
-    String updJsonStr = (StringUtils.isBlank(changeDescriptionJson)) ? EMPTY_JSON : changeDescriptionJson;
+    // Tags are needed so that watchers may filter on them
+    Record2<Integer, String[]> sysRec = db.select(SYSTEMS.SEQ_ID, SYSTEMS.TAGS).from(SYSTEMS)
+                                          .where(SYSTEMS.TENANT.eq(rUser.getOboTenantId()),SYSTEMS.ID.eq(id)).fetchOne();
     if (seqId < 1)
     {
-      seqId = db.selectFrom(SYSTEMS).where(SYSTEMS.TENANT.eq(rUser.getOboTenantId()),SYSTEMS.ID.eq(id)).fetchOne(SYSTEMS.SEQ_ID);
+      seqId = sysRec.value1();
     }
-    // Persist update record
-    db.insertInto(SYSTEM_UPDATES)
+    // Persist update record. Raw data is stored compressed unless compressing does not make it smaller.
+    byte[] rawDataGz = compressRawData(rawData);
+    Record2<Integer, LocalDateTime> updRec = db.insertInto(SYSTEM_UPDATES)
             .set(SYSTEM_UPDATES.SYSTEM_SEQ_ID, seqId)
             .set(SYSTEM_UPDATES.JWT_TENANT, rUser.getJwtTenantId())
             .set(SYSTEM_UPDATES.JWT_USER, rUser.getJwtUserId())
@@ -2315,10 +4199,25 @@ public class SystemsDaoImpl implements SystemsDao
             .set(SYSTEM_UPDATES.OBO_USER, rUser.getOboUserId())
             .set(SYSTEM_UPDATES.SYSTEM_ID, id)
             .set(SYSTEM_UPDATES.OPERATION, op)
-            .set(SYSTEM_UPDATES.DESCRIPTION, TapisGsonUtils.getGson().fromJson(updJsonStr, JsonElement.class))
-            .set(SYSTEM_UPDATES.RAW_DATA, rawData)
+            .set(SYSTEM_UPDATES.DESCRIPTION, descriptionField(changeDescriptionJson))
+            .set(SYSTEM_UPDATES.RAW_DATA, (rawDataGz == null) ? rawData : null)
+            .set(SYSTEM_UPDATES.RAW_DATA_GZ, rawDataGz)
             .set(SYSTEM_UPDATES.UUID, uuid)
-            .execute();
+            .returningResult(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.CREATED)
+            .fetchOne();
+    var change = new SystemChange(updRec.value1(), id, op, uuid, updRec.value2().toInstant(ZoneOffset.UTC));
+    return new SystemChangeEvent(rUser.getOboTenantId(), (sysRec == null) ? null : sysRec.value2(), change);
+  }
+
+  /*
+   * Description of a change for the system_updates table. The JSON string is bound as is and converted to jsonb
+   *   by the DB rather than being parsed into a JsonElement and serialized again.
+   */
+  private static Field<JsonElement> descriptionField(String changeDescriptionJson)
+  {
+    // Make sure we have something for the description since it cannot be null.
+    String updJsonStr = (StringUtils.isBlank(changeDescriptionJson)) ? EMPTY_JSON : changeDescriptionJson;
+    return DSL.field("{0}::jsonb", SYSTEM_UPDATES.DESCRIPTION.getDataType(), DSL.val(updJsonStr));
   }
 
   /**
@@ -2332,7 +4231,35 @@ public class SystemsDaoImpl implements SystemsDao
   private static boolean checkForSystem(DSLContext db, String tenantId, String id, boolean includeDeleted)
   {
     if (includeDeleted) return db.fetchExists(SYSTEMS,SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id));
-    else return db.fetchExists(SYSTEMS,SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.eq(false));
+    else return db.fetchExists(SYSTEMS,SYSTEMS.TENANT.eq(tenantId),SYSTEMS.ID.eq(id),SYSTEMS.DELETED.isFalse());
+  }
+
+  /*
+   * Build condition used for optimistic locking when updating a system.
+   * If version is not known then there is no condition.
+   */
+  private static Condition versionCondition(int version)
+  {
+    if (version == TSystem.NO_VERSION) return DSL.noCondition();
+    return SYSTEMS.VERSION.eq(version);
+  }
+
+  /*
+   * When allowChildren is being set to false make sure the system has no children.
+   * Must be called using the same transaction and after the update of the parent system.
+   * The update holds the row lock on the parent until commit. Creating a child locks the parent row and checks
+   *   allowChildren, so either the child creation sees the updated flag, or the child is committed before
+   *   our update completes and is visible to this check. The check uses the same connection so no second
+   *   connection is needed while the lock is held.
+   */
+  private static void checkAllowChildrenConflict(DSLContext db, ResourceRequestUser rUser, String opName,
+                                                 String tenantId, String systemId, boolean allowChildren)
+  {
+    if (allowChildren) return;
+    if (db.fetchExists(SYSTEMS, SYSTEMS.TENANT.eq(tenantId), SYSTEMS.PARENT_ID.eq(systemId), SYSTEMS.DELETED.isFalse()))
+    {
+      throw new IllegalStateException(LibUtils.getMsgAuth("SYSLIB_CHILD_ALLOW_CONFLICT_ERROR", rUser, opName, systemId));
+    }
   }
 
   /**
@@ -2382,14 +4309,24 @@ public class SystemsDaoImpl implements SystemsDao
    * @return resulting where condition
    * @throws TapisException on error
    */
-  private static Condition addSearchListToWhere(Condition whereCondition, List<String> searchList)
+  static Condition addSearchListToWhere(Condition whereCondition, List<String> searchList)
+          throws TapisException
+  {
+    return addSearchListToWhere(whereCondition, searchList, false);
+  }
+
+  /**
+   * Add searchList to where condition. See addSearchListToWhere() above.
+   * @param useAcl - allow conditions on the share attributes derived from the local ACL entries
+   */
+  private static Condition addSearchListToWhere(Condition whereCondition, List<String> searchList, boolean useAcl)
           throws TapisException
   {
     if (searchList == null || searchList.isEmpty()) return whereCondition;
     // Parse searchList and add conditions to the WHERE clause
     for (String condStr : searchList)
     {
-      whereCondition = addSearchCondStrToWhere(whereCondition, condStr, "AND");
+      whereCondition = addSearchCondStrToWhere(whereCondition, condStr, "AND", useAcl);
     }
     return whereCondition;
   }
@@ -2397,10 +4334,11 @@ public class SystemsDaoImpl implements SystemsDao
   /**
    * Create a condition for abstract syntax tree nodes by recursively walking the tree
    * @param astNode Abstract syntax tree node to add to the base condition
+   * @param useAcl allow conditions on the share attributes derived from the local ACL entries
    * @return resulting condition
    * @throws TapisException on error
    */
-  private static Condition createConditionFromAst(ASTNode astNode) throws TapisException
+  private static Condition createConditionFromAst(ASTNode astNode, boolean useAcl) throws TapisException
   {
     if (astNode == null || astNode instanceof ASTLeaf)
     {
@@ -2421,14 +4359,14 @@ public class SystemsDaoImpl implements SystemsDao
         throw new TapisException(msg);
       }
       // Recursive call
-      return createConditionFromAst(unaryNode.getNode());
+      return createConditionFromAst(unaryNode.getNode(), useAcl);
     }
     else if (astNode instanceof ASTBinaryExpression)
     {
       // It is a binary node
       ASTBinaryExpression binaryNode = (ASTBinaryExpression) astNode;
       // Recursive call
-      return createConditionFromBinaryExpression(binaryNode);
+      return createConditionFromBinaryExpression(binaryNode, useAcl);
     }
     return null;
   }
@@ -2436,10 +4374,12 @@ public class SystemsDaoImpl implements SystemsDao
   /**
    * Create a condition from an abstract syntax tree binary node
    * @param binaryNode Abstract syntax tree binary node to add to the base condition
+   * @param useAcl allow conditions on the share attributes derived from the local ACL entries
    * @return resulting condition
    * @throws TapisException on error
    */
-  private static Condition createConditionFromBinaryExpression(ASTBinaryExpression binaryNode) throws TapisException
+  private static Condition createConditionFromBinaryExpression(ASTBinaryExpression binaryNode, boolean useAcl)
+          throws TapisException
   {
     // If we are given a null then something went very wrong.
     if (binaryNode == null)
@@ -2458,8 +4398,8 @@ public class SystemsDaoImpl implements SystemsDao
     else if (op.equalsIgnoreCase("AND"))
     {
       // Recursive calls
-      Condition cond1 = createConditionFromAst(leftNode);
-      Condition cond2 = createConditionFromAst(rightNode);
+      Condition cond1 = createConditionFromAst(leftNode, useAcl);
+      Condition cond2 = createConditionFromAst(rightNode, useAcl);
       if (cond1 == null || cond2 == null)
       {
         throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_AST4", binaryNode.toString()));
@@ -2470,8 +4410,8 @@ public class SystemsDaoImpl implements SystemsDao
     else if (op.equalsIgnoreCase("OR"))
     {
       // Recursive calls
-      Condition cond1 = createConditionFromAst(leftNode);
-      Condition cond2 = createConditionFromAst(rightNode);
+      Condition cond1 = createConditionFromAst(leftNode, useAcl);
+      Condition cond2 = createConditionFromAst(rightNode, useAcl);
       if (cond1 == null || cond2 == null)
       {
         throw new TapisException(LibUtils.getMsg("SYSLIB_DB_INVALID_SEARCH_AST4", binaryNode.toString()));
@@ -2500,7 +4440,7 @@ public class SystemsDaoImpl implements SystemsDao
       // Build the string for the search condition, left.op.right
       String condStr = String.format("%s.%s.%s", lValue, binaryNode.getOp(), rValue);
       // Validate and create a condition from the string
-      return addSearchCondStrToWhere(null, condStr, null);
+      return addSearchCondStrToWhere(null, condStr, null, useAcl);
     }
   }
 
@@ -2510,10 +4450,12 @@ public class SystemsDaoImpl implements SystemsDao
    * @param whereCondition existing condition. If null a new condition is returned.
    * @param searchStr Single search condition in the form column_name.op.value
    * @param joinOp If whereCondition is not null use AND or OR to join the condition with the whereCondition
+   * @param useAcl allow conditions on the share attributes derived from the local ACL entries
    * @return resulting where condition
    * @throws TapisException on error
    */
-  private static Condition addSearchCondStrToWhere(Condition whereCondition, String searchStr, String joinOp)
+  private static Condition addSearchCondStrToWhere(Condition whereCondition, String searchStr, String joinOp,
+                                                   boolean useAcl)
           throws TapisException
   {
     // If we have no search string then return what we were given
@@ -2525,6 +4467,28 @@ public class SystemsDaoImpl implements SystemsDao
       return whereCondition;
     }
 
+    // Create the condition
+    Condition newCondition = createConditionFromSearchStr(searchStr, useAcl);
+    // If specified add the condition to the WHERE clause
+    if (StringUtils.isBlank(joinOp) || whereCondition == null) return newCondition;
+    else if (joinOp.equalsIgnoreCase("AND")) return whereCondition.and(newCondition);
+    else if (joinOp.equalsIgnoreCase("OR")) return whereCondition.or(newCondition);
+    return newCondition;
+  }
+
+  /**
+   * Create a new condition from a string containing a single condition.
+   * Validate column name, search comparison operator and compatibility of column type + search operator + column value
+   * @param searchStr Single search condition in the form column_name.op.value
+   * @param useAcl allow conditions on the share attributes derived from the local ACL entries
+   * @return new condition
+   * @throws TapisException on error
+   */
+  private static Condition createConditionFromSearchStr(String searchStr, boolean useAcl) throws TapisException
+  {
+    // Conditions on a path within a JSON attribute, e.g. notes.project.eq.X
+    if (JsonSearchUtils.isJsonSearchCondition(searchStr)) return createJsonPathCondition(searchStr);
+
     // Parse search value into column name, operator and value
     // Format must be column_name.op.value
     String[] parsedStrArray = DOT_SPLIT.split(searchStr, 3);
@@ -2536,13 +4500,8 @@ public class SystemsDaoImpl implements SystemsDao
       throw new TapisException(LibUtils.getMsg("SYSLIB_DB_SRCH_ATTR_UNSUPPORTED", SYSTEMS.getName(), DSL.name(column)));
     }
 
-    Field<?> col = SYSTEMS.field(DSL.name(column));
-    // Check for column name passed in as camelcase
-    if (col == null)
-    {
-      col = SYSTEMS.field(DSL.name(SearchUtils.camelCaseToSnakeCase(column)));
-    }
-    // If column not found then it is an error
+    // Look up the column, which may be passed in as camelcase. If column not found then it is an error
+    Field<?> col = getSearchField(column, useAcl);
     if (col == null)
     {
       throw new TapisException(LibUtils.getMsg("SYSLIB_DB_NO_COLUMN", SYSTEMS.getName(), DSL.name(column)));
@@ -2568,12 +4527,35 @@ public class SystemsDaoImpl implements SystemsDao
     }
 
     // Create the condition
-    Condition newCondition = createCondition(col, op, val);
-    // If specified add the condition to the WHERE clause
-    if (StringUtils.isBlank(joinOp) || whereCondition == null) return newCondition;
-    else if (joinOp.equalsIgnoreCase("AND")) return whereCondition.and(newCondition);
-    else if (joinOp.equalsIgnoreCase("OR")) return whereCondition.or(newCondition);
-    return newCondition;
+    return createCondition(col, op, val);
+  }
+
+  /*
+   * Find the column for an attribute used in a search condition or orderBy. The attribute may be in camelcase.
+   * The share attributes isPublic and sharedWithUsers are derived from the local ACL entries. They are only
+   *   available when list queries use those entries, otherwise an exception is thrown.
+   * Returns null if there is no such attribute.
+   */
+  private static Field<?> getSearchField(String attr, boolean useAcl) throws TapisException
+  {
+    Field<?> col = SYSTEMS.field(DSL.name(attr));
+    if (col != null) return col;
+    String snakeAttr = SearchUtils.camelCaseToSnakeCase(attr);
+    col = SYSTEMS.field(DSL.name(snakeAttr));
+    if (col != null || !ACL_SHARE_FIELDS.containsKey(snakeAttr)) return col;
+    if (!useAcl) throw new TapisException(LibUtils.getMsg("SYSLIB_DB_SRCH_ATTR_ACL", SYSTEMS.getName(), DSL.name(attr)));
+    return ACL_SHARE_FIELDS.get(snakeAttr);
+  }
+
+  /*
+   * Create a condition for a path within a JSON attribute.
+   * Rendered as col @? ?::jsonpath so that the GIN jsonb_path_ops index on the column can be used.
+   */
+  private static Condition createJsonPathCondition(String searchStr) throws TapisException
+  {
+    JsonSearchUtils.JsonPathCondition jsonCond = JsonSearchUtils.parseJsonSearchCondition(searchStr);
+    Field<?> col = SYSTEMS.field(DSL.name(jsonCond.getColumnName()));
+    return DSL.condition("{0} @? {1}::jsonpath", col, DSL.val(jsonCond.getJsonPath()));
   }
 
   /**
@@ -2638,8 +4620,8 @@ public class SystemsDaoImpl implements SystemsDao
       case LTE -> c = col.le(val);
       case GT -> c =  col.gt(val);
       case GTE -> c = col.ge(val);
-      case LIKE -> c = col.like(val);
-      case NLIKE -> c = col.notLike(val);
+      case LIKE -> c = likeCondition(col, val, false);
+      case NLIKE -> c = likeCondition(col, val, true);
       case IN -> c = col.in(valList);
       case NIN -> c = col.notIn(valList);
       case CONTAINS -> c = textArrayOverlaps(col, valList.toArray(), false);
@@ -2811,7 +4793,7 @@ public class SystemsDaoImpl implements SystemsDao
     if (allowedIDs == null || allowedIDs.isEmpty()) return retList;
 
 // TBD    // Begin where condition for the query
-//    Condition whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.eq(false));
+//    Condition whereCondition = (SYSTEMS.TENANT.eq(tenantId)).and(SYSTEMS.DELETED.isFalse());
 //
 //    Field catCol = CAPABILITIES.CATEGORY;
 //    Field nameCol = CAPABILITIES.NAME;
@@ -2899,6 +4881,8 @@ public class SystemsDaoImpl implements SystemsDao
     Instant updated = r.getUpdated().toInstant(ZoneOffset.UTC);
 
     // Convert JSONB columns to native types
+    var decodeEvent = new SystemsEvents.JsonDecode();
+    decodeEvent.begin();
     JsonElement jobRuntimesJson = r.getJobRuntimes();
     List<JobRuntime> jobRuntimes = null;
     if (jobRuntimesJson != null && !jobRuntimesJson.isJsonNull())
@@ -2911,6 +4895,7 @@ public class SystemsDaoImpl implements SystemsDao
     List<LogicalQueue> logicalQueues = Arrays.asList(TapisGsonUtils.getGson().fromJson(logicalQueuesJson, LogicalQueue[].class));
     JsonElement capabilitiesJson = r.getJobCapabilities();
     List<Capability> capabilities = Arrays.asList(TapisGsonUtils.getGson().fromJson(capabilitiesJson, Capability[].class));
+    decodeEvent.finish(r.getTenant(), r.getId());
 
     system = new TSystem(sysSeqId, r.getTenant(), r.getId(), r.getDescription(),
             r.getSystemType(), r.getOwner(), r.getHost(), r.getEnabled(),
@@ -2925,12 +4910,105 @@ public class SystemsDaoImpl implements SystemsDao
             r.getBatchSchedulerProfile(), capabilities, r.getTags(), r.getNotes(),
             r.getImportRefId(), r.getUuid(), r.getDeleted(), r.getAllowChildren(),
             r.getParentId(), created, updated);
+    system.setVersion(r.getVersion());
     return system;
   }
 
   /*
    * Given a record from a select, create a SystemHistoryItem object
    */
+  /*
+   * Take the transaction level advisory lock used when changing partitions of system_updates.
+   * Returns false if another session holds it.
+   */
+  private static boolean tryPartitionLock(DSLContext db)
+  {
+    return Boolean.TRUE.equals(db.fetchValue("SELECT pg_try_advisory_xact_lock({0})", DSL.inline(SYS_UPD_PARTITION_LOCK)));
+  }
+
+  private static String getSystemUpdatesPartitionName(YearMonth month)
+  {
+    return SYS_UPD_PARTITION_PREFIX + SYS_UPD_PARTITION_FORMAT.format(month);
+  }
+
+  /*
+   * Names of monthly partitions currently attached to system_updates, in month order.
+   */
+  private static List<String> getSystemUpdatesPartitionNames(DSLContext db)
+  {
+    List<String> names = db.fetch("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                                  "WHERE i.inhparent = CAST({0} AS regclass)", DSL.inline(getQualifiedName(SYSTEM_UPDATES)))
+                           .getValues(0, String.class);
+    return names.stream().filter(n -> SYS_UPD_PARTITION_PATTERN.matcher(n).matches()).sorted().collect(Collectors.toList());
+  }
+
+  /*
+   * Names of tables in our schema that are named like monthly partitions of system_updates but are not
+   *   attached to it, in month order.
+   */
+  private static List<String> getDetachedSystemUpdatesPartitionNames(DSLContext db)
+  {
+    List<String> names = db.fetch("SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                                  "WHERE n.nspname = {0} AND c.relkind = 'r' AND NOT c.relispartition " +
+                                  "AND c.relname LIKE {1}",
+                                  DSL.inline(SYSTEM_UPDATES.getSchema().getName()),
+                                  DSL.inline(SYS_UPD_PARTITION_PREFIX + "%"))
+                           .getValues(0, String.class);
+    return names.stream().filter(n -> SYS_UPD_PARTITION_PATTERN.matcher(n).matches()).sorted().collect(Collectors.toList());
+  }
+
+  private static String getQualifiedName(Table<?> table)
+  {
+    return table.getSchema().getName() + "." + table.getName();
+  }
+
+  /*
+   * Single line JSON for an archived system_updates row. Keys are the column names.
+   */
+  private static String getArchiveJson(SystemUpdatesRecord r) throws IOException
+  {
+    var json = new JsonObject();
+    for (Field<?> f : r.fields())
+    {
+      Object val = r.get(f);
+      if (val == null) continue;
+      // Compressed raw data is archived as plain raw_data
+      if (SYSTEM_UPDATES.RAW_DATA_GZ.getName().equals(f.getName()))
+        json.addProperty(SYSTEM_UPDATES.RAW_DATA.getName(), decompressRawData((byte[]) val));
+      else if (val instanceof JsonElement) json.add(f.getName(), (JsonElement) val);
+      else if (val instanceof LocalDateTime) json.addProperty(f.getName(), ((LocalDateTime) val).toInstant(ZoneOffset.UTC).toString());
+      else if (val instanceof Number) json.addProperty(f.getName(), (Number) val);
+      else json.addProperty(f.getName(), val.toString());
+    }
+    return json.toString();
+  }
+
+  /*
+   * Raw data for the system_updates table compressed using gzip. Null if there is no raw data or if compressing
+   *   does not make it smaller, in which case the raw data is stored as is.
+   */
+  private static byte[] compressRawData(String rawData)
+  {
+    if (StringUtils.isEmpty(rawData)) return null;
+    byte[] bytes = rawData.getBytes(StandardCharsets.UTF_8);
+    var bos = new ByteArrayOutputStream(bytes.length / 2 + 32);
+    try (var gz = new GZIPOutputStream(bos)) { gz.write(bytes); }
+    // Not expected when writing to memory. Store the raw data as is.
+    catch (IOException e) { return null; }
+    return (bos.size() < bytes.length) ? bos.toByteArray() : null;
+  }
+
+  /*
+   * Raw data stored compressed by compressRawData()
+   */
+  static String decompressRawData(byte[] rawDataGz) throws IOException
+  {
+    try (var gz = new GZIPInputStream(new ByteArrayInputStream(rawDataGz)))
+    {
+      return new String(gz.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
   private SystemHistoryItem getSystemHistoryFromRecord(Record r)
   {
 	return new SystemHistoryItem(r.get(SYSTEM_UPDATES.JWT_TENANT), r.get(SYSTEM_UPDATES.JWT_USER),
@@ -2939,55 +5017,301 @@ public class SystemsDaoImpl implements SystemsDao
   }
 
   /*
-   * Given a parent system update all inheritable attributes for children
+   * Given a child_sync record create a ChildSyncEntry object
    */
-  private void updateChildSystemsFromParent(DSLContext db, String tenant, String parentId) {
-    SystemsRecord systemRecord = (SystemsRecord) db.selectFrom(SYSTEMS)
-            .where(SYSTEMS.TENANT.eq(tenant), SYSTEMS.ID.eq(parentId))
-            .fetchOne();
-    TSystem parentSystem = getSystemFromRecord(systemRecord);
-    // Make sure owner, effectiveUserId, etc are set
-    JsonElement jobEnvVariablesJson = TapisGsonUtils.getGson().toJsonTree(parentSystem.getJobEnvVariables());
-    JsonElement jobRuntimesJson = TapisGsonUtils.getGson().toJsonTree(parentSystem.getJobRuntimes());
-    JsonElement batchLogicalQueuesJson = TapisGsonUtils.getGson().toJsonTree(parentSystem.getBatchLogicalQueues());
-    JsonElement jobCapabilitiesJson = TapisGsonUtils.getGson().toJsonTree(parentSystem.getJobCapabilities());
-    String[] tagsStrArray = parentSystem.getTags();
-    JsonObject notesObj = (JsonObject) parentSystem.getNotes();
-
-    int rowsUpdated = db.update(SYSTEMS)
-            .set(SYSTEMS.TENANT, parentSystem.getTenant())
-            .set(SYSTEMS.DESCRIPTION, parentSystem.getDescription())
-            .set(SYSTEMS.SYSTEM_TYPE, parentSystem.getSystemType())
-            .set(SYSTEMS.HOST, parentSystem.getHost())
-            .set(SYSTEMS.DEFAULT_AUTHN_METHOD, parentSystem.getDefaultAuthnMethod())
-            .set(SYSTEMS.BUCKET_NAME, parentSystem.getBucketName())
-            .set(SYSTEMS.PORT, parentSystem.getPort())
-            .set(SYSTEMS.USE_PROXY, parentSystem.isUseProxy())
-            .set(SYSTEMS.PROXY_HOST, parentSystem.getProxyHost())
-            .set(SYSTEMS.PROXY_PORT, parentSystem.getProxyPort())
-            .set(SYSTEMS.DTN_SYSTEM_ID, parentSystem.getDtnSystemId())
-            .set(SYSTEMS.CAN_EXEC, parentSystem.getCanExec())
-            .set(SYSTEMS.CAN_RUN_BATCH, parentSystem.getCanRunBatch())
-            .set(SYSTEMS.ENABLE_CMD_PREFIX, parentSystem.isEnableCmdPrefix())
-            .set(SYSTEMS.MPI_CMD, parentSystem.getMpiCmd())
-            .set(SYSTEMS.JOB_RUNTIMES, jobRuntimesJson)
-            .set(SYSTEMS.JOB_WORKING_DIR, parentSystem.getJobWorkingDir())
-            .set(SYSTEMS.JOB_ENV_VARIABLES, jobEnvVariablesJson)
-            .set(SYSTEMS.JOB_MAX_JOBS, parentSystem.getJobMaxJobs())
-            .set(SYSTEMS.JOB_MAX_JOBS_PER_USER, parentSystem.getJobMaxJobsPerUser())
-            .set(SYSTEMS.BATCH_SCHEDULER, parentSystem.getBatchScheduler())
-            .set(SYSTEMS.BATCH_LOGICAL_QUEUES, batchLogicalQueuesJson)
-            .set(SYSTEMS.BATCH_DEFAULT_LOGICAL_QUEUE, parentSystem.getBatchDefaultLogicalQueue())
-            .set(SYSTEMS.BATCH_SCHEDULER_PROFILE, parentSystem.getBatchSchedulerProfile())
-            .set(SYSTEMS.JOB_CAPABILITIES, jobCapabilitiesJson)
-            .set(SYSTEMS.TAGS, tagsStrArray)
-            .set(SYSTEMS.NOTES, notesObj)
-            .set(SYSTEMS.IMPORT_REF_ID, parentSystem.getImportRefId())
-            .set(SYSTEMS.UUID, parentSystem.getUuid())
-            .set(SYSTEMS.ALLOW_CHILDREN, parentSystem.isAllowChildren())
-            .where(SYSTEMS.TENANT.eq(parentSystem.getTenant()), SYSTEMS.PARENT_ID.eq(parentSystem.getId()), SYSTEMS.DELETED.isFalse())
-            .execute();
-    log.info("Child Systems Updated. Number of rows = " + rowsUpdated);
+  private static ChildSyncEntry getChildSyncEntryFromRecord(ChildSyncRecord r)
+  {
+    return new ChildSyncEntry(r.getTenant(), r.getParentId(), Arrays.asList(r.getFields()), r.getLastSeqId(),
+                              r.getAttempts());
+  }
+
+  /*
+   * Given an sk_outbox record create an SkOutboxEntry object
+   */
+  private static SkOutboxEntry getSkOutboxEntryFromRecord(SkOutboxRecord r)
+  {
+    return new SkOutboxEntry(r.getSeqId(), r.getIdempotencyKey(), r.getTenant(), r.getSystemId(),
+                             SkOutboxOperation.valueOf(r.getOperation()), r.getTargetUser(), r.getPermSpec(),
+                             r.getAttempts(), r.getLastError(), r.getCreated().toInstant(ZoneOffset.UTC),
+                             r.getDeadLetter());
+  }
+
+  /*
+   * Given a parent system update children with the given inherited columns of the parent.
+   * If the parent has no more than childUpdateChunkSize children they are updated now as part of the change to
+   *   the parent. Otherwise the update is queued in table child_sync, in the same transaction as the change to
+   *   the parent, and made later in chunks, see syncChildSystems(). This keeps the parent's transaction from
+   *   holding locks on all of the children. If an update is already queued the columns are merged and the update
+   *   starts again from the first child.
+   * @return changes for the children updated now, to be published once committed
+   */
+  private static List<SystemChangeEvent> updateChildSystemsFromParent(DSLContext db, String jwtTenant, String jwtUser,
+                                                                      String oboUser, String tenant, String parentId,
+                                                                      List<Field<?>> fields)
+  {
+    if (fields.isEmpty()) return Collections.emptyList();
+    List<Integer> childSeqIds = getChildSeqIds(db, tenant, parentId, 0, childUpdateChunkSize + 1);
+    if (childSeqIds.size() > childUpdateChunkSize)
+    {
+      String[] fieldNames = fields.stream().map(Field::getName).toArray(String[]::new);
+      Field<String[]> fieldsUnion = DSL.field("array(select distinct unnest({0} || {1}::text[]))",
+                                              CHILD_SYNC.FIELDS.getDataType(), CHILD_SYNC.FIELDS,
+                                              DSL.val(fieldNames));
+      db.insertInto(CHILD_SYNC)
+        .set(CHILD_SYNC.TENANT, tenant)
+        .set(CHILD_SYNC.PARENT_ID, parentId)
+        .set(CHILD_SYNC.FIELDS, fieldNames)
+        .onConflict(CHILD_SYNC.TENANT, CHILD_SYNC.PARENT_ID)
+        .doUpdate().set(CHILD_SYNC.FIELDS, fieldsUnion).set(CHILD_SYNC.LAST_SEQ_ID, 0)
+                   .set(CHILD_SYNC.NEXT_ATTEMPT, TapisUtils.getUTCTimeNow())
+        .execute();
+      log.debug(LibUtils.getMsg("SYSLIB_CHILD_SYNC_QUEUED", tenant, parentId, getFieldNames(fields)));
+      return Collections.emptyList();
+    }
+    var childChanges = updateChildSystems(db, jwtTenant, jwtUser, oboUser, tenant, parentId, fields, childSeqIds);
+    log.info(LibUtils.getMsg("SYSLIB_CHILD_SYNC", tenant, parentId, childChanges.size(), getFieldNames(fields)));
+    return childChanges;
+  }
+
+  /*
+   * Update child systems with inherited columns of their parent, see updateChildSystems() below, and add an update
+   *   record for each child updated. The description lists the parent and the columns updated.
+   * Children and records are written by one statement: the update of the children is a CTE and the records are
+   *   inserted by selecting from its result.
+   * @return changes to be published once committed
+   */
+  private static List<SystemChangeEvent> updateChildSystems(DSLContext db, String jwtTenant, String jwtUser,
+                                                            String oboUser, String tenant, String parentId,
+                                                            List<Field<?>> fields, List<Integer> childSeqIds)
+  {
+    if (fields.isEmpty() || childSeqIds.isEmpty()) return Collections.emptyList();
+    var fieldNames = new JsonArray();
+    for (Field<?> f : fields) fieldNames.add(f.getName());
+    var description = new JsonObject();
+    description.addProperty("parentId", parentId);
+    description.add("inheritedFields", fieldNames);
+
+    Table<?> updated = DSL.table(DSL.name("updated"));
+    var insert = db.insertInto(SYSTEM_UPDATES, SYSTEM_UPDATES.SYSTEM_SEQ_ID, SYSTEM_UPDATES.JWT_TENANT,
+                               SYSTEM_UPDATES.JWT_USER, SYSTEM_UPDATES.OBO_TENANT, SYSTEM_UPDATES.OBO_USER,
+                               SYSTEM_UPDATES.SYSTEM_ID, SYSTEM_UPDATES.OPERATION, SYSTEM_UPDATES.DESCRIPTION,
+                               SYSTEM_UPDATES.UUID)
+                   .select(DSL.select(DSL.field(DSL.name("updated", "seq_id"), SYSTEMS.SEQ_ID.getDataType()),
+                                      DSL.val(jwtTenant), DSL.val(jwtUser), DSL.val(tenant), DSL.val(oboUser),
+                                      DSL.field(DSL.name("updated", "id"), SYSTEMS.ID.getDataType()),
+                                      DSL.val(SystemOperation.modify, SYSTEM_UPDATES.OPERATION),
+                                      descriptionField(description.toString()),
+                                      DSL.field(DSL.name("updated", "uuid"), SYSTEMS.UUID.getDataType()))
+                              .from(updated))
+                   .returning(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.SYSTEM_SEQ_ID, SYSTEM_UPDATES.CREATED);
+    Result<Record> results =
+            db.resultQuery("WITH updated AS ({0}), ins AS ({1}) " +
+                           "SELECT ins.seq_id, ins.created, updated.id, updated.uuid, updated.tags " +
+                           "FROM ins JOIN updated ON updated.seq_id = ins.system_seq_id ORDER BY ins.seq_id",
+                           childUpdateQuery(db, tenant, parentId, fields, childSeqIds), insert)
+              .fetch();
+    var changes = new ArrayList<SystemChangeEvent>(results.size());
+    for (Record r : results)
+    {
+      String childId = r.get(2, String.class);
+      UUID childUuid = r.get(3, UUID.class);
+      var change = new SystemChange(r.get(0, Integer.class), childId, SystemOperation.modify, childUuid,
+                                    r.get(1, LocalDateTime.class).toInstant(ZoneOffset.UTC));
+      changes.add(new SystemChangeEvent(tenant, r.get(4, String[].class), change));
+    }
+    return changes;
+  }
+
+  /*
+   * Sequence ids of children of a parent system that have not been deleted, in order, starting after afterSeqId.
+   */
+  private static List<Integer> getChildSeqIds(DSLContext db, String tenant, String parentId, int afterSeqId, int limit)
+  {
+    return db.select(SYSTEMS.SEQ_ID).from(SYSTEMS)
+             .where(SYSTEMS.TENANT.eq(tenant), SYSTEMS.PARENT_ID.eq(parentId), SYSTEMS.DELETED.isFalse(),
+                    SYSTEMS.SEQ_ID.gt(afterSeqId))
+             .orderBy(SYSTEMS.SEQ_ID).limit(limit).fetch(SYSTEMS.SEQ_ID);
+  }
+
+  /*
+   * Set the given columns of child systems to the values of the parent, taken directly from the parent's row.
+   * Only the given columns are set and children that already match the parent in all of them are not updated.
+   * @return seq_id, id, uuid and tags of the children updated
+   */
+  private static Result<SystemsRecord> updateChildSystems(DSLContext db, String tenant, String parentId,
+                                                          List<Field<?>> fields, List<Integer> childSeqIds)
+  {
+    if (fields.isEmpty() || childSeqIds.isEmpty()) return db.newResult(SYSTEMS);
+    return childUpdateQuery(db, tenant, parentId, fields, childSeqIds).fetch();
+  }
+
+  /*
+   * Update of child systems made by updateChildSystems(), returning seq_id, id, uuid and tags of the children.
+   */
+  private static UpdateResultStep<SystemsRecord> childUpdateQuery(DSLContext db, String tenant, String parentId,
+                                                                  List<Field<?>> fields, List<Integer> childSeqIds)
+  {
+    Systems parent = SYSTEMS.as("parent");
+    Map<Field<?>, Object> values = new LinkedHashMap<>();
+    Condition differs = DSL.falseCondition();
+    for (Field<?> f : fields)
+    {
+      values.put(f, parent.field(f));
+      differs = differs.or(isDistinctFrom(f, parent));
+    }
+    values.put(SYSTEMS.UPDATED, TapisUtils.getUTCTimeNow());
+    values.put(SYSTEMS.VERSION, SYSTEMS.VERSION.plus(1));
+    return db.update(SYSTEMS).set(values).from(parent)
+             .where(parent.TENANT.eq(tenant), parent.ID.eq(parentId),
+                    SYSTEMS.TENANT.eq(tenant), SYSTEMS.PARENT_ID.eq(parentId), SYSTEMS.DELETED.isFalse(),
+                    SYSTEMS.SEQ_ID.in(childSeqIds), differs)
+             .returning(SYSTEMS.SEQ_ID, SYSTEMS.ID, SYSTEMS.UUID, SYSTEMS.TAGS);
+  }
+
+  private static <T> Condition isDistinctFrom(Field<T> field, Systems parent)
+  {
+    return field.isDistinctFrom(parent.field(field));
+  }
+
+  /*
+   * Inherited columns that differ between two versions of a parent system record.
+   */
+  private static List<Field<?>> getChangedInheritedFields(SystemsRecord before, SystemsRecord after)
+  {
+    if (before == null || after == null) return CHILD_INHERITED_FIELDS;
+    return CHILD_INHERITED_FIELDS.stream().filter(f -> !Objects.deepEquals(before.get(f), after.get(f)))
+                                 .collect(Collectors.toList());
+  }
+
+  private static String getFieldNames(List<Field<?>> fields)
+  {
+    return fields.stream().map(Field::getName).collect(Collectors.joining(","));
+  }
+
+  /*
+   * Get the sequence ids for a set of systems that exist and have not been deleted, keyed by system id.
+   */
+  private static Map<String, Integer> getSystemSeqIds(DSLContext db, String tenant, Collection<String> systemIds)
+  {
+    if (systemIds.isEmpty()) return Collections.emptyMap();
+    return db.select(SYSTEMS.ID, SYSTEMS.SEQ_ID).from(SYSTEMS)
+             .where(SYSTEMS.TENANT.eq(tenant), SYSTEMS.DELETED.isFalse(), idInSet(SYSTEMS.ID, systemIds))
+             .fetchMap(SYSTEMS.ID, SYSTEMS.SEQ_ID);
+  }
+
+  /*
+   * Increment the version of the ACL sync entries for a set of grantees, so that a refresh from SK that started
+   *   before the change does not replace the entries. Grantees without a sync entry get one that is not synced,
+   *   since a refresh for them may be in progress. Grantees are handled in order to avoid deadlocks.
+   */
+  private static void incrementAclSyncVersions(DSLContext db, String tenant, Collection<String> grantees)
+  {
+    List<Query> upserts = new ArrayList<>();
+    for (String grantee : new TreeSet<>(grantees))
+    {
+      upserts.add(db.insertInto(SYSTEM_ACL_SYNC)
+                    .set(SYSTEM_ACL_SYNC.TENANT, tenant)
+                    .set(SYSTEM_ACL_SYNC.GRANTEE, grantee)
+                    .set(SYSTEM_ACL_SYNC.SYNCED, ACL_NOT_SYNCED)
+                    .set(SYSTEM_ACL_SYNC.VERSION, 1L)
+                    .onConflict(SYSTEM_ACL_SYNC.TENANT, SYSTEM_ACL_SYNC.GRANTEE)
+                    .doUpdate().set(SYSTEM_ACL_SYNC.VERSION, SYSTEM_ACL_SYNC.VERSION.plus(1)));
+    }
+    if (!upserts.isEmpty()) db.batch(upserts).execute();
+  }
+
+  /*
+   * Build an ACL sync entry from a record
+   */
+  private static SystemAclSyncEntry getAclSyncEntryFromRecord(SystemAclSyncRecord r)
+  {
+    Instant used = (r.getUsed() == null) ? null : r.getUsed().toInstant(ZoneOffset.UTC);
+    return new SystemAclSyncEntry(r.getTenant(), r.getGrantee(), r.getSynced().toInstant(ZoneOffset.UTC),
+                                  r.getVersion(), used);
+  }
+
+  /*
+   * Condition selecting the ACL share entries of the system in the enclosing query on the systems table.
+   * Matches the primary key prefix (tenant, system_id) of system_acl.
+   */
+  private static Condition aclSharesOfSystem()
+  {
+    return SYSTEM_ACL.TENANT.eq(SYSTEMS.TENANT).and(SYSTEM_ACL.SYSTEM_ID.eq(SYSTEMS.ID))
+                     .and(SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_SHARE));
+  }
+
+  /*
+   * Build the listType condition for a list query using the ACL entries:
+   *  OWNED = owner = oboUser
+   *  PUBLIC = shared with the public grantee
+   *  ALL = owner = oboUser OR oboUser has READ or MODIFY OR shared with oboUser or the public grantee
+   * The ACL entries are checked with a correlated EXISTS so the IDs are never returned to the caller.
+   */
+  private static Condition aclListTypeCondition(AuthListType listType, String oboUser)
+  {
+    if (AuthListType.OWNED.equals(listType)) return SYSTEMS.OWNER.eq(oboUser);
+    if (AuthListType.SHARED_PUBLIC.equals(listType)) return ACL_IS_PUBLIC.isTrue();
+    Condition viewable = SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_PERM).and(SYSTEM_ACL.GRANTEE.eq(oboUser))
+                                   .and(textArrayOverlaps(SYSTEM_ACL.PERMS, ACL_VIEW_PERMS, false));
+    Condition shared = SYSTEM_ACL.ACL_TYPE.eq(ACL_TYPE_SHARE)
+                                 .and(SYSTEM_ACL.GRANTEE.in(oboUser, SKClient.PUBLIC_GRANTEE));
+    return SYSTEMS.OWNER.eq(oboUser)
+                  .or(DSL.exists(DSL.selectOne().from(SYSTEM_ACL)
+                                    .where(SYSTEM_ACL.TENANT.eq(SYSTEMS.TENANT), SYSTEM_ACL.SYSTEM_ID.eq(SYSTEMS.ID),
+                                           viewable.or(shared))));
+  }
+
+  /*
+   * Build the statement to insert a single ACL entry
+   */
+  private static InsertSetMoreStep<SystemAclRecord> insertAcl(DSLContext db, int seqId, String tenant, String systemId,
+                                                             String grantee, String aclType, Set<String> perms,
+                                                             LocalDateTime updated)
+  {
+    return db.insertInto(SYSTEM_ACL)
+             .set(SYSTEM_ACL.SYSTEM_SEQ_ID, seqId)
+             .set(SYSTEM_ACL.TENANT, tenant)
+             .set(SYSTEM_ACL.SYSTEM_ID, systemId)
+             .set(SYSTEM_ACL.GRANTEE, grantee)
+             .set(SYSTEM_ACL.ACL_TYPE, aclType)
+             .set(SYSTEM_ACL.PERMS, perms.toArray(new String[0]))
+             .set(SYSTEM_ACL.UPDATED, updated);
+  }
+
+  /*
+   * Create a condition that is true if a column matches any of a collection of ids.
+   * Rendered as col = any(?::text[]) with the ids bound as a single array parameter rather than an IN list
+   *   with one parameter per id. The statement text is then the same whatever the number of ids, so it can be
+   *   reused by the driver, and there is no risk of exceeding the Postgres limit on bind parameters.
+   */
+  static Condition idInSet(Field<String> col, Collection<String> ids)
+  {
+    return DSL.condition("{0} = any({1}::text[])", col, DSL.val(ids.toArray(new String[0])));
+  }
+
+  /*
+   * Create a condition for the LIKE or NLIKE search operators.
+   * Search values have already been processed so that * and ! are the wildcards % and _ and any literal
+   *   % or _ is escaped with a backslash.
+   * If the pattern has no wildcards it is rendered as a plain comparison, so that a btree index on the column
+   *   can be used. Otherwise it is rendered as col like ? without wrapping the column in a function or cast,
+   *   so that the trigram indexes on id, host and description can be used for leading wildcards.
+   */
+  static Condition likeCondition(Field col, String pattern, boolean negate)
+  {
+    var literal = new StringBuilder(pattern.length());
+    for (int i = 0; i < pattern.length(); i++)
+    {
+      char ch = pattern.charAt(i);
+      if (ch == '%' || ch == '_')
+      {
+        return negate ? col.notLike(pattern) : col.like(pattern);
+      }
+      // Backslash escapes the next character, keep only the escaped character
+      if (ch == '\\' && i + 1 < pattern.length()) ch = pattern.charAt(++i);
+      literal.append(ch);
+    }
+    return negate ? col.ne(literal.toString()) : col.eq(literal.toString());
   }
 
   /*
@@ -4,8 +4,12 @@
 package edu.utexas.tacc.tapis.systems.gen.jooq;
 
 
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.ChildSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedulerProfiles;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SkOutbox;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAcl;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 
 import org.jooq.Index;
@@ -24,11 +28,24 @@ public class Indexes {
     // INDEX definitions
     // -------------------------------------------------------------------------
 
+    public static final Index CHILD_SYNC_NEXT_ATTEMPT_IDX = Internal.createIndex(DSL.name("child_sync_next_attempt_idx"), ChildSync.CHILD_SYNC, new OrderField[] { ChildSync.CHILD_SYNC.NEXT_ATTEMPT }, false);
     public static final Index FLYWAY_SCHEMA_HISTORY_S_IDX = Internal.createIndex(DSL.name("flyway_schema_history_s_idx"), FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY, new OrderField[] { FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY.SUCCESS }, false);
     public static final Index SCHEDPROF_TENANT_NAME_IDX = Internal.createIndex(DSL.name("schedprof_tenant_name_idx"), SchedulerProfiles.SCHEDULER_PROFILES, new OrderField[] { SchedulerProfiles.SCHEDULER_PROFILES.TENANT, SchedulerProfiles.SCHEDULER_PROFILES.NAME }, false);
+    public static final Index SK_OUTBOX_NEXT_ATTEMPT_IDX = Internal.createIndex(DSL.name("sk_outbox_next_attempt_idx"), SkOutbox.SK_OUTBOX, new OrderField[] { SkOutbox.SK_OUTBOX.NEXT_ATTEMPT }, false);
+    public static final Index SK_OUTBOX_TENANT_SYSTEM_IDX = Internal.createIndex(DSL.name("sk_outbox_tenant_system_idx"), SkOutbox.SK_OUTBOX, new OrderField[] { SkOutbox.SK_OUTBOX.TENANT, SkOutbox.SK_OUTBOX.SYSTEM_ID, SkOutbox.SK_OUTBOX.SEQ_ID }, false);
+    public static final Index SYS_ACL_TENANT_GRANTEE_IDX = Internal.createIndex(DSL.name("sys_acl_tenant_grantee_idx"), SystemAcl.SYSTEM_ACL, new OrderField[] { SystemAcl.SYSTEM_ACL.TENANT, SystemAcl.SYSTEM_ACL.GRANTEE }, false);
+    public static final Index SYS_DESCRIPTION_TRGM_IDX = Internal.createIndex(DSL.name("sys_description_trgm_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.DESCRIPTION }, false);
     public static final Index SYS_HOST_IDX = Internal.createIndex(DSL.name("sys_host_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.HOST }, false);
-    public static final Index SYS_OWNER_IDX = Internal.createIndex(DSL.name("sys_owner_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.OWNER }, false);
-    public static final Index SYS_SYSTEM_PARENT_ID_IDX = Internal.createIndex(DSL.name("sys_system_parent_id_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.PARENT_ID }, false);
+    public static final Index SYS_HOST_TRGM_IDX = Internal.createIndex(DSL.name("sys_host_trgm_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.HOST }, false);
+    public static final Index SYS_ID_TRGM_IDX = Internal.createIndex(DSL.name("sys_id_trgm_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.ID }, false);
+    public static final Index SYS_JOB_CAPABILITIES_PATH_IDX = Internal.createIndex(DSL.name("sys_job_capabilities_path_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.JOB_CAPABILITIES }, false);
+    public static final Index SYS_NOTES_PATH_IDX = Internal.createIndex(DSL.name("sys_notes_path_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.NOTES }, false);
     public static final Index SYS_TAGS_IDX = Internal.createIndex(DSL.name("sys_tags_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TAGS }, false);
     public static final Index SYS_TENANT_NAME_IDX = Internal.createIndex(DSL.name("sys_tenant_name_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.ID }, false);
+    public static final Index SYS_TENANT_OWNER_IDX = Internal.createIndex(DSL.name("sys_tenant_owner_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.OWNER }, false);
+    public static final Index SYS_TENANT_PARENT_ID_IDX = Internal.createIndex(DSL.name("sys_tenant_parent_id_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.PARENT_ID }, false);
+    public static final Index SYS_TENANT_TYPE_ENABLED_IDX = Internal.createIndex(DSL.name("sys_tenant_type_enabled_idx"), Systems.SYSTEMS, new OrderField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.SYSTEM_TYPE, Systems.SYSTEMS.ENABLED }, false);
+    public static final Index SYS_UPD_TENANT_SEQ_IDX = Internal.createIndex(DSL.name("sys_upd_tenant_seq_idx"), SystemUpdates.SYSTEM_UPDATES, new OrderField[] { SystemUpdates.SYSTEM_UPDATES.OBO_TENANT, SystemUpdates.SYSTEM_UPDATES.SEQ_ID }, false);
+    public static final Index SYS_UPD_TENANT_SYSTEM_IDX = Internal.createIndex(DSL.name("sys_upd_tenant_system_idx"), SystemUpdates.SYSTEM_UPDATES, new OrderField[] { SystemUpdates.SYSTEM_UPDATES.OBO_TENANT, SystemUpdates.SYSTEM_UPDATES.SYSTEM_ID, SystemUpdates.SYSTEM_UPDATES.CREATED }, false);
+    public static final Index SYS_UPD_TENANT_TXID_SEQ_IDX = Internal.createIndex(DSL.name("sys_upd_tenant_txid_seq_idx"), SystemUpdates.SYSTEM_UPDATES, new OrderField[] { SystemUpdates.SYSTEM_UPDATES.OBO_TENANT, SystemUpdates.SYSTEM_UPDATES.TXID, SystemUpdates.SYSTEM_UPDATES.SEQ_ID }, false);
 }
@@ -4,15 +4,23 @@
 package edu.utexas.tacc.tapis.systems.gen.jooq;
 
 
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.ChildSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedProfileModLoad;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedulerProfiles;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SkOutbox;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAcl;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAclSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemsLoginUser;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.ChildSyncRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.FlywaySchemaHistoryRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SchedProfileModLoadRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SchedulerProfilesRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SkOutboxRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemAclRecord;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemAclSyncRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUpdatesRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemsLoginUserRecord;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemsRecord;
@@ -35,11 +43,16 @@ public class Keys {
     // UNIQUE and PRIMARY KEY definitions
     // -------------------------------------------------------------------------
 
+    public static final UniqueKey<ChildSyncRecord> CHILD_SYNC_PKEY = Internal.createUniqueKey(ChildSync.CHILD_SYNC, DSL.name("child_sync_pkey"), new TableField[] { ChildSync.CHILD_SYNC.TENANT, ChildSync.CHILD_SYNC.PARENT_ID }, true);
     public static final UniqueKey<FlywaySchemaHistoryRecord> FLYWAY_SCHEMA_HISTORY_PK = Internal.createUniqueKey(FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY, DSL.name("flyway_schema_history_pk"), new TableField[] { FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY.INSTALLED_RANK }, true);
     public static final UniqueKey<SchedProfileModLoadRecord> SCHED_PROFILE_MOD_LOAD_PKEY = Internal.createUniqueKey(SchedProfileModLoad.SCHED_PROFILE_MOD_LOAD, DSL.name("sched_profile_mod_load_pkey"), new TableField[] { SchedProfileModLoad.SCHED_PROFILE_MOD_LOAD.SEQ_ID }, true);
     public static final UniqueKey<SchedulerProfilesRecord> SCHEDULER_PROFILES_PKEY = Internal.createUniqueKey(SchedulerProfiles.SCHEDULER_PROFILES, DSL.name("scheduler_profiles_pkey"), new TableField[] { SchedulerProfiles.SCHEDULER_PROFILES.SEQ_ID }, true);
     public static final UniqueKey<SchedulerProfilesRecord> SCHEDULER_PROFILES_TENANT_NAME_KEY = Internal.createUniqueKey(SchedulerProfiles.SCHEDULER_PROFILES, DSL.name("scheduler_profiles_tenant_name_key"), new TableField[] { SchedulerProfiles.SCHEDULER_PROFILES.TENANT, SchedulerProfiles.SCHEDULER_PROFILES.NAME }, true);
-    public static final UniqueKey<SystemUpdatesRecord> SYSTEM_UPDATES_PKEY = Internal.createUniqueKey(SystemUpdates.SYSTEM_UPDATES, DSL.name("system_updates_pkey"), new TableField[] { SystemUpdates.SYSTEM_UPDATES.SEQ_ID }, true);
+    public static final UniqueKey<SkOutboxRecord> SK_OUTBOX_IDEMPOTENCY_KEY_KEY = Internal.createUniqueKey(SkOutbox.SK_OUTBOX, DSL.name("sk_outbox_idempotency_key_key"), new TableField[] { SkOutbox.SK_OUTBOX.IDEMPOTENCY_KEY }, true);
+    public static final UniqueKey<SkOutboxRecord> SK_OUTBOX_PKEY = Internal.createUniqueKey(SkOutbox.SK_OUTBOX, DSL.name("sk_outbox_pkey"), new TableField[] { SkOutbox.SK_OUTBOX.SEQ_ID }, true);
+    public static final UniqueKey<SystemAclRecord> SYSTEM_ACL_PKEY = Internal.createUniqueKey(SystemAcl.SYSTEM_ACL, DSL.name("system_acl_pkey"), new TableField[] { SystemAcl.SYSTEM_ACL.TENANT, SystemAcl.SYSTEM_ACL.SYSTEM_ID, SystemAcl.SYSTEM_ACL.GRANTEE, SystemAcl.SYSTEM_ACL.ACL_TYPE }, true);
+    public static final UniqueKey<SystemAclSyncRecord> SYSTEM_ACL_SYNC_PKEY = Internal.createUniqueKey(SystemAclSync.SYSTEM_ACL_SYNC, DSL.name("system_acl_sync_pkey"), new TableField[] { SystemAclSync.SYSTEM_ACL_SYNC.TENANT, SystemAclSync.SYSTEM_ACL_SYNC.GRANTEE }, true);
+    public static final UniqueKey<SystemUpdatesRecord> SYSTEM_UPDATES_PKEY = Internal.createUniqueKey(SystemUpdates.SYSTEM_UPDATES, DSL.name("system_updates_pkey"), new TableField[] { SystemUpdates.SYSTEM_UPDATES.SEQ_ID, SystemUpdates.SYSTEM_UPDATES.CREATED }, true);
     public static final UniqueKey<SystemsRecord> SYSTEMS_PKEY = Internal.createUniqueKey(Systems.SYSTEMS, DSL.name("systems_pkey"), new TableField[] { Systems.SYSTEMS.SEQ_ID }, true);
     public static final UniqueKey<SystemsRecord> SYSTEMS_TENANT_ID_KEY = Internal.createUniqueKey(Systems.SYSTEMS, DSL.name("systems_tenant_id_key"), new TableField[] { Systems.SYSTEMS.TENANT, Systems.SYSTEMS.ID }, true);
     public static final UniqueKey<SystemsLoginUserRecord> SYSTEMS_LOGIN_USER_PKEY = Internal.createUniqueKey(SystemsLoginUser.SYSTEMS_LOGIN_USER, DSL.name("systems_login_user_pkey"), new TableField[] { SystemsLoginUser.SYSTEMS_LOGIN_USER.TENANT, SystemsLoginUser.SYSTEMS_LOGIN_USER.SYSTEM_ID, SystemsLoginUser.SYSTEMS_LOGIN_USER.TAPIS_USER }, true);
@@ -49,6 +62,7 @@ public class Keys {
     // -------------------------------------------------------------------------
 
     public static final ForeignKey<SchedProfileModLoadRecord, SchedulerProfilesRecord> SCHED_PROFILE_MOD_LOAD__SCHED_PROFILE_MOD_LOAD_SCHED_PROFILE_SEQ_ID_FKEY = Internal.createForeignKey(SchedProfileModLoad.SCHED_PROFILE_MOD_LOAD, DSL.name("sched_profile_mod_load_sched_profile_seq_id_fkey"), new TableField[] { SchedProfileModLoad.SCHED_PROFILE_MOD_LOAD.SCHED_PROFILE_SEQ_ID }, Keys.SCHEDULER_PROFILES_PKEY, new TableField[] { SchedulerProfiles.SCHEDULER_PROFILES.SEQ_ID }, true);
+    public static final ForeignKey<SystemAclRecord, SystemsRecord> SYSTEM_ACL__SYSTEM_ACL_SYSTEM_SEQ_ID_FKEY = Internal.createForeignKey(SystemAcl.SYSTEM_ACL, DSL.name("system_acl_system_seq_id_fkey"), new TableField[] { SystemAcl.SYSTEM_ACL.SYSTEM_SEQ_ID }, Keys.SYSTEMS_PKEY, new TableField[] { Systems.SYSTEMS.SEQ_ID }, true);
     public static final ForeignKey<SystemUpdatesRecord, SystemsRecord> SYSTEM_UPDATES__SYSTEM_UPDATES_SYSTEM_SEQ_ID_FKEY = Internal.createForeignKey(SystemUpdates.SYSTEM_UPDATES, DSL.name("system_updates_system_seq_id_fkey"), new TableField[] { SystemUpdates.SYSTEM_UPDATES.SYSTEM_SEQ_ID }, Keys.SYSTEMS_PKEY, new TableField[] { Systems.SYSTEMS.SEQ_ID }, true);
     public static final ForeignKey<SystemsLoginUserRecord, SystemsRecord> SYSTEMS_LOGIN_USER__SYSTEMS_LOGIN_USER_SYSTEM_SEQ_ID_FKEY = Internal.createForeignKey(SystemsLoginUser.SYSTEMS_LOGIN_USER, DSL.name("systems_login_user_system_seq_id_fkey"), new TableField[] { SystemsLoginUser.SYSTEMS_LOGIN_USER.SYSTEM_SEQ_ID }, Keys.SYSTEMS_PKEY, new TableField[] { Systems.SYSTEMS.SEQ_ID }, true);
 }
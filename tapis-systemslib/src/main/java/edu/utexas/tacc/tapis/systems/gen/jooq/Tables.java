@@ -4,9 +4,13 @@
 package edu.utexas.tacc.tapis.systems.gen.jooq;
 
 
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.ChildSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedProfileModLoad;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedulerProfiles;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SkOutbox;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAcl;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAclSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemsLoginUser;
@@ -18,6 +22,11 @@ import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemsLoginUser;
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
 public class Tables {
 
+    /**
+     * The table <code>tapis_sys.child_sync</code>.
+     */
+    public static final ChildSync CHILD_SYNC = ChildSync.CHILD_SYNC;
+
     /**
      * The table <code>tapis_sys.flyway_schema_history</code>.
      */
@@ -33,6 +42,21 @@ public class Tables {
      */
     public static final SchedulerProfiles SCHEDULER_PROFILES = SchedulerProfiles.SCHEDULER_PROFILES;
 
+    /**
+     * The table <code>tapis_sys.sk_outbox</code>.
+     */
+    public static final SkOutbox SK_OUTBOX = SkOutbox.SK_OUTBOX;
+
+    /**
+     * The table <code>tapis_sys.system_acl</code>.
+     */
+    public static final SystemAcl SYSTEM_ACL = SystemAcl.SYSTEM_ACL;
+
+    /**
+     * The table <code>tapis_sys.system_acl_sync</code>.
+     */
+    public static final SystemAclSync SYSTEM_ACL_SYNC = SystemAclSync.SYSTEM_ACL_SYNC;
+
     /**
      * The table <code>tapis_sys.system_updates</code>.
      */
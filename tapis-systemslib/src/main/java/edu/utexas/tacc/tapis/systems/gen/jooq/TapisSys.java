@@ -4,9 +4,13 @@
 package edu.utexas.tacc.tapis.systems.gen.jooq;
 
 
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.ChildSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.FlywaySchemaHistory;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedProfileModLoad;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SchedulerProfiles;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SkOutbox;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAcl;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemAclSync;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.Systems;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemsLoginUser;
@@ -32,6 +36,11 @@ public class TapisSys extends SchemaImpl {
      */
     public static final TapisSys TAPIS_SYS = new TapisSys();
 
+    /**
+     * The table <code>tapis_sys.child_sync</code>.
+     */
+    public final ChildSync CHILD_SYNC = ChildSync.CHILD_SYNC;
+
     /**
      * The table <code>tapis_sys.flyway_schema_history</code>.
      */
@@ -47,6 +56,21 @@ public class TapisSys extends SchemaImpl {
      */
     public final SchedulerProfiles SCHEDULER_PROFILES = SchedulerProfiles.SCHEDULER_PROFILES;
 
+    /**
+     * The table <code>tapis_sys.sk_outbox</code>.
+     */
+    public final SkOutbox SK_OUTBOX = SkOutbox.SK_OUTBOX;
+
+    /**
+     * The table <code>tapis_sys.system_acl</code>.
+     */
+    public final SystemAcl SYSTEM_ACL = SystemAcl.SYSTEM_ACL;
+
+    /**
+     * The table <code>tapis_sys.system_acl_sync</code>.
+     */
+    public final SystemAclSync SYSTEM_ACL_SYNC = SystemAclSync.SYSTEM_ACL_SYNC;
+
     /**
      * The table <code>tapis_sys.system_updates</code>.
      */
@@ -78,9 +102,13 @@ public class TapisSys extends SchemaImpl {
     @Override
     public final List<Table<?>> getTables() {
         return Arrays.asList(
+            ChildSync.CHILD_SYNC,
             FlywaySchemaHistory.FLYWAY_SCHEMA_HISTORY,
             SchedProfileModLoad.SCHED_PROFILE_MOD_LOAD,
             SchedulerProfiles.SCHEDULER_PROFILES,
+            SkOutbox.SK_OUTBOX,
+            SystemAcl.SYSTEM_ACL,
+            SystemAclSync.SYSTEM_ACL_SYNC,
             SystemUpdates.SYSTEM_UPDATES,
             Systems.SYSTEMS,
             SystemsLoginUser.SYSTEMS_LOGIN_USER
@@ -7,6 +7,7 @@ package edu.utexas.tacc.tapis.systems.gen.jooq.tables;
 import com.google.gson.JsonElement;
 
 import edu.utexas.tacc.tapis.systems.dao.JSONBToJsonElementBinding;
+import edu.utexas.tacc.tapis.systems.gen.jooq.Indexes;
 import edu.utexas.tacc.tapis.systems.gen.jooq.Keys;
 import edu.utexas.tacc.tapis.systems.gen.jooq.TapisSys;
 import edu.utexas.tacc.tapis.systems.gen.jooq.tables.records.SystemUpdatesRecord;
@@ -19,12 +20,13 @@ import java.util.function.Function;
 
 import org.jooq.Field;
 import org.jooq.ForeignKey;
-import org.jooq.Function12;
+import org.jooq.Function14;
 import org.jooq.Identity;
+import org.jooq.Index;
 import org.jooq.Name;
 import org.jooq.Record;
 import org.jooq.Records;
-import org.jooq.Row12;
+import org.jooq.Row14;
 import org.jooq.Schema;
 import org.jooq.SelectField;
 import org.jooq.Table;
@@ -122,7 +124,7 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
      * The column <code>tapis_sys.system_updates.uuid</code>. UUID of system
      * being updated
      */
-    public final TableField<SystemUpdatesRecord, java.util.UUID> UUID = createField(DSL.name("uuid"), SQLDataType.UUID.nullable(false), this, "UUID of system being updated");
+    public final TableField<SystemUpdatesRecord, java.util.UUID> UUID = createField(DSL.name("uuid"), SQLDataType.UUID, this, "UUID of system being updated");
 
     /**
      * The column <code>tapis_sys.system_updates.created</code>. UTC time for
@@ -130,6 +132,19 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
      */
     public final TableField<SystemUpdatesRecord, LocalDateTime> CREATED = createField(DSL.name("created"), SQLDataType.LOCALDATETIME(6).nullable(false).defaultValue(DSL.field("timezone('utc'::text, now())", SQLDataType.LOCALDATETIME)), this, "UTC time for when record was created");
 
+    /**
+     * The column <code>tapis_sys.system_updates.raw_data_gz</code>. Raw data
+     * associated with the request compressed using gzip, if available. Secrets
+     * scrubbed as needed.
+     */
+    public final TableField<SystemUpdatesRecord, byte[]> RAW_DATA_GZ = createField(DSL.name("raw_data_gz"), SQLDataType.BLOB, this, "Raw data associated with the request compressed using gzip, if available. Secrets scrubbed as needed.");
+
+    /**
+     * The column <code>tapis_sys.system_updates.txid</code>. Id of the
+     * transaction that wrote the record
+     */
+    public final TableField<SystemUpdatesRecord, Long> TXID = createField(DSL.name("txid"), SQLDataType.BIGINT.nullable(false).defaultValue(DSL.field("txid_current()", SQLDataType.BIGINT)), this, "Id of the transaction that wrote the record");
+
     private SystemUpdates(Name alias, Table<SystemUpdatesRecord> aliased) {
         this(alias, aliased, null);
     }
@@ -168,6 +183,11 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
         return aliased() ? null : TapisSys.TAPIS_SYS;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.asList(Indexes.SYS_UPD_TENANT_SEQ_IDX, Indexes.SYS_UPD_TENANT_SYSTEM_IDX, Indexes.SYS_UPD_TENANT_TXID_SEQ_IDX);
+    }
+
     @Override
     public Identity<SystemUpdatesRecord, Integer> getIdentity() {
         return (Identity<SystemUpdatesRecord, Integer>) super.getIdentity();
@@ -235,18 +255,18 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
     }
 
     // -------------------------------------------------------------------------
-    // Row12 type methods
+    // Row14 type methods
     // -------------------------------------------------------------------------
 
     @Override
-    public Row12<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, java.util.UUID, LocalDateTime> fieldsRow() {
-        return (Row12) super.fieldsRow();
+    public Row14<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, java.util.UUID, LocalDateTime, byte[], Long> fieldsRow() {
+        return (Row14) super.fieldsRow();
     }
 
     /**
      * Convenience mapping calling {@link SelectField#convertFrom(Function)}.
      */
-    public <U> SelectField<U> mapping(Function12<? super Integer, ? super Integer, ? super String, ? super String, ? super String, ? super String, ? super String, ? super SystemOperation, ? super JsonElement, ? super String, ? super java.util.UUID, ? super LocalDateTime, ? extends U> from) {
+    public <U> SelectField<U> mapping(Function14<? super Integer, ? super Integer, ? super String, ? super String, ? super String, ? super String, ? super String, ? super SystemOperation, ? super JsonElement, ? super String, ? super java.util.UUID, ? super LocalDateTime, ? super byte[], ? super Long, ? extends U> from) {
         return convertFrom(Records.mapping(from));
     }
 
@@ -254,7 +274,7 @@ public class SystemUpdates extends TableImpl<SystemUpdatesRecord> {
      * Convenience mapping calling {@link SelectField#convertFrom(Class,
      * Function)}.
      */
-    public <U> SelectField<U> mapping(Class<U> toType, Function12<? super Integer, ? super Integer, ? super String, ? super String, ? super String, ? super String, ? super String, ? super SystemOperation, ? super JsonElement, ? super String, ? super java.util.UUID, ? super LocalDateTime, ? extends U> from) {
+    public <U> SelectField<U> mapping(Class<U> toType, Function14<? super Integer, ? super Integer, ? super String, ? super String, ? super String, ? super String, ? super String, ? super SystemOperation, ? super JsonElement, ? super String, ? super java.util.UUID, ? super LocalDateTime, ? super byte[], ? super Long, ? extends U> from) {
         return convertFrom(toType, Records.mapping(from));
     }
 }
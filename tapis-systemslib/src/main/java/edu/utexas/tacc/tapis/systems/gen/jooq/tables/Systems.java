@@ -289,6 +289,11 @@ public class Systems extends TableImpl<SystemsRecord> {
      */
     public final TableField<SystemsRecord, Boolean> ALLOW_CHILDREN = createField(DSL.name("allow_children"), SQLDataType.BOOLEAN.nullable(false).defaultValue(DSL.field("false", SQLDataType.BOOLEAN)), this, "");
 
+    /**
+     * The column <code>tapis_sys.systems.version</code>.
+     */
+    public final TableField<SystemsRecord, Integer> VERSION = createField(DSL.name("version"), SQLDataType.INTEGER.nullable(false).defaultValue(DSL.field("1", SQLDataType.INTEGER)), this, "");
+
     private Systems(Name alias, Table<SystemsRecord> aliased) {
         this(alias, aliased, null);
     }
@@ -329,7 +334,7 @@ public class Systems extends TableImpl<SystemsRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.SYS_HOST_IDX, Indexes.SYS_OWNER_IDX, Indexes.SYS_SYSTEM_PARENT_ID_IDX, Indexes.SYS_TAGS_IDX, Indexes.SYS_TENANT_NAME_IDX);
+        return Arrays.asList(Indexes.SYS_DESCRIPTION_TRGM_IDX, Indexes.SYS_HOST_IDX, Indexes.SYS_HOST_TRGM_IDX, Indexes.SYS_ID_TRGM_IDX, Indexes.SYS_JOB_CAPABILITIES_PATH_IDX, Indexes.SYS_NOTES_PATH_IDX, Indexes.SYS_TAGS_IDX, Indexes.SYS_TENANT_NAME_IDX, Indexes.SYS_TENANT_OWNER_IDX, Indexes.SYS_TENANT_PARENT_ID_IDX, Indexes.SYS_TENANT_TYPE_ENABLED_IDX);
     }
 
     @Override
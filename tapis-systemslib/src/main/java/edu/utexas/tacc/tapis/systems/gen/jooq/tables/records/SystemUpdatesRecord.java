@@ -13,9 +13,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.jooq.Field;
-import org.jooq.Record1;
-import org.jooq.Record12;
-import org.jooq.Row12;
+import org.jooq.Record14;
+import org.jooq.Record2;
+import org.jooq.Row14;
 import org.jooq.impl.UpdatableRecordImpl;
 
 
@@ -23,7 +23,7 @@ import org.jooq.impl.UpdatableRecordImpl;
  * This class is generated by jOOQ.
  */
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord> implements Record12<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime> {
+public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord> implements Record14<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime, byte[], Long> {
 
     private static final long serialVersionUID = 1L;
 
@@ -219,27 +219,61 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         return (LocalDateTime) get(11);
     }
 
+    /**
+     * Setter for <code>tapis_sys.system_updates.raw_data_gz</code>. Raw data
+     * associated with the request compressed using gzip, if available. Secrets
+     * scrubbed as needed.
+     */
+    public void setRawDataGz(byte[] value) {
+        set(12, value);
+    }
+
+    /**
+     * Getter for <code>tapis_sys.system_updates.raw_data_gz</code>. Raw data
+     * associated with the request compressed using gzip, if available. Secrets
+     * scrubbed as needed.
+     */
+    public byte[] getRawDataGz() {
+        return (byte[]) get(12);
+    }
+
+    /**
+     * Setter for <code>tapis_sys.system_updates.txid</code>. Id of the
+     * transaction that wrote the record
+     */
+    public void setTxid(Long value) {
+        set(13, value);
+    }
+
+    /**
+     * Getter for <code>tapis_sys.system_updates.txid</code>. Id of the
+     * transaction that wrote the record
+     */
+    public Long getTxid() {
+        return (Long) get(13);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
 
     @Override
-    public Record1<Integer> key() {
-        return (Record1) super.key();
+    public Record2<Integer, LocalDateTime> key() {
+        return (Record2) super.key();
     }
 
     // -------------------------------------------------------------------------
-    // Record12 type implementation
+    // Record14 type implementation
     // -------------------------------------------------------------------------
 
     @Override
-    public Row12<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime> fieldsRow() {
-        return (Row12) super.fieldsRow();
+    public Row14<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime, byte[], Long> fieldsRow() {
+        return (Row14) super.fieldsRow();
     }
 
     @Override
-    public Row12<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime> valuesRow() {
-        return (Row12) super.valuesRow();
+    public Row14<Integer, Integer, String, String, String, String, String, SystemOperation, JsonElement, String, UUID, LocalDateTime, byte[], Long> valuesRow() {
+        return (Row14) super.valuesRow();
     }
 
     @Override
@@ -302,6 +336,16 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         return SystemUpdates.SYSTEM_UPDATES.CREATED;
     }
 
+    @Override
+    public Field<byte[]> field13() {
+        return SystemUpdates.SYSTEM_UPDATES.RAW_DATA_GZ;
+    }
+
+    @Override
+    public Field<Long> field14() {
+        return SystemUpdates.SYSTEM_UPDATES.TXID;
+    }
+
     @Override
     public Integer component1() {
         return getSeqId();
@@ -362,6 +406,16 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         return getCreated();
     }
 
+    @Override
+    public byte[] component13() {
+        return getRawDataGz();
+    }
+
+    @Override
+    public Long component14() {
+        return getTxid();
+    }
+
     @Override
     public Integer value1() {
         return getSeqId();
@@ -422,6 +476,16 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         return getCreated();
     }
 
+    @Override
+    public byte[] value13() {
+        return getRawDataGz();
+    }
+
+    @Override
+    public Long value14() {
+        return getTxid();
+    }
+
     @Override
     public SystemUpdatesRecord value1(Integer value) {
         setSeqId(value);
@@ -495,7 +559,19 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
     }
 
     @Override
-    public SystemUpdatesRecord values(Integer value1, Integer value2, String value3, String value4, String value5, String value6, String value7, SystemOperation value8, JsonElement value9, String value10, UUID value11, LocalDateTime value12) {
+    public SystemUpdatesRecord value13(byte[] value) {
+        setRawDataGz(value);
+        return this;
+    }
+
+    @Override
+    public SystemUpdatesRecord value14(Long value) {
+        setTxid(value);
+        return this;
+    }
+
+    @Override
+    public SystemUpdatesRecord values(Integer value1, Integer value2, String value3, String value4, String value5, String value6, String value7, SystemOperation value8, JsonElement value9, String value10, UUID value11, LocalDateTime value12, byte[] value13, Long value14) {
         value1(value1);
         value2(value2);
         value3(value3);
@@ -508,6 +584,8 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         value10(value10);
         value11(value11);
         value12(value12);
+        value13(value13);
+        value14(value14);
         return this;
     }
 
@@ -525,7 +603,7 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
     /**
      * Create a detached, initialised SystemUpdatesRecord
      */
-    public SystemUpdatesRecord(Integer seqId, Integer systemSeqId, String oboTenant, String oboUser, String jwtTenant, String jwtUser, String systemId, SystemOperation operation, JsonElement description, String rawData, UUID uuid, LocalDateTime created) {
+    public SystemUpdatesRecord(Integer seqId, Integer systemSeqId, String oboTenant, String oboUser, String jwtTenant, String jwtUser, String systemId, SystemOperation operation, JsonElement description, String rawData, UUID uuid, LocalDateTime created, byte[] rawDataGz, Long txid) {
         super(SystemUpdates.SYSTEM_UPDATES);
 
         setSeqId(seqId);
@@ -540,5 +618,7 @@ public class SystemUpdatesRecord extends UpdatableRecordImpl<SystemUpdatesRecord
         setRawData(rawData);
         setUuid(uuid);
         setCreated(created);
+        setRawDataGz(rawDataGz);
+        setTxid(txid);
     }
 }
@@ -650,6 +650,20 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
         return (Boolean) get(39);
     }
 
+    /**
+     * Setter for <code>tapis_sys.systems.version</code>.
+     */
+    public void setVersion(Integer value) {
+        set(40, value);
+    }
+
+    /**
+     * Getter for <code>tapis_sys.systems.version</code>.
+     */
+    public Integer getVersion() {
+        return (Integer) get(40);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -673,7 +687,7 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
     /**
      * Create a detached, initialised SystemsRecord
      */
-    public SystemsRecord(Integer seqId, String tenant, String id, String description, SystemType systemType, String owner, String host, Boolean enabled, String effectiveUserId, AuthnMethod defaultAuthnMethod, String bucketName, String rootDir, Integer port, Boolean useProxy, String proxyHost, Integer proxyPort, String dtnSystemId, Boolean canExec, Boolean canRunBatch, String mpiCmd, JsonElement jobRuntimes, String jobWorkingDir, JsonElement jobEnvVariables, Integer jobMaxJobs, Integer jobMaxJobsPerUser, SchedulerType batchScheduler, JsonElement batchLogicalQueues, String batchDefaultLogicalQueue, String batchSchedulerProfile, JsonElement jobCapabilities, String[] tags, JsonElement notes, String importRefId, UUID uuid, Boolean deleted, LocalDateTime created, LocalDateTime updated, Boolean enableCmdPrefix, String parentId, Boolean allowChildren) {
+    public SystemsRecord(Integer seqId, String tenant, String id, String description, SystemType systemType, String owner, String host, Boolean enabled, String effectiveUserId, AuthnMethod defaultAuthnMethod, String bucketName, String rootDir, Integer port, Boolean useProxy, String proxyHost, Integer proxyPort, String dtnSystemId, Boolean canExec, Boolean canRunBatch, String mpiCmd, JsonElement jobRuntimes, String jobWorkingDir, JsonElement jobEnvVariables, Integer jobMaxJobs, Integer jobMaxJobsPerUser, SchedulerType batchScheduler, JsonElement batchLogicalQueues, String batchDefaultLogicalQueue, String batchSchedulerProfile, JsonElement jobCapabilities, String[] tags, JsonElement notes, String importRefId, UUID uuid, Boolean deleted, LocalDateTime created, LocalDateTime updated, Boolean enableCmdPrefix, String parentId, Boolean allowChildren, Integer version) {
         super(Systems.SYSTEMS);
 
         setSeqId(seqId);
@@ -716,5 +730,6 @@ public class SystemsRecord extends UpdatableRecordImpl<SystemsRecord> {
         setEnableCmdPrefix(enableCmdPrefix);
         setParentId(parentId);
         setAllowChildren(allowChildren);
+        setVersion(version);
     }
 }
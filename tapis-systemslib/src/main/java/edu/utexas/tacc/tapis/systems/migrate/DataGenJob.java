@@ -0,0 +1,522 @@
+package edu.utexas.tacc.tapis.systems.migrate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.security.client.SKClient;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+import edu.utexas.tacc.tapis.systems.model.Capability;
+import edu.utexas.tacc.tapis.systems.model.JobRuntime;
+import edu.utexas.tacc.tapis.systems.model.KeyValuePair;
+import edu.utexas.tacc.tapis.systems.model.LogicalQueue;
+import edu.utexas.tacc.tapis.systems.model.SystemAclSyncEntry;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
+import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SchedulerType;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemType;
+
+import static edu.utexas.tacc.tapis.systems.model.TSystem.APIUSERID_VAR;
+import static edu.utexas.tacc.tapis.systems.service.AuthUtils.PERM_SPEC_TEMPLATE;
+
+/*
+ * Generate a large synthetic data set for scale testing of the Systems service.
+ *
+ * Systems are written through SystemsDao, so all tables are populated as they would be by the service:
+ *   systems, including parent systems with many children, job capabilities, logical queues and large notes
+ *   system_updates, a create record and a history of updates for each system
+ *   login user mappings for systems with a dynamic effectiveUserId
+ *   the local copy of permissions and shares used for listing systems
+ * Matching SK data, i.e. permissions and shares, is written to a JSON file in the form loaded by the stub SK of the
+ *   load test harness, see the --sk-data option of LoadHarness.
+ *
+ * Counts and distributions are set using parameters, see DataGenJobParameters. Each system is generated from its
+ *   own random sequence derived from the seed and its index, so the data is the same for a given seed no matter
+ *   how many threads are used.
+ * System ids are <prefix>-sys-NNNNNN, owners <prefix>ownerN and users <prefix>userN.
+ * Parent systems are written first. Child systems cannot themselves have children, so trees have a single level
+ *   below the root, but the number of children per parent is skewed so some parents have very many children.
+ *
+ * By default a dry run is made which only generates the data in memory and prints a summary.
+ * To write the data use option --apply. The job should only be run against a scratch DB.
+ */
+public class DataGenJob
+{
+  /* ********************************************************************** */
+  /*                               Constants                                */
+  /* ********************************************************************** */
+  // Tracing.
+  private static final Logger _log = LoggerFactory.getLogger(DataGenJob.class);
+
+  private static final String SYS_SHR_TYPE = "system";
+  private static final String FILES_PERM_SPEC_TEMPLATE = "files:%s:*:%s";
+  private static final String LOGIN_USER_PREFIX = "l_";
+  private static final String NOTES_TEXT = "Generated note text for scale testing of the systems service. ";
+  private static final int PROGRESS_INTERVAL = 1000;
+  private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  private final DataGenJobParameters _parms;
+  private final int numParents;
+  private final int numChildren;
+  private final double[] ownerCdf;
+  private final double[] parentCdf;
+  // SK permissions keyed by user and SK shares, written to the SK data file
+  private final Map<String, Set<String>> skPerms = new ConcurrentHashMap<>();
+  private final Queue<JsonObject> skShares = new ConcurrentLinkedQueue<>();
+  private final Stats stats = new Stats();
+
+  // Local copy of permissions and shares, keyed by grantee
+  private final Map<String, Map<String, Set<String>>> aclPerms = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> aclShares = new ConcurrentHashMap<>();
+
+  private SystemsDao dao;
+  private String msgPrefix;
+
+  /* ********************************************************************** */
+  /*                              Constructors                              */
+  /* ********************************************************************** */
+  public DataGenJob(DataGenJobParameters parms)
+  {
+    // Parameters cannot be null.
+    if (parms == null) {
+      String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "DataGenJob", "parms");
+      _log.error(msg);
+      throw new IllegalArgumentException(msg);
+    }
+    _parms = parms;
+    numChildren = (int) (parms.numSystems * parms.childFraction);
+    numParents = Math.max(numChildren > 0 ? 1 : 0, (int) (parms.numSystems * parms.parentFraction));
+    ownerCdf = zipfCdf(parms.numOwners, parms.ownerSkew);
+    parentCdf = numParents > 0 ? zipfCdf(numParents, parms.parentSkew) : null;
+  }
+
+  /* ********************************************************************** */
+  /*                             Public Methods                             */
+  /* ********************************************************************** */
+
+  /**
+   * Main method
+   * @param args the command line parameters
+   * @throws Exception on error
+   */
+  public static void main(String[] args) throws Exception
+  {
+    // Parse the command line parameters.
+    DataGenJobParameters parms = new DataGenJobParameters(args);
+
+    // Create an instance and generate the data
+    DataGenJob dataGenJob = new DataGenJob(parms);
+    dataGenJob.generate();
+  }
+
+  /**
+   * Generate the data
+   * @throws Exception on error
+   */
+  public void generate() throws Exception
+  {
+    msgPrefix = _parms.isApply ? "APPLY DATAGEN:" : "DRY-RUN DATAGEN:";
+    System.out.printf("%s START Tenant: %s Systems: %d Parents: %d Children: %d Seed: %d%n", msgPrefix,
+                      _parms.tenant, _parms.numSystems, numParents, numChildren, _parms.seed);
+    if (_parms.isApply)
+    {
+      dao = new SystemsDaoImpl();
+      dao.migrateDB();
+    }
+    long start = System.currentTimeMillis();
+
+    // Parents must exist before their children are created
+    runAll(0, numParents);
+    runAll(numParents, _parms.numSystems);
+
+    if (_parms.isApply)
+    {
+      System.out.printf("%s Writing local permissions and shares for %d grantees%n", msgPrefix, getGrantees().size());
+      for (String grantee : getGrantees())
+      {
+        SystemAclSyncEntry syncEntry = dao.getAclSyncEntry(_parms.tenant, grantee);
+        dao.replaceAcl(_parms.tenant, grantee, aclPerms.getOrDefault(grantee, Map.of()),
+                       aclShares.getOrDefault(grantee, Set.of()), (syncEntry == null) ? 0 : syncEntry.getVersion());
+      }
+      writeSkData(Path.of(_parms.skOutFile));
+      System.out.printf("%s Wrote SK data to %s%n", msgPrefix, _parms.skOutFile);
+    }
+    System.out.printf("%s DONE Elapsed: %d ms%n%s%n", msgPrefix, System.currentTimeMillis() - start, stats);
+  }
+
+  /* ********************************************************************** */
+  /*                            Private Methods                             */
+  /* ********************************************************************** */
+
+  /*
+   * Generate and write systems with index in [from, to) using a pool of threads
+   */
+  private void runAll(int from, int to) throws Exception
+  {
+    if (from >= to) return;
+    ExecutorService executor = Executors.newFixedThreadPool(_parms.threads);
+    var done = new AtomicLong();
+    try
+    {
+      var futures = new ArrayList<Future<?>>();
+      for (int t = 0; t < _parms.threads; t++)
+      {
+        final int first = from + t;
+        futures.add(executor.submit(() -> {
+          for (int i = first; i < to; i += _parms.threads)
+          {
+            generateSystem(i);
+            long n = done.incrementAndGet();
+            if (n % PROGRESS_INTERVAL == 0) System.out.printf("%s Systems done: %d of %d%n", msgPrefix, from + n, to);
+          }
+          return null;
+        }));
+      }
+      // Surface the first failure
+      for (Future<?> f : futures) f.get();
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   * Generate a system with its history, login mappings, permissions and shares and write it
+   */
+  private void generateSystem(int idx) throws TapisException
+  {
+    Random r = random(idx);
+    TSystem system;
+    if (idx < numParents || idx >= numParents + numChildren)
+    {
+      system = buildSystem(idx, r);
+    }
+    else
+    {
+      // Child of a parent chosen using a skewed distribution. Owner and effectiveUserId are those of the child.
+      int parentIdx = sample(parentCdf, r);
+      TSystem parent = buildSystem(parentIdx, random(parentIdx));
+      String owner = ownerName(sample(ownerCdf, r));
+      system = new TSystem(parent, systemId(idx), APIUSERID_VAR, "/home/" + APIUSERID_VAR, owner, true);
+      stats.children.increment();
+    }
+    String owner = system.getOwner();
+    ResourceRequestUser rUser = getUser(owner);
+    String rawData = TapisGsonUtils.getGson().toJson(system);
+    if (dao != null) dao.createSystem(rUser, system, "{\"op\":\"create\"}", rawData);
+    stats.systems.increment();
+    stats.capabilities.add(system.getJobCapabilities() == null ? 0 : system.getJobCapabilities().size());
+    stats.queues.add(system.getBatchLogicalQueues() == null ? 0 : system.getBatchLogicalQueues().size());
+    stats.rawDataBytes.add(rawData.length());
+
+    // Update history
+    int numUpdates = geometric(r, _parms.historyMean, _parms.historyMax);
+    for (int h = 1; h <= numUpdates; h++)
+    {
+      double d = r.nextDouble();
+      SystemOperation op = d < 0.8 ? SystemOperation.modify : (d < 0.9 ? SystemOperation.disable : SystemOperation.enable);
+      String changeDescription = String.format("{\"op\":\"%s\",\"description\":\"Generated update %d\"}", op, h);
+      if (dao != null) dao.addUpdateRecord(rUser, system.getId(), op, changeDescription, changeDescription);
+    }
+    stats.updates.add(numUpdates);
+
+    // Login user mappings
+    if (APIUSERID_VAR.equals(system.getEffectiveUserId()) && _parms.numLoginMappings > 0)
+    {
+      double mean = _parms.numLoginMappings / Math.max(1.0, _parms.numSystems * _parms.dynamicFraction);
+      for (String user : pickUsers(r, geometric(r, mean, _parms.numUsers)))
+      {
+        if (dao != null) dao.createOrUpdateLoginUserMapping(_parms.tenant, system.getId(), user, LOGIN_USER_PREFIX + user);
+        stats.loginMappings.increment();
+      }
+    }
+
+    // Permissions. Owner gets the files permission granted by the service when a system is created.
+    String sysId = system.getId();
+    grantSkPermission(owner, String.format(FILES_PERM_SPEC_TEMPLATE, _parms.tenant, sysId));
+    for (String user : pickUsers(r, geometric(r, _parms.permsMean, _parms.numUsers)))
+    {
+      var perms = new LinkedHashSet<String>();
+      perms.add(Permission.READ.name());
+      if (r.nextDouble() < 0.2) perms.add(Permission.MODIFY.name());
+      if (r.nextDouble() < 0.3) perms.add(Permission.EXECUTE.name());
+      for (String perm : perms)
+        grantSkPermission(user, String.format(PERM_SPEC_TEMPLATE, _parms.tenant, perm, sysId));
+      aclPerms.computeIfAbsent(user, k -> new ConcurrentHashMap<>()).put(sysId, perms);
+      stats.perms.add(perms.size());
+    }
+
+    // Shares, including public shares
+    var grantees = new ArrayList<>(pickUsers(r, geometric(r, _parms.sharesMean, _parms.numUsers)));
+    if (r.nextDouble() < _parms.publicFraction) grantees.add(SKClient.PUBLIC_GRANTEE);
+    for (String grantee : grantees)
+    {
+      skShares.add(buildSkShare(sysId, owner, grantee, Permission.READ.name()));
+      skShares.add(buildSkShare(sysId, owner, grantee, Permission.EXECUTE.name()));
+      aclShares.computeIfAbsent(grantee, k -> ConcurrentHashMap.newKeySet()).add(sysId);
+      stats.shares.increment();
+    }
+  }
+
+  /*
+   * Build a system that is not a child. Parents allow children.
+   */
+  private TSystem buildSystem(int idx, Random r)
+  {
+    String id = systemId(idx);
+    String owner = ownerName(sample(ownerCdf, r));
+    boolean isDynamic = r.nextDouble() < _parms.dynamicFraction;
+    boolean isBatch = r.nextDouble() < _parms.batchFraction;
+    boolean canExec = isBatch || r.nextBoolean();
+    String effectiveUserId = isDynamic ? APIUSERID_VAR : "svc_" + owner;
+    String rootDir = isDynamic ? "/home/" + APIUSERID_VAR : "/data/" + id;
+    AuthnMethod authnMethod = r.nextDouble() < 0.7 ? AuthnMethod.PKI_KEYS : AuthnMethod.PASSWORD;
+    String host = String.format("login%d.cluster%d.example.org", r.nextInt(4) + 1, r.nextInt(200));
+
+    List<JobRuntime> jobRuntimes = null;
+    List<KeyValuePair> jobEnvVariables = null;
+    if (canExec)
+    {
+      jobRuntimes = new ArrayList<>(List.of(new JobRuntime(JobRuntime.RuntimeType.SINGULARITY, "3.7")));
+      if (r.nextBoolean()) jobRuntimes.add(new JobRuntime(JobRuntime.RuntimeType.DOCKER, "24.0"));
+      jobEnvVariables = new ArrayList<>();
+      int numEnv = geometric(r, _parms.envMean, 100);
+      for (int i = 0; i < numEnv; i++)
+        jobEnvVariables.add(new KeyValuePair("VAR_" + i, "value_" + r.nextInt(10000), "Generated variable " + i,
+                                             KeyValuePair.DEFAULT_INPUT_MODE, null));
+    }
+
+    SchedulerType scheduler = null;
+    List<LogicalQueue> queues = null;
+    String defaultQueue = null;
+    if (isBatch)
+    {
+      SchedulerType[] schedulers = SchedulerType.values();
+      scheduler = schedulers[r.nextInt(schedulers.length)];
+      queues = new ArrayList<>();
+      int numQueues = Math.max(1, geometric(r, _parms.queuesMean, _parms.queuesMax));
+      for (int i = 0; i < numQueues; i++)
+      {
+        int maxNodes = 1 + r.nextInt(1024);
+        queues.add(new LogicalQueue("q" + i, "hpc_q" + i, 10 + r.nextInt(1000), 1 + r.nextInt(50),
+                                    1, maxNodes, 1, 8 << r.nextInt(5), 1024, 1024 << r.nextInt(8), 1, 60 * (1 + r.nextInt(48))));
+      }
+      defaultQueue = queues.get(0).getName();
+    }
+
+    var capabilities = new ArrayList<Capability>();
+    int numCaps = geometric(r, _parms.capsMean, _parms.capsMax);
+    Capability.Category[] categories = Capability.Category.values();
+    for (int i = 0; i < numCaps; i++)
+    {
+      boolean isInt = r.nextBoolean();
+      capabilities.add(new Capability(categories[r.nextInt(categories.length)], "Cap" + i,
+                                      isInt ? Capability.Datatype.INTEGER : Capability.Datatype.STRING,
+                                      Capability.DEFAULT_PRECEDENCE,
+                                      isInt ? String.valueOf(r.nextInt(512)) : "v" + r.nextInt(100)));
+    }
+
+    String[] tags = new String[geometric(r, _parms.tagsMean, 100)];
+    for (int i = 0; i < tags.length; i++) tags[i] = "tag" + r.nextInt(1000);
+
+    return new TSystem(-1, _parms.tenant, id, "Generated system " + id, SystemType.LINUX, owner, host, true,
+                       effectiveUserId, authnMethod, null, rootDir, 22, false, null, -1, null,
+                       canExec, jobRuntimes, canExec ? "HOST_EVAL($SCRATCH)" : null, jobEnvVariables,
+                       10 + r.nextInt(1000), 1 + r.nextInt(50), isBatch, false, isBatch ? "mpirun" : null,
+                       scheduler, queues, defaultQueue, null, capabilities, tags, buildNotes(r, owner),
+                       null, null, false, idx < numParents, null, null, null);
+  }
+
+  /*
+   * Record an SK permission for the SK data file
+   */
+  private void grantSkPermission(String user, String permSpec)
+  {
+    skPerms.computeIfAbsent(user, k -> ConcurrentHashMap.newKeySet()).add(permSpec);
+  }
+
+  /*
+   * SK share of a system, in the form used for shares in the SK data file
+   */
+  private JsonObject buildSkShare(String sysId, String grantor, String grantee, String privilege)
+  {
+    var share = new JsonObject();
+    share.addProperty("tenant", _parms.tenant);
+    share.addProperty("resourceType", SYS_SHR_TYPE);
+    share.addProperty("resourceId1", sysId);
+    share.addProperty("grantor", grantor);
+    share.addProperty("grantee", grantee);
+    share.addProperty("privilege", privilege);
+    return share;
+  }
+
+  /*
+   * Write SK permissions and shares as {"perms": {tenant: {user: [permSpec]}}, "shares": [share]}
+   */
+  private void writeSkData(Path path) throws IOException
+  {
+    var tenantPerms = new JsonObject();
+    tenantPerms.add(_parms.tenant, TapisGsonUtils.getGson().toJsonTree(skPerms));
+    var data = new JsonObject();
+    data.add("perms", tenantPerms);
+    var shares = new JsonArray();
+    skShares.forEach(shares::add);
+    data.add("shares", shares);
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+    {
+      TapisGsonUtils.getGson().toJson(data, writer);
+    }
+  }
+
+  /*
+   * Notes with a project and a list of entries making up the requested size
+   */
+  private JsonObject buildNotes(Random r, String owner)
+  {
+    var notes = new JsonObject();
+    notes.addProperty("project", "project" + r.nextInt(500));
+    notes.addProperty("contact", owner);
+    int targetBytes = 1024 * geometric(r, _parms.notesKbMean, _parms.notesKbMax);
+    var entries = new JsonArray();
+    for (int size = 0; size < targetBytes; size += NOTES_TEXT.length() + 24)
+    {
+      var entry = new JsonObject();
+      entry.addProperty("id", entries.size());
+      entry.addProperty("text", NOTES_TEXT);
+      entries.add(entry);
+    }
+    notes.add("entries", entries);
+    stats.notesBytes.add(targetBytes);
+    return notes;
+  }
+
+  /*
+   * Pick distinct users uniformly
+   */
+  private Set<String> pickUsers(Random r, int count)
+  {
+    var users = new HashSet<String>();
+    count = Math.min(count, _parms.numUsers);
+    while (users.size() < count) users.add(userName(r.nextInt(_parms.numUsers)));
+    return users;
+  }
+
+  private Set<String> getGrantees()
+  {
+    var grantees = new HashSet<>(aclPerms.keySet());
+    grantees.addAll(aclShares.keySet());
+    return grantees;
+  }
+
+  private Random random(int idx) { return new Random(_parms.seed ^ ((idx + 1) * SEED_MULTIPLIER)); }
+
+  private String systemId(int idx) { return String.format("%s-sys-%06d", _parms.prefix, idx + 1); }
+  private String ownerName(int idx) { return String.format("%sowner%d", _parms.prefix, idx + 1); }
+  private String userName(int idx) { return String.format("%suser%d", _parms.prefix, idx + 1); }
+
+  private ResourceRequestUser getUser(String user)
+  {
+    return new ResourceRequestUser(new AuthenticatedUser(user, _parms.tenant, TapisThreadContext.AccountType.user.name(),
+                                                         null, user, _parms.tenant, null, null, null));
+  }
+
+  /*
+   * Geometric distribution over 0, 1, 2, ... with the given mean, capped at max
+   */
+  static int geometric(Random r, double mean, int max)
+  {
+    if (mean <= 0.0 || max <= 0) return 0;
+    double p = 1.0 / (mean + 1.0);
+    int n = (int) Math.floor(Math.log(1.0 - r.nextDouble()) / Math.log(1.0 - p));
+    return Math.min(n, max);
+  }
+
+  /*
+   * Cumulative distribution for a Zipf distribution over n items. Skew 0 gives a uniform distribution.
+   */
+  static double[] zipfCdf(int n, double skew)
+  {
+    double[] cdf = new double[n];
+    double sum = 0.0;
+    for (int i = 0; i < n; i++) { sum += 1.0 / Math.pow(i + 1, skew); cdf[i] = sum; }
+    for (int i = 0; i < n; i++) cdf[i] /= sum;
+    return cdf;
+  }
+
+  /*
+   * Index sampled from a cumulative distribution
+   */
+  static int sample(double[] cdf, Random r)
+  {
+    int idx = Arrays.binarySearch(cdf, r.nextDouble());
+    if (idx < 0) idx = -idx - 1;
+    return Math.min(idx, cdf.length - 1);
+  }
+
+  /* ********************************************************************** */
+  /*                              Nested Types                              */
+  /* ********************************************************************** */
+
+  /*
+   * Counts of generated data
+   */
+  private static final class Stats
+  {
+    final LongAdder systems = new LongAdder();
+    final LongAdder children = new LongAdder();
+    final LongAdder capabilities = new LongAdder();
+    final LongAdder queues = new LongAdder();
+    final LongAdder notesBytes = new LongAdder();
+    final LongAdder rawDataBytes = new LongAdder();
+    final LongAdder updates = new LongAdder();
+    final LongAdder loginMappings = new LongAdder();
+    final LongAdder perms = new LongAdder();
+    final LongAdder shares = new LongAdder();
+
+    @Override
+    public String toString()
+    {
+      return String.format("Systems: %d Children: %d Capabilities: %d Queues: %d Notes MB: %.1f Raw data MB: %.1f%n" +
+                           "Update records: %d Login mappings: %d Permissions: %d Shares: %d",
+                           systems.sum(), children.sum(), capabilities.sum(), queues.sum(),
+                           notesBytes.sum() / 1048576.0, rawDataBytes.sum() / 1048576.0, updates.sum(),
+                           loginMappings.sum(), perms.sum(), shares.sum());
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package edu.utexas.tacc.tapis.systems.migrate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/*
+ * Parse, process and validate DataGenJob parameters.
+ * Counts given as a mean are drawn per system from a geometric distribution with that mean, capped at the max.
+ */
+public class DataGenJobParameters
+{
+  /* ********************************************************************** */
+  /*                                 Fields                                 */
+  /* ********************************************************************** */
+  // --------- Optional Parameters -----------
+  @Option(name = "--apply", usage = "Write to the DB and SK data file. By default only a summary of the data is printed.")
+  public boolean isApply = false;
+
+  @Option(name = "--tenant", usage = "Tenant for the generated data. Default dev")
+  public String tenant = "dev";
+
+  @Option(name = "--prefix", usage = "Prefix for generated system ids and user names. Default gen")
+  public String prefix = "gen";
+
+  @Option(name = "--seed", usage = "Seed for all random choices. The same seed gives the same data. Default 1")
+  public long seed = 1L;
+
+  @Option(name = "--threads", usage = "Number of threads writing to the DB. Default 4")
+  public int threads = 4;
+
+  @Option(name = "--systems", usage = "Total number of systems. Default 100000")
+  public int numSystems = 100000;
+
+  @Option(name = "--owners", usage = "Number of distinct system owners. Default 500")
+  public int numOwners = 500;
+
+  @Option(name = "--owner-skew", usage = "Zipf exponent for the choice of owner, 0 for uniform. Default 1.0")
+  public double ownerSkew = 1.0;
+
+  @Option(name = "--users", usage = "Number of users that may be granted permissions, shares and login mappings. Default 5000")
+  public int numUsers = 5000;
+
+  @Option(name = "--parent-fraction", usage = "Fraction of systems that allow children. Default 0.01")
+  public double parentFraction = 0.01;
+
+  @Option(name = "--child-fraction", usage = "Fraction of systems that are children of a parent system. Default 0.3")
+  public double childFraction = 0.3;
+
+  @Option(name = "--parent-skew", usage = "Zipf exponent for the choice of parent for a child, 0 for uniform. Default 1.2")
+  public double parentSkew = 1.2;
+
+  @Option(name = "--dynamic-fraction", usage = "Fraction of systems with effectiveUserId ${apiUserId}. Default 0.5")
+  public double dynamicFraction = 0.5;
+
+  @Option(name = "--batch-fraction", usage = "Fraction of systems that can run batch jobs and have queues. Default 0.3")
+  public double batchFraction = 0.3;
+
+  @Option(name = "--caps-mean", usage = "Mean job capabilities per system. Default 10")
+  public double capsMean = 10;
+
+  @Option(name = "--caps-max", usage = "Max job capabilities per system. Default 200")
+  public int capsMax = 200;
+
+  @Option(name = "--queues-mean", usage = "Mean logical queues per batch system. Default 5")
+  public double queuesMean = 5;
+
+  @Option(name = "--queues-max", usage = "Max logical queues per batch system. Default 50")
+  public int queuesMax = 50;
+
+  @Option(name = "--env-mean", usage = "Mean job env variables per system. Default 5")
+  public double envMean = 5;
+
+  @Option(name = "--tags-mean", usage = "Mean tags per system. Default 5")
+  public double tagsMean = 5;
+
+  @Option(name = "--notes-kb-mean", usage = "Mean size of notes in KB. Default 2")
+  public double notesKbMean = 2;
+
+  @Option(name = "--notes-kb-max", usage = "Max size of notes in KB. Default 256")
+  public int notesKbMax = 256;
+
+  @Option(name = "--history-mean", usage = "Mean update history records per system in addition to create. Default 5")
+  public double historyMean = 5;
+
+  @Option(name = "--history-max", usage = "Max update history records per system. Default 500")
+  public int historyMax = 500;
+
+  @Option(name = "--login-mappings", usage = "Approximate total login user mappings, spread over systems with a dynamic effectiveUserId. Default 5000")
+  public int numLoginMappings = 5000;
+
+  @Option(name = "--perms-mean", usage = "Mean users granted permissions on each system. Default 3")
+  public double permsMean = 3;
+
+  @Option(name = "--shares-mean", usage = "Mean users each system is shared with. Default 2")
+  public double sharesMean = 2;
+
+  @Option(name = "--public-fraction", usage = "Fraction of systems shared publicly. Default 0.02")
+  public double publicFraction = 0.02;
+
+  @Option(name = "--sk-out", usage = "File for the generated SK permissions and shares, loadable by StubSecurityKernel. Default datagen-sk.json")
+  public String skOutFile = "datagen-sk.json";
+
+  @Option(name = "-help", aliases = {"--help", "-h", "-?"}, usage = "display help information")
+  public boolean help;
+
+  /* ********************************************************************** */
+  /*                              Constructors                              */
+  /* ********************************************************************** */
+  public DataGenJobParameters(String[] args) throws TapisException
+  {
+    initializeParms(args);
+  }
+
+  /* **************************************************************************** */
+  /*                               Private Methods                                */
+  /* **************************************************************************** */
+
+  /**
+   *  Parse and validate the input arguments.
+   */
+  private void initializeParms(String[] args) throws TapisException
+  {
+    // Get a command line parser to verify input.
+    CmdLineParser parser = new CmdLineParser(this);
+    parser.getProperties().withUsageWidth(120);
+    String errMsg = null;
+    try
+    {
+      // Parse the arguments.
+      parser.parseArgument(args);
+    }
+    catch (CmdLineException e)
+    {
+      errMsg = e.getMessage();
+    }
+    if (errMsg == null && !help) errMsg = validate();
+    if (errMsg != null && !help)
+    {
+      // Create message buffer of sufficient size.
+      final int initialCapacity = 1024;
+      StringWriter writer = new StringWriter(initialCapacity);
+
+      // Write parser error message.
+      writer.write("\n******* Input Parameter Error *******\n");
+      writer.write(errMsg);
+      writer.write("\n\n");
+
+      // Write usage information--unfortunately we need an output stream.
+      writer.write("DataGenJob [options...]\n");
+      ByteArrayOutputStream ostream = new ByteArrayOutputStream(initialCapacity);
+      parser.printUsage(ostream);
+      try {writer.write(ostream.toString(StandardCharsets.UTF_8));} catch (Exception e1) {}
+      writer.write("\n");
+
+      // Throw exception.
+      throw new TapisException(writer.toString());
+    }
+
+    // Display help and exit program.
+    if (help)
+    {
+      String s = "\nDataGenJob for Tapis Systems Service.";
+      System.out.println(s);
+      System.out.println("\nDataGenJob [options...]\n");
+      parser.printUsage(System.out);
+      // Add a usage blurb.
+      s = "\nDataGenJob populates a DB with synthetic systems for scale testing and writes matching SK data to a file.\n" +
+          "By default a dry run is made, only a summary of the data is printed.\n" +
+          "To write the data use option --apply. The DB should be a scratch DB.";
+      System.out.println(s);
+      System.exit(0);
+    }
+  }
+
+  /*
+   * Check values, return an error message or null if all are valid
+   */
+  private String validate()
+  {
+    if (numSystems <= 0 || numOwners <= 0 || numUsers <= 0 || threads <= 0)
+      return "Values for --systems, --owners, --users and --threads must be positive";
+    if (!isFraction(parentFraction) || !isFraction(childFraction) || !isFraction(dynamicFraction) ||
+        !isFraction(batchFraction) || !isFraction(publicFraction))
+      return "Fractions must be between 0 and 1";
+    if (parentFraction + childFraction > 1.0) return "Sum of --parent-fraction and --child-fraction must not exceed 1";
+    if (childFraction > 0.0 && parentFraction <= 0.0) return "Children require --parent-fraction greater than 0";
+    if (capsMean < 0 || queuesMean < 0 || envMean < 0 || tagsMean < 0 || notesKbMean < 0 || historyMean < 0 ||
+        permsMean < 0 || sharesMean < 0 || numLoginMappings < 0 || ownerSkew < 0 || parentSkew < 0)
+      return "Means, skews and counts must not be negative";
+    return null;
+  }
+
+  private static boolean isFraction(double d) { return d >= 0.0 && d <= 1.0; }
+}
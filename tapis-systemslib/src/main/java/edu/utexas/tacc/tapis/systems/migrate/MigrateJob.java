@@ -16,6 +16,7 @@ import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
 import edu.utexas.tacc.tapis.systems.model.Credential;
+import edu.utexas.tacc.tapis.systems.model.SystemUpdatesStorage;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.service.ServiceClientsFactory;
 import edu.utexas.tacc.tapis.systems.service.ServiceContextFactory;
@@ -63,6 +64,10 @@ import static edu.utexas.tacc.tapis.systems.service.AuthUtils.PERM_SPEC_TEMPLATE
  *
  * This program will need to be updated for migration to a specific version of the Systems service.
  *
+ * With option --compress-update-data the job instead compresses the raw data of existing system update records,
+ *   in batches of --batch-size records, and reports the storage used before and after. The service does not need
+ *   to be shut down for this.
+ *
  * By default, it is a dry run, no permanent changes are made.
  * To apply changes use option --apply or set env variable TAPIS_MIGRATE_JOB_APPLY to "apply_changes"
  * The use of an env var is supported (RuntimeParameters.java) because this appears to be the easiest way to pass
@@ -138,7 +143,8 @@ public class MigrateJob
     isApply = _parms.isApply || envApply;
     msgPrefix = "DRY-RUN MIGRATE:";
     if (isApply) msgPrefix = "APPLY MIGRATE:";
-    migrateAllCredentialsToStaticDynamic();
+    if (_parms.compressUpdateData) compressAllUpdateRawData();
+    else migrateAllCredentialsToStaticDynamic();
   }
 
   /* ********************************************************************** */
@@ -205,6 +211,40 @@ public class MigrateJob
     }
   }
 
+  /*
+   * Compress the raw data of all system update records written before raw data was stored compressed.
+   * Records are converted in batches, one transaction per batch, so the service may keep running.
+   * For a dry run only the current storage is reported.
+   */
+  private void compressAllUpdateRawData() throws TapisException
+  {
+    System.out.printf("%s START Compressing raw data of system update records%n", msgPrefix);
+    SystemUpdatesStorage before = dao.getSystemUpdatesStorage();
+    System.out.printf("%s Storage before: %s%n", msgPrefix, before);
+    if (!isApply)
+    {
+      System.out.printf("%s Records with uncompressed raw data: %d%n", msgPrefix, before.getRawDataRows());
+      return;
+    }
+    int batchSize = Math.max(1, _parms.batchSize);
+    int batches = 0;
+    int lastSeqId = dao.compressSystemUpdatesRawData(0, batchSize);
+    while (lastSeqId > 0)
+    {
+      batches++;
+      if (batches % 100 == 0) System.out.printf("%s Batches: %d Last seq_id: %d%n", msgPrefix, batches, lastSeqId);
+      lastSeqId = dao.compressSystemUpdatesRawData(lastSeqId, batchSize);
+    }
+    SystemUpdatesStorage after = dao.getSystemUpdatesStorage();
+    System.out.printf("%s Storage after: %s%n", msgPrefix, after);
+    // Space freed by updated rows is only reused or returned once the table has been vacuumed,
+    //   so the raw data sizes are the better measure of the savings.
+    long rawBefore = before.getRawDataBytes() + before.getRawDataGzBytes();
+    long rawAfter = after.getRawDataBytes() + after.getRawDataGzBytes();
+    System.out.printf("%s DONE Batches: %d Raw data bytes before: %d after: %d saved: %d%n", msgPrefix, batches,
+                      rawBefore, rawAfter, rawBefore - rawAfter);
+  }
+
   /*
    * Get credential for targetUser with all secrets filled in
    */
@@ -32,6 +32,13 @@ public class MigrateJobParameters
   @Option(name = "--apply", usage = "Make permanent changes. By default it is a dry run.")
   public boolean isApply = false;
 
+  @Option(name = "--compress-update-data", usage = "Compress raw data of existing system update records instead of " +
+          "migrating credentials. Storage used before and after is reported.")
+  public boolean compressUpdateData = false;
+
+  @Option(name = "--batch-size", usage = "Number of system update records compressed per transaction. Default 1000.")
+  public int batchSize = 1000;
+
   @Option(name = "-help", aliases = {"--help", "-h", "-?"}, usage = "display help information")
   public boolean help;
 
@@ -0,0 +1,51 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.util.List;
+
+/*
+ * Child Sync Entry
+ *
+ * Pending update of the child systems of a parent with columns of the parent.
+ * Entries are written in the same DB transaction as the change to the parent and removed once all children
+ *   have been updated. Children are updated in order of seq_id and lastSeqId is the last child updated, so
+ *   a failed attempt resumes where it stopped.
+ */
+public final class ChildSyncEntry
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final String tenant;
+  private final String parentId;
+  private final List<String> fields;
+  private final int lastSeqId;
+  private final int attempts;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+  public ChildSyncEntry(String tenant1, String parentId1, List<String> fields1, int lastSeqId1, int attempts1)
+  {
+    tenant = tenant1;
+    parentId = parentId1;
+    fields = (fields1 == null) ? List.of() : List.copyOf(fields1);
+    lastSeqId = lastSeqId1;
+    attempts = attempts1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public String getTenant() { return tenant; }
+  public String getParentId() { return parentId; }
+  public List<String> getFields() { return fields; }
+  public int getLastSeqId() { return lastSeqId; }
+  public int getAttempts() { return attempts; }
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s:%s fields=%s lastSeqId=%d", tenant, parentId, String.join(",", fields), lastSeqId);
+  }
+}
@@ -0,0 +1,100 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+ * SK Outbox Entry
+ *
+ * An update to be made in the Security Kernel (SK) as a result of a change to a system.
+ * Entries are written in the same DB transaction as the change to the system and removed once the update has
+ *   been made in SK. Each entry has a unique idempotency key so that queuing the same entry twice has no effect.
+ * Every operation may safely be repeated, so an entry that is sent more than once leaves SK in the same state.
+ * An entry that has failed too many times is a dead letter. It is no longer sent and holds up later entries for
+ *   the same system until an admin requeues or discards it.
+ *
+ * Operations:
+ *   GRANT_PERM - grant permSpec to targetUser
+ *   REVOKE_PERM - revoke permSpec from targetUser
+ *   REVOKE_ALL_PERMS - revoke all system permissions held by any user for the system
+ *   DELETE_CREDENTIAL - delete all credentials stored for targetUser as a static effectiveUserId
+ */
+public final class SkOutboxEntry
+{
+  // ************************************************************************
+  // *********************** Enums ******************************************
+  // ************************************************************************
+  public enum SkOutboxOperation {GRANT_PERM, REVOKE_PERM, REVOKE_ALL_PERMS, DELETE_CREDENTIAL}
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final int seqId;
+  private final String idempotencyKey;
+  private final String tenant;
+  private final String systemId;
+  private final SkOutboxOperation operation;
+  private final String targetUser;
+  private final String permSpec;
+  private final int attempts;
+  private final String lastError;
+  private final Instant created;
+  private final boolean deadLetter;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  /**
+   * Constructor for a new entry to be queued. A new idempotency key is assigned.
+   */
+  public SkOutboxEntry(String tenant1, String systemId1, SkOutboxOperation operation1, String targetUser1,
+                       String permSpec1)
+  {
+    this(-1, UUID.randomUUID().toString(), tenant1, systemId1, operation1, targetUser1, permSpec1, 0, null, null,
+         false);
+  }
+
+  /**
+   * Constructor using all attributes, used when reading entries from the DB.
+   */
+  public SkOutboxEntry(int seqId1, String idempotencyKey1, String tenant1, String systemId1,
+                       SkOutboxOperation operation1, String targetUser1, String permSpec1, int attempts1,
+                       String lastError1, Instant created1, boolean deadLetter1)
+  {
+    seqId = seqId1;
+    idempotencyKey = idempotencyKey1;
+    tenant = tenant1;
+    systemId = systemId1;
+    operation = operation1;
+    targetUser = targetUser1;
+    permSpec = permSpec1;
+    attempts = attempts1;
+    lastError = lastError1;
+    created = created1;
+    deadLetter = deadLetter1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public int getSeqId() { return seqId; }
+  public String getIdempotencyKey() { return idempotencyKey; }
+  public String getTenant() { return tenant; }
+  public String getSystemId() { return systemId; }
+  public SkOutboxOperation getOperation() { return operation; }
+  public String getTargetUser() { return targetUser; }
+  public String getPermSpec() { return permSpec; }
+  public int getAttempts() { return attempts; }
+  public String getLastError() { return lastError; }
+  public Instant getCreated() { return created; }
+  public boolean isDeadLetter() { return deadLetter; }
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s %s:%s user=%s perm=%s key=%s", operation, tenant, systemId, targetUser, permSpec,
+                         idempotencyKey);
+  }
+}
@@ -0,0 +1,52 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+
+/*
+ * System ACL Sync Entry
+ *
+ * Time at which the local copy of system permissions and shares for a grantee was last refreshed from SK.
+ * The grantee is either a user or the public grantee used for systems shared publicly.
+ * version is incremented by every change to the entries for the grantee. A refresh from SK only replaces the
+ *   entries if the version has not changed since it was read.
+ * used is the last time the entries were read, null if they have not been read.
+ */
+public final class SystemAclSyncEntry
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final String tenant;
+  private final String grantee;
+  private final Instant synced;
+  private final long version;
+  private final Instant used;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public SystemAclSyncEntry(String tenant1, String grantee1, Instant synced1, long version1, Instant used1)
+  {
+    tenant = tenant1;
+    grantee = grantee1;
+    synced = synced1;
+    version = version1;
+    used = used1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public String getTenant() { return tenant; }
+  public String getGrantee() { return grantee; }
+  public Instant getSynced() { return synced; }
+  public long getVersion() { return version; }
+  public Instant getUsed() { return used; }
+
+  /*
+   * Check if the entries have been read since they were last refreshed
+   */
+  public boolean isUsedSinceSync() { return used != null && !used.isBefore(synced); }
+}
@@ -0,0 +1,48 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
+
+/*
+ * System Change
+ *
+ * Compact description of a single change to a system, based on a record in the system_updates table.
+ * Used for the change feed so that consumers may apply deltas rather than re-listing all systems.
+ * The seqId is increasing and is used as the cursor when requesting subsequent changes.
+ */
+public final class SystemChange
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final int seqId;
+  private final String systemId;
+  private final SystemOperation operation;
+  private final UUID uuid;
+  private final Instant created; // UTC time for when change was recorded
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public SystemChange(int seqId1, String systemId1, SystemOperation operation1, UUID uuid1, Instant created1)
+  {
+    seqId = seqId1;
+    systemId = systemId1;
+    operation = operation1;
+    uuid = uuid1;
+    created = created1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public int getSeqId() { return seqId; }
+  public String getSystemId() { return systemId; }
+  public SystemOperation getOperation() { return operation; }
+  public UUID getUuid() { return uuid; }
+  public Instant getCreated() { return created; }
+}
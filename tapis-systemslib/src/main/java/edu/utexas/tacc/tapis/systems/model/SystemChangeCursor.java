@@ -0,0 +1,67 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+/*
+ * System Change Cursor
+ *
+ * Position in the feed of changes to systems. Changes are ordered by the id of the transaction that made the change
+ *   and then by sequence id, see SystemsDaoImpl.getSystemChanges(). The string form is <txid>.<seqId> and is used
+ *   as the id of events sent to watchers.
+ * A cursor may also be given as a sequence id alone, e.g. one taken from the change feed. The transaction id is
+ *   then looked up when the cursor is used.
+ */
+public final class SystemChangeCursor
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+  public static final String SEPARATOR = ".";
+
+  // Start of the feed
+  public static final SystemChangeCursor START = new SystemChangeCursor(0L, 0);
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final Long txid; // Null if not known
+  private final int seqId;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public SystemChangeCursor(Long txid1, int seqId1)
+  {
+    txid = txid1;
+    seqId = seqId1;
+  }
+
+  /**
+   * Parse a cursor of the form <txid>.<seqId> or <seqId>
+   * @param cursorStr - cursor
+   * @return cursor
+   * @throws IllegalArgumentException - if the cursor is not valid
+   */
+  public static SystemChangeCursor parse(String cursorStr) throws IllegalArgumentException
+  {
+    String s = (cursorStr == null) ? "" : cursorStr.trim();
+    int sepIdx = s.indexOf(SEPARATOR);
+    try
+    {
+      Long txid = (sepIdx < 0) ? null : Long.valueOf(s.substring(0, sepIdx));
+      int seqId = Integer.parseInt(s.substring(sepIdx + 1));
+      if ((txid != null && txid < 0) || seqId < 0) throw new IllegalArgumentException(cursorStr);
+      return new SystemChangeCursor(txid, seqId);
+    }
+    catch (NumberFormatException e) { throw new IllegalArgumentException(cursorStr, e); }
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public Long getTxid() { return txid; }
+  public int getSeqId() { return seqId; }
+
+  @Override
+  public String toString() { return (txid == null) ? String.valueOf(seqId) : txid + SEPARATOR + seqId; }
+}
@@ -0,0 +1,54 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * System Change Event
+ *
+ * A change to a system together with the attributes needed to route it to watchers.
+ * Published on the in-process change bus after the change has been committed and
+ *   also built from the system_updates table when a watcher resumes from a cursor.
+ * Tags are those of the system at the time the event was built. Null if the system no longer exists.
+ * Events built from the system_updates table also carry their position in the change feed.
+ */
+public final class SystemChangeEvent
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final String tenant;
+  private final Set<String> tags;
+  private final SystemChange change;
+  private final SystemChangeCursor cursor; // Null for events published on the change bus
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  public SystemChangeEvent(String tenant1, String[] tags1, SystemChange change1)
+  {
+    this(tenant1, tags1, change1, null);
+  }
+
+  public SystemChangeEvent(String tenant1, String[] tags1, SystemChange change1, SystemChangeCursor cursor1)
+  {
+    tenant = tenant1;
+    tags = (tags1 == null) ? Collections.emptySet() : Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(tags1)));
+    change = change1;
+    cursor = cursor1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public String getTenant() { return tenant; }
+  public Set<String> getTags() { return tags; }
+  public SystemChange getChange() { return change; }
+  public SystemChangeCursor getCursor() { return cursor; }
+  public int getSeqId() { return change.getSeqId(); }
+  public String getSystemId() { return change.getSystemId(); }
+}
@@ -0,0 +1,55 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+/*
+ * System Updates Storage
+ *
+ * Storage used by the system_updates table, used to report on the effect of compressing raw data.
+ * Sizes are in bytes. Column sizes are as stored, after any compression done by the DB.
+ *   totalBytes - size of all partitions of the table including indexes and TOAST data
+ *   rawDataRows, rawDataBytes - rows with uncompressed raw data and the space it takes
+ *   rawDataGzRows, rawDataGzBytes - rows with gzip compressed raw data and the space it takes
+ */
+public final class SystemUpdatesStorage
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final long rows;
+  private final long totalBytes;
+  private final long rawDataRows;
+  private final long rawDataBytes;
+  private final long rawDataGzRows;
+  private final long rawDataGzBytes;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+  public SystemUpdatesStorage(long rows1, long totalBytes1, long rawDataRows1, long rawDataBytes1,
+                              long rawDataGzRows1, long rawDataGzBytes1)
+  {
+    rows = rows1;
+    totalBytes = totalBytes1;
+    rawDataRows = rawDataRows1;
+    rawDataBytes = rawDataBytes1;
+    rawDataGzRows = rawDataGzRows1;
+    rawDataGzBytes = rawDataGzBytes1;
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public long getRows() { return rows; }
+  public long getTotalBytes() { return totalBytes; }
+  public long getRawDataRows() { return rawDataRows; }
+  public long getRawDataBytes() { return rawDataBytes; }
+  public long getRawDataGzRows() { return rawDataGzRows; }
+  public long getRawDataGzBytes() { return rawDataGzBytes; }
+
+  @Override
+  public String toString()
+  {
+    return String.format("rows=%d totalBytes=%d rawData: rows=%d bytes=%d rawDataGz: rows=%d bytes=%d", rows,
+                         totalBytes, rawDataRows, rawDataBytes, rawDataGzRows, rawDataGzBytes);
+  }
+}
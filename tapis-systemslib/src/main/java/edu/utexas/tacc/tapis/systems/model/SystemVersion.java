@@ -0,0 +1,102 @@
+package edu.utexas.tacc.tapis.systems.model;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * System Version
+ *
+ * Lightweight view of a system containing only the attributes needed to check authorization and to determine
+ * if a previously returned representation of the system is still current.
+ * Used to support conditional requests without fetching and decoding the full system record.
+ */
+public final class SystemVersion
+{
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+  private final String tenant;
+  private final String id;
+  private final String owner;
+  private final String effectiveUserId;
+  private final boolean canExec;
+  private final Instant updated; // UTC time for when record was last updated
+  private final int version; // Incremented each time the record is updated
+  private final Boolean isPublic;
+  private final Set<String> sharedWithUsers;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  /**
+   * Constructor for jOOQ with input parameter matching order of columns in DB
+   */
+  public SystemVersion(String tenant1, String id1, String owner1, String effectiveUserId1, boolean canExec1,
+                       Instant updated1, int version1)
+  {
+    this(tenant1, id1, owner1, effectiveUserId1, canExec1, updated1, version1, null, null);
+  }
+
+  /**
+   * Constructor including dynamically computed attributes
+   */
+  public SystemVersion(String tenant1, String id1, String owner1, String effectiveUserId1, boolean canExec1,
+                       Instant updated1, int version1, Boolean isPublic1, Set<String> sharedWithUsers1)
+  {
+    tenant = tenant1;
+    id = id1;
+    owner = owner1;
+    effectiveUserId = effectiveUserId1;
+    canExec = canExec1;
+    updated = updated1;
+    version = version1;
+    isPublic = isPublic1;
+    sharedWithUsers = (sharedWithUsers1 == null) ? null : new TreeSet<>(sharedWithUsers1);
+  }
+
+  /**
+   * Create a version for a fully populated TSystem.
+   * Dynamically computed attributes (effectiveUserId, share info) should already be resolved.
+   */
+  public SystemVersion(TSystem system, boolean includeShareInfo)
+  {
+    this(system.getTenant(), system.getId(), system.getOwner(), system.getEffectiveUserId(), system.getCanExec(),
+         system.getUpdated(), system.getVersion(), includeShareInfo ? system.isPublic() : null,
+         includeShareInfo ? system.getSharedWithUsers() : null);
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Build a string that changes whenever the representation of the system returned to the caller changes.
+   * Includes the last update time of the record and the caller dependent attributes.
+   */
+  public String getVersionKey()
+  {
+    var sb = new StringBuilder();
+    sb.append(tenant).append('|').append(id).append('|');
+    sb.append(updated == null ? "" : updated.toString()).append('|');
+    sb.append(version).append('|');
+    sb.append(effectiveUserId).append('|');
+    if (isPublic != null) sb.append(isPublic).append('|').append(sharedWithUsers);
+    return sb.toString();
+  }
+
+  // ************************************************************************
+  // *********************** Accessors **************************************
+  // ************************************************************************
+
+  public String getTenant() { return tenant; }
+  public String getId() { return id; }
+  public String getOwner() { return owner; }
+  public String getEffectiveUserId() { return effectiveUserId; }
+  public boolean getCanExec() { return canExec; }
+  public Instant getUpdated() { return updated; }
+  public int getVersion() { return version; }
+  public Boolean isPublic() { return isPublic; }
+  public Set<String> getSharedWithUsers() { return (sharedWithUsers == null) ? null : new TreeSet<>(sharedWithUsers); }
+}
@@ -123,6 +123,7 @@ public final class TSystem
   // Default values
   public static final String DEFAULT_ROOTDIR = "";
   public static final String[] EMPTY_STR_ARRAY = new String[0];
+  public static final int NO_VERSION = 0; // Version not known, updates are not checked for concurrent modification
   public static final String DEFAULT_OWNER = APIUSERID_VAR;
   public static final boolean DEFAULT_ENABLED = true;
   public static final String DEFAULT_EFFECTIVEUSERID = APIUSERID_VAR;
@@ -253,6 +254,7 @@ public final class TSystem
 
   private Instant created; // UTC time for when record was created
   private Instant updated; // UTC time for when record was last updated
+  private int version = NO_VERSION; // Incremented each time the record is updated, used for optimistic locking
 
   // ************************************************************************
   // *********************** Constructors ***********************************
@@ -422,6 +424,7 @@ public final class TSystem
     seqId = t.getSeqId();
     created = t.getCreated();
     updated = t.getUpdated();
+    version = t.getVersion();
     uuid = t.getUuid();
     deleted = t.isDeleted();
     tenant = LibUtils.stripStr(t.getTenant());
@@ -988,6 +991,9 @@ public final class TSystem
   @Schema(type = "string")
   public Instant getUpdated() { return updated; }
 
+  public int getVersion() { return version; }
+  public void setVersion(int i) { version = i; }
+
   public String getTenant() { return tenant; }
 
   public SystemType getSystemType() { return systemType; }
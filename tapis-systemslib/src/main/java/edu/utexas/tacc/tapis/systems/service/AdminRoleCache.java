@@ -0,0 +1,265 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+/*
+ * Cache of results from checking if a user has the tenant admin role.
+ *
+ * Admin role membership changes rarely but is checked several times for many requests. Results are kept for
+ *   a short time, configured using the runtime parameter tapis.admin.role.cache.ttl.secs.
+ * Loading is single-flight, concurrent requests for the same tenant and user share a single call to SK.
+ * Failed lookups are not cached.
+ * Entries may be flushed manually by an admin, for example after revoking the admin role.
+ */
+public final class AdminRoleCache
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger log = LoggerFactory.getLogger(AdminRoleCache.class);
+
+  // Upper limit on number of entries. When reached expired entries are purged, if still full all are dropped.
+  static final int MAX_ENTRIES = 10000;
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final long ttlNanos;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  // Metrics
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong sharedLoads = new AtomicLong();
+  private final AtomicLong loadFailures = new AtomicLong();
+  private final AtomicLong flushes = new AtomicLong();
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  AdminRoleCache(int ttlSecs)
+  {
+    ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(ttlSecs, 0));
+  }
+
+  public static AdminRoleCache getInstance() { return InstanceHolder.instance; }
+
+  // Singleton created on first use, so that runtime parameters are only needed when the shared cache is used.
+  private static final class InstanceHolder
+  {
+    private static final AdminRoleCache instance =
+            new AdminRoleCache(RuntimeParameters.getInstance().getAdminRoleCacheTtlSecs());
+  }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Get the admin role status for a user, using the loader if there is no current cached value.
+   * If another thread is already loading the value for the same user, wait for that result.
+   * @param tenant - tenant
+   * @param user - user
+   * @param loader - called to determine the status if it is not cached
+   * @return true if user has the admin role
+   */
+  public boolean hasAdminRole(String tenant, String user, Loader loader) throws TapisException, TapisClientException
+  {
+    // Caching turned off
+    if (ttlNanos <= 0) return loader.load();
+
+    String key = getKey(tenant, user);
+    long now = System.nanoTime();
+    Entry entry = entries.get(key);
+    if (entry != null && !entry.isExpired(now))
+    {
+      hits.incrementAndGet();
+      return await(entry);
+    }
+
+    // Claim the load or pick up a load started concurrently by another thread.
+    if (entries.size() >= MAX_ENTRIES) purge(now);
+    Entry newEntry = new Entry(now + ttlNanos);
+    Entry current = entries.compute(key, (k, e) -> (e != null && !e.isExpired(now)) ? e : newEntry);
+    if (current != newEntry)
+    {
+      sharedLoads.incrementAndGet();
+      return await(current);
+    }
+
+    misses.incrementAndGet();
+    try
+    {
+      boolean isAdmin = loader.load();
+      newEntry.result.complete(isAdmin);
+      return isAdmin;
+    }
+    catch (TapisException | TapisClientException | RuntimeException e)
+    {
+      // Do not cache failures. Waiting threads get the same exception.
+      entries.remove(key, newEntry);
+      loadFailures.incrementAndGet();
+      newEntry.result.completeExceptionally(e);
+      throw e;
+    }
+    catch (Error e)
+    {
+      // Make sure waiting threads are released
+      entries.remove(key, newEntry);
+      newEntry.result.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Remove cached entries for a tenant. If user is null all entries for the tenant are removed.
+   * @return number of entries removed
+   */
+  public int flush(String tenant, String user)
+  {
+    flushes.incrementAndGet();
+    int count = 0;
+    if (user != null)
+    {
+      if (entries.remove(getKey(tenant, user)) != null) count++;
+    }
+    else
+    {
+      String prefix = getKey(tenant, "");
+      for (String key : entries.keySet())
+      {
+        if (key.startsWith(prefix) && entries.remove(key) != null) count++;
+      }
+    }
+    log.info(LibUtils.getMsg("SYSLIB_ADMIN_CACHE_FLUSHED", tenant, user, count));
+    return count;
+  }
+
+  /**
+   * Snapshot of cache metrics
+   */
+  public Stats getStats()
+  {
+    return new Stats(TimeUnit.NANOSECONDS.toSeconds(ttlNanos), entries.size(), hits.get(), misses.get(),
+                     sharedLoads.get(), loadFailures.get(), flushes.get());
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * Tenant ids and user names do not contain a newline so it is safe to use as a separator.
+   */
+  private static String getKey(String tenant, String user) { return tenant + "\n" + user; }
+
+  /*
+   * Drop expired entries. If that does not free up space drop everything.
+   */
+  private void purge(long now)
+  {
+    entries.values().removeIf(e -> e.isExpired(now));
+    if (entries.size() >= MAX_ENTRIES) entries.clear();
+  }
+
+  /*
+   * Wait for result of a load. Rethrow exception thrown by the loader.
+   */
+  private static boolean await(Entry entry) throws TapisException, TapisClientException
+  {
+    try
+    {
+      return entry.result.get();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new TapisException(e.getMessage(), e);
+    }
+    catch (ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      if (cause instanceof TapisException) throw (TapisException) cause;
+      if (cause instanceof TapisClientException) throw (TapisClientException) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw new TapisException(cause.getMessage(), cause);
+    }
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Call used to determine admin status when there is no cached value
+   */
+  @FunctionalInterface
+  public interface Loader
+  {
+    boolean load() throws TapisException, TapisClientException;
+  }
+
+  /*
+   * Cached value, possibly still being loaded
+   */
+  private static final class Entry
+  {
+    private final long expiresAt;
+    private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+    private Entry(long expiresAt1) { expiresAt = expiresAt1; }
+
+    private boolean isExpired(long now) { return now - expiresAt >= 0; }
+  }
+
+  /*
+   * Cache metrics
+   */
+  public static final class Stats
+  {
+    private final long ttlSeconds;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long sharedLoads;
+    private final long loadFailures;
+    private final long flushes;
+
+    Stats(long ttlSeconds1, int size1, long hits1, long misses1, long sharedLoads1, long loadFailures1,
+          long flushes1)
+    {
+      ttlSeconds = ttlSeconds1;
+      size = size1;
+      hits = hits1;
+      misses = misses1;
+      sharedLoads = sharedLoads1;
+      loadFailures = loadFailures1;
+      flushes = flushes1;
+    }
+
+    public long getTtlSeconds() { return ttlSeconds; }
+    public int getSize() { return size; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getSharedLoads() { return sharedLoads; }
+    public long getLoadFailures() { return loadFailures; }
+    public long getFlushes() { return flushes; }
+  }
+}
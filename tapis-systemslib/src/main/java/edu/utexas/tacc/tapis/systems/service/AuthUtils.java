@@ -12,11 +12,17 @@ import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.security.ServiceClients;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
 import edu.utexas.tacc.tapis.systems.model.SchedulerProfile;
+import edu.utexas.tacc.tapis.systems.model.SystemAclSyncEntry;
 import edu.utexas.tacc.tapis.systems.model.SystemShare;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import edu.utexas.tacc.tapis.systems.utils.RequestTiming;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Scope;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,13 +30,29 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.NotFoundException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import static edu.utexas.tacc.tapis.systems.model.TSystem.*;
 import static edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl.*;
+import static edu.utexas.tacc.tapis.systems.service.SystemsMetrics.*;
 
 /*
    Utility class containing Tapis authentication (permissions and sharing)
@@ -48,6 +70,8 @@ public class AuthUtils
   // Permspec format for systems is "system:<tenant>:<perm_list>:<system_id>"
   public static final String PERM_SPEC_TEMPLATE = "system:%s:%s:%s";
   static final String PERM_SPEC_PREFIX = "system";
+  private static final Pattern PERM_SPEC_SPLIT = Pattern.compile(":");
+  private static final Pattern PERM_LIST_SPLIT = Pattern.compile(",");
   // Sets of individual permissions, for convenience
   static final Set<Permission> ALL_PERMS = new HashSet<>(Set.of(Permission.READ, Permission.MODIFY, Permission.EXECUTE));
   private static final Set<Permission> READMODIFY_PERMS = new HashSet<>(Set.of(Permission.READ, Permission.MODIFY));
@@ -58,6 +82,15 @@ public class AuthUtils
   static final String OP_UNSHARE = "unShare";
   static final Set<String> PUBLIC_USER_SET = Collections.singleton(SKClient.PUBLIC_GRANTEE); // "~public"
   static final String SYS_SHR_TYPE = "system";
+  // Max number of concurrent SK calls when sharing/unsharing with a list of users, across all requests
+  private static final int SHARE_MAX_THREADS = 8;
+  // Max number of share tasks waiting for a thread. When the queue is full a task runs on the request thread.
+  private static final int SHARE_QUEUE_SIZE = 32;
+  // Max number of share tasks queued or running for a single request, so one long list of users cannot fill the queue
+  static final int SHARE_MAX_TASKS_PER_CALL = 4;
+  private static final ExecutorService SHARE_EXECUTOR = createShareExecutor(SHARE_MAX_THREADS, SHARE_QUEUE_SIZE);
+  // Max number of times local ACL entries for a grantee are read from SK when entries change during the refresh
+  static final int ACL_SYNC_MAX_ATTEMPTS = 3;
 
   // Lists of services allowed to perform certain restricted functionality:
   //     Retrieve credentials, impersonate user, set shared context, impersonate tenant
@@ -65,6 +98,7 @@ public class AuthUtils
   private static final Set<String> SVCLIST_IMPERSONATE = new HashSet<>(Set.of(FILES_SERVICE, APPS_SERVICE, JOBS_SERVICE));
   private static final Set<String> SVCLIST_SHAREDAPPCTX = new HashSet<>(Set.of(FILES_SERVICE, JOBS_SERVICE));
   private static final Set<String> SVCLIST_RESOURCETENANT = new HashSet<>(Set.of(FILES_SERVICE, JOBS_SERVICE));
+  private static final Set<String> SVCLIST_CHANGES = new HashSet<>(Set.of(FILES_SERVICE, APPS_SERVICE, JOBS_SERVICE));
 
   // Named and typed null values to make it clear what is being passed in to a method
   private static final String nullOwner = null;
@@ -154,16 +188,37 @@ public class AuthUtils
                          String targetUser, Set<Permission> perms, String impersonationId, String sharedAppCtx)
           throws TapisException, TapisClientException
   {
-    // Check service and user requests separately to avoid confusing a service name with a username
-    if (rUser.isServiceRequest())
+    long start = System.nanoTime();
+    var event = new SystemsEvents.AuthCheck();
+    event.begin();
+    boolean allowed = false;
+    Span span = SystemsTracing.startSpan("AuthUtils.checkAuth", SpanKind.INTERNAL);
+    span.setAttribute("tapis.systems.operation", String.valueOf(op));
+    try (Scope scope = span.makeCurrent())
     {
-      // NOTE: This call will do a final checkAuthOboUser() if no special cases apply.
-      checkAuthSvc(rUser, op, systemId, owner, targetUser, perms, impersonationId, sharedAppCtx);
+      // Check service and user requests separately to avoid confusing a service name with a username
+      if (rUser.isServiceRequest())
+      {
+        // NOTE: This call will do a final checkAuthOboUser() if no special cases apply.
+        checkAuthSvc(rUser, op, systemId, owner, targetUser, perms, impersonationId, sharedAppCtx);
+      }
+      else
+      {
+        // This is an OboUser check
+        checkAuthOboUser(rUser, op, systemId, owner, targetUser, perms, impersonationId, sharedAppCtx);
+      }
+      allowed = true;
     }
-    else
+    catch (Exception e)
+    {
+      SystemsTracing.recordFailure(span, e);
+      throw e;
+    }
+    finally
     {
-      // This is an OboUser check
-      checkAuthOboUser(rUser, op, systemId, owner, targetUser, perms, impersonationId, sharedAppCtx);
+      span.end();
+      RequestTiming.record(RequestTiming.AUTH, System.nanoTime() - start);
+      event.finish(rUser, systemId, String.valueOf(op), allowed);
     }
   }
 
@@ -185,7 +240,7 @@ public class AuthUtils
     else skParms.setGrantee(oboUser);
 
     // Call SK to get all shared with oboUser and add them to the set
-    var skShares = sysUtils.getSKClient(rUser).getShares(skParms);
+    var skShares = timeRemoteCall(TARGET_SK, "getShares", sysUtils.getSKClient(rUser), c -> c.getShares(skParms));
     if (skShares != null && skShares.getShares() != null)
     {
       for (SkShare skShare : skShares.getShares())
@@ -196,6 +251,131 @@ public class AuthUtils
     return systemIDs;
   }
 
+  /**
+   * Check if the local copy of system permissions and shares (the system_acl table) is used for list queries.
+   * Turned on by setting the runtime parameter tapis.system.acl.ttl.secs to a value greater than 0.
+   */
+  static boolean isAclEnabled()
+  {
+    return RuntimeParameters.getInstance().getSystemAclTtlSecs() > 0;
+  }
+
+  /**
+   * Determine all systems for which the user has READ or MODIFY permission using the local ACL entries.
+   * Entries for the user are refreshed from SK first if they are stale.
+   * Returns null if stale entries could not be refreshed, in which case SK must be used.
+   */
+  Set<String> getAclViewableSystemIDs(ResourceRequestUser rUser, String oboUser)
+          throws TapisException, TapisClientException
+  {
+    String oboTenant = rUser.getOboTenantId();
+    if (!refreshAclIfStale(rUser, oboTenant, oboUser)) return null;
+    return dao.getAclViewableSystemIDs(oboTenant, oboUser);
+  }
+
+  /**
+   * Determine if a list query can filter on the local ACL entries, see SystemsDao.getSystems().
+   * Entries for the public grantee, for the user when listing ALL and for users named in conditions on
+   *   sharedWithUsers are refreshed from SK first if they are stale.
+   * Returns false if the local entries are not enabled or could not be refreshed, in which case SK must be used.
+   */
+  boolean refreshAclForList(ResourceRequestUser rUser, String oboUser, AuthListType listType,
+                            Collection<String> shareGrantees)
+          throws TapisException, TapisClientException
+  {
+    if (!isAclEnabled()) return false;
+    String oboTenant = rUser.getOboTenantId();
+    if (!refreshAclIfStale(rUser, oboTenant, SKClient.PUBLIC_GRANTEE)) return false;
+    if (AuthListType.ALL.equals(listType) && !refreshAclIfStale(rUser, oboTenant, oboUser)) return false;
+    for (String grantee : shareGrantees)
+    {
+      if (!refreshAclIfStale(rUser, oboTenant, grantee)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Refresh the local ACL entries for a grantee from SK if they have never been loaded or are older
+   *   than the configured time to live, and record that they have been used.
+   * Only used entries are kept up to date by the reconcile job, see SystemsServiceImpl.reconcileSystemAcls().
+   * @return true if entries are up to date, false if they are stale and could not be refreshed
+   */
+  boolean refreshAclIfStale(ResourceRequestUser rUser, String tenant, String grantee)
+          throws TapisException, TapisClientException
+  {
+    SystemAclSyncEntry entry = dao.getAclSyncEntry(tenant, grantee);
+    long ttlSecs = RuntimeParameters.getInstance().getSystemAclTtlSecs();
+    if (entry == null || !entry.getSynced().plusSeconds(ttlSecs).isAfter(Instant.now()))
+    {
+      if (!syncAcl(rUser, tenant, grantee)) return false;
+      dao.markAclUsed(tenant, grantee);
+    }
+    // Record use at most once per refresh
+    else if (!entry.isUsedSinceSync()) dao.markAclUsed(tenant, grantee);
+    return true;
+  }
+
+  /**
+   * Replace the local ACL entries for a grantee with the permissions and shares currently held in SK.
+   * For the public grantee only shares are loaded.
+   * If the entries are changed while SK is being read the data from SK may already be out of date, so it is
+   *   discarded and SK is read again, up to ACL_SYNC_MAX_ATTEMPTS times.
+   * @return true if entries were replaced, false if every attempt was overtaken by a change to the entries
+   */
+  boolean syncAcl(ResourceRequestUser rUser, String tenant, String grantee)
+          throws TapisException, TapisClientException
+  {
+    for (int attempt = 1; attempt <= ACL_SYNC_MAX_ATTEMPTS; attempt++)
+    {
+      if (syncAclOnce(rUser, tenant, grantee)) return true;
+    }
+    log.warn(LibUtils.getMsg("SYSLIB_ACL_SYNC_CONFLICT", tenant, grantee, ACL_SYNC_MAX_ATTEMPTS));
+    return false;
+  }
+
+  /*
+   * Make one attempt to replace the local ACL entries for a grantee, see syncAcl()
+   */
+  private boolean syncAclOnce(ResourceRequestUser rUser, String tenant, String grantee)
+          throws TapisException, TapisClientException
+  {
+    // Version must be read before SK so that any change made after SK is read is detected
+    SystemAclSyncEntry entry = dao.getAclSyncEntry(tenant, grantee);
+    long version = (entry == null) ? 0 : entry.getVersion();
+    SKClient skClient = sysUtils.getSKClient(rUser);
+    var permsBySystemId = new HashMap<String, Set<String>>();
+    if (!SKClient.PUBLIC_GRANTEE.equals(grantee))
+    {
+      // Use implies to filter permissions returned. Without implies all permissions for apps, etc. are returned.
+      String implies = String.format("%s:%s:*:*", PERM_SPEC_PREFIX, tenant);
+      var userPerms = timeRemoteCall(TARGET_SK, "getUserPerms", skClient,
+                                     c -> c.getUserPerms(tenant, grantee, implies, null));
+      for (String userPerm : userPerms)
+      {
+        if (StringUtils.isBlank(userPerm)) continue;
+        // Split based on :, permSpec has the format system:<tenant>:<perms>:<system_name>
+        String[] permFields = PERM_SPEC_SPLIT.split(userPerm);
+        if (permFields.length < 4 || !permFields[0].equals(PERM_SPEC_PREFIX)) continue;
+        Set<String> perms = permsBySystemId.computeIfAbsent(permFields[3], k -> new HashSet<>());
+        Collections.addAll(perms, PERM_LIST_SPLIT.split(permFields[2]));
+      }
+    }
+
+    // Shares made directly with the grantee. Public shares are held under the public grantee.
+    var skParms = new SKShareGetSharesParms();
+    skParms.setResourceType(SYS_SHR_TYPE);
+    skParms.setTenant(tenant);
+    skParms.setGrantee(grantee);
+    skParms.setIncludePublicGrantees(false);
+    var sharedSystemIds = new HashSet<String>();
+    var skShares = timeRemoteCall(TARGET_SK, "getShares", skClient, c -> c.getShares(skParms));
+    if (skShares != null && skShares.getShares() != null)
+    {
+      for (SkShare skShare : skShares.getShares()) { sharedSystemIds.add(skShare.getResourceId1()); }
+    }
+    return dao.replaceAcl(tenant, grantee, permsBySystemId, sharedSystemIds, version);
+  }
+
   /**
    * Confirm that caller is allowed to impersonate a Tapis user.
    * Must be a service request from a service allowed to impersonate
@@ -230,6 +410,24 @@ public class AuthUtils
     throw new ForbiddenException(msg);
   }
 
+  /**
+   * Confirm that caller is allowed to retrieve the change feed for all systems in the obo tenant.
+   * The feed includes systems the caller may not otherwise be able to see, so it is restricted to
+   *   tenant admins and services in the allowed list.
+   *
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   */
+  void checkChangeFeedAllowed(ResourceRequestUser rUser) throws TapisException, TapisClientException
+  {
+    // If a service request the username will be the service name. E.g. files, jobs, streams, etc
+    if (rUser.isServiceRequest() && SVCLIST_CHANGES.contains(rUser.getJwtUserId())) return;
+    if (!rUser.isServiceRequest() && hasAdminRole(rUser)) return;
+    // Log warning and deny authorization
+    String msg = LibUtils.getMsgAuth("SYSLIB_UNAUTH_CHANGES", rUser);
+    log.warn(msg);
+    throw new ForbiddenException(msg);
+  }
+
   /**
    * Confirm that caller is allowed to set resourceTenant
    * Must be a service request from a service in the allowed list.
@@ -328,10 +526,54 @@ public class AuthUtils
 
   /**
    * Check to see if the oboUser has the admin role in the obo tenant
+   * Result is cached for a short time. See AdminRoleCache.
    */
   boolean hasAdminRole(ResourceRequestUser rUser) throws TapisException, TapisClientException
   {
-    return sysUtils.getSKClient(rUser).isAdmin(rUser.getOboTenantId(), rUser.getOboUserId());
+    String oboTenant = rUser.getOboTenantId();
+    String oboUser = rUser.getOboUserId();
+    return AdminRoleCache.getInstance().hasAdminRole(oboTenant, oboUser,
+                                                     () -> timeRemoteCall(TARGET_SK, "isAdmin", sysUtils.getSKClient(rUser),
+                                                                          c -> c.isAdmin(oboTenant, oboUser)));
+  }
+
+  /**
+   * Confirm that caller is allowed to view or flush service caches, such as the admin role cache.
+   * Must be a service or a tenant admin. Admin role is checked without using the cache so that
+   *   a user whose admin role has just been revoked cannot make use of a stale entry.
+   *
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   */
+  void checkAdminCacheAllowed(ResourceRequestUser rUser) throws TapisException, TapisClientException
+  {
+    checkSvcOrTenantAdmin(rUser, "SYSLIB_UNAUTH_ADMIN_CACHE");
+  }
+
+  /**
+   * Confirm that caller is allowed to view, requeue or discard queued SK updates that have failed too many times.
+   * Must be a service or a tenant admin.
+   *
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   */
+  void checkAdminSkOutboxAllowed(ResourceRequestUser rUser) throws TapisException, TapisClientException
+  {
+    checkSvcOrTenantAdmin(rUser, "SYSLIB_UNAUTH_ADMIN_SK_OUTBOX");
+  }
+
+  /*
+   * Confirm that caller is a service or a tenant admin, checking the admin role without using the cache.
+   * If not log a warning using the given message key and deny authorization.
+   */
+  private void checkSvcOrTenantAdmin(ResourceRequestUser rUser, String denyMsgKey)
+          throws TapisException, TapisClientException
+  {
+    if (rUser.isServiceRequest()) return;
+    if (timeRemoteCall(TARGET_SK, "isAdmin", sysUtils.getSKClient(rUser),
+                       c -> c.isAdmin(rUser.getOboTenantId(), rUser.getOboUserId()))) return;
+    // Log warning and deny authorization
+    String msg = LibUtils.getMsgAuth(denyMsgKey, rUser);
+    log.warn(msg);
+    throw new ForbiddenException(msg);
   }
 
   /**
@@ -348,7 +590,8 @@ public class AuthUtils
     for (Permission perm : Permission.values())
     {
       String permSpec = String.format(PERM_SPEC_TEMPLATE, oboTenant, perm.name(), systemId);
-      if (sysUtils.getSKClient(rUser).isPermitted(oboTenant, userName, permSpec)) userPerms.add(perm);
+      if (timeRemoteCall(TARGET_SK, "isPermitted", sysUtils.getSKClient(rUser),
+                         c -> c.isPermitted(oboTenant, userName, permSpec))) userPerms.add(perm);
     }
     return userPerms;
   }
@@ -371,14 +614,18 @@ public class AuthUtils
   {
     // Use Security Kernel client to find all users with perms associated with the system.
     String permSpec = String.format(PERM_SPEC_TEMPLATE, tenant, "%", sysId);
-    var userNames = sysUtils.getSKClient(rUser).getUsersWithPermission(tenant, permSpec);
+    var userNames = timeRemoteCall(TARGET_SK, "getUsersWithPermission", sysUtils.getSKClient(rUser),
+                                   c -> c.getUsersWithPermission(tenant, permSpec));
     // Revoke all perms for all users
     for (String userName : userNames)
     {
       revokeSKPermissions(rUser, tenant, sysId, userName, ALL_PERMS);
       // Remove wildcard perm
-      sysUtils.getSKClient(rUser).revokeUserPermission(tenant, userName, AuthUtils.getPermSpecAllStr(tenant, sysId));
+      timeRemoteRun(TARGET_SK, "revokeUserPermission", sysUtils.getSKClient(rUser),
+                    c -> c.revokeUserPermission(tenant, userName, AuthUtils.getPermSpecAllStr(tenant, sysId)));
     }
+    // Remove any local ACL entries
+    if (isAclEnabled()) dao.removeAcl(tenant, sysId);
   }
 
   /**
@@ -419,7 +666,7 @@ public class AuthUtils
 
     // First determine if system is publicly shared. Search for share to grantee ~public
     skParms.setGrantee(SKClient.PUBLIC_GRANTEE);
-    var skShares = sysUtils.getSKClient(rUser).getShares(skParms);
+    var skShares = timeRemoteCall(TARGET_SK, "getShares", sysUtils.getSKClient(rUser), c -> c.getShares(skParms));
     // Set isPublic based on result.
     boolean isPublic = (skShares != null && skShares.getShares() != null && !skShares.getShares().isEmpty());
 
@@ -427,7 +674,7 @@ public class AuthUtils
     var userSet = new HashSet<String>();
     skParms.setGrantee(null);
     skParms.setIncludePublicGrantees(false);
-    skShares = sysUtils.getSKClient(rUser).getShares(skParms);
+    skShares = timeRemoteCall(TARGET_SK, "getShares", sysUtils.getSKClient(rUser), c -> c.getShares(skParms));
     if (skShares != null && skShares.getShares() != null)
     {
       for (SkShare skShare : skShares.getShares())
@@ -443,6 +690,8 @@ public class AuthUtils
    * Common routine to update share/unshare for a list of users.
    * Can be used to mark a system publicly shared with all users in tenant including "~public" in the set of users.
    * Sharing and unsharing always involves privileges READ and EXECUTE.
+   * SK calls for the users are made concurrently. All users are processed even if some fail and
+   * any failures are reported together, one entry per user.
    *
    * @param rUser - Resource request user
    * @param shareOpName - Operation type: share/unshare
@@ -483,75 +732,68 @@ public class AuthUtils
 
     checkAuth(rUser, op, systemId, system.getOwner(), nullTargetUser, nullPermSet, nullImpersonationId, nullSharedAppCtx);
 
-    switch (shareOpName)
+    // SK client is shared by all tasks. Each task handles both privileges for a single user.
+    SKClient skClient = sysUtils.getSKClient(rUser);
+    String tenant = system.getTenant();
+    String grantor = rUser.getOboUserId();
+
+    // One task per user so that SK calls for a large list of users run concurrently.
+    // Parallelism is bounded by the size of the shared executor and by the number of tasks allowed per request.
+    var tasks = new LinkedHashMap<String, Runnable>();
+    for (String userName : userList)
     {
-      case OP_SHARE ->
+      switch (shareOpName)
       {
-        // Create request object needed for SK calls.
-        var reqShareResource = new ReqShareResource();
-        reqShareResource.setResourceType(SYS_SHR_TYPE);
-        reqShareResource.setTenant(system.getTenant());
-        reqShareResource.setResourceId1(systemId);
-        reqShareResource.setGrantor(rUser.getOboUserId());
-
-        for (String userName : userList)
-        {
-          reqShareResource.setGrantee(userName);
-          reqShareResource.setPrivilege(Permission.READ.name());
-          sysUtils.getSKClient(rUser).shareResource(reqShareResource);
-          reqShareResource.setPrivilege(Permission.EXECUTE.name());
-          sysUtils.getSKClient(rUser).shareResource(reqShareResource);
-        }
+        case OP_SHARE -> tasks.put(userName, () -> shareWithUser(skClient, tenant, systemId, grantor, userName));
+        case OP_UNSHARE -> tasks.put(userName, () -> unshareWithUser(skClient, tenant, systemId, grantor, userName));
+        default -> { return; }
       }
-      case OP_UNSHARE ->
+    }
+    Map<String, Future<?>> futures = submitShareTasks(SHARE_EXECUTOR, tasks, SHARE_MAX_TASKS_PER_CALL);
+
+    // Wait for all tasks to finish and collect per-user results.
+    var errList = new ArrayList<String>();
+    var updatedUsers = new HashSet<String>();
+    Exception firstErr = null;
+    for (Map.Entry<String, Future<?>> entry : futures.entrySet())
+    {
+      String userName = entry.getKey();
+      try { entry.getValue().get(); updatedUsers.add(userName); }
+      catch (InterruptedException e)
       {
-        // Create object needed for SK calls.
-        SKShareDeleteShareParms deleteShareParms = new SKShareDeleteShareParms();
-        deleteShareParms.setResourceType(SYS_SHR_TYPE);
-        deleteShareParms.setTenant(system.getTenant());
-        deleteShareParms.setResourceId1(systemId);
-        deleteShareParms.setGrantor(rUser.getOboUserId());
-
-        for (String userName : userList)
-        {
-          deleteShareParms.setGrantee(userName);
-          deleteShareParms.setPrivilege(Permission.READ.name());
-          sysUtils.getSKClient(rUser).deleteShare(deleteShareParms);
-          deleteShareParms.setPrivilege(Permission.EXECUTE.name());
-          sysUtils.getSKClient(rUser).deleteShare(deleteShareParms);
-        }
+        Thread.currentThread().interrupt();
+        errList.add(LibUtils.getMsg("SYSLIB_SHR_USER_ERR", userName, e.toString()));
+        if (firstErr == null) firstErr = e;
+      }
+      catch (ExecutionException e)
+      {
+        Throwable cause = (e.getCause() instanceof ShareTaskException) ? e.getCause().getCause() : e.getCause();
+        errList.add(LibUtils.getMsg("SYSLIB_SHR_USER_ERR", userName, cause.getMessage()));
+        if (firstErr == null) firstErr = (cause instanceof Exception) ? (Exception) cause : e;
       }
     }
-  }
 
-  /**
-   * Remove SK artifacts associated with a System: user credentials, user permissions
-   * No checks are done for incoming arguments and the system must exist
-   */
-  void revokeAllSKPermissions(ResourceRequestUser rUser, TSystem system, String resolvedEffectiveUserId)
-          throws TapisException, TapisClientException
-  {
-    String systemId = system.getId();
-    String oboTenant = system.getTenant();
-    String effectiveUserId = system.getEffectiveUserId();
+    // Keep the local ACL entries in step with SK for all users that were updated
+    if (OP_SHARE.equals(shareOpName))
+      updateAcl(rUser, tenant, systemId, updatedUsers, () -> dao.addAclShares(tenant, systemId, updatedUsers));
+    else
+      updateAcl(rUser, tenant, systemId, updatedUsers, () -> dao.removeAclShares(tenant, systemId, updatedUsers));
 
-    // Use Security Kernel client to find all users with perms associated with the system.
-    String permSpec = String.format(PERM_SPEC_TEMPLATE, oboTenant, "%", systemId);
-    var userNames = sysUtils.getSKClient(rUser).getUsersWithPermission(oboTenant, permSpec);
-    // Revoke all perms for all users
-    for (String userName : userNames)
+    if (errList.isEmpty()) return;
+
+    // For a single user pass through the original exception so callers see the same error as before.
+    if (futures.size() == 1)
     {
-      revokeSKPermissions(rUser, oboTenant, systemId, userName, ALL_PERMS);
-      // Remove wildcard perm
-      sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, userName, getPermSpecAllStr(oboTenant, systemId));
+      if (firstErr instanceof TapisClientException) throw (TapisClientException) firstErr;
+      if (firstErr instanceof TapisException) throw (TapisException) firstErr;
     }
-
-    // NOTE: Consider using a notification instead(jira cic-3071)
-    // Remove files perm for owner and possibly effectiveUser
-    String filesPermSpec = "files:" + oboTenant + ":*:" + systemId;
-    sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, system.getOwner(), filesPermSpec);
-    if (!effectiveUserId.equals(APIUSERID_VAR))
-      sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, resolvedEffectiveUserId, filesPermSpec);;
+    var sb = new StringBuilder(LibUtils.getMsgAuth("SYSLIB_SHR_ERRORLIST", rUser, systemId, shareOpName,
+                                                   futures.size(), errList.size()));
+    sb.append(System.lineSeparator());
+    for (String msg : errList) { sb.append("  ").append(msg).append(System.lineSeparator()); }
+    String msg = sb.toString();
+    log.warn(msg);
+    throw new TapisException(msg, firstErr);
   }
 
   /**
@@ -576,7 +818,8 @@ public class AuthUtils
     try {
       // Assign perms to user. SK creates a default role for the user
       for (String permSpec : permSpecSet) {
-        sysUtils.getSKClient(rUser).grantUserPermission(oboTenant, targetUser, permSpec);
+        timeRemoteRun(TARGET_SK, "grantUserPermission", sysUtils.getSKClient(rUser),
+                      c -> c.grantUserPermission(oboTenant, targetUser, permSpec));
       }
     } catch (TapisClientException tce) {
       // Rollback
@@ -586,7 +829,8 @@ public class AuthUtils
       // Revoke permissions that may have been granted.
       for (String permSpec : permSpecSet) {
         try {
-          sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, targetUser, permSpec);
+          timeRemoteRun(TARGET_SK, "revokeUserPermission", sysUtils.getSKClient(rUser),
+                        c -> c.revokeUserPermission(oboTenant, targetUser, permSpec));
         } catch (Exception e) {
           log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePerm", e.getMessage()));
         }
@@ -594,6 +838,9 @@ public class AuthUtils
       // Convert to TapisException and re-throw
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_PERM_SK_ERROR", rUser, systemId, op.name()), tce);
     }
+    // Keep the local ACL entries in step with SK
+    updateAcl(rUser, oboTenant, systemId, Set.of(targetUser),
+              () -> dao.addAclPerms(oboTenant, systemId, targetUser, getPermNames(permissions)));
     // Get a complete and succinct description of the update.
     String changeDescription = LibUtils.getChangeDescriptionPermsUpdate(systemId, targetUser, permissions);
     // Create a record of the update
@@ -638,7 +885,8 @@ public class AuthUtils
         if (userPermSet.contains(perm))
         {
           String permSpec = AuthUtils.getPermSpecStr(oboTenant, systemId, perm);
-          try { sysUtils.getSKClient(rUser).grantUserPermission(oboTenant, targetUser, permSpec); }
+          try { timeRemoteRun(TARGET_SK, "grantUserPermission", sysUtils.getSKClient(rUser),
+                              c -> c.grantUserPermission(oboTenant, targetUser, permSpec)); }
           catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "grantPerm", e.getMessage()));}
         }
       }
@@ -647,6 +895,10 @@ public class AuthUtils
       throw new TapisException(LibUtils.getMsgAuth("SYSLIB_PERM_SK_ERROR", rUser, systemId, op.name()), tce);
     }
 
+    // Keep the local ACL entries in step with SK
+    updateAcl(rUser, oboTenant, systemId, Set.of(targetUser),
+              () -> dao.removeAclPerms(oboTenant, systemId, targetUser, getPermNames(permissions)));
+
     // Get a complete and succinct description of the update.
     String changeDescription = LibUtils.getChangeDescriptionPermsUpdate(systemId, targetUser, permissions);
     // Create a record of the update
@@ -874,7 +1126,7 @@ public class AuthUtils
     skParms.setResourceId1(systemId);
     skParms.setGrantee(targetUser);
     skParms.setPrivilege(privilege.name());
-    return sysUtils.getSKClient(rUser).hasPrivilege(skParms);
+    return timeRemoteCall(TARGET_SK, "hasPrivilege", sysUtils.getSKClient(rUser), c -> c.hasPrivilege(skParms));
   }
 
   /**
@@ -905,7 +1157,8 @@ public class AuthUtils
     String tenantName = (StringUtils.isBlank(tenantToCheck) ? rUser.getJwtTenantId() : tenantToCheck);
     String userName = (StringUtils.isBlank(userToCheck) ? rUser.getJwtUserId() : userToCheck);
     String permSpecStr = getPermSpecStr(tenantName, systemId, perm);
-    return sysUtils.getSKClient(rUser).isPermitted(tenantName, userName, permSpecStr);
+    return timeRemoteCall(TARGET_SK, "isPermitted", sysUtils.getSKClient(rUser),
+                          c -> c.isPermitted(tenantName, userName, permSpecStr));
   }
 
   /**
@@ -923,7 +1176,8 @@ public class AuthUtils
     for (Permission perm : perms) {
       permSpecs.add(getPermSpecStr(tenantName, systemId, perm));
     }
-    return sysUtils.getSKClient(rUser).isPermittedAny(tenantName, userName, permSpecs.toArray(TSystem.EMPTY_STR_ARRAY));
+    return timeRemoteCall(TARGET_SK, "isPermittedAny", sysUtils.getSKClient(rUser),
+                          c -> c.isPermittedAny(tenantName, userName, permSpecs.toArray(TSystem.EMPTY_STR_ARRAY)));
   }
   /*
    * Determine if a system is shared publicly
@@ -937,10 +1191,155 @@ public class AuthUtils
     skParms.setTenant(tenant);
     skParms.setResourceId1(sysId);
     skParms.setGrantee(SKClient.PUBLIC_GRANTEE);
-    var skShares = sysUtils.getSKClient(rUser).getShares(skParms);
+    var skShares = timeRemoteCall(TARGET_SK, "getShares", sysUtils.getSKClient(rUser), c -> c.getShares(skParms));
     return (skShares != null && skShares.getShares() != null && !skShares.getShares().isEmpty());
   }
 
+  /*
+   * Share READ and EXECUTE privileges for a system with a single user.
+   * Run on a thread from SHARE_EXECUTOR, so checked exceptions are wrapped.
+   */
+  private static void shareWithUser(SKClient skClient, String tenant, String systemId, String grantor, String userName)
+  {
+    // Request object is not thread safe so each task creates its own
+    var reqShareResource = new ReqShareResource();
+    reqShareResource.setResourceType(SYS_SHR_TYPE);
+    reqShareResource.setTenant(tenant);
+    reqShareResource.setResourceId1(systemId);
+    reqShareResource.setGrantor(grantor);
+    reqShareResource.setGrantee(userName);
+    try
+    {
+      reqShareResource.setPrivilege(Permission.READ.name());
+      timeRemoteRun(TARGET_SK, "shareResource", skClient, c -> c.shareResource(reqShareResource));
+      reqShareResource.setPrivilege(Permission.EXECUTE.name());
+      timeRemoteRun(TARGET_SK, "shareResource", skClient, c -> c.shareResource(reqShareResource));
+    }
+    catch (TapisClientException e) { throw new ShareTaskException(e); }
+  }
+
+  /*
+   * Remove READ and EXECUTE shares for a system for a single user.
+   * Run on a thread from SHARE_EXECUTOR, so checked exceptions are wrapped.
+   */
+  private static void unshareWithUser(SKClient skClient, String tenant, String systemId, String grantor, String userName)
+  {
+    // Parms object is not thread safe so each task creates its own
+    var deleteShareParms = new SKShareDeleteShareParms();
+    deleteShareParms.setResourceType(SYS_SHR_TYPE);
+    deleteShareParms.setTenant(tenant);
+    deleteShareParms.setResourceId1(systemId);
+    deleteShareParms.setGrantor(grantor);
+    deleteShareParms.setGrantee(userName);
+    try
+    {
+      deleteShareParms.setPrivilege(Permission.READ.name());
+      timeRemoteRun(TARGET_SK, "deleteShare", skClient, c -> c.deleteShare(deleteShareParms));
+      deleteShareParms.setPrivilege(Permission.EXECUTE.name());
+      timeRemoteRun(TARGET_SK, "deleteShare", skClient, c -> c.deleteShare(deleteShareParms));
+    }
+    catch (TapisClientException e) { throw new ShareTaskException(e); }
+  }
+
+  /*
+   * Create the executor used for concurrent share/unshare calls to SK.
+   * Daemon threads so the executor never blocks JVM shutdown.
+   */
+  /*
+   * Create the executor for share tasks. The queue is bounded and when it is full a task runs on the thread that
+   *   submitted it, which slows down the submitting request rather than queuing without limit.
+   */
+  static ExecutorService createShareExecutor(int numThreads, int queueSize)
+  {
+    var threadCount = new AtomicInteger();
+    return new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+                                  new ArrayBlockingQueue<>(queueSize),
+                                  r -> {
+                                    Thread t = new Thread(r, "SystemsShare-" + threadCount.incrementAndGet());
+                                    t.setDaemon(true);
+                                    return t;
+                                  },
+                                  new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /*
+   * Submit share tasks for a single request, keyed by user, with at most maxInFlight queued or running at a time.
+   * The caller waits for one of its tasks to finish before submitting another. If the caller is interrupted,
+   *   tasks not yet submitted are not run and their futures fail with the InterruptedException.
+   */
+  static <K> Map<K, Future<?>> submitShareTasks(ExecutorService executor, Map<K, Runnable> tasks, int maxInFlight)
+  {
+    var permits = new Semaphore(maxInFlight);
+    var futures = new LinkedHashMap<K, Future<?>>();
+    for (Map.Entry<K, Runnable> entry : tasks.entrySet())
+    {
+      try { permits.acquire(); }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        futures.put(entry.getKey(), CompletableFuture.failedFuture(e));
+        continue;
+      }
+      Runnable task = entry.getValue();
+      futures.put(entry.getKey(), executor.submit(() -> {
+        try { task.run(); }
+        finally { permits.release(); }
+      }));
+    }
+    return futures;
+  }
+
+  /*
+   * Unchecked wrapper used to carry a TapisClientException out of a share task
+   */
+  private static final class ShareTaskException extends RuntimeException
+  {
+    ShareTaskException(TapisClientException e) { super(e); }
+  }
+
+  /*
+   * Apply a change to the local ACL entries after SK has been updated.
+   * SK is the source of truth, so a failure here must not fail the request. Instead the entries for the
+   *   grantees are marked as stale so that they are reloaded from SK on next use.
+   */
+  private void updateAcl(ResourceRequestUser rUser, String tenant, String systemId, Set<String> grantees,
+                         AclUpdate update)
+  {
+    if (!isAclEnabled() || grantees.isEmpty()) return;
+    try
+    {
+      update.apply();
+    }
+    catch (TapisException e)
+    {
+      log.warn(LibUtils.getMsgAuth("SYSLIB_ACL_UPDATE_ERR", rUser, systemId, grantees, e.getMessage()));
+      for (String grantee : grantees)
+      {
+        try { dao.invalidateAclSync(tenant, grantee); }
+        catch (TapisException e2) { log.warn(LibUtils.getMsgAuth("SYSLIB_ACL_UPDATE_ERR", rUser, systemId, grantee, e2.getMessage())); }
+      }
+    }
+  }
+
+  /*
+   * Change to the local ACL entries, see updateAcl()
+   */
+  @FunctionalInterface
+  private interface AclUpdate
+  {
+    void apply() throws TapisException;
+  }
+
+  /*
+   * Names of a set of permissions as stored in the local ACL entries
+   */
+  private static Set<String> getPermNames(Set<Permission> permissions)
+  {
+    var permNames = new HashSet<String>();
+    for (Permission perm : permissions) { permNames.add(perm.name()); }
+    return permNames;
+  }
+
   /**
    * Revoke permissions
    * No checks are done for incoming arguments and the system must exist
@@ -954,7 +1353,8 @@ public class AuthUtils
     // Remove perms from default user role
     for (String permSpec : permSpecSet)
     {
-      sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, userName, permSpec);
+      timeRemoteRun(TARGET_SK, "revokeUserPermission", sysUtils.getSKClient(rUser),
+                    c -> c.revokeUserPermission(oboTenant, userName, permSpec));
     }
     return permSpecSet.size();
   }
@@ -17,6 +17,7 @@ import edu.utexas.tacc.tapis.systems.model.Credential;
 import edu.utexas.tacc.tapis.systems.model.SystemShare;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import io.opentelemetry.api.trace.SpanKind;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -35,6 +36,7 @@ import java.util.*;
 import static edu.utexas.tacc.tapis.systems.model.Credential.*;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.*;
 import static edu.utexas.tacc.tapis.systems.service.SystemsServiceImpl.*;
+import static edu.utexas.tacc.tapis.systems.service.SystemsMetrics.*;
 
 /*
    Utility class containing Tapis credential related methods needed by the
@@ -394,7 +396,19 @@ public class CredUtils
               cred.getPublicKey(), cred.getAccessKey(), cred.getAccessSecret(),
               cred.getAccessToken(), cred.getRefreshToken(), cred.getCertificate(), Boolean.FALSE, msg);
     }
-    return verifyConnection(rUser, op, tSystem1, authnMethod, cred, effectiveUser);
+    var event = new SystemsEvents.CredentialAccess();
+    event.begin();
+    Credential verifiedCred = null;
+    try
+    {
+      verifiedCred = verifyConnection(rUser, op, tSystem1, authnMethod, cred, effectiveUser);
+      return verifiedCred;
+    }
+    finally
+    {
+      event.finish(SystemsEvents.CredentialAccess.VERIFY, tSystem1.getTenant(), systemId, effectiveUser, authnMethod,
+                   verifiedCred != null && Boolean.TRUE.equals(verifiedCred.getValidationResult()));
+    }
   }
 
   /*
@@ -455,7 +469,8 @@ public class CredUtils
       sParms.setData(dataMap);
       // First 2 parameters correspond to tenant and user from request payload
       // Tenant is used in constructing full path for secret, user is not used.
-      sysUtils.getSKClient(rUser).writeSecret(oboTenant, oboUser, sParms);
+      timeRemoteRun(TARGET_SK, "writeSecret", sysUtils.getSKClient(rUser),
+                    c -> c.writeSecret(oboTenant, oboUser, sParms));
     }
     // Store PKI keys if both present
     if (!StringUtils.isBlank(credential.getPublicKey()) && !StringUtils.isBlank(credential.getPublicKey()))
@@ -465,7 +480,8 @@ public class CredUtils
       dataMap.put(SK_KEY_PUBLIC_KEY, credential.getPublicKey());
       dataMap.put(SK_KEY_PRIVATE_KEY, credential.getPrivateKey());
       sParms.setData(dataMap);
-      sysUtils.getSKClient(rUser).writeSecret(oboTenant, oboUser, sParms);
+      timeRemoteRun(TARGET_SK, "writeSecret", sysUtils.getSKClient(rUser),
+                    c -> c.writeSecret(oboTenant, oboUser, sParms));
     }
     // Store Access key and secret if both present
     if (!StringUtils.isBlank(credential.getAccessKey()) && !StringUtils.isBlank(credential.getAccessSecret()))
@@ -475,7 +491,8 @@ public class CredUtils
       dataMap.put(SK_KEY_ACCESS_KEY, credential.getAccessKey());
       dataMap.put(SK_KEY_ACCESS_SECRET, credential.getAccessSecret());
       sParms.setData(dataMap);
-      sysUtils.getSKClient(rUser).writeSecret(oboTenant, oboUser, sParms);
+      timeRemoteRun(TARGET_SK, "writeSecret", sysUtils.getSKClient(rUser),
+                    c -> c.writeSecret(oboTenant, oboUser, sParms));
     }
     // Store Access token and Refresh token if both present
     if (!StringUtils.isBlank(credential.getAccessToken()) && !StringUtils.isBlank(credential.getRefreshToken()))
@@ -485,7 +502,8 @@ public class CredUtils
       dataMap.put(SK_KEY_ACCESS_TOKEN, credential.getAccessToken());
       dataMap.put(SK_KEY_REFRESH_TOKEN, credential.getRefreshToken());
       sParms.setData(dataMap);
-      sysUtils.getSKClient(rUser).writeSecret(oboTenant, oboUser, sParms);
+      timeRemoteRun(TARGET_SK, "writeSecret", sysUtils.getSKClient(rUser),
+                    c -> c.writeSecret(oboTenant, oboUser, sParms));
     }
     // NOTE if necessary handle ssh certificate when supported
   }
@@ -512,32 +530,40 @@ public class CredUtils
     //       By default keyType is sshkey which may not exist
     boolean secretNotFound = true;
     sMetaParms.setKeyType(KeyType.password);
-    try { sysUtils.getSKClient(rUser).readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { timeRemoteRun(TARGET_SK, "readSecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.sshkey);
-    try { sysUtils.getSKClient(rUser).readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { timeRemoteRun(TARGET_SK, "readSecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.accesskey);
-    try { sysUtils.getSKClient(rUser).readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { timeRemoteRun(TARGET_SK, "readSecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.token);
-    try { sysUtils.getSKClient(rUser).readSecretMeta(sMetaParms); secretNotFound = false; }
+    try { timeRemoteRun(TARGET_SK, "readSecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.readSecretMeta(sMetaParms)); secretNotFound = false; }
     catch (Exception e) { log.trace(e.getMessage()); }
     if (secretNotFound) return 0;
 
     // Construct basic SK secret parameters and attempt to destroy each type of secret.
     // If destroy attempt throws an exception then log a message and continue.
     sMetaParms.setKeyType(KeyType.password);
-    try { sysUtils.getSKClient(rUser).destroySecretMeta(sMetaParms); }
+    try { timeRemoteRun(TARGET_SK, "destroySecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.sshkey);
-    try { sysUtils.getSKClient(rUser).destroySecretMeta(sMetaParms); }
+    try { timeRemoteRun(TARGET_SK, "destroySecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.accesskey);
-    try { sysUtils.getSKClient(rUser).destroySecretMeta(sMetaParms); }
+    try { timeRemoteRun(TARGET_SK, "destroySecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { log.trace(e.getMessage()); }
     sMetaParms.setKeyType(KeyType.token);
-    try { sysUtils.getSKClient(rUser).destroySecretMeta(sMetaParms); }
+    try { timeRemoteRun(TARGET_SK, "destroySecretMeta", sysUtils.getSKClient(rUser),
+                        c -> c.destroySecretMeta(sMetaParms)); }
     catch (Exception e) { log.trace(e.getMessage()); }
     return 1;
   }
@@ -550,6 +576,30 @@ public class CredUtils
   Credential getCredential(ResourceRequestUser rUser, TSystem system, String targetUser,
                            AuthnMethod authnMethod, boolean isStaticEffectiveUser, String resourceTenant)
           throws TapisException
+  {
+    var event = new SystemsEvents.CredentialAccess();
+    event.begin();
+    Credential cred = null;
+    try
+    {
+      cred = SystemsTracing.inSpan("CredUtils.getCredential", SpanKind.INTERNAL,
+                                   () -> readCredential(rUser, system, targetUser, authnMethod, isStaticEffectiveUser,
+                                                        resourceTenant));
+      return cred;
+    }
+    finally
+    {
+      String tenant = StringUtils.isBlank(resourceTenant) ? rUser.getOboTenantId() : resourceTenant;
+      event.finish(SystemsEvents.CredentialAccess.FETCH, tenant, system.getId(), targetUser, authnMethod, cred != null);
+    }
+  }
+
+  /*
+   * Read a credential from SK. See getCredential()
+   */
+  private Credential readCredential(ResourceRequestUser rUser, TSystem system, String targetUser,
+                                    AuthnMethod authnMethod, boolean isStaticEffectiveUser, String resourceTenant)
+          throws TapisException
   {
     String oboTenant = StringUtils.isBlank(resourceTenant) ? rUser.getOboTenantId() : resourceTenant;
     String oboUser = rUser.getOboUserId();
@@ -605,7 +655,8 @@ public class CredUtils
       else if (authnMethod.equals(AuthnMethod.CERT))sParms.setKeyType(KeyType.cert);
 
       // Retrieve the secrets
-      SkSecret skSecret = sysUtils.getSKClient(rUser).readSecret(sParms);
+      SkSecret skSecret = timeRemoteCall(TARGET_SK, "readSecret", sysUtils.getSKClient(rUser),
+                                         c -> c.readSecret(sParms));
       if (skSecret == null) return null;
       var dataMap = skSecret.getSecretMap();
       if (dataMap == null) return null;
@@ -727,17 +778,24 @@ public class CredUtils
       switch(authnMethod)
       {
         case PASSWORD:
-          try (SSHConnection c = new SSHConnection(host, port, effectiveUser, cred.getPassword())) { te = null; }
+          try (SSHConnection c = timeRemoteCall(TARGET_SSH, "connect",
+                                                () -> new SSHConnection(host, port, effectiveUser, cred.getPassword())))
+          { te = null; }
           catch (TapisException e) { te = e; }
           catch (Exception e) { te = new TapisException(e.getMessage(), e); }
           break;
         case PKI_KEYS:
-          try (SSHConnection c = new SSHConnection(host, port, effectiveUser, cred.getPublicKey(), cred.getPrivateKey())) { te = null; }
+          try (SSHConnection c = timeRemoteCall(TARGET_SSH, "connect",
+                                                () -> new SSHConnection(host, port, effectiveUser, cred.getPublicKey(),
+                                                                        cred.getPrivateKey())))
+          { te = null; }
           catch (TapisException e) { te = e; }
           catch (Exception e) { te = new TapisException(e.getMessage(), e); }
           break;
         case ACCESS_KEY:
-          try (S3Connection c = new S3Connection(host, port, bucket, effectiveUser, cred.getAccessKey(), cred.getAccessSecret()))
+          try (S3Connection c = timeRemoteCall(TARGET_S3, "connect",
+                                               () -> new S3Connection(host, port, bucket, effectiveUser,
+                                                                      cred.getAccessKey(), cred.getAccessSecret())))
           {
             // For S3 we need to actually try to use the connection to know that the credentials are valid.
             String testKey = PathUtils.getAbsoluteKey(tSystem1.getRootDir(), "thisKeyIsUnlikelyToExistButIfItDoesThatIsOkay");
@@ -745,7 +803,7 @@ public class CredUtils
             try
             {
               HeadObjectRequest req = HeadObjectRequest.builder().bucket(bucket).key(testKey).build();
-              client.headObject(req);
+              timeRemoteCall(TARGET_S3, "headObject", client, cl -> cl.headObject(req));
             }
             catch (NoSuchKeyException ex) { /* This indicates credentials are valid */ }
             // An S3 exception containing a status of 403 indicates invalid credentials?
@@ -21,6 +21,7 @@ import javax.ws.rs.NotFoundException;
 import java.util.Set;
 
 import static edu.utexas.tacc.tapis.systems.model.TSystem.APIUSERID_VAR;
+import static edu.utexas.tacc.tapis.systems.service.SystemsMetrics.*;
 
 /*
  * Service level methods for System credentials.
@@ -277,7 +278,8 @@ public class CredentialsServiceImpl
     }
 
     // Call Tapis GlobusProxy service and create a GlobusAuthInfo from the client response;
-    ResultGlobusAuthInfo r = sysUtils.getGlobusProxyClient(rUser).getAuthInfo(clientId, system.getHost());
+    ResultGlobusAuthInfo r = timeRemoteCall(TARGET_GLOBUS_PROXY, "getAuthInfo", sysUtils.getGlobusProxyClient(rUser),
+                                            c -> c.getAuthInfo(clientId, system.getHost()));
 
     // Check that we got something reasonable.
     if (r == null) throw new TapisException(LibUtils.getMsgAuth("SYSLIB_GLOBUS_NULL", rUser, op.name()));
@@ -334,7 +336,8 @@ public class CredentialsServiceImpl
 
     // Call Tapis GlobuxProxy service to get tokens
     GlobusProxyClient globusClient = sysUtils.getGlobusProxyClient(rUser);
-    AuthTokens authTokens = globusClient.getTokens(clientId, sessionId, authCode);
+    AuthTokens authTokens = timeRemoteCall(TARGET_GLOBUS_PROXY, "getTokens", globusClient,
+                                           c -> c.getTokens(clientId, sessionId, authCode));
     // Check that we got something reasonable.
     if (authTokens == null) throw new TapisException(LibUtils.getMsgAuth("SYSLIB_GLOBUS_NULL", rUser, op.name()));
     String accessToken = authTokens.getAccessToken();
@@ -0,0 +1,34 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.Set;
+
+import org.glassfish.hk2.api.Factory;
+
+import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.dao.SystemsDaoImpl;
+
+/**
+ * HK2 Factory class providing a SystemsDao for which every call is timed and traced,
+ *   see SystemsMetrics and SystemsTracing.
+ * Calls made using the DAO passed to a unit of work are timed and traced in the same way. The unit of work itself
+ *   is traced but not timed, since it also covers the caller's own work, such as calls to SK.
+ * Binding happens in SystemsApplication.java
+ */
+public class InstrumentedSystemsDaoFactory implements Factory<SystemsDao>
+{
+  private static final Set<String> UNTIMED_METHODS = Set.of("inTransaction");
+
+  @Override
+  public SystemsDao provide()
+  {
+    return instrument(new SystemsDaoImpl(InstrumentedSystemsDaoFactory::instrument));
+  }
+  @Override
+  public void dispose(SystemsDao d) {}
+
+  private static SystemsDao instrument(SystemsDao dao)
+  {
+    return SystemsMetrics.instrument(SystemsDao.class, SystemsTracing.trace(SystemsDao.class, dao),
+                                     SystemsMetrics.LAYER_DAO, UNTIMED_METHODS);
+  }
+}
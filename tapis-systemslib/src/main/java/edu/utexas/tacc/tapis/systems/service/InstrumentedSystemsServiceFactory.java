@@ -0,0 +1,25 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+/**
+ * HK2 Factory class providing a SystemsService for which every call is timed and traced,
+ *   see SystemsMetrics and SystemsTracing.
+ * Binding happens in SystemsApplication.java
+ */
+public class InstrumentedSystemsServiceFactory implements Factory<SystemsService>
+{
+  @Inject
+  private SystemsServiceImpl svcImpl;
+
+  @Override
+  public SystemsService provide()
+  {
+    return SystemsMetrics.instrument(SystemsService.class, SystemsTracing.trace(SystemsService.class, svcImpl),
+                                     SystemsMetrics.LAYER_SERVICE);
+  }
+  @Override
+  public void dispose(SystemsService s) {}
+}
@@ -66,9 +66,21 @@ public class SysUtils
   String resolveEffectiveUserId(TSystem system, String tapisUser)
           throws TapisException
   {
-    String systemId = system.getId();
-    String tenant = system.getTenant();
-    String effUser = system.getEffectiveUserId();
+    return resolveEffectiveUserId(system.getTenant(), system.getId(), system.getEffectiveUserId(), tapisUser);
+  }
+
+  /**
+   * Determine the user to be used to access the system given the effectiveUserId defined for the system.
+   * See resolveEffectiveUserId(TSystem, String)
+   * @param tenant - tenant containing the system
+   * @param systemId - the system in question
+   * @param effUser - effectiveUserId as defined for the system
+   * @param tapisUser - tapis user associated with login, this is the oboUser or impersonationId
+   * @return Resolved value for effective user.
+   */
+  String resolveEffectiveUserId(String tenant, String systemId, String effUser, String tapisUser)
+          throws TapisException
+  {
     // Incoming effectiveUserId should never be blank but for robustness handle that case.
     if (StringUtils.isBlank(effUser)) return effUser;
 
@@ -121,6 +133,9 @@ public class SysUtils
       String msg = LibUtils.getMsgAuth("SYSLIB_SVC_CLIENT_NULL", rUser, TapisConstants.SERVICE_NAME_GLOBUSPROXY, tenantName, userName);
       throw new TapisException(msg);
     }
+    // Propagate trace context on calls to the Globus proxy service
+    var apiClient = globusProxyClient.getApiClient();
+    apiClient.setHttpClient(SystemsTracing.withTracing(apiClient.getHttpClient()));
     return globusProxyClient;
   }
 
@@ -129,6 +144,7 @@ public class SysUtils
    * I.e. this is a client where the service calls SK as itself.
    * Note: Systems service always calls SK as itself.
    * Note: The ServiceClients class does caching
+   * Note: Clients are shared by requests, so trace context is added by an interceptor as each call is made
    * @return SK client
    * @throws TapisException - for Tapis related exceptions
    */
@@ -150,6 +166,9 @@ public class SysUtils
     }
     skClient.setReadTimeout(SK_READ_TIMEOUT_MS);
     skClient.setConnectTimeout(SK_CONN_TIMEOUT_MS);
+    // Propagate trace context on calls to SK
+    var apiClient = skClient.getApiClient();
+    apiClient.setHttpClient(SystemsTracing.withTracing(apiClient.getHttpClient()));
     return skClient;
   }
 
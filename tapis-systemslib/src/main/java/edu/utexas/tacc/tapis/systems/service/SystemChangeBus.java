@@ -0,0 +1,183 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
+import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+
+/*
+ * In-process bus used to push system changes to watchers.
+ *
+ * The DAO publishes an event for each record written to the system_updates table once the transaction
+ *   containing the change has been committed. Each subscriber has a bounded buffer. Publishing never blocks,
+ *   if a buffer is full the subscriber is evicted and is expected to reconnect and resume from the last
+ *   change it processed.
+ * Only changes made by this service instance are published. Changes made by other instances are picked up
+ *   by resuming from the system_updates table.
+ */
+public final class SystemChangeBus
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger log = LoggerFactory.getLogger(SystemChangeBus.class);
+
+  // Default number of events buffered for a subscriber before it is evicted
+  public static final int DEFAULT_BUFFER_SIZE = 500;
+
+  private static final SystemChangeBus instance = new SystemChangeBus();
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final AtomicLong nextSubscriptionId = new AtomicLong(1);
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemChangeBus() { }
+
+  public static SystemChangeBus getInstance() { return instance; }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Register a subscriber for changes to systems in a tenant.
+   * @param tenant - tenant to watch
+   * @param systemIds - only changes to these systems, null or empty for all systems
+   * @param tags - only changes to systems having at least one of these tags, null or empty for all systems
+   * @param bufferSize - maximum number of undelivered events before the subscriber is evicted
+   * @return the subscription
+   */
+  public Subscription subscribe(String tenant, Set<String> systemIds, Set<String> tags, int bufferSize)
+  {
+    if (bufferSize <= 0) bufferSize = DEFAULT_BUFFER_SIZE;
+    var sub = new Subscription(nextSubscriptionId.getAndIncrement(), tenant, systemIds, tags, bufferSize);
+    subscriptions.add(sub);
+    return sub;
+  }
+
+  /**
+   * Remove a subscriber. Safe to call more than once.
+   */
+  public void unsubscribe(Subscription sub)
+  {
+    if (sub != null) subscriptions.remove(sub);
+  }
+
+  /**
+   * Deliver an event to all matching subscribers. Never blocks and never throws.
+   * Must only be called after the change has been committed.
+   */
+  public void publish(SystemChangeEvent event)
+  {
+    if (event == null || subscriptions.isEmpty()) return;
+    try
+    {
+      for (Subscription sub : subscriptions)
+      {
+        if (!sub.matches(event)) continue;
+        if (!sub.queue.offer(event))
+        {
+          // Consumer is not keeping up. Drop it rather than hold up the writer or grow without bound.
+          sub.evicted = true;
+          subscriptions.remove(sub);
+          log.warn(LibUtils.getMsg("SYSLIB_WATCH_EVICTED", sub.tenant, sub.id, sub.bufferSize));
+        }
+      }
+    }
+    catch (Exception e)
+    {
+      // A failure to notify watchers must never fail the update that triggered it.
+      log.error(LibUtils.getMsg("SYSLIB_WATCH_PUBLISH_ERROR", event.getTenant(), event.getSeqId(), e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Deliver a list of events in order
+   */
+  public void publish(Collection<SystemChangeEvent> events)
+  {
+    if (events == null) return;
+    for (SystemChangeEvent event : events) publish(event);
+  }
+
+  public int getSubscriberCount() { return subscriptions.size(); }
+
+  // ************************************************************************
+  // *********************** Subscription ***********************************
+  // ************************************************************************
+
+  /*
+   * A single subscriber. Events are buffered until taken by the consumer.
+   */
+  public static final class Subscription
+  {
+    private final long id;
+    private final String tenant;
+    private final Set<String> systemIds;
+    private final Set<String> tags;
+    private final int bufferSize;
+    private final BlockingQueue<SystemChangeEvent> queue;
+    private volatile boolean evicted = false;
+
+    private Subscription(long id1, String tenant1, Set<String> systemIds1, Set<String> tags1, int bufferSize1)
+    {
+      id = id1;
+      tenant = tenant1;
+      systemIds = (systemIds1 == null) ? Collections.emptySet() : new HashSet<>(systemIds1);
+      tags = (tags1 == null) ? Collections.emptySet() : new HashSet<>(tags1);
+      bufferSize = bufferSize1;
+      queue = new ArrayBlockingQueue<>(bufferSize1);
+    }
+
+    /**
+     * Check if event passes the tenant, system and tag filters for this subscription.
+     */
+    public boolean matches(SystemChangeEvent event)
+    {
+      if (!tenant.equals(event.getTenant())) return false;
+      if (!systemIds.isEmpty() && !systemIds.contains(event.getSystemId())) return false;
+      if (tags.isEmpty()) return true;
+      for (String tag : event.getTags()) { if (tags.contains(tag)) return true; }
+      return false;
+    }
+
+    /**
+     * Wait for the next event.
+     * @return next event or null if none arrived before the timeout
+     */
+    public SystemChangeEvent poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+      return queue.poll(timeout, unit);
+    }
+
+    /**
+     * Subscription has been evicted and will receive no further events. Events already buffered may still
+     *   be taken using poll().
+     */
+    public boolean isEvicted() { return evicted; }
+
+    public long getId() { return id; }
+    public String getTenant() { return tenant; }
+    public int getBufferSize() { return bufferSize; }
+  }
+}
@@ -0,0 +1,221 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+
+/*
+ * JDK Flight Recorder events for the main units of work done by the systems service, so that a recording can
+ *   relate GC, CPU and lock profiles to the API work being done.
+ *
+ * Events are recorded for:
+ *   - getSystem and getSystems in SystemsServiceImpl
+ *   - authorization checks in AuthUtils
+ *   - fetching credentials from SK and verifying credentials in CredUtils
+ *   - each SQL statement run by SystemsDaoImpl, see SlowQueryListener. Only the SQL with ? placeholders is recorded.
+ *   - conversion of the JSONB columns of a systems record to native types in SystemsDaoImpl
+ * Each event has a duration and the tenant and system involved, where there is one.
+ *
+ * Events are enabled by default with no threshold. Settings may be changed in a .jfc file using the event name,
+ *   e.g. edu.utexas.tacc.tapis.systems.DbStatement#threshold=5 ms
+ * Callers call begin() before the work and finish() after. When no recording is running, or the event is disabled or
+ *   below its threshold, finish() returns after the shouldCommit() check and no fields are populated.
+ * Only DB statement events include a stack trace, so they can be attributed to the Dao method.
+ * A recording may be started at startup using -XX:StartFlightRecording or at any time using jcmd JFR.start.
+ */
+public final class SystemsEvents
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  private static final String PREFIX = "edu.utexas.tacc.tapis.systems.";
+  private static final String CATEGORY_TAPIS = "Tapis";
+  private static final String CATEGORY_SYSTEMS = "Systems";
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemsEvents() { throw new AssertionError(); }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  @Name(PREFIX + "GetSystem")
+  @Label("Get System")
+  @Description("Retrieval of a single system, including authorization and any credential fetch")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS})
+  @StackTrace(false)
+  public static final class GetSystem extends Event
+  {
+    @Label("Tenant")
+    String tenant;
+    @Label("User")
+    String user;
+    @Label("System")
+    String systemId;
+    @Label("Credentials Requested")
+    boolean getCreds;
+    @Label("Found")
+    boolean found;
+
+    public void finish(ResourceRequestUser rUser, String systemId1, boolean getCreds1, boolean found1)
+    {
+      if (!shouldCommit()) return;
+      tenant = rUser == null ? null : rUser.getOboTenantId();
+      user = rUser == null ? null : rUser.getOboUserId();
+      systemId = systemId1;
+      getCreds = getCreds1;
+      found = found1;
+      commit();
+    }
+  }
+
+  @Name(PREFIX + "GetSystems")
+  @Label("Get Systems")
+  @Description("Retrieval of a list of systems matching search conditions")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS})
+  @StackTrace(false)
+  public static final class GetSystems extends Event
+  {
+    @Label("Tenant")
+    String tenant;
+    @Label("User")
+    String user;
+    @Label("List Type")
+    String listType;
+    @Label("Search Conditions")
+    int conditionCount;
+    @Label("Limit")
+    int limit;
+    @Label("Result Count")
+    int resultCount;
+
+    public void finish(ResourceRequestUser rUser, String listType1, int conditionCount1, int limit1, int resultCount1)
+    {
+      if (!shouldCommit()) return;
+      tenant = rUser == null ? null : rUser.getOboTenantId();
+      user = rUser == null ? null : rUser.getOboUserId();
+      listType = listType1;
+      conditionCount = conditionCount1;
+      limit = limit1;
+      resultCount = resultCount1;
+      commit();
+    }
+  }
+
+  @Name(PREFIX + "AuthCheck")
+  @Label("Authorization Check")
+  @Description("Check that a user or service is allowed to perform an operation on a system")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS})
+  @StackTrace(false)
+  public static final class AuthCheck extends Event
+  {
+    @Label("Tenant")
+    String tenant;
+    @Label("User")
+    String user;
+    @Label("System")
+    String systemId;
+    @Label("Operation")
+    String operation;
+    @Label("Allowed")
+    boolean allowed;
+
+    public void finish(ResourceRequestUser rUser, String systemId1, String operation1, boolean allowed1)
+    {
+      if (!shouldCommit()) return;
+      tenant = rUser == null ? null : rUser.getOboTenantId();
+      user = rUser == null ? null : rUser.getOboUserId();
+      systemId = systemId1;
+      operation = operation1;
+      allowed = allowed1;
+      commit();
+    }
+  }
+
+  @Name(PREFIX + "CredentialAccess")
+  @Label("Credential Access")
+  @Description("Fetch of a credential from SK or verification of a credential by connecting to a system")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS})
+  @StackTrace(false)
+  public static final class CredentialAccess extends Event
+  {
+    public static final String FETCH = "fetch";
+    public static final String VERIFY = "verify";
+
+    @Label("Action")
+    String action;
+    @Label("Tenant")
+    String tenant;
+    @Label("System")
+    String systemId;
+    @Label("Target User")
+    String targetUser;
+    @Label("Authn Method")
+    String authnMethod;
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public void finish(String action1, String tenant1, String systemId1, String targetUser1, Object authnMethod1,
+                       boolean succeeded1)
+    {
+      if (!shouldCommit()) return;
+      action = action1;
+      tenant = tenant1;
+      systemId = systemId1;
+      targetUser = targetUser1;
+      authnMethod = authnMethod1 == null ? null : authnMethod1.toString();
+      succeeded = succeeded1;
+      commit();
+    }
+  }
+
+  @Name(PREFIX + "DbStatement")
+  @Label("DB Statement")
+  @Description("A single SQL statement run by SystemsDao. Bind values are not recorded")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS, "DB"})
+  public static final class DbStatement extends Event
+  {
+    @Label("SQL")
+    String sql;
+    @Label("Rows")
+    long rows;
+
+    public void finish(String sql1, long rows1)
+    {
+      if (!shouldCommit()) return;
+      sql = sql1;
+      rows = rows1;
+      commit();
+    }
+  }
+
+  @Name(PREFIX + "JsonDecode")
+  @Label("JSONB Decode")
+  @Description("Conversion of the JSONB columns of a systems record to native types")
+  @Category({CATEGORY_TAPIS, CATEGORY_SYSTEMS, "DB"})
+  @StackTrace(false)
+  public static final class JsonDecode extends Event
+  {
+    @Label("Tenant")
+    String tenant;
+    @Label("System")
+    String systemId;
+
+    public void finish(String tenant1, String systemId1)
+    {
+      if (!shouldCommit()) return;
+      tenant = tenant1;
+      systemId = systemId1;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.opentelemetry.api.trace.SpanKind;
+
+import edu.utexas.tacc.tapis.systems.utils.RequestTiming;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
+
+/*
+ * Metrics for the systems service, exposed in the Prometheus text format.
+ *
+ * Timers are recorded for:
+ *   - every call to SystemsService and SystemsDao, using a proxy created by instrument()
+ *   - outbound calls to SK, the Globus proxy service and to systems using SSH or S3, see timeRemoteCall()
+ * Time spent in Dao and outbound calls is also added to the Server-Timing breakdown, see RequestTiming.
+ * Slow outbound calls are reported to SlowCallDetector.
+ * Timers are tagged by operation and outcome only. Tenant, user, system and exception type are never used as tags,
+ *   so that the number of time series stays small. Percentile histograms are published so p99 and similar can
+ *   be computed.
+ */
+public final class SystemsMetrics
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Layers for calls within the service
+  public static final String LAYER_SERVICE = "service";
+  public static final String LAYER_DAO = "dao";
+
+  // Targets for outbound calls
+  public static final String TARGET_SK = "sk";
+  public static final String TARGET_GLOBUS_PROXY = "globus-proxy";
+  public static final String TARGET_SSH = "ssh";
+  public static final String TARGET_S3 = "s3";
+
+  // Content type for the Prometheus text format
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final String CALLS_TIMER = "tapis.systems.calls";
+  private static final String REMOTE_CALLS_TIMER = "tapis.systems.remote.calls";
+  private static final String TAG_LAYER = "layer";
+  private static final String TAG_TARGET = "target";
+  private static final String TAG_OPERATION = "operation";
+  private static final String TAG_OUTCOME = "outcome";
+  private static final String OUTCOME_SUCCESS = "success";
+  private static final String OUTCOME_ERROR = "error";
+
+  private static final PrometheusMeterRegistry registry = createRegistry();
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemsMetrics() { throw new AssertionError(); }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  public static MeterRegistry getRegistry() { return registry; }
+
+  /**
+   * Current values of all metrics in the Prometheus text format
+   */
+  public static String scrape() { return registry.scrape(); }
+
+  /**
+   * Wrap an implementation of an interface so that every call through the interface is timed.
+   * The operation tag is the method name.
+   * @param iface - interface to be implemented by the wrapper
+   * @param target - implementation
+   * @param layer - layer tag, e.g. service or dao
+   * @return wrapped implementation
+   */
+  public static <T> T instrument(Class<T> iface, T target, String layer)
+  {
+    return instrument(iface, target, layer, Set.of());
+  }
+
+  /**
+   * Wrap an implementation of an interface so that every call through the interface, other than those to the
+   *   methods named, is timed.
+   * Used for methods that only run other calls, such as SystemsDao.inTransaction(), so that time spent in the
+   *   caller's own work, e.g. calls to SK, is not counted for the layer.
+   * @param iface - interface to be implemented by the wrapper
+   * @param target - implementation
+   * @param layer - layer tag, e.g. service or dao
+   * @param untimedMethods - names of methods that are passed through and not timed
+   * @return wrapped implementation
+   */
+  public static <T> T instrument(Class<T> iface, T target, String layer, Set<String> untimedMethods)
+  {
+    InvocationHandler handler = new TimingHandler(target, layer, untimedMethods);
+    return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] {iface}, handler));
+  }
+
+  /**
+   * Time an outbound call that returns a result. The call is also made within a client span, see SystemsTracing.
+   * @param target - target tag, e.g. sk or ssh
+   * @param operation - operation tag, e.g. openConnection
+   * @param call - the call
+   * @return result of the call
+   */
+  public static <T, E extends Exception> T timeRemoteCall(String target, String operation, Call<T, E> call) throws E
+  {
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try
+    {
+      return SystemsTracing.inSpan(target + "." + operation, SpanKind.CLIENT, call);
+    }
+    catch (Exception | Error e)
+    {
+      failure = e;
+      throw e;
+    }
+    finally
+    {
+      long duration = System.nanoTime() - start;
+      record(REMOTE_CALLS_TIMER, TAG_TARGET, target, operation, failure, duration);
+      RequestTiming.record(target, duration);
+      SlowCallDetector.check(target, operation, duration, null, -1);
+    }
+  }
+
+  /**
+   * Time an outbound call made using a client that returns a result.
+   * The client is passed in, rather than created within the call, so that only the call itself is timed and
+   *   only exceptions thrown by the call need to be handled by the caller as type E.
+   * @param target - target tag, e.g. sk
+   * @param operation - operation tag, e.g. getShares
+   * @param client - client used to make the call
+   * @param call - the call
+   * @return result of the call
+   */
+  public static <C, T, E extends Exception> T timeRemoteCall(String target, String operation, C client,
+                                                             ClientCall<C, T, E> call) throws E
+  {
+    return timeRemoteCall(target, operation, () -> call.call(client));
+  }
+
+  /**
+   * Time an outbound call made using a client where the result, if any, is not needed
+   * @param target - target tag, e.g. sk
+   * @param operation - operation tag, e.g. revokeUserPermission
+   * @param client - client used to make the call
+   * @param call - the call
+   */
+  public static <C, E extends Exception> void timeRemoteRun(String target, String operation, C client,
+                                                            ClientRun<C, E> call) throws E
+  {
+    timeRemoteCall(target, operation, () -> { call.run(client); return null; });
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  private static PrometheusMeterRegistry createRegistry()
+  {
+    var reg = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    new JvmMemoryMetrics().bindTo(reg);
+    new JvmGcMetrics().bindTo(reg);
+    new JvmThreadMetrics().bindTo(reg);
+    new ProcessorMetrics().bindTo(reg);
+    return reg;
+  }
+
+  private static void record(String timerName, String sourceTag, String source, String operation, Throwable failure,
+                             long durationNanos)
+  {
+    Timer.builder(timerName)
+         .tag(sourceTag, source)
+         .tag(TAG_OPERATION, operation)
+         .tag(TAG_OUTCOME, failure == null ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+         .publishPercentileHistogram()
+         .register(registry)
+         .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Outbound call that returns a result
+   */
+  @FunctionalInterface
+  public interface Call<T, E extends Exception>
+  {
+    T call() throws E;
+  }
+
+  /*
+   * Outbound call made using a client that returns a result
+   */
+  @FunctionalInterface
+  public interface ClientCall<C, T, E extends Exception>
+  {
+    T call(C client) throws E;
+  }
+
+  /*
+   * Outbound call made using a client where the result is not needed
+   */
+  @FunctionalInterface
+  public interface ClientRun<C, E extends Exception>
+  {
+    void run(C client) throws E;
+  }
+
+  /*
+   * Proxy handler timing each call made through an interface. Methods of Object and untimed methods are
+   *   passed through.
+   */
+  private static final class TimingHandler implements InvocationHandler
+  {
+    private final Object target;
+    private final String layer;
+    private final Set<String> untimedMethods;
+
+    private TimingHandler(Object target1, String layer1, Set<String> untimedMethods1)
+    {
+      target = target1;
+      layer = layer1;
+      untimedMethods = untimedMethods1;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+      if (method.getDeclaringClass() == Object.class) return method.invoke(target, args);
+      if (untimedMethods.contains(method.getName()))
+      {
+        try { return method.invoke(target, args); }
+        catch (InvocationTargetException e) { throw e.getCause(); }
+      }
+      long start = System.nanoTime();
+      Throwable failure = null;
+      try
+      {
+        return method.invoke(target, args);
+      }
+      catch (InvocationTargetException e)
+      {
+        failure = e.getCause();
+        throw failure;
+      }
+      finally
+      {
+        long duration = System.nanoTime() - start;
+        record(CALLS_TIMER, TAG_LAYER, layer, method.getName(), failure, duration);
+        if (LAYER_DAO.equals(layer)) RequestTiming.record(RequestTiming.DB, duration);
+      }
+    }
+  }
+}
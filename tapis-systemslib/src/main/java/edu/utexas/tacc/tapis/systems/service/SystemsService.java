@@ -1,5 +1,6 @@
 package edu.utexas.tacc.tapis.systems.service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import org.jvnet.hk2.annotations.Contract;
@@ -9,11 +10,17 @@ import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.model.PatchSystem;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
 import edu.utexas.tacc.tapis.systems.model.SystemHistoryItem;
 import edu.utexas.tacc.tapis.systems.model.SystemShare;
+import edu.utexas.tacc.tapis.systems.model.SystemVersion;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.AuthnMethod;
 import edu.utexas.tacc.tapis.systems.model.TSystem.Permission;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
 
 /*
  * Interface for Systems Service
@@ -34,9 +41,17 @@ public interface SystemsService
   void patchSystem(ResourceRequestUser rUser, String systemId, PatchSystem patchSystem, String rawData)
           throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
 
+  void patchSystem(ResourceRequestUser rUser, String systemId, PatchSystem patchSystem, String rawData,
+                   Integer ifMatchVersion)
+          throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
+
   TSystem putSystem(ResourceRequestUser rUser, TSystem putSystem, boolean skipCredCheck, String rawData)
           throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
 
+  TSystem putSystem(ResourceRequestUser rUser, TSystem putSystem, boolean skipCredCheck, String rawData,
+                    Integer ifMatchVersion)
+          throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
+
   int enableSystem(ResourceRequestUser rUser, String systemId)
           throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
 
@@ -75,6 +90,11 @@ public interface SystemsService
                     boolean fetchShareInfo)
           throws TapisException, TapisClientException;
 
+  SystemVersion getSystemVersion(ResourceRequestUser rUser, String systemId, boolean requireExecPerm,
+                                 String impersonationId, String sharedAppCtxGrantor, String resourceTenant,
+                                 boolean fetchShareInfo)
+          throws TapisException, TapisClientException;
+
   int getSystemsTotalCount(ResourceRequestUser rUser, List<String> searchList, List<OrderBy> orderByList,
                            String startAfter, boolean includeDeleted, String listType, String impersonationId)
           throws TapisException, TapisClientException;
@@ -125,6 +145,43 @@ public interface SystemsService
 
   //------------------- History ---------------------------------
   // -----------------------------------------------------------------------
-  List<SystemHistoryItem> getSystemHistory(ResourceRequestUser rUser, String systemId)
-          throws TapisException, TapisClientException, IllegalStateException;
+  List<SystemHistoryItem> getSystemHistory(ResourceRequestUser rUser, String systemId, Instant startTime,
+                                           Instant endTime)
+          throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException;
+
+  List<SystemChange> getSystemChanges(ResourceRequestUser rUser, int sinceSeqId, int limit)
+          throws TapisException, TapisClientException, IllegalArgumentException;
+
+  SystemChangeBus.Subscription watchSystemChanges(ResourceRequestUser rUser, Set<String> systemIds, Set<String> tags)
+          throws TapisException, TapisClientException, IllegalArgumentException;
+
+  List<SystemChangeEvent> getSystemChangeEvents(ResourceRequestUser rUser, SystemChangeCursor since, int limit)
+          throws TapisException, TapisClientException, IllegalArgumentException;
+
+  SystemChangeCursor getSystemChangesHead(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException, IllegalArgumentException;
+
+  //------------------- Admin role cache ---------------------------------
+  // -----------------------------------------------------------------------
+  AdminRoleCache.Stats getAdminRoleCacheStats(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException;
+
+  int flushAdminRoleCache(ResourceRequestUser rUser, String userName)
+          throws TapisException, TapisClientException;
+
+  //------------------- Slow calls ----------------------------------------
+  // -----------------------------------------------------------------------
+  SlowCallDetector.Snapshot getSlowCalls(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException;
+
+  //------------------- SK outbox dead letters ----------------------------
+  // -----------------------------------------------------------------------
+  List<SkOutboxEntry> getSkOutboxDeadLetters(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException;
+
+  int requeueSkOutboxDeadLetters(ResourceRequestUser rUser, String systemId)
+          throws TapisException, TapisClientException, IllegalArgumentException;
+
+  int discardSkOutboxDeadLetters(ResourceRequestUser rUser, String systemId)
+          throws TapisException, TapisClientException, IllegalArgumentException;
 }
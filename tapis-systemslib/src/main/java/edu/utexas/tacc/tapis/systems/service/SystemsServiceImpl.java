@@ -1,15 +1,26 @@
 package edu.utexas.tacc.tapis.systems.service;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.EnumUtils;
@@ -20,25 +31,35 @@ import org.slf4j.LoggerFactory;
 
 import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.search.parser.ASTBinaryExpression;
+import edu.utexas.tacc.tapis.search.parser.ASTLeaf;
 import edu.utexas.tacc.tapis.search.parser.ASTNode;
 import edu.utexas.tacc.tapis.search.parser.ASTParser;
+import edu.utexas.tacc.tapis.search.parser.ASTUnaryExpression;
 import edu.utexas.tacc.tapis.shared.TapisConstants;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.security.ServiceContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.shared.ssh.apache.system.TapisRunCommand;
 import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.shared.utils.PathUtils;
 import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.client.gen.model.AuthnEnum;
 import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
 import edu.utexas.tacc.tapis.systems.client.gen.model.SystemTypeEnum;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.systems.dao.SystemsDao;
+import edu.utexas.tacc.tapis.systems.utils.JsonSearchUtils;
 import edu.utexas.tacc.tapis.systems.utils.LibUtils;
+import edu.utexas.tacc.tapis.systems.utils.SlowCallDetector;
 import edu.utexas.tacc.tapis.systems.model.*;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry.SkOutboxOperation;
 import static edu.utexas.tacc.tapis.shared.TapisConstants.SYSTEMS_SERVICE;
 import static edu.utexas.tacc.tapis.systems.model.TSystem.*;
 import static edu.utexas.tacc.tapis.systems.service.AuthUtils.*;
+import static edu.utexas.tacc.tapis.systems.service.SystemsMetrics.*;
 
 /*
  * Service level methods for Systems.
@@ -62,8 +83,40 @@ public class SystemsServiceImpl implements SystemsService
 
   // Message keys
   static final String NOT_FOUND = "SYSLIB_NOT_FOUND";
+
   static final String ERROR_ROLLBACK = "SYSLIB_ERROR_ROLLBACK";
 
+  // Maximum number of changes returned by a single call to getSystemChanges
+  public static final int MAX_CHANGES_LIMIT = 1000;
+
+  // Maximum number of stale ACL entries refreshed from SK by a single run of the reconciliation job
+  static final int ACL_RECONCILE_BATCH_SIZE = 100;
+  // Number of time to live periods after which local ACL entries that have not been read are deleted
+  static final int ACL_UNUSED_TTL_PERIODS = 2;
+
+  // Maximum number of SK outbox entries claimed at once by the dispatcher
+  static final int SK_OUTBOX_BATCH_SIZE = 100;
+  // Time for which a claimed SK outbox entry is reserved for the dispatcher that claimed it
+  static final long SK_OUTBOX_LEASE_SECS = 300;
+  // Delay before a failed SK outbox entry is retried. Doubles with each attempt up to the maximum.
+  static final long SK_OUTBOX_MIN_RETRY_SECS = 5;
+  static final long SK_OUTBOX_MAX_RETRY_SECS = 3600;
+  // Number of failed attempts after which an SK outbox entry becomes a dead letter and is no longer sent
+  static final int SK_OUTBOX_MAX_ATTEMPTS = 12;
+
+  // Maximum number of queued updates of child systems processed by a single run of the child sync job
+  static final int CHILD_SYNC_BATCH_SIZE = 100;
+  // How often queued updates of child systems are checked
+  static final long CHILD_SYNC_POLL_SECS = 60;
+  // Delay before a failed update of child systems is retried. Doubles with each attempt up to the maximum.
+  static final long CHILD_SYNC_MIN_RETRY_SECS = 5;
+  static final long CHILD_SYNC_MAX_RETRY_SECS = 3600;
+
+  // Number of months ahead for which partitions of the system_updates table are created
+  static final int SYS_UPD_PARTITION_MONTHS_AHEAD = 3;
+  // How often partitions of the system_updates table are checked
+  static final long SYS_UPD_MAINT_INTERVAL_HOURS = 6;
+
   // SFTP client throws IOException containing this string if a path does not exist.
   private static final String NO_SUCH_FILE = "no such file";
 
@@ -110,6 +163,18 @@ public class SystemsServiceImpl implements SystemsService
   public static String getServiceTenantId() {return siteAdminTenantId;}
   public static String getServiceUserId() {return SERVICE_NAME;}
 
+  // Background job that keeps the local copy of system permissions and shares in step with SK
+  private static ScheduledExecutorService aclReconcileExecutor;
+
+  // Background job that sends queued updates to SK
+  private static ScheduledExecutorService skOutboxExecutor;
+
+  // Background job that updates child systems of parents with many children
+  private static ScheduledExecutorService childSyncExecutor;
+
+  // Background job that creates, detaches and archives partitions of the system_updates table
+  private static ScheduledExecutorService sysUpdMaintExecutor;
+
   // ************************************************************************
   // *********************** Public Methods *********************************
   // ************************************************************************
@@ -127,6 +192,14 @@ public class SystemsServiceImpl implements SystemsService
     serviceContext.initServiceJWT(siteId, SYSTEMS_SERVICE, svcPassword);
     // Make sure DB is present and updated to latest version using flyway
     dao.migrateDB();
+    // Start periodic refresh of the local copy of system permissions and shares
+    startAclReconcile();
+    // Start sending queued updates to SK
+    startSkOutboxDispatcher();
+    // Start updating child systems of parents with many children
+    startChildSync();
+    // Start maintenance of system_updates partitions
+    startSystemUpdatesMaintenance();
   }
 
   /**
@@ -270,65 +343,63 @@ public class SystemsServiceImpl implements SystemsService
     scrubbedSystem.setAuthnCredential(nullCredential);
     String updateJsonStr = TapisGsonUtils.getGson().toJson(scrubbedSystem);
 
+    // If SK updates for an earlier system with the same id are still queued they must be made first.
+    // Send any that are due now, before the unit of work, so that no DB connection is held while calling SK.
+    flushSkOutbox(tenant, systemId);
+
     // ----------------- Create all artifacts --------------------
-    // Creation of system, perms and creds not in single DB transaction.
-    // Use try/catch to roll back any writes in case of failure.
-    boolean itemCreated = false;
+    // The system and the SK updates that follow from it are written in a single DB transaction.
+    // The updates are sent to SK after the commit, see processSkOutbox().
     // Consider using a notification instead (jira cic-3071)
-    String filesPermSpec = "files:" + tenant + ":*:" + systemId;
-
-    // Get SK client now. If we cannot get this rollback not needed.
-    // Note that we still need to call getSKClient each time because it refreshes the svc jwt as needed.
-    sysUtils.getSKClient(rUser);
-    try
+    String filesPermSpec = getFilesPermSpec(tenant, systemId);
+    dao.inTransaction(txDao ->
     {
       // ------------------- Make Dao call to persist the system -----------------------------------
-      itemCreated = dao.createSystem(rUser, system, updateJsonStr, rawData);
+      txDao.createSystem(rUser, system, updateJsonStr, rawData);
+      // With the new row in place no other request can queue SK updates for the id until this one commits.
+      checkSkOutboxClear(txDao, rUser, tenant, systemId);
 
       // ------------------- Add permissions -----------------------------
-      // Consider using a notification instead (jira cic-3071)
       // Give owner files service related permission for root directory
-      sysUtils.getSKClient(rUser).grantUserPermission(tenant, system.getOwner(), filesPermSpec);
-
-      // ------------------- Store credentials -----------------------------------
-      // Store credentials in Security Kernel if cred provided and effectiveUser is static
-      if (manageCredentials)
+      txDao.addSkOutboxEntries(List.of(new SkOutboxEntry(tenant, systemId, SkOutboxOperation.GRANT_PERM,
+                                                         system.getOwner(), filesPermSpec)));
+      return null;
+    });
+    sendSkOutbox(tenant, systemId);
+
+    // ------------------- Store credentials -----------------------------------
+    // Store credentials in Security Kernel if cred provided and effectiveUser is static
+    // Credentials are stored after the commit, so no DB connection is held while calling SK and they are only
+    //   stored for a system that has been created. If they cannot be stored the system is removed again.
+    if (manageCredentials)
+    {
+      try
       {
         // Use internal method instead of public API to skip auth and other checks not needed here.
         credUtils.createCredential(rUser, cred, systemId, system.getEffectiveUserId(), isStaticEffectiveUser);
       }
-    }
-    catch (Exception e0)
-    {
-      // Something went wrong. Attempt to undo all changes and then re-throw the exception
-      // Log error
-      String msg = LibUtils.getMsgAuth("SYSLIB_CREATE_ERROR_ROLLBACK", rUser, systemId, e0.getMessage());
-      log.error(msg);
-
-      // Rollback
-      // Remove system from DB
-      if (itemCreated) try {dao.hardDeleteSystem(tenant, systemId); }
-      catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "hardDelete", e.getMessage()));}
-      // Remove perms
-      // Consider using a notification instead (jira cic-3071)
-      try { sysUtils.getSKClient(rUser).revokeUserPermission(tenant, system.getOwner(), filesPermSpec);  }
-      catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePermF1", e.getMessage()));}
-      // Remove creds
-      if (manageCredentials)
+      catch (Exception e0)
       {
-        // Use private internal method instead of public API to skip auth and other checks not needed here.
-        // Note that we only manageCredentials for the static case and for the static case targetUser=effectiveUserId
+        // Something went wrong. Remove the system and queue removal of any SK artifacts, then re-throw the exception
+        String msg = LibUtils.getMsgAuth("SYSLIB_CREATE_ERROR_ROLLBACK", rUser, systemId, e0.getMessage());
+        log.error(msg);
         try
         {
-          credUtils.deleteCredential(rUser, systemId, system.getEffectiveUserId(), isStaticEffectiveUser);
+          dao.inTransaction(txDao ->
+          {
+            queueRemoveSKArtifacts(txDao, rUser, system);
+            return txDao.hardDeleteSystem(tenant, systemId);
+          });
+          sendSkOutbox(tenant, systemId);
         }
         catch (Exception e)
         {
-          log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "deleteCred", e.getMessage()));
+          log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "hardDelete", e.getMessage()));
         }
+        throw e0;
       }
-      throw e0;
     }
+
     // Update dynamically computed info.
     SystemShare systemShare = authUtils.getSystemShareInfo(rUser, system.getTenant(), systemId);
     system.setIsPublic(systemShare.isPublic());
@@ -409,31 +480,31 @@ public class SystemsServiceImpl implements SystemsService
   @Override
   public void patchSystem(ResourceRequestUser rUser, String systemId, PatchSystem patchSystem, String rawData)
           throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException
+  {
+    patchSystem(rUser, systemId, patchSystem, rawData, null);
+  }
+
+  /**
+   * Update a system object given a PatchSystem, only if the system is at the expected version.
+   * See patchSystem above for details.
+   * @param ifMatchVersion - version the caller expects the system to have, null if no check should be made
+   * @throws ClientErrorException - with status PRECONDITION_FAILED if ifMatchVersion does not match,
+   *                                with status CONFLICT if system was modified concurrently
+   */
+  @Override
+  public void patchSystem(ResourceRequestUser rUser, String systemId, PatchSystem patchSystem, String rawData,
+                          Integer ifMatchVersion)
+          throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException
   {
     SystemOperation op = SystemOperation.modify;
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
     if (patchSystem == null) throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
-    // Extract various names for convenience
-    String oboTenant = rUser.getOboTenantId();
 
     // ---------------------------- Check inputs ------------------------------------
     if (StringUtils.isBlank(systemId) || StringUtils.isBlank(rawData)) {
       throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_CREATE_ERROR_ARG", rUser, systemId));
     }
 
-    // System must already exist and not be deleted
-    checkForSysWithThrow(rUser, oboTenant, systemId, false);
-
-    // if the patch system contains a request to set allowChildren to false, only allow
-    // the change if there are no children.
-    Boolean changeAllowChildren = patchSystem.getAllowChildren();
-    if (BooleanUtils.isFalse(changeAllowChildren)) {
-      if (dao.hasChildren(rUser.getOboTenantId(), systemId)) {
-        String msg = LibUtils.getMsgAuth("SYSLIB_CHILD_HAS_CHILD_ERROR", rUser, systemId);
-        throw new IllegalStateException(msg);
-      }
-    }
-
     // If needed, create list of job env variables with proper defaults.
     // Note that because this is a patch DO NOT fill in with non-null unless it is in the request.
     // We rely on null to indicate it was not in the call to patch, method createPatchedTSystem
@@ -442,8 +513,28 @@ public class SystemsServiceImpl implements SystemsService
       patchSystem.setJobEnvVariables(TSystem.processJobEnvVariables(patchSystem.getJobEnvVariables()));
     }
 
-    // Retrieve the system being patched and create fully populated TSystem with changes merged in
-    TSystem origTSystem = dao.getSystem(oboTenant, systemId);
+    patchSystem(rUser, op, systemId, patchSystem, rawData, ifMatchVersion);
+    // Children of a parent with many children are updated after the commit, see processChildSync().
+    sendChildSync(rUser.getOboTenantId(), systemId);
+  }
+
+  /*
+   * Check, merge and persist a patch.
+   * Checks that call SK or other services are made before the unit of work, so that no DB connection is held
+   *   while waiting for them. The update is only applied if the system has not changed since it was read, so the
+   *   checks still hold when it is made.
+   */
+  private void patchSystem(ResourceRequestUser rUser, SystemOperation op, String systemId,
+                           PatchSystem patchSystem, String rawData, Integer ifMatchVersion)
+          throws TapisException, TapisClientException
+  {
+    String oboTenant = rUser.getOboTenantId();
+
+    // Retrieve the system being patched. It must already exist and not be deleted
+    TSystem origTSystem = getSysWithThrow(dao, rUser, oboTenant, systemId, false);
+
+    // Create fully populated TSystem with changes merged in
+    checkIfMatchVersion(rUser, systemId, origTSystem, ifMatchVersion);
     TSystem patchedTSystem = createPatchedTSystem(origTSystem, patchSystem);
 
     // ------------------------- Check authorization -------------------------
@@ -468,9 +559,24 @@ public class SystemsServiceImpl implements SystemsService
     String updateJsonStr = TapisGsonUtils.getGson().toJson(patchSystem);
 
     // ----------------- Create all artifacts --------------------
-    // No distributed transactions so no distributed rollback needed
-    // ------------------- Make Dao call to persist the system -----------------------------------
-    dao.patchSystem(rUser, systemId, patchedTSystem, updateJsonStr, rawData);
+    // Reads and the update are made using a single connection and transaction.
+    dao.inTransaction(txDao ->
+    {
+      // if the patch system contains a request to set allowChildren to false, only allow
+      // the change if there are no children.
+      Boolean changeAllowChildren = patchSystem.getAllowChildren();
+      if (BooleanUtils.isFalse(changeAllowChildren)) {
+        if (txDao.hasChildren(oboTenant, systemId)) {
+          String msg = LibUtils.getMsgAuth("SYSLIB_CHILD_HAS_CHILD_ERROR", rUser, systemId);
+          throw new IllegalStateException(msg);
+        }
+      }
+      // ------------------- Make Dao call to persist the system -----------------------------------
+      // Update is only applied if the system has not changed since it was read above.
+      if (!txDao.patchSystem(rUser, systemId, patchedTSystem, updateJsonStr, rawData))
+        throw versionConflict(rUser, systemId, ifMatchVersion);
+      return null;
+    });
   }
 
   /**
@@ -495,6 +601,21 @@ public class SystemsServiceImpl implements SystemsService
   @Override
   public TSystem putSystem(ResourceRequestUser rUser, TSystem putSystem, boolean skipCredCheck, String rawData)
           throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException
+  {
+    return putSystem(rUser, putSystem, skipCredCheck, rawData, null);
+  }
+
+  /**
+   * Update all updatable attributes of a system object, only if the system is at the expected version.
+   * See putSystem above for details.
+   * @param ifMatchVersion - version the caller expects the system to have, null if no check should be made
+   * @throws ClientErrorException - with status PRECONDITION_FAILED if ifMatchVersion does not match,
+   *                                with status CONFLICT if system was modified concurrently
+   */
+  @Override
+  public TSystem putSystem(ResourceRequestUser rUser, TSystem putSystem, boolean skipCredCheck, String rawData,
+                           Integer ifMatchVersion)
+          throws TapisException, TapisClientException, IllegalStateException, IllegalArgumentException
   {
     SystemOperation op = SystemOperation.modify;
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
@@ -517,6 +638,7 @@ public class SystemsServiceImpl implements SystemsService
 
     // Retrieve the system being updated and create fully populated TSystem with updated attributes
     TSystem origTSystem = dao.getSystem(oboTenant, systemId);
+    checkIfMatchVersion(rUser, systemId, origTSystem, ifMatchVersion);
 
     // Set flag indicating if effectiveUserId is static
     String effectiveUserId = origTSystem.getEffectiveUserId();
@@ -556,7 +678,9 @@ public class SystemsServiceImpl implements SystemsService
     // ----------------- Create all artifacts --------------------
     // No distributed transactions so no distributed rollback needed
     // ------------------- Make Dao call to update the system -----------------------------------
-    dao.putSystem(rUser, updatedTSystem, updateJsonStr, rawData);
+    // Update is only applied if the system has not changed since it was read above.
+    if (!dao.putSystem(rUser, updatedTSystem, updateJsonStr, rawData))
+      throw versionConflict(rUser, systemId, ifMatchVersion);
 
     // Update dynamically computed info.
     SystemShare systemShare = authUtils.getSystemShareInfo(rUser, putSystem.getTenant(), systemId);
@@ -620,27 +744,37 @@ public class SystemsServiceImpl implements SystemsService
     if (StringUtils.isBlank(systemId))
       throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
 
+    String oboTenant = rUser.getOboTenantId();
+
     // System must exist
-    checkForSysWithThrow(rUser, rUser.getOboTenantId(), systemId, true);
-    TSystem system = dao.getSystem(rUser.getOboTenantId(), systemId, true);
-    // We just checked for system, so it should never be null. But just in case.
-    if (system == null) return 0;
+    String owner = getSysWithThrow(dao, rUser, oboTenant, systemId, true).getOwner();
 
-    // cant delete a system if it has children
-    if (dao.hasChildren(rUser.getOboTenantId(), systemId)) {
-      String msg = LibUtils.getMsg("SYSLIB_CHILD_HAS_CHILD_ERROR", rUser, systemId);
-      log.warn(msg);
-      throw new IllegalStateException(msg);
-    }
     // ------------------------- Check authorization -------------------------
-    authUtils.checkAuthOwnerUnkown(rUser, op, systemId);
+    // Made before the unit of work so that no DB connection is held while calling SK.
+    authUtils.checkAuthOwnerKnown(rUser, op, systemId, owner);
+
+    // Reads and the update are made using a single connection and transaction.
+    // Removal of SK artifacts is queued in the same transaction and made after the commit.
+    int changeCount = dao.inTransaction(txDao ->
+    {
+      TSystem system = getSysCheckOwner(txDao, rUser, oboTenant, systemId, true, owner);
+
+      // cant delete a system if it has children
+      if (txDao.hasChildren(oboTenant, systemId)) {
+        String msg = LibUtils.getMsg("SYSLIB_CHILD_HAS_CHILD_ERROR", rUser, systemId);
+        log.warn(msg);
+        throw new IllegalStateException(msg);
+      }
 
-    // Remove effectiveUser credentials associated with the system
-    // Remove permissions associated with the system
-    removeSKArtifacts(rUser, system);
+      // Remove effectiveUser credentials associated with the system
+      // Remove permissions associated with the system
+      queueRemoveSKArtifacts(txDao, rUser, system);
 
-    // Update deleted attribute
-    return updateDeleted(rUser, systemId, op);
+      // Update deleted attribute
+      return updateDeleted(txDao, rUser, systemId, op);
+    });
+    sendSkOutbox(oboTenant, systemId);
+    return changeCount;
   }
 
   /**
@@ -663,19 +797,44 @@ public class SystemsServiceImpl implements SystemsService
     if (StringUtils.isBlank(systemId))
       throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
 
+    // Removal of SK artifacts queued by the delete must be made before the system is in use again.
+    // Send any that are due now, before the unit of work, so that no DB connection is held while calling SK.
+    flushSkOutbox(rUser.getOboTenantId(), systemId);
+
+    // System must exist. Get owner, if not found it is an error
+    String owner = getSysWithThrow(dao, rUser, rUser.getOboTenantId(), systemId, true).getOwner();
+    if (StringUtils.isBlank(owner)) {
+      String msg = LibUtils.getMsgAuth("SYSLIB_OP_NO_OWNER", rUser, systemId, op.name());
+      log.error(msg);
+      throw new TapisException(msg);
+    }
+    // ------------------------- Check authorization -------------------------
+    // Made before the unit of work so that no DB connection is held while calling SK.
+    authUtils.checkAuthOwnerKnown(rUser, op, systemId, owner);
+
+    // Reads and the update are made using a single connection and transaction.
+    int changeCount = dao.inTransaction(txDao -> undeleteSystem(txDao, rUser, op, systemId, owner));
+    sendSkOutbox(rUser.getOboTenantId(), systemId);
+    return changeCount;
+  }
+
+  /*
+   * Check and undelete a system as part of a unit of work.
+   */
+  private int undeleteSystem(SystemsDao txDao, ResourceRequestUser rUser, SystemOperation op, String systemId,
+                             String owner)
+          throws TapisException
+  {
     String oboTenant = rUser.getOboTenantId();
 
-    // System must exist
-    checkForSysWithThrow(rUser, oboTenant, systemId, true);
-    TSystem system = dao.getSystem(rUser.getOboTenantId(), systemId, true);
-    // We just checked for system, so it should never be null. But just in case.
-    if (system == null) return 0;
+    // System must exist and still have the owner used for the authorization check
+    TSystem system = getSysCheckOwner(txDao, rUser, oboTenant, systemId, true, owner);
 
     // if this is a child system, make sure that the parent hasn't been deleted, and that
     // the parent still allows children
     if (isChildSystem(system)) {
       boolean okToUndeleteChild = false;
-      TSystem parentSystem = dao.getSystem(rUser.getOboTenantId(), system.getParentId(), false);
+      TSystem parentSystem = txDao.getSystem(oboTenant, system.getParentId(), false);
       if (parentSystem != null) {
         if(parentSystem.isAllowChildren()) {
           okToUndeleteChild = true;
@@ -689,24 +848,17 @@ public class SystemsServiceImpl implements SystemsService
       }
     }
 
-    // Get owner, if not found it is an error
-    String owner = system.getOwner();
-    if (StringUtils.isBlank(owner)) {
-      String msg = LibUtils.getMsgAuth("SYSLIB_OP_NO_OWNER", rUser, systemId, op.name());
-      log.error(msg);
-      throw new TapisException(msg);
-    }
-    // ------------------------- Check authorization -------------------------
-    authUtils.checkAuthOwnerKnown(rUser, op, systemId, owner);
+    // Update deleted attribute
+    int changeCount = updateDeleted(txDao, rUser, systemId, op);
 
-    // Consider using a notification instead (jira cic-3071)
-    String filesPermSpec = "files:" + oboTenant + ":*:" + systemId;
-    // Consider using a notification instead (jira cic-3071)
-    // Give owner files service related permission for root directory
-    sysUtils.getSKClient(rUser).grantUserPermission(oboTenant, owner, filesPermSpec);
+    // With the row updated no other request can queue SK updates for the system until this one commits.
+    checkSkOutboxClear(txDao, rUser, oboTenant, systemId);
 
-    // Update deleted attribute
-    return updateDeleted(rUser, systemId, op);
+    // Consider using a notification instead (jira cic-3071)
+    // Give owner files service related permission for root directory. Sent to SK after the commit.
+    txDao.addSkOutboxEntries(List.of(new SkOutboxEntry(oboTenant, systemId, SkOutboxOperation.GRANT_PERM, owner,
+                                                       getFilesPermSpec(oboTenant, systemId))));
+    return changeCount;
   }
 
   /**
@@ -732,11 +884,8 @@ public class SystemsServiceImpl implements SystemsService
 
     String oboTenant = rUser.getOboTenantId();
 
-    // System must already exist and not be deleted
-    checkForSysWithThrow(rUser, oboTenant, systemId, false);
-
-    // Retrieve old owner
-    String oldOwnerName = dao.getSystemOwner(oboTenant, systemId);
+    // System must already exist and not be deleted. Retrieve old owner.
+    String oldOwnerName = getSysWithThrow(dao, rUser, oboTenant, systemId, false).getOwner();
 
     // ------------------------- Check authorization -------------------------
     authUtils.checkAuthOwnerKnown(rUser, op, systemId, oldOwnerName);
@@ -745,41 +894,28 @@ public class SystemsServiceImpl implements SystemsService
     if (newOwnerName.equals(oldOwnerName)) return 0;
 
     // ----------------- Make all updates --------------------
-    // Changes not in single DB transaction.
-    // Use try/catch to roll back any changes in case of failure.
-    // Get SK client now. If we cannot get this rollback not needed.
-    // Note that we still need to call getSKClient each time because it refreshes the svc jwt as needed.
-    sysUtils.getSKClient(rUser);
-    String systemsPermSpec = getPermSpecAllStr(oboTenant, systemId);
+    // The owner update, the update record and the SK updates that follow from it are written in a single
+    //   DB transaction. The SK updates are sent after the commit.
     // Consider using a notification instead (jira cic-3071)
-    String filesPermSpec = "files:" + oboTenant + ":*:" + systemId;
-    try
+    String filesPermSpec = getFilesPermSpec(oboTenant, systemId);
+    dao.inTransaction(txDao ->
     {
+      // Owner must not have changed since the authorization check
+      getSysCheckOwner(txDao, rUser, oboTenant, systemId, false, oldOwnerName);
       // ------------------- Make Dao call to update the system owner -----------------------------------
-      dao.updateSystemOwner(rUser, systemId, oldOwnerName, newOwnerName);
-      // Consider using a notification instead (jira cic-3071)
-      // Give new owner files service related permission for root directory
-      sysUtils.getSKClient(rUser).grantUserPermission(oboTenant, newOwnerName, filesPermSpec);
-
-      // Remove permissions from old owner
-      sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, oldOwnerName, filesPermSpec);
+      txDao.updateSystemOwner(rUser, systemId, oldOwnerName, newOwnerName);
+      // Give new owner files service related permission for root directory and remove it from the old owner
+      txDao.addSkOutboxEntries(List.of(
+              new SkOutboxEntry(oboTenant, systemId, SkOutboxOperation.GRANT_PERM, newOwnerName, filesPermSpec),
+              new SkOutboxEntry(oboTenant, systemId, SkOutboxOperation.REVOKE_PERM, oldOwnerName, filesPermSpec)));
 
       // Get a complete and succinct description of the update.
       String changeDescription = LibUtils.getChangeDescriptionUpdateOwner(systemId, oldOwnerName, newOwnerName);
       // Create a record of the update
-      dao.addUpdateRecord(rUser, systemId, op, changeDescription, null);
-    }
-    catch (Exception e0)
-    {
-      // Something went wrong. Attempt to undo all changes and then re-throw the exception
-      try { dao.updateSystemOwner(rUser, systemId, newOwnerName, oldOwnerName); } catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "updateOwner", e.getMessage()));}
-      // Consider using a notification instead(jira cic-3071)
-      try { sysUtils.getSKClient(rUser).revokeUserPermission(oboTenant, newOwnerName, filesPermSpec); }
-      catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "revokePermF1", e.getMessage()));}
-      try { sysUtils.getSKClient(rUser).grantUserPermission(oboTenant, oldOwnerName, filesPermSpec); }
-      catch (Exception e) {log.warn(LibUtils.getMsgAuth(ERROR_ROLLBACK, rUser, systemId, "grantPermF1", e.getMessage()));}
-      throw e0;
-    }
+      txDao.addUpdateRecord(rUser, systemId, op, changeDescription, null);
+      return null;
+    });
+    sendSkOutbox(oboTenant, systemId);
     return 1;
   }
 
@@ -910,11 +1046,14 @@ public class SystemsServiceImpl implements SystemsService
     // ------------------------- Check authorization -------------------------
     authUtils.checkAuthOwnerUnkown(rUser, op, systemId);
 
-    // Remove SK artifacts
-    removeSKArtifacts(rUser, system);
-
-    // Delete the system
-    return dao.hardDeleteSystem(oboTenant, systemId);
+    // Delete the system and queue removal of SK artifacts in a single transaction
+    int changeCount = dao.inTransaction(txDao ->
+    {
+      queueRemoveSKArtifacts(txDao, rUser, system);
+      return txDao.hardDeleteSystem(oboTenant, systemId);
+    });
+    sendSkOutbox(oboTenant, systemId);
+    return changeCount;
   }
 
   /**
@@ -1001,6 +1140,29 @@ public class SystemsServiceImpl implements SystemsService
                            boolean getCreds, String impersonationId, String sharedAppCtxGrantor,
                            String resourceTenant, boolean fetchShareInfo)
           throws TapisException, TapisClientException
+  {
+    var event = new SystemsEvents.GetSystem();
+    event.begin();
+    TSystem system = null;
+    try
+    {
+      system = readSystem(rUser, systemId, accMethod, requireExecPerm, getCreds, impersonationId, sharedAppCtxGrantor,
+                          resourceTenant, fetchShareInfo);
+      return system;
+    }
+    finally
+    {
+      event.finish(rUser, systemId, getCreds, system != null);
+    }
+  }
+
+  /*
+   * Retrieve specified system. See getSystem()
+   */
+  private TSystem readSystem(ResourceRequestUser rUser, String systemId, AuthnMethod accMethod, boolean requireExecPerm,
+                             boolean getCreds, String impersonationId, String sharedAppCtxGrantor,
+                             String resourceTenant, boolean fetchShareInfo)
+          throws TapisException, TapisClientException
   {
     SystemOperation op = SystemOperation.read;
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
@@ -1011,18 +1173,8 @@ public class SystemsServiceImpl implements SystemsService
     // Allow for option of impersonation. Auth checked below.
     String oboOrImpersonatedUser = StringUtils.isBlank(impersonationId) ? rUser.getOboUserId() : impersonationId;
 
-    // Determine the tenant for the resource. For user request always oboTenant, for svc request may be overridden
-    String resTenant;
-    if (!rUser.isServiceRequest()) resTenant = rUser.getOboTenantId();
-    else resTenant = (StringUtils.isBlank(resourceTenant)) ? rUser.getOboTenantId() : resourceTenant;
-
-    // If impersonationId set confirm that it is allowed.
-    //  - allowed for certain Tapis services and for a tenant admin
-    if (!StringUtils.isBlank(impersonationId)) authUtils.checkImpersonateUserAllowed(rUser, op, systemId, impersonationId, resTenant);
-    // If resourceTenant set confirm it is allowed. Only allowed for certain Tapis services.
-    if (!StringUtils.isBlank(resourceTenant)) AuthUtils.checkResourceTenantAllowed(rUser, op, systemId, resourceTenant);
-    // If sharedAppCtx set confirm it is allowed. Only allowed for certain Tapis services.
-    if (!StringUtils.isBlank(sharedAppCtxGrantor)) AuthUtils.checkSharedAppCtxAllowed(rUser, op, systemId);
+    // Determine the tenant for the resource and check that optional arguments are allowed.
+    String resTenant = checkGetSystemArgs(rUser, op, systemId, impersonationId, sharedAppCtxGrantor, resourceTenant);
 
     // We will need info from system, so fetch it now
     TSystem system = dao.getSystem(resTenant, systemId);
@@ -1032,7 +1184,6 @@ public class SystemsServiceImpl implements SystemsService
     String rootDir = system.getRootDir();
     if (rootDir == null) rootDir = "";
     String owner = system.getOwner();
-    boolean isOwner = oboOrImpersonatedUser.equals(owner);
 
     // Determine the effectiveUser type, either static or dynamic
     // Secrets get stored on different paths based on this
@@ -1042,33 +1193,8 @@ public class SystemsServiceImpl implements SystemsService
     String resolvedEffectiveUserId = sysUtils.resolveEffectiveUserId(system, oboOrImpersonatedUser);
 
     // ------------------------- Check authorization -------------------------
-    // getSystem auth check:
-    // Call checkAuth (this can throw ForbiddenException)
-    //   - always allow a service calling as itself to read/execute a system.
-    //   - if svc not calling as itself do the normal checks using oboUserOrImpersonationId.
-    // If owner is making the request we can skip this check.
-    if (!isOwner)
-    {
-      authUtils.checkAuth(rUser, op, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
-    }
-
-    // If caller asks for credentials, explicitly check auth now
-    // That way we can call private getCredential and not have overhead of getUserCredential().
-    if (getCreds) authUtils.checkAuth(rUser, SystemOperation.getCred, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
-
-    // If flag is set to also require EXECUTE perm then make explicit auth call to make sure user has exec perm
-    if (requireExecPerm)
-    {
-      authUtils.checkAuth(rUser, SystemOperation.execute, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
-    }
-
-    // If flag is set to also require EXECUTE perm then system must support execute
-    if (requireExecPerm && !system.getCanExec())
-    {
-      String msg = LibUtils.getMsgAuth("SYSLIB_NOTEXEC", rUser, systemId, op.name());
-      log.warn(msg);
-      throw new ForbiddenException(msg);
-    }
+    checkGetSystemAuth(rUser, op, systemId, owner, system.getCanExec(), oboOrImpersonatedUser, getCreds,
+                       requireExecPerm, impersonationId, sharedAppCtxGrantor);
 
     system.setEffectiveUserId(resolvedEffectiveUserId);
 
@@ -1107,6 +1233,60 @@ public class SystemsServiceImpl implements SystemsService
     return system;
   }
 
+  /**
+   * getSystemVersion
+   * Retrieve information needed to determine if a system has changed, performing the same checks as getSystem.
+   * Much cheaper than getSystem since the full record is not fetched and credentials are never included.
+   * Used to support conditional requests.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemId - Name of the system
+   * @param requireExecPerm - check for EXECUTE permission as well as READ permission
+   * @param impersonationId - use provided Tapis username instead of oboUser when checking auth, resolving effectiveUserId
+   * @param sharedAppCtxGrantor - Share grantor for the case of a shared application context.
+   * @param resourceTenant - use provided tenant instead of oboTenant when fetching resource
+   * @param fetchShareInfo - flag indicating if share info should be included
+   * @return version information or null if not found.
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public SystemVersion getSystemVersion(ResourceRequestUser rUser, String systemId, boolean requireExecPerm,
+                                        String impersonationId, String sharedAppCtxGrantor, String resourceTenant,
+                                        boolean fetchShareInfo)
+          throws TapisException, TapisClientException
+  {
+    SystemOperation op = SystemOperation.read;
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (StringUtils.isBlank(systemId))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+
+    String oboOrImpersonatedUser = StringUtils.isBlank(impersonationId) ? rUser.getOboUserId() : impersonationId;
+    String resTenant = checkGetSystemArgs(rUser, op, systemId, impersonationId, sharedAppCtxGrantor, resourceTenant);
+
+    SystemVersion sysVersion = dao.getSystemVersion(resTenant, systemId);
+    if (sysVersion == null) return null;
+
+    String resolvedEffectiveUserId = sysUtils.resolveEffectiveUserId(resTenant, systemId,
+                                                                     sysVersion.getEffectiveUserId(),
+                                                                     oboOrImpersonatedUser);
+
+    // ------------------------- Check authorization -------------------------
+    checkGetSystemAuth(rUser, op, systemId, sysVersion.getOwner(), sysVersion.getCanExec(), oboOrImpersonatedUser,
+                       false, requireExecPerm, impersonationId, sharedAppCtxGrantor);
+
+    // Include dynamically computed info
+    Boolean isPublic = null;
+    Set<String> sharedWithUsers = null;
+    if (fetchShareInfo)
+    {
+      SystemShare systemShare = authUtils.getSystemShareInfo(rUser, resTenant, systemId);
+      isPublic = systemShare.isPublic();
+      sharedWithUsers = systemShare.getUserList();
+    }
+    return new SystemVersion(resTenant, systemId, sysVersion.getOwner(), resolvedEffectiveUserId,
+                             sysVersion.getCanExec(), sysVersion.getUpdated(), sysVersion.getVersion(), isPublic,
+                             sharedWithUsers);
+  }
+
   /**
    * Get count of all systems matching certain criteria.
    * @param rUser - ResourceRequestUser containing tenant, user and request info
@@ -1160,7 +1340,10 @@ public class SystemsServiceImpl implements SystemsService
         for (String cond : searchList)
         {
           // Use SearchUtils to validate condition
-          String verifiedCondStr = SearchUtils.validateAndProcessSearchCondition(cond);
+          // Conditions on a path within a JSON attribute have their own syntax and are validated separately.
+          String verifiedCondStr = JsonSearchUtils.isJsonSearchCondition(cond)
+                                     ? JsonSearchUtils.validateJsonSearchCondition(cond)
+                                     : SearchUtils.validateAndProcessSearchCondition(cond);
           verifiedSearchList.add(verifiedCondStr);
         }
       }
@@ -1172,18 +1355,19 @@ public class SystemsServiceImpl implements SystemsService
       }
     }
 
-    // If needed, get IDs for items for which requester has READ or MODIFY permission
+    // Filter on the local copy of permissions and shares if enabled and it could be refreshed.
+    // Otherwise, if needed, get IDs for items for which requester has READ or MODIFY permission
+    //   and IDs for items shared with the requester or only shared publicly.
+    boolean useAcl = authUtils.refreshAclForList(rUser, oboOrImpersonatedUser, listTypeEnum, getShareGrantees(verifiedSearchList));
     Set<String> viewableIDs = new HashSet<>();
-    if (allItems) viewableIDs = getViewableSystemIDs(rUser, oboOrImpersonatedUser);
-
-    // If needed, get IDs for items shared with the requester or only shared publicly.
+    if (allItems && !useAcl) viewableIDs = getViewableSystemIDs(rUser, oboOrImpersonatedUser);
     Set<String> sharedIDs = new HashSet<>();
-    if (allItems) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, false);
-    else if (publicOnly) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, true);
+    if (allItems && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, false);
+    else if (publicOnly && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, true);
 
     // Count all allowed systems matching the search conditions
     return dao.getSystemsCount(rUser, oboOrImpersonatedUser, verifiedSearchList, null, orderByList,
-                               startAfter, includeDeleted, listTypeEnum, viewableIDs, sharedIDs);
+                               startAfter, includeDeleted, listTypeEnum, viewableIDs, sharedIDs, useAcl);
   }
 
   /**
@@ -1205,6 +1389,30 @@ public class SystemsServiceImpl implements SystemsService
                                   List<OrderBy> orderByList, int skip, String startAfter, boolean includeDeleted,
                                   String listType, boolean fetchShareInfo, String impersonationId)
           throws TapisException, TapisClientException
+  {
+    var event = new SystemsEvents.GetSystems();
+    event.begin();
+    List<TSystem> systems = null;
+    try
+    {
+      systems = readSystems(rUser, searchList, limit, orderByList, skip, startAfter, includeDeleted, listType,
+                            fetchShareInfo, impersonationId);
+      return systems;
+    }
+    finally
+    {
+      event.finish(rUser, listType, searchList == null ? 0 : searchList.size(), limit,
+                   systems == null ? 0 : systems.size());
+    }
+  }
+
+  /*
+   * Get all systems matching certain criteria. See getSystems()
+   */
+  private List<TSystem> readSystems(ResourceRequestUser rUser, List<String> searchList, int limit,
+                                    List<OrderBy> orderByList, int skip, String startAfter, boolean includeDeleted,
+                                    String listType, boolean fetchShareInfo, String impersonationId)
+          throws TapisException, TapisClientException
   {
     SystemOperation op = SystemOperation.read;
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
@@ -1242,7 +1450,10 @@ public class SystemsServiceImpl implements SystemsService
         for (String cond : searchList)
         {
           // Use SearchUtils to validate condition
-          String verifiedCondStr = SearchUtils.validateAndProcessSearchCondition(cond);
+          // Conditions on a path within a JSON attribute have their own syntax and are validated separately.
+          String verifiedCondStr = JsonSearchUtils.isJsonSearchCondition(cond)
+                                     ? JsonSearchUtils.validateJsonSearchCondition(cond)
+                                     : SearchUtils.validateAndProcessSearchCondition(cond);
           verifiedSearchList.add(verifiedCondStr);
         }
       }
@@ -1254,19 +1465,20 @@ public class SystemsServiceImpl implements SystemsService
       }
     }
 
-    // If needed, get IDs for items for which requester has READ or MODIFY permission
+    // Filter on the local copy of permissions and shares if enabled and it could be refreshed.
+    // Otherwise, if needed, get IDs for items for which requester has READ or MODIFY permission
+    //   and IDs for items shared with the requester or only shared publicly.
+    boolean useAcl = authUtils.refreshAclForList(rUser, oboOrImpersonatedUser, listTypeEnum, getShareGrantees(verifiedSearchList));
     Set<String> viewableIDs = new HashSet<>();
-    if (allItems) viewableIDs = getViewableSystemIDs(rUser, oboOrImpersonatedUser);
-
-    // If needed, get IDs for items shared with the requester or only shared publicly.
+    if (allItems && !useAcl) viewableIDs = getViewableSystemIDs(rUser, oboOrImpersonatedUser);
     Set<String> sharedIDs = new HashSet<>();
-    if (allItems) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, false);
-    else if (publicOnly) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, true);
+    if (allItems && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, false);
+    else if (publicOnly && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, oboOrImpersonatedUser, true);
 
     // Get all allowed systems matching the search conditions
     List<TSystem> systems = dao.getSystems(rUser, oboOrImpersonatedUser, verifiedSearchList,
                                       null,  limit, orderByList, skip, startAfter,
-                                           includeDeleted, listTypeEnum, viewableIDs, sharedIDs);
+                                           includeDeleted, listTypeEnum, viewableIDs, sharedIDs, useAcl);
     // Update dynamically computed info and resolve effUser as needed.
     for (TSystem system : systems)
     {
@@ -1345,18 +1557,20 @@ public class SystemsServiceImpl implements SystemsService
       throw new IllegalArgumentException(msg);
     }
 
-    // If needed, get IDs for items for which requester has READ or MODIFY permission
+    // Filter on the local copy of permissions and shares if enabled and it could be refreshed.
+    // Otherwise, if needed, get IDs for items for which requester has READ or MODIFY permission
+    //   and IDs for items shared with the requester or only shared publicly.
+    boolean useAcl = authUtils.refreshAclForList(rUser, rUser.getOboUserId(), listTypeEnum, getShareGrantees(searchAST));
     Set<String> viewableIDs = new HashSet<>();
-    if (allItems) viewableIDs = getViewableSystemIDs(rUser, rUser.getOboUserId());
-
-    // If needed, get IDs for items shared with the requester or only shared publicly.
+    if (allItems && !useAcl) viewableIDs = getViewableSystemIDs(rUser, rUser.getOboUserId());
     Set<String> sharedIDs = new HashSet<>();
-    if (allItems) sharedIDs = authUtils.getSharedSystemIDs(rUser, rUser.getOboUserId(), false);
-    else if (publicOnly) sharedIDs = authUtils.getSharedSystemIDs(rUser, rUser.getOboUserId(), true);
+    if (allItems && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, rUser.getOboUserId(), false);
+    else if (publicOnly && !useAcl) sharedIDs = authUtils.getSharedSystemIDs(rUser, rUser.getOboUserId(), true);
 
     // Get all allowed systems matching the search conditions
     List<TSystem> systems = dao.getSystems(rUser, rUser.getOboUserId(), null, searchAST, limit, orderByList,
-                                           skip, startAfter, includeDeleted, listTypeEnum, viewableIDs, sharedIDs);
+                                           skip, startAfter, includeDeleted, listTypeEnum, viewableIDs, sharedIDs,
+                                           useAcl);
     // Update dynamically computed info and resolve effUser as needed.
     for (TSystem system : systems)
     {
@@ -1696,82 +1910,531 @@ public class SystemsServiceImpl implements SystemsService
 
   /**
    * Get System history records for the System ID specified
+   * Records may be limited to a time range. Records older than the retention period are not available.
+   * @param startTime - only records created at or after this time, null for no lower bound
+   * @param endTime - only records created before this time, null for no upper bound
    */
   @Override
-  public List<SystemHistoryItem> getSystemHistory(ResourceRequestUser rUser, String systemId)
+  public List<SystemHistoryItem> getSystemHistory(ResourceRequestUser rUser, String systemId, Instant startTime,
+                                                  Instant endTime)
           throws TapisException, TapisClientException
   {
     SystemOperation op = SystemOperation.read;
+    if (startTime != null && endTime != null && !startTime.isBefore(endTime))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_HISTORY_TIME_RANGE", rUser, systemId,
+                                                             startTime, endTime));
     // ------------------------- Check authorization -------------------------
     authUtils.checkAuthOwnerUnkown(rUser, op, systemId);
     // ----------------- Retrieve system updates information (system history) --------------------
-    List<SystemHistoryItem> systemHistory = dao.getSystemHistory(rUser.getOboTenantId(), systemId);
+    List<SystemHistoryItem> systemHistory = dao.getSystemHistory(rUser.getOboTenantId(), systemId, startTime, endTime);
     return systemHistory;
   }
 
-  // ************************************************************************
-  // **************************  Package-Private Methods  *******************
-  // ************************************************************************
-
   /**
-   * Use dao to see if system exists. If not throw NOT_FOUND exception.
-   * @param rUser - user making the request
-   * @param resourceTenantId - tenant
-   * @param sysId - system id
-   * @param includeDeleted - indicates if deleted records should be included
+   * Get changes to systems in the obo tenant made after the change identified by sinceSeqId.
+   * Allows consumers that keep copies of system definitions to apply deltas instead of re-listing all systems.
+   * Changes are returned in order. The seqId of the last change returned should be used as sinceSeqId for the
+   *   next request.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param sinceSeqId - return changes after this one, 0 to start from the beginning
+   * @param limit - maximum number of changes to return, capped at MAX_CHANGES_LIMIT, unlimited or invalid uses the cap
+   * @return list of changes
+   * @throws TapisException - for Tapis related exceptions
+   * @throws IllegalArgumentException - invalid parameter passed in
    */
-  private void checkForSysWithThrow(ResourceRequestUser rUser, String resourceTenantId, String sysId,
-                                    boolean includeDeleted)
-          throws TapisException
+  @Override
+  public List<SystemChange> getSystemChanges(ResourceRequestUser rUser, int sinceSeqId, int limit)
+          throws TapisException, TapisClientException, IllegalArgumentException
   {
-    if (!dao.checkForSystem(resourceTenantId, sysId, includeDeleted))
-    {
-      String msg = LibUtils.getMsgAuth(NOT_FOUND, rUser, sysId);
-      log.info(msg);
-      throw new NotFoundException(msg);
-    }
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (sinceSeqId < 0) throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_CHANGES_BAD_CURSOR", rUser, sinceSeqId));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkChangeFeedAllowed(rUser);
+    if (limit <= 0 || limit > MAX_CHANGES_LIMIT) limit = MAX_CHANGES_LIMIT;
+    return dao.getSystemChanges(rUser.getOboTenantId(), sinceSeqId, limit);
   }
 
   /**
-   * Hard delete all systems in the "test" tenant.
-   * Also remove artifacts from the Security Kernel.
-   * NOTE: This is package-private. Only test code should ever use it.
-   *
+   * Start watching for changes to systems in the obo tenant. Changes made by this instance of the service after
+   *   this call are delivered to the returned subscription. Caller must unsubscribe using SystemChangeBus when done.
+   * Same authorization as getSystemChanges.
    * @param rUser - ResourceRequestUser containing tenant, user and request info
-   * @return Number of items deleted
+   * @param systemIds - only changes to these systems, null or empty for all systems
+   * @param tags - only changes to systems having at least one of these tags, null or empty for all systems
+   * @return subscription
    * @throws TapisException - for Tapis related exceptions
    */
-  int hardDeleteAllTestTenantResources(ResourceRequestUser rUser)
-          throws TapisException, TapisClientException
+  @Override
+  public SystemChangeBus.Subscription watchSystemChanges(ResourceRequestUser rUser, Set<String> systemIds,
+                                                         Set<String> tags)
+          throws TapisException, TapisClientException, IllegalArgumentException
   {
-    // For safety hard code the tenant name
-    String oboTenant = "test";
-    // Fetch all resource Ids including deleted items
     if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
-    var systemIdSet = dao.getSystemIDs(oboTenant, true);
-    for (String id : systemIdSet)
-    {
-      hardDeleteSystem(rUser, oboTenant, id);
-    }
-    return systemIdSet.size();
-  }
-
-  // ************************************************************************
-  // **************************  Private Methods  ***************************
-  // ************************************************************************
-
-  /*
-   * Determine if a system is a child system
-   */
-  private static boolean isChildSystem(TSystem system)
-  {
-    return !StringUtils.isBlank(system.getParentId());
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkChangeFeedAllowed(rUser);
+    return SystemChangeBus.getInstance().subscribe(rUser.getOboTenantId(), systemIds, tags,
+                                                   SystemChangeBus.DEFAULT_BUFFER_SIZE);
   }
 
   /**
-   * Update enabled attribute for a system
+   * Get changes to systems in the obo tenant made after a position in the change feed, including current tags and
+   *   the cursor of each change. Used to stream changes to watchers.
+   * Same authorization as getSystemChanges.
    * @param rUser - ResourceRequestUser containing tenant, user and request info
-   * @param systemId - name of system
+   * @param since - return changes after this position
+   * @param limit - maximum number of changes to return, capped at MAX_CHANGES_LIMIT, unlimited or invalid uses the cap
+   * @return list of change events
+   * @throws TapisException - for Tapis related exceptions
+   * @throws IllegalArgumentException - invalid parameter passed in
+   */
+  @Override
+  public List<SystemChangeEvent> getSystemChangeEvents(ResourceRequestUser rUser, SystemChangeCursor since, int limit)
+          throws TapisException, TapisClientException, IllegalArgumentException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (since == null) throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_CHANGES_BAD_CURSOR", rUser, since));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkChangeFeedAllowed(rUser);
+    if (limit <= 0 || limit > MAX_CHANGES_LIMIT) limit = MAX_CHANGES_LIMIT;
+    return dao.getSystemChangeEvents(rUser.getOboTenantId(), since, limit);
+  }
+
+  /**
+   * Get the position of the last change to systems in the obo tenant returned by the change feed.
+   * Used by watchers that only want changes made from now on.
+   * Same authorization as getSystemChanges.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return cursor of the last change
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public SystemChangeCursor getSystemChangesHead(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException, IllegalArgumentException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkChangeFeedAllowed(rUser);
+    return dao.getSystemChangesHead(rUser.getOboTenantId());
+  }
+
+  /**
+   * Get metrics for the cache of admin role checks. Must be a service or tenant admin.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return cache metrics
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public AdminRoleCache.Stats getAdminRoleCacheStats(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminCacheAllowed(rUser);
+    return AdminRoleCache.getInstance().getStats();
+  }
+
+  /**
+   * Remove cached results of admin role checks for the obo tenant. Must be a service or tenant admin.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param userName - only remove the entry for this user, null or blank to remove all entries for the tenant
+   * @return number of entries removed
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public int flushAdminRoleCache(ResourceRequestUser rUser, String userName)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminCacheAllowed(rUser);
+    if (StringUtils.isBlank(userName)) userName = null;
+    return AdminRoleCache.getInstance().flush(rUser.getOboTenantId(), userName);
+  }
+
+  /**
+   * Get settings for detection of slow DB statements and outbound calls, and the most recent slow calls.
+   * Must be a service or tenant admin. For a tenant admin only slow calls made for the tenant are included.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return settings and recent slow calls
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public SlowCallDetector.Snapshot getSlowCalls(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminCacheAllowed(rUser);
+    SlowCallDetector.Snapshot snapshot = SlowCallDetector.getSnapshot();
+    return rUser.isServiceRequest() ? snapshot : snapshot.forTenant(rUser.getOboTenantId());
+  }
+
+  /**
+   * Get queued SK updates for the tenant that have failed SK_OUTBOX_MAX_ATTEMPTS times and are no longer sent.
+   * Must be a service or tenant admin.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return dead letters in queue order
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public List<SkOutboxEntry> getSkOutboxDeadLetters(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminSkOutboxAllowed(rUser);
+    return dao.getDeadLetterSkOutboxEntries(rUser.getOboTenantId());
+  }
+
+  /**
+   * Put the dead letters for a system back in the queue and send them now, e.g. once the cause of the failures
+   *   has been fixed. Must be a service or tenant admin.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemId - system
+   * @return number of entries requeued
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public int requeueSkOutboxDeadLetters(ResourceRequestUser rUser, String systemId)
+          throws TapisException, TapisClientException, IllegalArgumentException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (StringUtils.isBlank(systemId))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminSkOutboxAllowed(rUser);
+    String oboTenant = rUser.getOboTenantId();
+    int count = dao.requeueSkOutboxEntries(oboTenant, systemId);
+    log.info(LibUtils.getMsgAuth("SYSLIB_SK_OUTBOX_ADMIN", rUser, systemId, "requeue", count));
+    if (count > 0) sendSkOutbox(oboTenant, systemId);
+    return count;
+  }
+
+  /**
+   * Remove the dead letters for a system without making the updates in SK, e.g. when they are no longer needed
+   *   or have been made by other means. Later entries for the system are then sent.
+   * Must be a service or tenant admin.
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemId - system
+   * @return number of entries removed
+   * @throws TapisException - for Tapis related exceptions
+   */
+  @Override
+  public int discardSkOutboxDeadLetters(ResourceRequestUser rUser, String systemId)
+          throws TapisException, TapisClientException, IllegalArgumentException
+  {
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    if (StringUtils.isBlank(systemId))
+      throw new IllegalArgumentException(LibUtils.getMsgAuth("SYSLIB_NULL_INPUT_SYSTEM", rUser));
+    // ------------------------- Check authorization -------------------------
+    authUtils.checkAdminSkOutboxAllowed(rUser);
+    String oboTenant = rUser.getOboTenantId();
+    int count = dao.discardSkOutboxEntries(oboTenant, systemId);
+    log.warn(LibUtils.getMsgAuth("SYSLIB_SK_OUTBOX_ADMIN", rUser, systemId, "discard", count));
+    if (count > 0) sendSkOutbox(oboTenant, systemId);
+    return count;
+  }
+
+  /**
+   * Refresh from SK the local ACL entries that have not been refreshed within the configured time to live and
+   *   have been read since they were last refreshed. Oldest entries are refreshed first, at most
+   *   ACL_RECONCILE_BATCH_SIZE per call.
+   * Entries not read for ACL_UNUSED_TTL_PERIODS time to live periods are deleted, along with entries that have
+   *   no sync entry. They are loaded from SK again if needed.
+   * Failures for a grantee are logged and do not stop processing of other grantees.
+   * @return number of grantees refreshed
+   * @throws TapisException - on error reading the list of stale entries
+   */
+  public int reconcileSystemAcls() throws TapisException
+  {
+    if (!isAclEnabled()) return 0;
+    long ttlSecs = RuntimeParameters.getInstance().getSystemAclTtlSecs();
+    int numDeleted = dao.deleteUnusedAclSyncEntries(Instant.now().minusSeconds(ttlSecs * ACL_UNUSED_TTL_PERIODS));
+    List<SystemAclSyncEntry> staleEntries = dao.getStaleAclSyncEntries(Instant.now().minusSeconds(ttlSecs),
+                                                                       ACL_RECONCILE_BATCH_SIZE);
+    int numRefreshed = 0;
+    for (SystemAclSyncEntry entry : staleEntries)
+    {
+      // Calls to SK are made as the service on behalf of the tenant of the grantee.
+      var rUser = new ResourceRequestUser(new AuthenticatedUser(SYSTEMS_SERVICE, siteAdminTenantId,
+                                          TapisThreadContext.AccountType.service.name(), null, SYSTEMS_SERVICE,
+                                          entry.getTenant(), null, null, null));
+      try
+      {
+        if (authUtils.syncAcl(rUser, entry.getTenant(), entry.getGrantee())) numRefreshed++;
+      }
+      catch (Exception e)
+      {
+        log.warn(LibUtils.getMsg("SYSLIB_ACL_SYNC_ERR", entry.getTenant(), entry.getGrantee(), e.getMessage()));
+      }
+    }
+    log.debug(LibUtils.getMsg("SYSLIB_ACL_RECONCILED", staleEntries.size(), numRefreshed, numDeleted));
+    return numRefreshed;
+  }
+
+  /**
+   * Send to SK all queued updates that are due.
+   * For each system entries are sent in the order queued. A failed entry is retried after a delay that doubles
+   *   with each attempt, and later entries for the same system wait for it. Entries for other systems are not held up.
+   * An entry that has failed SK_OUTBOX_MAX_ATTEMPTS times becomes a dead letter and is not sent again unless requeued
+   *   by an admin, see requeueSkOutboxDeadLetters().
+   * @return number of entries sent
+   * @throws TapisException - on error reading or updating the queue
+   */
+  public int processSkOutbox() throws TapisException
+  {
+    return processSkOutbox(null, null);
+  }
+
+  /**
+   * Update child systems for all queued updates that are due.
+   * Each update is made in chunks, one transaction per chunk. A failed update is retried after a delay that doubles
+   *   with each attempt and resumes after the last chunk that was committed.
+   * @return number of queued updates completed
+   * @throws TapisException - on error reading the queue
+   */
+  public int processChildSync() throws TapisException
+  {
+    return processChildSync(null, null);
+  }
+
+  /**
+   * Maintain monthly partitions of the system_updates table:
+   *   create partitions for the current month and the next SYS_UPD_PARTITION_MONTHS_AHEAD months
+   *   detach partitions older than the retention period, if one is configured
+   *   write detached partitions to the archive directory and drop them, if an archive directory is configured
+   * Partitions are only changed by one instance of the service at a time, other instances skip the work.
+   * @return number of partitions archived
+   * @throws TapisException - on error
+   */
+  public int maintainSystemUpdatesPartitions() throws TapisException
+  {
+    var parms = RuntimeParameters.getInstance();
+    YearMonth thisMonth = YearMonth.now(ZoneOffset.UTC);
+    List<String> created = dao.createSystemUpdatesPartitions(thisMonth.plusMonths(SYS_UPD_PARTITION_MONTHS_AHEAD));
+    List<String> detached = Collections.emptyList();
+    if (parms.getSystemUpdatesRetentionMonths() > 0)
+    {
+      detached = dao.detachSystemUpdatesPartitions(thisMonth.minusMonths(parms.getSystemUpdatesRetentionMonths()));
+    }
+    int numArchived = 0;
+    if (!StringUtils.isBlank(parms.getSystemUpdatesArchiveDir()))
+    {
+      Path archiveDir = Path.of(parms.getSystemUpdatesArchiveDir());
+      for (String partition : dao.getDetachedSystemUpdatesPartitions())
+      {
+        Path archiveFile = archiveDir.resolve(partition + ".ndjson.gz");
+        long count = dao.archiveSystemUpdatesPartition(partition, archiveFile);
+        if (count < 0) continue;
+        numArchived++;
+        log.info(LibUtils.getMsg("SYSLIB_SYS_UPD_ARCHIVED", partition, count, archiveFile));
+      }
+    }
+    if (!created.isEmpty() || !detached.isEmpty() || numArchived > 0)
+      log.info(LibUtils.getMsg("SYSLIB_SYS_UPD_PARTITIONS", created, detached, numArchived));
+    return numArchived;
+  }
+
+  // ************************************************************************
+  // **************************  Package-Private Methods  *******************
+  // ************************************************************************
+
+  /**
+   * Use dao to see if system exists. If not throw NOT_FOUND exception.
+   * @param rUser - user making the request
+   * @param resourceTenantId - tenant
+   * @param sysId - system id
+   * @param includeDeleted - indicates if deleted records should be included
+   */
+  private void checkForSysWithThrow(ResourceRequestUser rUser, String resourceTenantId, String sysId,
+                                    boolean includeDeleted)
+          throws TapisException
+  {
+    if (!dao.checkForSystem(resourceTenantId, sysId, includeDeleted))
+    {
+      String msg = LibUtils.getMsgAuth(NOT_FOUND, rUser, sysId);
+      log.info(msg);
+      throw new NotFoundException(msg);
+    }
+  }
+
+  /**
+   * Use dao to fetch a system. If not found throw NOT_FOUND exception.
+   * Combines the existence check and fetch into a single query.
+   * @param sysDao - dao to use, may be part of a unit of work
+   * @param rUser - user making the request
+   * @param resourceTenantId - tenant
+   * @param sysId - system id
+   * @param includeDeleted - indicates if deleted records should be included
+   * @return the system
+   */
+  private static TSystem getSysWithThrow(SystemsDao sysDao, ResourceRequestUser rUser, String resourceTenantId,
+                                         String sysId, boolean includeDeleted)
+          throws TapisException
+  {
+    TSystem system = sysDao.getSystem(resourceTenantId, sysId, includeDeleted);
+    if (system == null)
+    {
+      String msg = LibUtils.getMsgAuth(NOT_FOUND, rUser, sysId);
+      log.info(msg);
+      throw new NotFoundException(msg);
+    }
+    return system;
+  }
+
+  /**
+   * Get a system as part of a unit of work and make sure it still has the owner used for the authorization check.
+   * Authorization is checked before the unit of work so that no DB connection is held while calling SK.
+   * If the owner has changed since then throw CONFLICT exception.
+   */
+  private static TSystem getSysCheckOwner(SystemsDao txDao, ResourceRequestUser rUser, String resourceTenantId,
+                                          String sysId, boolean includeDeleted, String checkedOwner)
+          throws TapisException
+  {
+    TSystem system = getSysWithThrow(txDao, rUser, resourceTenantId, sysId, includeDeleted);
+    if (!Objects.equals(system.getOwner(), checkedOwner)) throw versionConflict(rUser, sysId, null);
+    return system;
+  }
+
+  /**
+   * If caller provided an expected version make sure it matches the current version of the system.
+   * If not throw PRECONDITION_FAILED exception.
+   * @param rUser - user making the request
+   * @param sysId - system id
+   * @param system - current system
+   * @param ifMatchVersion - version the caller expects, null if no check should be made
+   */
+  private static void checkIfMatchVersion(ResourceRequestUser rUser, String sysId, TSystem system,
+                                          Integer ifMatchVersion)
+  {
+    if (ifMatchVersion == null) return;
+    if (system == null)
+    {
+      String msg = LibUtils.getMsgAuth(NOT_FOUND, rUser, sysId);
+      log.info(msg);
+      throw new NotFoundException(msg);
+    }
+    if (system.getVersion() != ifMatchVersion)
+    {
+      String msg = LibUtils.getMsgAuth("SYSLIB_VERSION_MISMATCH", rUser, sysId, ifMatchVersion, system.getVersion());
+      log.info(msg);
+      throw new ClientErrorException(msg, Response.Status.PRECONDITION_FAILED);
+    }
+  }
+
+  /**
+   * Create exception for the case where a system was modified by another request between the time it was read and
+   *   the time the update was made.
+   * If caller provided an expected version then status is PRECONDITION_FAILED, else status is CONFLICT.
+   */
+  private static ClientErrorException versionConflict(ResourceRequestUser rUser, String sysId, Integer ifMatchVersion)
+  {
+    String msg = LibUtils.getMsgAuth("SYSLIB_VERSION_CONFLICT", rUser, sysId);
+    log.info(msg);
+    Response.Status status = (ifMatchVersion == null) ? Response.Status.CONFLICT : Response.Status.PRECONDITION_FAILED;
+    return new ClientErrorException(msg, status);
+  }
+
+  /**
+   * Hard delete all systems in the "test" tenant.
+   * Also remove artifacts from the Security Kernel.
+   * NOTE: This is package-private. Only test code should ever use it.
+   *
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @return Number of items deleted
+   * @throws TapisException - for Tapis related exceptions
+   */
+  int hardDeleteAllTestTenantResources(ResourceRequestUser rUser)
+          throws TapisException, TapisClientException
+  {
+    // For safety hard code the tenant name
+    String oboTenant = "test";
+    // Fetch all resource Ids including deleted items
+    if (rUser == null) throw new IllegalArgumentException(LibUtils.getMsg("SYSLIB_NULL_INPUT_AUTHUSR"));
+    var systemIdSet = dao.getSystemIDs(oboTenant, true);
+    for (String id : systemIdSet)
+    {
+      hardDeleteSystem(rUser, oboTenant, id);
+    }
+    return systemIdSet.size();
+  }
+
+  // ************************************************************************
+  // **************************  Private Methods  ***************************
+  // ************************************************************************
+
+  /*
+   * Checks for optional arguments used when fetching a system.
+   * Determine the tenant for the resource. For user request always oboTenant, for svc request may be overridden
+   * Return the tenant for the resource.
+   */
+  private String checkGetSystemArgs(ResourceRequestUser rUser, SystemOperation op, String systemId,
+                                    String impersonationId, String sharedAppCtxGrantor, String resourceTenant)
+          throws TapisException, TapisClientException
+  {
+    String resTenant;
+    if (!rUser.isServiceRequest()) resTenant = rUser.getOboTenantId();
+    else resTenant = (StringUtils.isBlank(resourceTenant)) ? rUser.getOboTenantId() : resourceTenant;
+
+    // If impersonationId set confirm that it is allowed.
+    //  - allowed for certain Tapis services and for a tenant admin
+    if (!StringUtils.isBlank(impersonationId)) authUtils.checkImpersonateUserAllowed(rUser, op, systemId, impersonationId, resTenant);
+    // If resourceTenant set confirm it is allowed. Only allowed for certain Tapis services.
+    if (!StringUtils.isBlank(resourceTenant)) AuthUtils.checkResourceTenantAllowed(rUser, op, systemId, resourceTenant);
+    // If sharedAppCtx set confirm it is allowed. Only allowed for certain Tapis services.
+    if (!StringUtils.isBlank(sharedAppCtxGrantor)) AuthUtils.checkSharedAppCtxAllowed(rUser, op, systemId);
+    return resTenant;
+  }
+
+  /*
+   * Authorization checks when fetching a system. Throws ForbiddenException if not authorized.
+   */
+  private void checkGetSystemAuth(ResourceRequestUser rUser, SystemOperation op, String systemId, String owner,
+                                  boolean canExec, String oboOrImpersonatedUser, boolean getCreds,
+                                  boolean requireExecPerm, String impersonationId, String sharedAppCtxGrantor)
+          throws TapisException, TapisClientException
+  {
+    // getSystem auth check:
+    // Call checkAuth (this can throw ForbiddenException)
+    //   - always allow a service calling as itself to read/execute a system.
+    //   - if svc not calling as itself do the normal checks using oboUserOrImpersonationId.
+    // If owner is making the request we can skip this check.
+    if (!oboOrImpersonatedUser.equals(owner))
+    {
+      authUtils.checkAuth(rUser, op, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
+    }
+
+    // If caller asks for credentials, explicitly check auth now
+    // That way we can call private getCredential and not have overhead of getUserCredential().
+    if (getCreds) authUtils.checkAuth(rUser, SystemOperation.getCred, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
+
+    // If flag is set to also require EXECUTE perm then make explicit auth call to make sure user has exec perm
+    if (requireExecPerm)
+    {
+      authUtils.checkAuth(rUser, SystemOperation.execute, systemId, owner, nullTargetUser, nullPermSet, impersonationId, sharedAppCtxGrantor);
+    }
+
+    // If flag is set to also require EXECUTE perm then system must support execute
+    if (requireExecPerm && !canExec)
+    {
+      String msg = LibUtils.getMsgAuth("SYSLIB_NOTEXEC", rUser, systemId, op.name());
+      log.warn(msg);
+      throw new ForbiddenException(msg);
+    }
+  }
+
+  /*
+   * Determine if a system is a child system
+   */
+  private static boolean isChildSystem(TSystem system)
+  {
+    return !StringUtils.isBlank(system.getParentId());
+  }
+
+  /**
+   * Update enabled attribute for a system
+   * @param rUser - ResourceRequestUser containing tenant, user and request info
+   * @param systemId - name of system
    * @param sysOp - operation, enable or disable
    * @return Number of items updated
    *
@@ -1811,15 +2474,15 @@ public class SystemsServiceImpl implements SystemsService
    *
    * @throws TapisException - for Tapis related exceptions
    */
-  private int updateDeleted(ResourceRequestUser rUser, String systemId, SystemOperation sysOp)
+  private static int updateDeleted(SystemsDao txDao, ResourceRequestUser rUser, String systemId, SystemOperation sysOp)
           throws TapisException
   {
     String oboTenant = rUser.getOboTenantId();
     // ----------------- Make update --------------------
     if (sysOp == SystemOperation.delete)
-      dao.updateDeleted(rUser, oboTenant, systemId, true);
+      txDao.updateDeleted(rUser, oboTenant, systemId, true);
     else
-      dao.updateDeleted(rUser, oboTenant, systemId, false);
+      txDao.updateDeleted(rUser, oboTenant, systemId, false);
     return 1;
   }
 
@@ -2062,17 +2725,91 @@ public class SystemsServiceImpl implements SystemsService
     return tapisSystem;
   }
 
+  /*
+   * Users named in search conditions on sharedWithUsers. Local ACL entries for these users must be up to date
+   *   before the conditions are evaluated, see AuthUtils.refreshAclForList().
+   */
+  private static Set<String> getShareGrantees(List<String> searchList)
+  {
+    var grantees = new HashSet<String>();
+    for (String cond : searchList) addShareGrantees(cond, grantees);
+    return grantees;
+  }
+
+  private static Set<String> getShareGrantees(ASTNode searchAST)
+  {
+    var grantees = new HashSet<String>();
+    addShareGrantees(searchAST, grantees);
+    return grantees;
+  }
+
+  /*
+   * Walk an abstract syntax tree and collect users named in conditions on sharedWithUsers
+   */
+  private static void addShareGrantees(ASTNode astNode, Set<String> grantees)
+  {
+    if (astNode instanceof ASTUnaryExpression)
+    {
+      addShareGrantees(((ASTUnaryExpression) astNode).getNode(), grantees);
+    }
+    else if (astNode instanceof ASTBinaryExpression)
+    {
+      ASTBinaryExpression binaryNode = (ASTBinaryExpression) astNode;
+      String lValue = getLeafValue(binaryNode.getLeft());
+      String rValue = getLeafValue(binaryNode.getRight());
+      if (lValue == null || rValue == null)
+      {
+        addShareGrantees(binaryNode.getLeft(), grantees);
+        addShareGrantees(binaryNode.getRight(), grantees);
+      }
+      else addShareGrantees(String.format("%s.%s.%s", lValue, binaryNode.getOp(), rValue), grantees);
+    }
+  }
+
+  /*
+   * Collect users named in a single search condition of the form attr.op.value if attr is sharedWithUsers
+   */
+  private static void addShareGrantees(String cond, Set<String> grantees)
+  {
+    String[] condParts = cond.split("\\.", 3);
+    if (condParts.length < 3) return;
+    if (!SHARED_WITH_USERS_FIELD.equals(condParts[0]) &&
+        !SearchUtils.camelCaseToSnakeCase(SHARED_WITH_USERS_FIELD).equals(condParts[0])) return;
+    for (String grantee : SearchUtils.getValueList(condParts[2]))
+    {
+      if (!StringUtils.isBlank(grantee)) grantees.add(grantee);
+    }
+  }
+
+  /*
+   * Value of a leaf node, possibly wrapped in a unary node. Null if the node is not a leaf.
+   */
+  private static String getLeafValue(ASTNode astNode)
+  {
+    if (astNode instanceof ASTUnaryExpression) astNode = ((ASTUnaryExpression) astNode).getNode();
+    return (astNode instanceof ASTLeaf) ? ((ASTLeaf) astNode).getValue() : null;
+  }
+
   /**
    * Determine all systems for which the user has READ or MODIFY permission.
    */
   private Set<String> getViewableSystemIDs(ResourceRequestUser rUser, String oboUser)
           throws TapisException, TapisClientException
   {
+    // Use local copy of permissions if enabled and it could be refreshed.
+    // NOTE: List queries filter on the local copy directly when they can, see AuthUtils.refreshAclForList().
+    if (isAclEnabled())
+    {
+      Set<String> aclSystemIDs = authUtils.getAclViewableSystemIDs(rUser, oboUser);
+      if (aclSystemIDs != null) return aclSystemIDs;
+    }
+
     var systemIDs = new HashSet<String>();
     // Use implies to filter permissions returned. Without implies all permissions for apps, etc. are returned.
     String impliedBy = null;
     String implies = String.format("%s:%s:*:*", PERM_SPEC_PREFIX, rUser.getOboTenantId());
-    var userPerms = sysUtils.getSKClient(rUser).getUserPerms(rUser.getOboTenantId(), oboUser, implies, impliedBy);
+    var userPerms = timeRemoteCall(TARGET_SK, "getUserPerms", sysUtils.getSKClient(rUser),
+                                   c -> c.getUserPerms(rUser.getOboTenantId(), oboUser, implies, impliedBy));
 
     // Check each perm to see if it allows user READ access.
     for (String userPerm : userPerms)
@@ -2105,25 +2842,276 @@ public class SystemsServiceImpl implements SystemsService
     return systemIDs;
   }
 
+  /*
+   * Send queued SK updates that are due, either for all systems or, if tenant is not null, for a single system.
+   * Entries are claimed in batches until none are left that are due.
+   */
+  private int processSkOutbox(String tenant, String systemId) throws TapisException
+  {
+    int numSent = 0;
+    int numFailed = 0;
+    List<SkOutboxEntry> entries;
+    do
+    {
+      Instant leaseUntil = Instant.now().plusSeconds(SK_OUTBOX_LEASE_SECS);
+      entries = dao.claimSkOutboxEntries(tenant, systemId, SK_OUTBOX_BATCH_SIZE, leaseUntil);
+      for (SkOutboxEntry entry : entries)
+      {
+        try
+        {
+          sendSkOutboxEntry(entry);
+          dao.deleteSkOutboxEntry(entry.getSeqId());
+          numSent++;
+        }
+        catch (Exception e)
+        {
+          numFailed++;
+          int attempt = entry.getAttempts() + 1;
+          if (attempt >= SK_OUTBOX_MAX_ATTEMPTS)
+          {
+            log.error(LibUtils.getMsg("SYSLIB_SK_OUTBOX_DEAD_LETTER", entry, attempt, e.getMessage()));
+            dao.deadLetterSkOutboxEntry(entry.getSeqId(), e.getMessage());
+            continue;
+          }
+          long delaySecs = Math.min(SK_OUTBOX_MAX_RETRY_SECS,
+                                    SK_OUTBOX_MIN_RETRY_SECS << Math.min(entry.getAttempts(), 20));
+          Instant nextAttempt = Instant.now().plusSeconds(delaySecs);
+          log.warn(LibUtils.getMsg("SYSLIB_SK_OUTBOX_ERR", entry, attempt, nextAttempt, e.getMessage()));
+          dao.rescheduleSkOutboxEntry(entry.getSeqId(), nextAttempt, e.getMessage());
+        }
+      }
+    }
+    while (!entries.isEmpty());
+    if (numSent > 0 || numFailed > 0) log.debug(LibUtils.getMsg("SYSLIB_SK_OUTBOX_SENT", numSent, numFailed));
+    return numSent;
+  }
+
+  /*
+   * Make the update in SK for a single queued entry.
+   * Each operation may be repeated safely: granting or revoking a permission that is already granted or revoked
+   *   has no effect and deleting a credential that does not exist is not an error.
+   */
+  private void sendSkOutboxEntry(SkOutboxEntry entry) throws TapisException, TapisClientException
+  {
+    String tenant = entry.getTenant();
+    String targetUser = entry.getTargetUser();
+    String permSpec = entry.getPermSpec();
+    // Calls to SK are made as the service on behalf of the tenant of the system.
+    var rUser = new ResourceRequestUser(new AuthenticatedUser(SYSTEMS_SERVICE, siteAdminTenantId,
+                                        TapisThreadContext.AccountType.service.name(), null, SYSTEMS_SERVICE,
+                                        tenant, null, null, null));
+    switch (entry.getOperation())
+    {
+      case GRANT_PERM -> timeRemoteRun(TARGET_SK, "grantUserPermission", sysUtils.getSKClient(rUser),
+                                       c -> c.grantUserPermission(tenant, targetUser, permSpec));
+      case REVOKE_PERM -> timeRemoteRun(TARGET_SK, "revokeUserPermission", sysUtils.getSKClient(rUser),
+                                        c -> c.revokeUserPermission(tenant, targetUser, permSpec));
+      case REVOKE_ALL_PERMS -> authUtils.removeOrphanedSKPerms(rUser, entry.getSystemId(), tenant);
+      // Use internal method instead of public API to skip auth and other checks not needed here.
+      case DELETE_CREDENTIAL -> credUtils.deleteCredential(rUser, entry.getSystemId(), targetUser, true);
+    }
+  }
+
+  /*
+   * Send queued SK updates for a system once the change that queued them has been committed.
+   * If the dispatcher is running the updates are sent on its thread and the request does not wait for SK.
+   *   Otherwise they are sent now. Either way a failure leaves the updates queued and does not fail the request.
+   */
+  private void sendSkOutbox(String tenant, String systemId)
+  {
+    ScheduledExecutorService executor = skOutboxExecutor;
+    Runnable send = () -> {
+      try { processSkOutbox(tenant, systemId); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_SK_OUTBOX_DISPATCH_ERR", tenant, systemId, e.getMessage()), e); }
+    };
+    if (executor != null) executor.execute(send);
+    else send.run();
+  }
+
+  /*
+   * Send any queued SK updates for a system that are due.
+   * Used before a system id is put back in use, so that checkSkOutboxClear() normally finds nothing left.
+   */
+  private void flushSkOutbox(String tenant, String systemId) throws TapisException
+  {
+    if (dao.hasSkOutboxEntries(tenant, systemId)) processSkOutbox(tenant, systemId);
+  }
+
+  /*
+   * Make sure there are no queued SK updates for a system, including dead letters.
+   * Called as part of the unit of work that puts a system id back in use, after the system row has been written,
+   *   so that removal of artifacts queued for a deleted system cannot undo permissions granted after the system
+   *   is created or undeleted.
+   */
+  private static void checkSkOutboxClear(SystemsDao txDao, ResourceRequestUser rUser, String tenant, String systemId)
+          throws TapisException
+  {
+    if (!txDao.hasSkOutboxEntries(tenant, systemId)) return;
+    String msg = LibUtils.getMsgAuth("SYSLIB_SK_OUTBOX_PENDING", rUser, systemId);
+    log.warn(msg);
+    throw new IllegalStateException(msg);
+  }
+
+  /*
+   * Start the background job that sends queued SK updates. Runs once per poll period to retry failed updates
+   *   and pick up updates queued by other instances of the service.
+   * Not started if the poll period is zero or less, in which case updates are sent only after each request.
+   */
+  private synchronized void startSkOutboxDispatcher()
+  {
+    long periodSecs = RuntimeParameters.getInstance().getSkOutboxPollSecs();
+    if (periodSecs <= 0 || skOutboxExecutor != null) return;
+    skOutboxExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "SystemsSkOutbox");
+      t.setDaemon(true);
+      return t;
+    });
+    skOutboxExecutor.scheduleWithFixedDelay(() -> {
+      try { processSkOutbox(); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_SK_OUTBOX_DISPATCH_ERR", "*", "*", e.getMessage()), e); }
+    }, 0, periodSecs, TimeUnit.SECONDS);
+  }
+
+  /*
+   * Update child systems for queued updates that are due, either for all parents or, if tenant is not null,
+   *   for a single parent.
+   */
+  private int processChildSync(String tenant, String parentId) throws TapisException
+  {
+    int numDone = 0;
+    for (ChildSyncEntry entry : dao.getDueChildSyncEntries(tenant, parentId, CHILD_SYNC_BATCH_SIZE))
+    {
+      try
+      {
+        boolean more;
+        do { more = dao.syncChildSystems(entry.getTenant(), entry.getParentId()); } while (more);
+        numDone++;
+      }
+      catch (Exception e)
+      {
+        long delaySecs = Math.min(CHILD_SYNC_MAX_RETRY_SECS,
+                                  CHILD_SYNC_MIN_RETRY_SECS << Math.min(entry.getAttempts(), 20));
+        Instant nextAttempt = Instant.now().plusSeconds(delaySecs);
+        log.warn(LibUtils.getMsg("SYSLIB_CHILD_SYNC_ERR", entry, entry.getAttempts() + 1, nextAttempt,
+                                 e.getMessage()));
+        dao.rescheduleChildSync(entry.getTenant(), entry.getParentId(), nextAttempt, e.getMessage());
+      }
+    }
+    return numDone;
+  }
+
+  /*
+   * Update child systems for a queued update once the change to the parent has been committed.
+   * If the child sync job is running the update is made on its thread and the request does not wait for it.
+   *   Otherwise it is made now. Either way a failure leaves the update queued and does not fail the request.
+   */
+  private void sendChildSync(String tenant, String parentId)
+  {
+    ScheduledExecutorService executor = childSyncExecutor;
+    Runnable send = () -> {
+      try { processChildSync(tenant, parentId); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_CHILD_SYNC_DISPATCH_ERR", tenant, parentId, e.getMessage()), e); }
+    };
+    if (executor != null) executor.execute(send);
+    else send.run();
+  }
+
+  /*
+   * Start the background job that updates child systems. Runs once per poll period to retry failed updates
+   *   and pick up updates queued by other instances of the service.
+   */
+  private synchronized void startChildSync()
+  {
+    if (childSyncExecutor != null) return;
+    childSyncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "SystemsChildSync");
+      t.setDaemon(true);
+      return t;
+    });
+    childSyncExecutor.scheduleWithFixedDelay(() -> {
+      try { processChildSync(); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_CHILD_SYNC_DISPATCH_ERR", "*", "*", e.getMessage()), e); }
+    }, 0, CHILD_SYNC_POLL_SECS, TimeUnit.SECONDS);
+  }
+
+  /*
+   * Start the background job that maintains partitions of the system_updates table.
+   * Runs at startup so that partitions exist for the current month, and then periodically.
+   */
+  private synchronized void startSystemUpdatesMaintenance()
+  {
+    if (sysUpdMaintExecutor != null) return;
+    sysUpdMaintExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "SystemsUpdatesMaint");
+      t.setDaemon(true);
+      return t;
+    });
+    sysUpdMaintExecutor.scheduleWithFixedDelay(() -> {
+      try { maintainSystemUpdatesPartitions(); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_SYS_UPD_MAINT_ERR", e.getMessage()), e); }
+    }, 0, SYS_UPD_MAINT_INTERVAL_HOURS, TimeUnit.HOURS);
+  }
+
+  /*
+   * Start the background job that refreshes stale local ACL entries. Runs once per time to live period.
+   * Not started if use of local ACL entries is turned off.
+   */
+  private synchronized void startAclReconcile()
+  {
+    if (!isAclEnabled() || aclReconcileExecutor != null) return;
+    long periodSecs = RuntimeParameters.getInstance().getSystemAclTtlSecs();
+    aclReconcileExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "SystemsAclReconcile");
+      t.setDaemon(true);
+      return t;
+    });
+    aclReconcileExecutor.scheduleWithFixedDelay(() -> {
+      try { reconcileSystemAcls(); }
+      catch (Exception e) { log.error(LibUtils.getMsg("SYSLIB_ACL_SYNC_ERR", "*", "*", e.getMessage()), e); }
+    }, periodSecs, periodSecs, TimeUnit.SECONDS);
+  }
+
   /**
-   * Remove SK artifacts associated with a System: user credentials, user permissions
+   * Queue removal of SK artifacts associated with a System: user credentials, user permissions
+   * Entries are added using the DAO of the unit of work that deletes the system, so they are committed with it.
+   * Local ACL entries are removed right away.
    * No checks are done for incoming arguments and the system must exist
    */
-  private void removeSKArtifacts(ResourceRequestUser rUser, TSystem system)
-          throws TapisException, TapisClientException
+  private void queueRemoveSKArtifacts(SystemsDao txDao, ResourceRequestUser rUser, TSystem system)
+          throws TapisException
   {
+    String tenant = system.getTenant();
+    String systemId = system.getId();
     String effectiveUserId = system.getEffectiveUserId();
     // Resolve effectiveUserId if necessary. This becomes the target user for perm and cred
     String resolvedEffectiveUserId = sysUtils.resolveEffectiveUserId(system, rUser.getOboUserId());
+    // NOTE: Consider using a notification instead(jira cic-3071)
+    String filesPermSpec = getFilesPermSpec(tenant, systemId);
 
-    // Revoke all permissions in SK
-    authUtils.revokeAllSKPermissions(rUser, system, resolvedEffectiveUserId);
-
+    var entries = new ArrayList<SkOutboxEntry>();
+    // Revoke all permissions in SK, including files perm for owner and possibly effectiveUser
+    entries.add(new SkOutboxEntry(tenant, systemId, SkOutboxOperation.REVOKE_ALL_PERMS, null, null));
+    entries.add(new SkOutboxEntry(tenant, systemId, SkOutboxOperation.REVOKE_PERM, system.getOwner(), filesPermSpec));
     // Remove credentials associated with the system if system has a static effectiveUserId
-    if (!effectiveUserId.equals(APIUSERID_VAR)) {
-      // Use private internal method instead of public API to skip auth and other checks not needed here.
-      credUtils.deleteCredential(rUser, system.getId(), resolvedEffectiveUserId, true);
+    if (!effectiveUserId.equals(APIUSERID_VAR))
+    {
+      entries.add(new SkOutboxEntry(tenant, systemId, SkOutboxOperation.REVOKE_PERM, resolvedEffectiveUserId,
+                                    filesPermSpec));
+      entries.add(new SkOutboxEntry(tenant, systemId, SkOutboxOperation.DELETE_CREDENTIAL, resolvedEffectiveUserId,
+                                    null));
     }
+    txDao.addSkOutboxEntries(entries);
+
+    // Remove local ACL entries
+    if (isAclEnabled()) txDao.removeAcl(tenant, systemId);
+  }
+
+  /*
+   * Files service permission given to the owner of a system for the root directory
+   */
+  private static String getFilesPermSpec(String tenant, String systemId)
+  {
+    return "files:" + tenant + ":*:" + systemId;
   }
 
   /**
@@ -2141,6 +3129,7 @@ public class SystemsServiceImpl implements SystemsService
     updatedSys.setBucketName(origSys.getBucketName());
     updatedSys.setRootDir(origSys.getRootDir());
     updatedSys.setEffectiveUserId(origSys.getEffectiveUserId());
+    updatedSys.setVersion(origSys.getVersion());
     return updatedSys;
   }
 
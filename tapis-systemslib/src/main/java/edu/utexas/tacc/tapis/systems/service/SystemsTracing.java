@@ -0,0 +1,254 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporterBuilder;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.TapisConstants;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+
+/*
+ * OpenTelemetry tracing for the systems service.
+ *
+ * Spans are created for:
+ *   - each incoming request, see TracingFilter in the api module. Trace context is taken from the traceparent header.
+ *   - every call to SystemsService and SystemsDao, using a proxy created by trace()
+ *   - authorization checks and credential retrieval in AuthUtils and CredUtils
+ *   - outbound calls to SK, the Globus proxy service and to systems using SSH or S3, see SystemsMetrics
+ * Trace context is propagated to SK and the Globus proxy service by adding an interceptor to the http client used
+ *   by the service client, see withTracing().
+ *
+ * Until init() is called, and when the exporter is none, spans are not recorded but the trace context from an
+ *   incoming request is still propagated to outbound calls.
+ */
+public final class SystemsTracing
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger log = LoggerFactory.getLogger(SystemsTracing.class);
+
+  private static final String INSTRUMENTATION_NAME = "edu.utexas.tacc.tapis.systems";
+  private static final AttributeKey<String> SERVICE_NAME_KEY = AttributeKey.stringKey("service.name");
+  private static final ContextPropagators PROPAGATORS =
+          ContextPropagators.create(W3CTraceContextPropagator.getInstance());
+
+  private static final TextMapSetter<Request.Builder> REQUEST_SETTER =
+          (builder, key, value) -> { if (builder != null) builder.header(key, value); };
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private static volatile OpenTelemetry openTelemetry = OpenTelemetry.propagating(PROPAGATORS);
+  private static volatile Tracer tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+  private static volatile SdkTracerProvider tracerProvider;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SystemsTracing() { throw new AssertionError(); }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Configure the exporter using runtime parameters. Called once at startup.
+   * @param runParms - runtime parameters
+   */
+  public static synchronized void init(RuntimeParameters runParms)
+  {
+    String exporter = runParms.getTracingExporter();
+    if (StringUtils.isBlank(exporter) || RuntimeParameters.TRACING_EXPORTER_NONE.equals(exporter)) return;
+    var resource = Resource.getDefault()
+                           .merge(Resource.create(Attributes.of(SERVICE_NAME_KEY, TapisConstants.SERVICE_NAME_SYSTEMS)));
+    var providerBuilder = SdkTracerProvider.builder().setResource(resource);
+    if (RuntimeParameters.TRACING_EXPORTER_LOGGING.equals(exporter))
+    {
+      // Log each span as soon as it ends, no collector is required
+      providerBuilder.addSpanProcessor(SimpleSpanProcessor.create(LoggingSpanExporter.create()));
+    }
+    else
+    {
+      OtlpGrpcSpanExporterBuilder otlpBuilder = OtlpGrpcSpanExporter.builder();
+      if (!StringUtils.isBlank(runParms.getTracingOtlpEndpoint()))
+        otlpBuilder.setEndpoint(runParms.getTracingOtlpEndpoint());
+      providerBuilder.addSpanProcessor(BatchSpanProcessor.builder(otlpBuilder.build()).build());
+    }
+    tracerProvider = providerBuilder.build();
+    openTelemetry = OpenTelemetrySdk.builder().setTracerProvider(tracerProvider).setPropagators(PROPAGATORS).build();
+    tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    log.info("Tracing enabled. Exporter: " + exporter);
+  }
+
+  /**
+   * Export any remaining spans and release resources. Called at shutdown.
+   */
+  public static synchronized void shutdown()
+  {
+    if (tracerProvider != null) tracerProvider.close();
+  }
+
+  public static Tracer getTracer() { return tracer; }
+
+  public static ContextPropagators getPropagators() { return PROPAGATORS; }
+
+  /**
+   * Start a span that is a child of the current span. Caller must make the span current and end it.
+   * @param name - span name
+   * @param kind - span kind
+   * @return the span
+   */
+  public static Span startSpan(String name, SpanKind kind)
+  {
+    return tracer.spanBuilder(name).setSpanKind(kind).startSpan();
+  }
+
+  /**
+   * Mark a span as failed
+   * @param span - the span
+   * @param t - cause of the failure
+   */
+  public static void recordFailure(Span span, Throwable t)
+  {
+    span.recordException(t);
+    span.setStatus(StatusCode.ERROR, t.getClass().getSimpleName());
+  }
+
+  /**
+   * Run a call within a span that is a child of the current span
+   * @param name - span name
+   * @param kind - span kind
+   * @param call - the call
+   * @return result of the call
+   */
+  public static <T, E extends Exception> T inSpan(String name, SpanKind kind, SystemsMetrics.Call<T, E> call) throws E
+  {
+    Span span = startSpan(name, kind);
+    try (Scope scope = span.makeCurrent())
+    {
+      return call.call();
+    }
+    catch (Exception | Error e)
+    {
+      recordFailure(span, e);
+      throw e;
+    }
+    finally
+    {
+      span.end();
+    }
+  }
+
+  /**
+   * Wrap an implementation of an interface so that every call through the interface is made within a span.
+   * The span name is the interface name followed by the method name, e.g. SystemsDao.getSystem
+   * @param iface - interface to be implemented by the wrapper
+   * @param target - implementation
+   * @return wrapped implementation
+   */
+  public static <T> T trace(Class<T> iface, T target)
+  {
+    InvocationHandler handler = new TracingHandler(target, iface.getSimpleName());
+    return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] {iface}, handler));
+  }
+
+  /**
+   * Return an http client that adds the current trace context to each outbound request.
+   * If the client already does so it is returned unchanged. Other settings, such as timeouts, are preserved.
+   * @param httpClient - http client used by a service client
+   * @return http client that propagates trace context
+   */
+  public static OkHttpClient withTracing(OkHttpClient httpClient)
+  {
+    for (Interceptor i : httpClient.interceptors()) { if (i instanceof TracingInterceptor) return httpClient; }
+    return httpClient.newBuilder().addInterceptor(new TracingInterceptor()).build();
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Proxy handler making each call through an interface within a span. Methods of Object are not traced.
+   */
+  private static final class TracingHandler implements InvocationHandler
+  {
+    private final Object target;
+    private final String prefix;
+
+    private TracingHandler(Object target1, String prefix1)
+    {
+      target = target1;
+      prefix = prefix1;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+      if (method.getDeclaringClass() == Object.class) return method.invoke(target, args);
+      Span span = startSpan(prefix + "." + method.getName(), SpanKind.INTERNAL);
+      try (Scope scope = span.makeCurrent())
+      {
+        return method.invoke(target, args);
+      }
+      catch (InvocationTargetException e)
+      {
+        recordFailure(span, e.getCause());
+        throw e.getCause();
+      }
+      finally
+      {
+        span.end();
+      }
+    }
+  }
+
+  /*
+   * OkHttp interceptor adding the current trace context as headers. Interceptors run on the calling thread for
+   *   synchronous calls, so the current context is that of the caller.
+   */
+  private static final class TracingInterceptor implements Interceptor
+  {
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException
+    {
+      Request.Builder builder = chain.request().newBuilder();
+      PROPAGATORS.getTextMapPropagator().inject(Context.current(), builder, REQUEST_SETTER);
+      return chain.proceed(builder.build());
+    }
+  }
+}
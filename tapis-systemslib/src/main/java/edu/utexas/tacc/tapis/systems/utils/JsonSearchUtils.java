@@ -0,0 +1,216 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/*
+ * Support for search conditions on paths within the JSON attributes notes and jobCapabilities.
+ *
+ * Supported forms:
+ *   notes.<key>[.<key>...].<op>.<value>
+ *     e.g. notes.project.eq.my proj1
+ *   jobCapabilities[<attr>=<value>,...][.<op>.<value>]
+ *     e.g. jobCapabilities[category=HARDWARE,name=CoresPerNode].gt.2
+ *     Capabilities are selected using attributes category, name, datatype and precedence. The operator is applied
+ *     to the capability value. Without an operator the condition is true if a matching capability exists.
+ * Supported operators are eq, neq, lt, lte, gt, gte. Keys named the same as an operator are not supported.
+ * If the value is a number then comparisons are numeric and values stored as strings are converted.
+ *
+ * A condition is converted to a SQL/JSON path expression, to be used with the jsonb operator @?. This operator
+ *   is supported by the GIN jsonb_path_ops indexes on the notes and job_capabilities columns.
+ */
+public final class JsonSearchUtils
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String NOTES_COLUMN = "notes";
+  public static final String JOB_CAPABILITIES_COLUMN = "job_capabilities";
+
+  private static final Pattern DOT_SPLIT = Pattern.compile("\\.");
+  private static final Pattern COMMA_SPLIT = Pattern.compile(",");
+  private static final Pattern KEY_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_-]*$");
+  private static final Pattern NUMBER_PATTERN = Pattern.compile("^-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?$");
+  private static final Pattern CAPABILITY_PATTERN =
+          Pattern.compile("^(jobCapabilities|job_capabilities)\\[([^\\]]*)\\](?:\\.([A-Za-z]+)\\.(.*))?$", Pattern.DOTALL);
+
+  // Operators supported and the corresponding SQL/JSON path operators
+  private static final Map<String, String> OPS = Map.of("EQ", "==", "NEQ", "!=", "LT", "<", "LTE", "<=",
+                                                        "GT", ">", "GTE", ">=");
+  // Capability attributes that may be used to select capabilities
+  private static final Set<String> CAPABILITY_ATTRS = Set.of("category", "name", "datatype", "precedence");
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private JsonSearchUtils() { throw new AssertionError(); }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Determine if a search condition is for a path within a JSON attribute
+   * @param cond search condition
+   * @return true if condition should be handled by this class rather than SearchUtils
+   */
+  public static boolean isJsonSearchCondition(String cond)
+  {
+    if (cond == null) return false;
+    String c = stripParens(cond);
+    return c.startsWith(NOTES_COLUMN + ".") || c.startsWith("jobCapabilities[") || c.startsWith("job_capabilities[");
+  }
+
+  /**
+   * Validate a search condition for a path within a JSON attribute
+   * @param cond search condition
+   * @return condition to be passed to the Dao
+   * @throws TapisException if condition is invalid
+   */
+  public static String validateJsonSearchCondition(String cond) throws TapisException
+  {
+    parseJsonSearchCondition(cond);
+    return cond;
+  }
+
+  /**
+   * Convert a search condition to a column name and SQL/JSON path expression
+   * @param cond search condition
+   * @return column and path
+   * @throws TapisException if condition is invalid
+   */
+  public static JsonPathCondition parseJsonSearchCondition(String cond) throws TapisException
+  {
+    String c = stripParens(cond);
+    if (c.startsWith(NOTES_COLUMN + ".")) return parseNotesCondition(cond, c.substring(NOTES_COLUMN.length() + 1));
+    Matcher m = CAPABILITY_PATTERN.matcher(c);
+    if (m.matches()) return parseCapabilityCondition(cond, m.group(2), m.group(3), m.group(4));
+    throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID", cond));
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  /*
+   * notes.<key>[.<key>...].<op>.<value>
+   * The operator is the first segment after at least one key that is a supported operator.
+   */
+  private static JsonPathCondition parseNotesCondition(String cond, String pathOpValue) throws TapisException
+  {
+    String[] parts = DOT_SPLIT.split(pathOpValue, -1);
+    int opIdx = -1;
+    for (int i = 1; i < parts.length; i++)
+    {
+      if (OPS.containsKey(parts[i].toUpperCase())) { opIdx = i; break; }
+    }
+    if (opIdx < 0) throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID", cond));
+
+    var path = new StringBuilder("$");
+    for (int i = 0; i < opIdx; i++)
+    {
+      if (!KEY_PATTERN.matcher(parts[i]).matches())
+        throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID", cond));
+      path.append('.').append(quote(parts[i]));
+    }
+    String value = String.join(".", List.of(parts).subList(opIdx + 1, parts.length));
+    path.append(" ? (").append(createPredicate(cond, "@", parts[opIdx].toUpperCase(), value)).append(')');
+    return new JsonPathCondition(NOTES_COLUMN, path.toString());
+  }
+
+  /*
+   * jobCapabilities[<attr>=<value>,...][.<op>.<value>]
+   */
+  private static JsonPathCondition parseCapabilityCondition(String cond, String filterStr, String op, String value)
+          throws TapisException
+  {
+    List<String> predicates = new ArrayList<>();
+    for (String filter : COMMA_SPLIT.split(filterStr))
+    {
+      String[] attrValue = filter.split("=", 2);
+      String attr = attrValue[0].trim();
+      if (attrValue.length != 2 || !CAPABILITY_ATTRS.contains(attr))
+        throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID_ATTR", cond, attr));
+      String attrVal = attrValue[1].trim();
+      // Category and datatype are stored as enum names
+      if ("category".equals(attr) || "datatype".equals(attr)) attrVal = attrVal.toUpperCase();
+      predicates.add(createPredicate(cond, "@." + attr, "EQ", attrVal));
+    }
+    if (op != null)
+    {
+      String opUpper = op.toUpperCase();
+      if (!OPS.containsKey(opUpper)) throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID", cond));
+      predicates.add(createPredicate(cond, "@.value", opUpper, value));
+    }
+    return new JsonPathCondition(JOB_CAPABILITIES_COLUMN, "$[*] ? (" + String.join(" && ", predicates) + ")");
+  }
+
+  /*
+   * Create a predicate comparing an item to a value.
+   * Numbers are compared numerically, so that numbers stored as strings also match. Capability values are
+   *   always stored as strings. Items that cannot be converted to a number do not match.
+   */
+  private static String createPredicate(String cond, String item, String op, String value) throws TapisException
+  {
+    String jsonOp = OPS.get(op);
+    if (NUMBER_PATTERN.matcher(value).matches())
+    {
+      return String.format("%s.double() %s %s", item, jsonOp, value);
+    }
+    if ("true".equals(value) || "false".equals(value))
+    {
+      if (!"EQ".equals(op) && !"NEQ".equals(op))
+        throw new TapisException(LibUtils.getMsg("SYSLIB_JSON_SRCH_INVALID", cond));
+      return String.format("%s %s %s", item, jsonOp, value);
+    }
+    return String.format("%s %s %s", item, jsonOp, quote(value));
+  }
+
+  /*
+   * Quote a string for use in a SQL/JSON path expression
+   */
+  private static String quote(String s)
+  {
+    return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+
+  /*
+   * Remove whitespace and a single pair of enclosing parentheses
+   */
+  private static String stripParens(String cond)
+  {
+    String c = cond.trim();
+    if (c.startsWith("(") && c.endsWith(")")) c = c.substring(1, c.length() - 1).trim();
+    return c;
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * Column and SQL/JSON path expression for a search condition
+   */
+  public static final class JsonPathCondition
+  {
+    private final String columnName;
+    private final String jsonPath;
+
+    JsonPathCondition(String columnName1, String jsonPath1)
+    {
+      columnName = columnName1;
+      jsonPath = jsonPath1;
+    }
+
+    public String getColumnName() { return columnName; }
+    public String getJsonPath() { return jsonPath; }
+  }
+}
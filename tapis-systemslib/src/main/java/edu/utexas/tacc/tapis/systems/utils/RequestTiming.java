@@ -0,0 +1,110 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Time spent in each phase of processing a single request, used to build a Server-Timing response header.
+ *
+ * A timing context is attached to the thread processing a request by begin() and removed by end(). While a
+ *   context is attached, calls to record() add to the total for a phase. When no context is attached record() does
+ *   nothing, so there is no cost for requests that have not asked for timing.
+ * Phases:
+ *   db - calls to SystemsDao
+ *   sk, globus-proxy, ssh, s3 - outbound calls, see SystemsMetrics
+ *   auth - JWT validation and authorization checks. Includes any SK calls made for authorization.
+ *   ser - building the response body
+ * Phases may overlap, so they need not add up to the total. Work done on other threads is not included.
+ */
+public final class RequestTiming
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  public static final String HEADER_NAME = "Server-Timing";
+
+  public static final String DB = "db";
+  public static final String AUTH = "auth";
+  public static final String SERIALIZATION = "ser";
+  public static final String TOTAL = "total";
+
+  private static final ThreadLocal<RequestTiming> current = new ThreadLocal<>();
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private final long startNanos = System.nanoTime();
+
+  // Total nanoseconds and number of calls for each phase, in the order first recorded
+  private final Map<String, long[]> phases = new LinkedHashMap<>();
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private RequestTiming() { }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Attach a new timing context to the current thread, replacing any left over from a previous request
+   */
+  public static void begin() { current.set(new RequestTiming()); }
+
+  /**
+   * Remove the timing context from the current thread
+   * @return the context, or null if none was attached
+   */
+  public static RequestTiming end()
+  {
+    RequestTiming timing = current.get();
+    current.remove();
+    return timing;
+  }
+
+  /**
+   * Add time spent in a phase to the context attached to the current thread, if any
+   * @param phase - phase name, must be a valid token, e.g. db
+   * @param nanos - time spent in nanoseconds
+   */
+  public static void record(String phase, long nanos)
+  {
+    RequestTiming timing = current.get();
+    if (timing == null) return;
+    long[] totals = timing.phases.computeIfAbsent(phase, k -> new long[2]);
+    totals[0] += nanos;
+    totals[1]++;
+  }
+
+  /**
+   * Build the Server-Timing header value, e.g. db;dur=3.1;desc="2 calls", total;dur=12.4
+   * Durations are in milliseconds.
+   * @return header value
+   */
+  public String toHeaderValue()
+  {
+    var sb = new StringBuilder();
+    for (Map.Entry<String, long[]> entry : phases.entrySet())
+    {
+      long[] totals = entry.getValue();
+      sb.append(entry.getKey()).append(";dur=").append(toMillis(totals[0]))
+        .append(";desc=\"").append(totals[1]).append(totals[1] == 1 ? " call" : " calls").append("\", ");
+    }
+    sb.append(TOTAL).append(";dur=").append(toMillis(System.nanoTime() - startNanos));
+    return sb.toString();
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  private static String toMillis(long nanos)
+  {
+    return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+  }
+}
@@ -0,0 +1,238 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+
+/*
+ * Detects DB statements and outbound calls that take longer than a threshold.
+ *
+ * Each slow call is logged as a single event with the details as JSON. The most recent slow calls are also kept in
+ *   a fixed size buffer that can be read using an admin endpoint. A fraction of slow calls may be kept, so that a
+ *   burst of slow calls of one kind does not immediately push out all others. All slow calls are logged.
+ * Thresholds are set per call class:
+ *   db - a single SQL statement, see SlowQueryListener. The SQL is logged with bind values replaced by ?
+ *   sk, globus-proxy, ssh, s3 - outbound calls, see SystemsMetrics
+ * Until init() is called the default thresholds are used.
+ */
+public final class SlowCallDetector
+{
+  // ************************************************************************
+  // *********************** Constants **************************************
+  // ************************************************************************
+
+  // Tracing.
+  private static final Logger log = LoggerFactory.getLogger(SlowCallDetector.class);
+
+  public static final String CALL_CLASS_DB = "db";
+
+  // Default thresholds in milliseconds, and the threshold for any class not listed
+  private static final Map<String, Long> DEFAULT_THRESHOLDS_MS =
+          Map.of(CALL_CLASS_DB, 250L, "sk", 1000L, "globus-proxy", 2000L, "ssh", 5000L, "s3", 5000L);
+  private static final long DEFAULT_THRESHOLD_MS = 1000L;
+  private static final int DEFAULT_BUFFER_SIZE = 100;
+
+  // MDC variable holding the request id, see logback.xml
+  private static final String MDC_REQUEST_ID = "UNIQUE_ID";
+
+  // ************************************************************************
+  // *********************** Fields *****************************************
+  // ************************************************************************
+
+  private static volatile Map<String, Long> thresholdsMs = DEFAULT_THRESHOLDS_MS;
+  private static volatile double sampleRate = 1.0;
+
+  // Ring buffer of recent slow calls. Guarded by the class lock.
+  private static SlowCallEvent[] buffer = new SlowCallEvent[DEFAULT_BUFFER_SIZE];
+  private static int nextIdx = 0;
+  private static long slowCallCount = 0;
+
+  // ************************************************************************
+  // *********************** Constructors ***********************************
+  // ************************************************************************
+
+  private SlowCallDetector() { throw new AssertionError(); }
+
+  // ************************************************************************
+  // *********************** Public methods *********************************
+  // ************************************************************************
+
+  /**
+   * Configure thresholds and the buffer using runtime parameters. Called once at startup.
+   * @param runParms - runtime parameters
+   */
+  public static void init(RuntimeParameters runParms)
+  {
+    configure(runParms.getSlowCallThresholdsMs(), runParms.getSlowCallBufferSize(), runParms.getSlowCallSampleRate());
+  }
+
+  /**
+   * Set thresholds and the buffer. Any events already in the buffer are discarded.
+   * @param thresholds - thresholds in milliseconds by call class, replacing the defaults for those classes
+   * @param bufferSize - number of recent slow calls to keep, zero or less to keep none
+   * @param sampleRate1 - fraction of slow calls to keep in the buffer, between 0 and 1
+   */
+  public static synchronized void configure(Map<String, Long> thresholds, int bufferSize, double sampleRate1)
+  {
+    var m = new HashMap<>(DEFAULT_THRESHOLDS_MS);
+    if (thresholds != null) m.putAll(thresholds);
+    thresholdsMs = Map.copyOf(m);
+    sampleRate = Math.max(0.0, Math.min(1.0, sampleRate1));
+    buffer = new SlowCallEvent[Math.max(0, bufferSize)];
+    nextIdx = 0;
+    slowCallCount = 0;
+  }
+
+  /**
+   * Check the duration of a call and, if it is slow, log it and possibly keep it in the buffer
+   * @param callClass - class of call used to select the threshold, e.g. db or sk
+   * @param operation - operation, e.g. a Dao method or SK client method
+   * @param durationNanos - duration of the call
+   * @param sql - SQL with bind values redacted, null if not a DB call
+   * @param rows - number of rows affected or fetched, negative if unknown
+   */
+  public static void check(String callClass, String operation, long durationNanos, String sql, long rows)
+  {
+    long thresholdMs = getThresholdMs(callClass);
+    if (durationNanos < TimeUnit.MILLISECONDS.toNanos(thresholdMs)) return;
+    var event = new SlowCallEvent(callClass, operation, durationNanos, thresholdMs, sql, rows);
+    log.warn(LibUtils.getMsg("SYSLIB_SLOW_CALL", TapisGsonUtils.getGson().toJson(event)));
+    add(event);
+  }
+
+  /**
+   * Threshold in milliseconds for a class of call
+   */
+  public static long getThresholdMs(String callClass)
+  {
+    return thresholdsMs.getOrDefault(callClass, DEFAULT_THRESHOLD_MS);
+  }
+
+  /**
+   * Current settings and the slow calls in the buffer, most recent first
+   */
+  public static synchronized Snapshot getSnapshot()
+  {
+    var events = new ArrayList<SlowCallEvent>(buffer.length);
+    for (int i = 1; i <= buffer.length; i++)
+    {
+      SlowCallEvent e = buffer[(nextIdx - i + buffer.length) % buffer.length];
+      if (e != null) events.add(e);
+    }
+    return new Snapshot(thresholdsMs, buffer.length, sampleRate, slowCallCount, events);
+  }
+
+  // ************************************************************************
+  // *********************** Private methods ********************************
+  // ************************************************************************
+
+  private static synchronized void add(SlowCallEvent event)
+  {
+    slowCallCount++;
+    if (buffer.length == 0) return;
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+    buffer[nextIdx] = event;
+    nextIdx = (nextIdx + 1) % buffer.length;
+  }
+
+  // ************************************************************************
+  // *********************** Nested types ***********************************
+  // ************************************************************************
+
+  /*
+   * A single slow call. Tenant and request id are taken from the thread processing the request.
+   */
+  public static final class SlowCallEvent
+  {
+    private final String timestamp;
+    private final String callClass;
+    private final String operation;
+    private final double durationMs;
+    private final long thresholdMs;
+    private final String sql;
+    private final Long rows;
+    private final String tenant;
+    private final String requestId;
+    private final String traceId;
+
+    SlowCallEvent(String callClass1, String operation1, long durationNanos, long thresholdMs1, String sql1, long rows1)
+    {
+      timestamp = Instant.now().toString();
+      callClass = callClass1;
+      operation = operation1;
+      durationMs = durationNanos / 1_000_000.0;
+      thresholdMs = thresholdMs1;
+      sql = sql1;
+      rows = rows1 < 0 ? null : rows1;
+      TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+      tenant = threadContext == null ? null : threadContext.getOboTenantId();
+      requestId = MDC.get(MDC_REQUEST_ID);
+      SpanContext spanContext = Span.current().getSpanContext();
+      traceId = spanContext.isValid() ? spanContext.getTraceId() : null;
+    }
+
+    public String getTimestamp() { return timestamp; }
+    public String getCallClass() { return callClass; }
+    public String getOperation() { return operation; }
+    public double getDurationMs() { return durationMs; }
+    public long getThresholdMs() { return thresholdMs; }
+    public String getSql() { return sql; }
+    public Long getRows() { return rows; }
+    public String getTenant() { return tenant; }
+    public String getRequestId() { return requestId; }
+    public String getTraceId() { return traceId; }
+  }
+
+  /*
+   * Settings and recent slow calls
+   */
+  public static final class Snapshot
+  {
+    private final Map<String, Long> thresholdsMs;
+    private final int bufferSize;
+    private final double sampleRate;
+    private final long slowCallCount;
+    private final List<SlowCallEvent> events;
+
+    Snapshot(Map<String, Long> thresholdsMs1, int bufferSize1, double sampleRate1, long slowCallCount1,
+             List<SlowCallEvent> events1)
+    {
+      thresholdsMs = thresholdsMs1;
+      bufferSize = bufferSize1;
+      sampleRate = sampleRate1;
+      slowCallCount = slowCallCount1;
+      events = events1;
+    }
+
+    /**
+     * Copy of this snapshot including only the events for a tenant
+     */
+    public Snapshot forTenant(String tenant)
+    {
+      var tenantEvents = new ArrayList<SlowCallEvent>();
+      for (SlowCallEvent e : events) { if (tenant != null && tenant.equals(e.getTenant())) tenantEvents.add(e); }
+      return new Snapshot(thresholdsMs, bufferSize, sampleRate, slowCallCount, tenantEvents);
+    }
+
+    public Map<String, Long> getThresholdsMs() { return thresholdsMs; }
+    public int getBufferSize() { return bufferSize; }
+    public double getSampleRate() { return sampleRate; }
+    public long getSlowCallCount() { return slowCallCount; }
+    public List<SlowCallEvent> getEvents() { return events; }
+  }
+}
@@ -0,0 +1,2 @@
+-- Support keyset paging over system updates by tenant for the change feed
+CREATE INDEX IF NOT EXISTS sys_upd_tenant_seq_idx ON system_updates (obo_tenant, seq_id);
@@ -0,0 +1,30 @@
+-- ----------------------------------------------------------------------------------------
+--                                     SYSTEM ACL
+-- ----------------------------------------------------------------------------------------
+-- Local copy of permissions and shares for systems. The Security Kernel (SK) is the source of truth.
+-- Rows are updated when permissions and shares are changed through this service and are refreshed
+--   from SK for a grantee when the grantee's entry in system_acl_sync becomes stale.
+-- acl_type is PERM for permissions granted to a user or SHARE for a share with a user or with the public grantee.
+CREATE TABLE system_acl
+(
+    system_seq_id INTEGER REFERENCES systems(seq_id) ON DELETE CASCADE,
+    tenant    TEXT NOT NULL,
+    system_id TEXT NOT NULL,
+    grantee   TEXT NOT NULL,
+    acl_type  TEXT NOT NULL,
+    perms     TEXT[] NOT NULL DEFAULT '{}',
+    updated   TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    PRIMARY KEY (tenant, system_id, grantee, acl_type)
+);
+ALTER TABLE system_acl OWNER TO tapis_sys;
+CREATE INDEX sys_acl_tenant_grantee_idx ON system_acl (tenant, grantee);
+
+-- Time at which the entries for a grantee were last refreshed from SK
+CREATE TABLE system_acl_sync
+(
+    tenant  TEXT NOT NULL,
+    grantee TEXT NOT NULL,
+    synced  TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    PRIMARY KEY (tenant, grantee)
+);
+ALTER TABLE system_acl_sync OWNER TO tapis_sys;
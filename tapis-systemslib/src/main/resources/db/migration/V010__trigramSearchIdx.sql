@@ -0,0 +1,11 @@
+-- Support substring searches such as host.like.*frontera* and description.like.*gpu*
+-- A leading wildcard means a btree index cannot be used. Trigram GIN indexes support LIKE with wildcards
+--   anywhere in the pattern, as long as the pattern contains at least one sequence of 3 or more characters.
+-- Prerequisite:
+--   The pg_trgm extension is trusted starting with postgres 13, so the owner of the database can create it.
+--   For older versions an admin user must create it first, for example:
+--     CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA tapis_sys;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS sys_id_trgm_idx ON systems USING GIN (id gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS sys_host_trgm_idx ON systems USING GIN (host gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS sys_description_trgm_idx ON systems USING GIN (description gin_trgm_ops);
@@ -0,0 +1,11 @@
+-- Indexes matching the conditions used when listing and searching systems.
+-- All queries are for a single tenant and nearly all exclude deleted systems, so the indexes lead with tenant
+--   and are partial indexes on deleted = false. Deleted systems do not take up space in these indexes.
+-- NOTE: For the planner to use a partial index the query must contain deleted = false as a literal rather
+--       than as a bind parameter.
+CREATE INDEX IF NOT EXISTS sys_tenant_owner_idx ON systems (tenant, owner) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS sys_tenant_parent_id_idx ON systems (tenant, parent_id) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS sys_tenant_type_enabled_idx ON systems (tenant, system_type, enabled) WHERE deleted = false;
+-- Replaced by the indexes above. All queries on owner or parent_id also have a condition on tenant.
+DROP INDEX IF EXISTS sys_owner_idx;
+DROP INDEX IF EXISTS sys_system_parent_id_idx;
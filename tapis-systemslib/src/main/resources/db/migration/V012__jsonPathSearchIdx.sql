@@ -0,0 +1,4 @@
+-- Support searches on paths within notes and job_capabilities, e.g. notes.project.eq.X
+-- Searches are rendered using the jsonb operator @? which is supported by jsonb_path_ops GIN indexes.
+CREATE INDEX IF NOT EXISTS sys_notes_path_idx ON systems USING GIN (notes jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS sys_job_capabilities_path_idx ON systems USING GIN (job_capabilities jsonb_path_ops);
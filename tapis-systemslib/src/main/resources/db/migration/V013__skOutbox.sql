@@ -0,0 +1,27 @@
+-- ----------------------------------------------------------------------------------------
+--                                     SK OUTBOX
+-- ----------------------------------------------------------------------------------------
+-- Updates to the Security Kernel (SK) that follow from a change to a system, e.g. granting the files permission
+--   to a new owner or removing credentials of a deleted system.
+-- Rows are written in the same transaction as the change to the system and removed once the update has been made
+--   in SK. Rows for a system are processed in seq_id order.
+-- operation is one of GRANT_PERM, REVOKE_PERM, REVOKE_ALL_PERMS or DELETE_CREDENTIAL.
+-- idempotency_key is unique for each update, so re-queuing the same update has no effect.
+-- next_attempt is pushed out while a dispatcher is working on a row and after each failed attempt.
+CREATE TABLE sk_outbox
+(
+    seq_id          SERIAL PRIMARY KEY,
+    idempotency_key TEXT NOT NULL UNIQUE,
+    tenant          TEXT NOT NULL,
+    system_id       TEXT NOT NULL,
+    operation       TEXT NOT NULL,
+    target_user     TEXT,
+    perm_spec       TEXT,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    last_error      TEXT,
+    next_attempt    TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc')
+);
+ALTER TABLE sk_outbox OWNER TO tapis_sys;
+CREATE INDEX sk_outbox_tenant_system_idx ON sk_outbox (tenant, system_id, seq_id);
+CREATE INDEX sk_outbox_next_attempt_idx ON sk_outbox (next_attempt);
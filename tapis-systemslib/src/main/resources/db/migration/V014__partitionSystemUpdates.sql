@@ -0,0 +1,76 @@
+-- ----------------------------------------------------------------------------------------
+--                                SYSTEM UPDATES PARTITIONS
+-- ----------------------------------------------------------------------------------------
+-- Convert system_updates to a table partitioned by month on created.
+-- Monthly partitions are named system_updates_pYYYYMM. Partitions for the coming months are created ahead of time
+--   by a background job in the service, which also detaches and optionally archives partitions older than
+--   the retention period. Rows outside of all monthly partitions go to system_updates_default. The job moves
+--   such rows into their monthly partition when it creates the partition.
+-- The primary key must include the partition key, so it becomes (seq_id, created). seq_id is still assigned
+--   from the same sequence and remains unique.
+-- Existing rows are copied into the new table. This may take some time for a large table.
+
+-- Move the existing table out of the way, keeping its sequence
+ALTER TABLE system_updates RENAME TO system_updates_old;
+ALTER TABLE system_updates_old RENAME CONSTRAINT system_updates_pkey TO system_updates_old_pkey;
+ALTER TABLE system_updates_old ALTER COLUMN seq_id DROP DEFAULT;
+
+CREATE TABLE system_updates
+(
+    seq_id INTEGER NOT NULL DEFAULT nextval('system_updates_seq_id_seq'),
+    system_seq_id INTEGER REFERENCES systems(seq_id) ON DELETE CASCADE,
+    obo_tenant TEXT NOT NULL,
+    obo_user TEXT NOT NULL,
+    jwt_tenant TEXT NOT NULL,
+    jwt_user TEXT NOT NULL,
+    system_id TEXT NOT NULL,
+    operation TEXT NOT NULL,
+    description JSONB NOT NULL,
+    raw_data TEXT,
+    uuid uuid NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    PRIMARY KEY (seq_id, created)
+) PARTITION BY RANGE (created);
+ALTER TABLE system_updates OWNER TO tapis_sys;
+ALTER SEQUENCE system_updates_seq_id_seq OWNED BY system_updates.seq_id;
+COMMENT ON COLUMN system_updates.seq_id IS 'System update request sequence id';
+COMMENT ON COLUMN system_updates.system_seq_id IS 'Sequence id of system being updated';
+COMMENT ON COLUMN system_updates.obo_tenant IS 'OBO Tenant associated with the change request';
+COMMENT ON COLUMN system_updates.obo_user IS 'OBO User associated with the change request';
+COMMENT ON COLUMN system_updates.jwt_tenant IS 'Tenant of user who requested the update';
+COMMENT ON COLUMN system_updates.jwt_user IS 'Name of user who requested the update';
+COMMENT ON COLUMN system_updates.system_id IS 'Id of system being updated';
+COMMENT ON COLUMN system_updates.operation IS 'Type of update operation';
+COMMENT ON COLUMN system_updates.description IS 'JSON describing the change. Secrets scrubbed as needed.';
+COMMENT ON COLUMN system_updates.raw_data IS 'Raw data associated with the request, if available. Secrets scrubbed as needed.';
+COMMENT ON COLUMN system_updates.uuid IS 'UUID of system being updated';
+COMMENT ON COLUMN system_updates.created IS 'UTC time for when record was created';
+
+CREATE TABLE system_updates_default PARTITION OF system_updates DEFAULT;
+ALTER TABLE system_updates_default OWNER TO tapis_sys;
+
+-- Monthly partitions from the month of the oldest existing row through three months from now
+DO $$
+DECLARE
+  m DATE;
+  last_month DATE := date_trunc('month', NOW() AT TIME ZONE 'utc') + INTERVAL '3 months';
+BEGIN
+  SELECT COALESCE(date_trunc('month', MIN(created)), date_trunc('month', NOW() AT TIME ZONE 'utc'))
+    INTO m FROM system_updates_old;
+  WHILE m <= last_month LOOP
+    EXECUTE format('CREATE TABLE %I PARTITION OF system_updates FOR VALUES FROM (%L) TO (%L)',
+                   'system_updates_p' || to_char(m, 'YYYYMM'), m, m + INTERVAL '1 month');
+    EXECUTE format('ALTER TABLE %I OWNER TO tapis_sys', 'system_updates_p' || to_char(m, 'YYYYMM'));
+    m := m + INTERVAL '1 month';
+  END LOOP;
+END $$;
+
+-- Copy existing rows and remove the old table
+INSERT INTO system_updates SELECT * FROM system_updates_old;
+DROP TABLE system_updates_old;
+
+-- Indexes are created on each partition
+-- Support keyset paging over system updates by tenant for the change feed
+CREATE INDEX IF NOT EXISTS sys_upd_tenant_seq_idx ON system_updates (obo_tenant, seq_id);
+-- Support retrieving the history of a system
+CREATE INDEX IF NOT EXISTS sys_upd_tenant_system_idx ON system_updates (obo_tenant, system_id, created);
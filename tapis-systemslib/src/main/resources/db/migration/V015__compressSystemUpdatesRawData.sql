@@ -0,0 +1,10 @@
+-- ----------------------------------------------------------------------------------------
+--                             SYSTEM UPDATES COMPRESSED RAW DATA
+-- ----------------------------------------------------------------------------------------
+-- Raw data for a system update record is large and rarely read, so it is stored gzip compressed in raw_data_gz.
+-- raw_data is only set when compressing would not make the data smaller, and for rows written before this
+--   migration. Existing rows are converted in batches by MigrateJob using option --compress-update-data, which
+--   also reports the storage used before and after.
+-- Adding a nullable column without a default does not rewrite the table.
+ALTER TABLE system_updates ADD COLUMN raw_data_gz BYTEA;
+COMMENT ON COLUMN system_updates.raw_data_gz IS 'Raw data associated with the request compressed using gzip, if available. Secrets scrubbed as needed.';
@@ -0,0 +1,24 @@
+-- ----------------------------------------------------------------------------------------
+--                                     CHILD SYNC
+-- ----------------------------------------------------------------------------------------
+-- Pending updates of child systems from their parent, for parents with too many children to update in the
+--   same transaction as the change to the parent.
+-- A row is written in the same transaction as the change to the parent and children are then updated in chunks,
+--   one transaction per chunk. last_seq_id is the seq_id of the last child updated, so work resumes from there
+--   after a failure. A later change to the parent merges its columns into fields and starts again from the first child.
+-- fields holds the names of the columns of the parent to be copied to the children.
+-- next_attempt is pushed out after each failed attempt.
+CREATE TABLE child_sync
+(
+    tenant       TEXT NOT NULL,
+    parent_id    TEXT NOT NULL,
+    fields       TEXT[] NOT NULL,
+    last_seq_id  INTEGER NOT NULL DEFAULT 0,
+    attempts     INTEGER NOT NULL DEFAULT 0,
+    last_error   TEXT,
+    next_attempt TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    created      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    PRIMARY KEY (tenant, parent_id)
+);
+ALTER TABLE child_sync OWNER TO tapis_sys;
+CREATE INDEX child_sync_next_attempt_idx ON child_sync (next_attempt);
@@ -0,0 +1,10 @@
+-- ----------------------------------------------------------------------------------------
+--                                 SYSTEM ACL SYNC VERSION
+-- ----------------------------------------------------------------------------------------
+-- version is incremented each time the entries for a grantee are changed, either by a refresh from SK or by an
+--   update made through this service. A refresh only replaces the entries if the version is the one read before
+--   the call to SK, so a refresh that overlaps with another refresh or update cannot overwrite newer entries.
+-- used is the last time the entries for a grantee were read. Entries not used since they were last refreshed are
+--   not refreshed by the reconcile job and are removed once they have been stale for a while.
+ALTER TABLE system_acl_sync ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE system_acl_sync ADD COLUMN used TIMESTAMP WITHOUT TIME ZONE;
@@ -0,0 +1,7 @@
+-- ----------------------------------------------------------------------------------------
+--                                 SK OUTBOX DEAD LETTER
+-- ----------------------------------------------------------------------------------------
+-- An entry that still fails after the maximum number of attempts is marked as a dead letter and is no longer sent.
+-- Later entries for the same system wait behind it and the system id cannot be put back in use until an admin
+--   either requeues the entry, once the cause of the failure has been fixed, or discards it.
+ALTER TABLE sk_outbox ADD COLUMN dead_letter BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,15 @@
+-- ----------------------------------------------------------------------------------------
+--                             SYSTEM UPDATES TRANSACTION ID
+-- ----------------------------------------------------------------------------------------
+-- Id of the transaction that wrote the record, used by the change feed.
+-- Sequence ids are assigned at insert but become visible at commit, so a record with a lower sequence id may
+--   become visible after one with a higher id. The change feed is ordered by transaction id and then sequence id,
+--   and only returns records of transactions older than the oldest transaction still running. Once returned, no
+--   record can appear before the cursor.
+-- Existing rows get 0 so that adding the column does not rewrite the table. They are older than any other row.
+ALTER TABLE system_updates ADD COLUMN txid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE system_updates ALTER COLUMN txid SET DEFAULT txid_current();
+COMMENT ON COLUMN system_updates.txid IS 'Id of the transaction that wrote the record';
+
+-- Support keyset paging over system updates by tenant in change feed order
+CREATE INDEX IF NOT EXISTS sys_upd_tenant_txid_seq_idx ON system_updates (obo_tenant, txid, seq_id);
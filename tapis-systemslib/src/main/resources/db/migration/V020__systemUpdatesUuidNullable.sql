@@ -0,0 +1,6 @@
+-- ----------------------------------------------------------------------------------------
+--                              SYSTEM UPDATES UUID NULLABLE
+-- ----------------------------------------------------------------------------------------
+-- Update records written by the batched writer may be for a system that has since been removed. Such records are
+--   kept for the audit trail with no system_seq_id and no uuid.
+ALTER TABLE system_updates ALTER COLUMN uuid DROP NOT NULL;
@@ -0,0 +1,139 @@
+package edu.utexas.tacc.tapis.systems.dao;
+
+import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
+import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
+import edu.utexas.tacc.tapis.systems.IntegrationUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.model.TSystem;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.testng.Assert;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.utexas.tacc.tapis.systems.IntegrationUtils.*;
+import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEMS;
+
+/**
+ * Check the query plans for list and search queries against a DB running locally.
+ * Each case gives the conditions for a query and the index the plan is expected to use.
+ * Plans are fetched over a separate connection in a transaction that is rolled back. Statistics are refreshed and
+ *   sequential scans are turned off when getting the plan, so the small number of systems created here is enough
+ *   to show if an index is able to support the query. A failure here means a change to the schema or to how
+ *   conditions are rendered has made a common query unable to use the index intended for it.
+ */
+@Test(groups={"integration"})
+public class QueryPlanDaoTest
+{
+  private SystemsDaoImpl dao;
+
+  // Test data
+  private static final String testKey = "QPlan";
+  int numSystems = 20;
+  TSystem[] systems = IntegrationUtils.makeSystems(numSystems, testKey);
+
+  @BeforeSuite
+  public void setup() throws Exception
+  {
+    System.out.println("Executing BeforeSuite setup method: " + QueryPlanDaoTest.class.getSimpleName());
+    dao = new SystemsDaoImpl();
+    // Initialize authenticated user
+    ResourceRequestUser rUser = new ResourceRequestUser(new AuthenticatedUser(apiUser, tenantName, TapisThreadContext.AccountType.user.name(),
+            null, apiUser, tenantName, null, null, null));
+    // Cleanup anything leftover from previous failed run
+    teardown();
+
+    for (int i = 0; i < numSystems/2; i++) { systems[i].setOwner(owner2); }
+    for (TSystem sys : systems)
+    {
+      boolean itemCreated = dao.createSystem(rUser, sys, gson.toJson(sys), rawDataEmptyJson);
+      Assert.assertTrue(itemCreated, "Item not created, id: " + sys.getId());
+    }
+  }
+
+  @AfterSuite
+  public void teardown() throws Exception
+  {
+    System.out.println("Executing AfterSuite teardown for " + QueryPlanDaoTest.class.getSimpleName());
+    //Remove all objects created by tests
+    for (TSystem sys : systems)
+    {
+      dao.hardDeleteSystem(tenantName, sys.getId());
+    }
+    Assert.assertFalse(dao.checkForSystem(tenantName, systems[0].getId(), true),
+                       "System not deleted. System name: " + systems[0].getId());
+  }
+
+  @Test
+  public void testListAndSearchPlans() throws Exception
+  {
+    // Listing owned systems
+    checkPlan("sys_tenant_owner_idx", owner2);
+    // Listing children of a parent system
+    checkPlan("sys_tenant_parent_id_idx", null, "parent_id.eq." + systems[0].getId());
+    // Searching by system type and enabled
+    checkPlan("sys_tenant_type_enabled_idx", null, "system_type.eq.LINUX", "enabled.eq.true");
+    // Substring searches using a leading wildcard
+    checkPlan("sys_id_trgm_idx", null, "id.like.*" + testKey + "*");
+    checkPlan("sys_host_trgm_idx", null, "host.like.*" + testKey + "00*");
+    checkPlan("sys_description_trgm_idx", null, "description.like.*description*");
+  }
+
+  /*
+   * Get the plan for a query and check that it uses the expected index.
+   * Conditions are pre-processed as is done in SystemsServiceImpl before it calls the Dao.
+   */
+  private void checkPlan(String expectedIndex, String owner, String... searchConds) throws Exception
+  {
+    List<String> searchList = new ArrayList<>();
+    for (String cond : searchConds) { searchList.add(SearchUtils.validateAndProcessSearchCondition(cond)); }
+    List<String> plan = explainSystemsSearch(owner, searchList);
+    String planStr = String.join(System.lineSeparator(), plan);
+    System.out.println("Plan for owner: " + owner + " search: " + searchList + System.lineSeparator() + planStr);
+    Assert.assertTrue(planStr.contains(expectedIndex),
+                      "Expected index " + expectedIndex + " not used. Plan:" + System.lineSeparator() + planStr);
+  }
+
+  /*
+   * Get the query plan for selecting systems in the test tenant matching an owner and a list of search conditions.
+   */
+  private List<String> explainSystemsSearch(String owner, List<String> searchList) throws Exception
+  {
+    Condition whereCondition = (SYSTEMS.TENANT.eq(tenantName)).and(SYSTEMS.DELETED.isFalse());
+    if (owner != null) whereCondition = whereCondition.and(SYSTEMS.OWNER.eq(owner));
+    whereCondition = SystemsDaoImpl.addSearchListToWhere(whereCondition, searchList);
+
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    List<String> plan = new ArrayList<>();
+    try (Connection conn = DriverManager.getConnection(parms.getJdbcURL(), parms.getDbUser(), parms.getDbPassword()))
+    {
+      conn.setAutoCommit(false);
+      try
+      {
+        DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+        db.execute("ANALYZE {0}", SYSTEMS);
+        db.execute("SET LOCAL enable_seqscan = off");
+        for (Record r : db.fetch("EXPLAIN {0}", db.selectFrom(SYSTEMS).where(whereCondition)))
+        {
+          plan.add(r.get(0, String.class));
+        }
+      }
+      finally
+      {
+        conn.rollback();
+      }
+    }
+    return plan;
+  }
+}
@@ -1,12 +1,14 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
 import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.shared.utils.TapisUtils;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.IntegrationUtils;
 import edu.utexas.tacc.tapis.systems.model.TSystem;
+import edu.utexas.tacc.tapis.systems.utils.JsonSearchUtils;
 import org.testng.Assert;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
@@ -19,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -276,6 +279,45 @@ public class SearchDaoTest
     }
   }
 
+  /*
+   * Check searches on paths within the JSON attributes notes and jobCapabilities
+   * All systems are created with the same notes and capabilities, see IntegrationUtils.makeSystems()
+   */
+  @Test(groups={"integration"})
+  public void testJsonPathSearch() throws Exception
+  {
+    var cases = new LinkedHashMap<String, Integer>();
+    cases.put("notes.project.eq.my proj1", numSystems);
+    cases.put("notes.project.eq.noSuchProject", 0);
+    cases.put("notes.project.neq.my proj1", 0);
+    cases.put("notes.testdata.gt.abc 0", numSystems);
+    cases.put("notes.noSuchKey.eq.my proj1", 0);
+    cases.put("jobCapabilities[category=HARDWARE,name=CoresPerNode].eq.4", numSystems);
+    cases.put("jobCapabilities[category=hardware,name=CoresPerNode].gt.2", numSystems);
+    cases.put("jobCapabilities[category=HARDWARE,name=CoresPerNode].gt.4", 0);
+    cases.put("jobCapabilities[category=SCHEDULER,name=Type].eq.Slurm", numSystems);
+    cases.put("jobCapabilities[category=SOFTWARE,name=OpenMP]", numSystems);
+    cases.put("jobCapabilities[category=SOFTWARE,name=MPI]", 0);
+    String verifiedIdLikeAll = SearchUtils.validateAndProcessSearchCondition(sysIdLikeAll);
+    for (Map.Entry<String, Integer> item : cases.entrySet())
+    {
+      System.out.println("Checking JSON path search: " + item.getKey());
+      Assert.assertTrue(JsonSearchUtils.isJsonSearchCondition(item.getKey()));
+      var verifiedSearchList = List.of(verifiedIdLikeAll, JsonSearchUtils.validateJsonSearchCondition(item.getKey()));
+      List<TSystem> searchResults = dao.getSystems(rOwner, null, verifiedSearchList, null, DEFAULT_LIMIT,
+                                                   orderByListNull, DEFAULT_SKIP, startAfterNull, showDeletedFalse, listTypeAll, owner2IDSet, setOfIDsNull);
+      assertEquals(searchResults.size(), (int) item.getValue(), "Incorrect result count for search: " + item.getKey());
+    }
+
+    // Invalid conditions
+    for (String cond : List.of("notes.project.like.my*", "notes.eq.abc", "notes.project.gt.true",
+                               "jobCapabilities[noSuchAttr=abc].eq.4", "jobCapabilities[].eq.4"))
+    {
+      Assert.assertTrue(JsonSearchUtils.isJsonSearchCondition(cond));
+      Assert.assertThrows(TapisException.class, () -> JsonSearchUtils.validateJsonSearchCondition(cond));
+    }
+  }
+
   /*
    * Test pagination options: limit, skip
    */
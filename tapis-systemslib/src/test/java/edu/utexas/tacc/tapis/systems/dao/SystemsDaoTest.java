@@ -1,26 +1,66 @@
 package edu.utexas.tacc.tapis.systems.dao;
 
 import com.google.gson.JsonObject;
+import edu.utexas.tacc.tapis.search.SearchUtils;
+import edu.utexas.tacc.tapis.shared.TapisConstants;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.sharedapi.security.AuthenticatedUser;
 import edu.utexas.tacc.tapis.sharedapi.security.ResourceRequestUser;
 import edu.utexas.tacc.tapis.systems.IntegrationUtils;
+import edu.utexas.tacc.tapis.systems.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.systems.gen.jooq.tables.SystemUpdates;
 import edu.utexas.tacc.tapis.systems.model.Capability;
+import edu.utexas.tacc.tapis.systems.model.ChildSyncEntry;
 import edu.utexas.tacc.tapis.systems.model.JobRuntime;
 import edu.utexas.tacc.tapis.systems.model.SchedulerProfile;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry;
+import edu.utexas.tacc.tapis.systems.model.SkOutboxEntry.SkOutboxOperation;
+import edu.utexas.tacc.tapis.systems.model.SystemAclSyncEntry;
+import edu.utexas.tacc.tapis.systems.model.SystemChange;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeCursor;
+import edu.utexas.tacc.tapis.systems.model.SystemChangeEvent;
 import edu.utexas.tacc.tapis.systems.model.SystemHistoryItem;
+import edu.utexas.tacc.tapis.systems.model.SystemUpdatesStorage;
+import edu.utexas.tacc.tapis.systems.service.SystemChangeBus;
 
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
 import org.jooq.tools.StringUtils;
 import org.testng.Assert;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import edu.utexas.tacc.tapis.systems.model.TSystem;
 import edu.utexas.tacc.tapis.systems.model.TSystem.SystemOperation;
@@ -28,6 +68,8 @@ import edu.utexas.tacc.tapis.systems.model.TSystem.SystemType;
 
 import static edu.utexas.tacc.tapis.shared.threadlocal.SearchParameters.*;
 import static edu.utexas.tacc.tapis.systems.IntegrationUtils.*;
+import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEMS;
+import static edu.utexas.tacc.tapis.systems.gen.jooq.Tables.SYSTEM_UPDATES;
 
 /**
  * Test the SystemsDao class against a DB running locally
@@ -39,9 +81,11 @@ public class SystemsDaoTest
   private ResourceRequestUser rOwner1, rOwner2, rOwner3, rOwner4, rOwner5, rOwner6, rOwner7;
 
   // Create test system definitions and scheduler profiles in memory
-  int numSystems = 17; // All in use: 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16
+  int numSystems = 36; // All in use: 0 through 35
   int numSchedulerProfiles = 5;
   String testKey = "Dao";
+  // Tenant for system_updates rows written directly by the partition tests, so they do not show up in other tests
+  private static final String partTenant = "partTestDao";
   TSystem dtnSystem1 = IntegrationUtils.makeDtnSystem1(testKey);
   TSystem dtnSystem2 = IntegrationUtils.makeDtnSystem2(testKey);
   TSystem[] systems = IntegrationUtils.makeSystems(numSystems, testKey);
@@ -249,6 +293,51 @@ public class SystemsDaoTest
     Assert.assertNotNull(systems, "Returned list of systems should not be null");
     System.out.printf("getSystems returned %d items using listType = %s%n", systems.size(), listTypeAll);
     Assert.assertEquals(systems.size(), 4, "Wrong number of returned systems for listType=" + listTypeAll);
+
+    // Simulate getting ALL for a user with a very large number of viewable systems.
+    // Ids are bound as a single array so this must not exceed the Postgres limit of 32767 bind parameters.
+    for (int i = 0; i < 40000; i++) { viewableIDs.add(sysNamePrefix + testKey + "NotThere" + i); }
+    systems = dao.getSystems(rOwner7, null, null, null, DEFAULT_LIMIT, orderByListNull, DEFAULT_SKIP, startAfterNull,
+                             showDeletedFalse, listTypeAll, viewableIDs, sharedIDs);
+    Assert.assertEquals(systems.size(), 4, "Wrong number of returned systems for large set of IDs");
+    int count = dao.getSystemsCount(rOwner7, null, null, null, orderByListNull, startAfterNull, showDeletedFalse,
+                                    listTypeAll, viewableIDs, sharedIDs);
+    Assert.assertEquals(count, 4, "Wrong count of systems for large set of IDs");
+  }
+
+  // Test that a condition on a set of ids is rendered as a single array bind whatever the size of the set
+  @Test
+  public void testIdInSetCondition()
+  {
+    var ctx = DSL.using(SQLDialect.POSTGRES);
+    for (int n : new int[] {1, 1000})
+    {
+      var ids = new HashSet<String>();
+      for (int i = 0; i < n; i++) { ids.add("sys" + i); }
+      Condition cond = SystemsDaoImpl.idInSet(SYSTEMS.ID, ids);
+      Assert.assertEquals(ctx.extractBindValues(cond).size(), 1, "Ids should be bound as a single parameter");
+      String sql = ctx.render(cond);
+      Assert.assertTrue(sql.endsWith("= any(?::text[])"), "Unexpected SQL for condition: " + sql);
+    }
+  }
+
+  // Test that LIKE and NLIKE without wildcards become plain comparisons and that patterns are left unwrapped
+  @Test
+  public void testLikeCondition()
+  {
+    var ctx = DSL.using(SQLDialect.POSTGRES);
+    Condition cond = SystemsDaoImpl.likeCondition(SYSTEMS.HOST, "frontera.tacc.utexas.edu", false);
+    Assert.assertTrue(ctx.render(cond).endsWith("\"host\" = ?"), "Unexpected SQL: " + ctx.render(cond));
+    Assert.assertEquals(ctx.extractBindValues(cond).get(0).getValue(), "frontera.tacc.utexas.edu");
+    // Escaped underscore is a literal
+    cond = SystemsDaoImpl.likeCondition(SYSTEMS.HOST, "my\\_host", true);
+    Assert.assertTrue(ctx.render(cond).endsWith("\"host\" <> ?"), "Unexpected SQL: " + ctx.render(cond));
+    Assert.assertEquals(ctx.extractBindValues(cond).get(0).getValue(), "my_host");
+    cond = SystemsDaoImpl.likeCondition(SYSTEMS.DESCRIPTION, "%gpu%", false);
+    Assert.assertTrue(ctx.render(cond).endsWith("\"description\" like ?"), "Unexpected SQL: " + ctx.render(cond));
+    Assert.assertEquals(ctx.extractBindValues(cond).get(0).getValue(), "%gpu%");
+    cond = SystemsDaoImpl.likeCondition(SYSTEMS.HOST, "host0_.test.org", true);
+    Assert.assertTrue(ctx.render(cond).endsWith("\"host\" not like ?"), "Unexpected SQL: " + ctx.render(cond));
   }
 
   // Test enable/disable/delete/undelete
@@ -293,6 +382,325 @@ public class SystemsDaoTest
     Assert.assertEquals(tmpSystem.getOwner(), "newOwner");
   }
 
+  // Test unit of work. Changes are committed and published together or rolled back and not published.
+  @Test
+  public void testUnitOfWork() throws Exception
+  {
+    TSystem sys0 = systems[18];
+    var sub = SystemChangeBus.getInstance().subscribe(tenantName, Set.of(sys0.getId()), null, 0);
+    try
+    {
+      boolean itemCreated = dao.inTransaction(txDao -> {
+        boolean created = txDao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson);
+        // Change should be visible within the unit of work but not yet published
+        Assert.assertTrue(txDao.checkForSystem(tenantName, sys0.getId(), false));
+        Assert.assertNull(sub.poll(0, TimeUnit.SECONDS), "Change published before commit");
+        return created;
+      });
+      Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+      Assert.assertTrue(dao.checkForSystem(tenantName, sys0.getId(), false));
+      SystemChangeEvent event = sub.poll(5, TimeUnit.SECONDS);
+      Assert.assertNotNull(event, "Change not published after commit");
+      Assert.assertEquals(event.getChange().getOperation(), SystemOperation.create);
+
+      // Failure part way through should roll back all changes
+      try
+      {
+        dao.inTransaction(txDao -> {
+          txDao.updateEnabled(rOwner1, tenantName, sys0.getId(), false);
+          txDao.updateDeleted(rOwner1, tenantName, sys0.getId(), true);
+          throw new IllegalStateException("Forced failure");
+        });
+        Assert.fail("Exception from unit of work should be thrown");
+      }
+      catch (IllegalStateException e) { Assert.assertEquals(e.getMessage(), "Forced failure"); }
+      TSystem tmpSys = dao.getSystem(tenantName, sys0.getId());
+      Assert.assertNotNull(tmpSys, "Delete not rolled back");
+      Assert.assertTrue(tmpSys.isEnabled(), "Disable not rolled back");
+      Assert.assertNull(sub.poll(0, TimeUnit.SECONDS), "Rolled back change was published");
+    }
+    finally
+    {
+      SystemChangeBus.getInstance().unsubscribe(sub);
+    }
+  }
+
+  // Test maintenance of the local copy of system permissions and shares
+  @Test
+  public void testSystemAcl() throws Exception
+  {
+    TSystem sys0 = systems[19];
+    TSystem sys1 = systems[20];
+    String aclUser = "aclUser" + testKey;
+    String publicGrantee = "~public";
+    Assert.assertTrue(dao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson));
+    Assert.assertTrue(dao.createSystem(rOwner1, sys1, gson.toJson(sys1), rawDataEmptyJson));
+    try
+    {
+      // Full refresh. Entries for systems that do not exist are skipped.
+      Instant start = Instant.now().minusSeconds(1);
+      Assert.assertNull(dao.getAclSyncEntry(tenantName, aclUser));
+      Assert.assertTrue(dao.replaceAcl(tenantName, aclUser, Map.of(sys0.getId(), Set.of("READ"),
+                                                                   "noSuchSystem" + testKey, Set.of("*")),
+                                       Set.of(sys1.getId()), 0));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, aclUser), Set.of(sys0.getId()));
+      Assert.assertEquals(dao.getAclSharedSystemIDs(tenantName, Set.of(aclUser, publicGrantee)), Set.of(sys1.getId()));
+      SystemAclSyncEntry syncEntry = dao.getAclSyncEntry(tenantName, aclUser);
+      Assert.assertNotNull(syncEntry);
+      Assert.assertTrue(syncEntry.getSynced().isAfter(start));
+      Assert.assertEquals(syncEntry.getVersion(), 1L);
+      Assert.assertFalse(syncEntry.isUsedSinceSync());
+
+      // Only entries read since they were refreshed are returned as stale
+      Assert.assertTrue(dao.getStaleAclSyncEntries(Instant.now().plusSeconds(60), 1000).stream()
+                           .noneMatch(e -> aclUser.equals(e.getGrantee())));
+      dao.markAclUsed(tenantName, aclUser);
+      Assert.assertTrue(dao.getAclSyncEntry(tenantName, aclUser).isUsedSinceSync());
+      Assert.assertTrue(dao.getStaleAclSyncEntries(start, 1000).stream().noneMatch(e -> aclUser.equals(e.getGrantee())));
+      Assert.assertTrue(dao.getStaleAclSyncEntries(Instant.now().plusSeconds(60), 1000).stream()
+                           .anyMatch(e -> aclUser.equals(e.getGrantee())));
+
+      // Incremental updates. EXECUTE alone does not make a system viewable.
+      dao.addAclPerms(tenantName, sys1.getId(), aclUser, Set.of("EXECUTE"));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, aclUser), Set.of(sys0.getId()));
+      dao.addAclPerms(tenantName, sys1.getId(), aclUser, Set.of("MODIFY", "EXECUTE"));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, aclUser), Set.of(sys0.getId(), sys1.getId()));
+      dao.removeAclPerms(tenantName, sys0.getId(), aclUser, Set.of("READ"));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, aclUser), Set.of(sys1.getId()));
+      dao.addAclShares(tenantName, sys0.getId(), Set.of(publicGrantee));
+      Assert.assertEquals(dao.getAclSharedSystemIDs(tenantName, Set.of(publicGrantee)), Set.of(sys0.getId()));
+      dao.removeAclShares(tenantName, sys1.getId(), Set.of(aclUser));
+      Assert.assertEquals(dao.getAclSharedSystemIDs(tenantName, Set.of(aclUser)), Set.of());
+      // Each incremental update of the entries for a grantee changes the version
+      Assert.assertEquals(dao.getAclSyncEntry(tenantName, aclUser).getVersion(), 5L);
+      Assert.assertNotNull(dao.getAclSyncEntry(tenantName, publicGrantee));
+
+      // A refresh that read SK before the updates must not replace the entries
+      Assert.assertFalse(dao.replaceAcl(tenantName, aclUser, Map.of(sys0.getId(), Set.of("READ")), Set.of(), 1));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, aclUser), Set.of(sys1.getId()));
+      Assert.assertEquals(dao.getAclSyncEntry(tenantName, aclUser).getVersion(), 5L);
+
+      // Removing all entries for a system
+      dao.removeAcl(tenantName, sys1.getId());
+      Assert.assertTrue(dao.getAclViewableSystemIDs(tenantName, aclUser).isEmpty());
+      dao.invalidateAclSync(tenantName, aclUser);
+      syncEntry = dao.getAclSyncEntry(tenantName, aclUser);
+      Assert.assertTrue(syncEntry.getSynced().isBefore(start));
+      Assert.assertEquals(syncEntry.getVersion(), 6L);
+    }
+    finally
+    {
+      dao.removeAcl(tenantName, sys0.getId());
+      dao.invalidateAclSync(tenantName, aclUser);
+    }
+  }
+
+  // Test removal of local ACL entries that are not being read
+  @Test
+  public void testSystemAclUnused() throws Exception
+  {
+    TSystem sys0 = systems[32];
+    String usedUser = "aclUsedUser" + testKey;
+    String unusedUser = "aclUnusedUser" + testKey;
+    Assert.assertTrue(dao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson));
+    try
+    {
+      Assert.assertTrue(dao.replaceAcl(tenantName, usedUser, Map.of(sys0.getId(), Set.of("READ")), Set.of(), 0));
+      Assert.assertTrue(dao.replaceAcl(tenantName, unusedUser, Map.of(sys0.getId(), Set.of("READ")), Set.of(), 0));
+      dao.markAclUsed(tenantName, usedUser);
+
+      // Nothing removed if entries were refreshed after the cutoff
+      dao.deleteUnusedAclSyncEntries(Instant.now().minusSeconds(60));
+      Assert.assertNotNull(dao.getAclSyncEntry(tenantName, unusedUser));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, unusedUser), Set.of(sys0.getId()));
+
+      // Entries not read since they were refreshed are removed along with their sync entry
+      Assert.assertTrue(dao.deleteUnusedAclSyncEntries(Instant.now().plusSeconds(60)) >= 1);
+      Assert.assertNull(dao.getAclSyncEntry(tenantName, unusedUser));
+      Assert.assertTrue(dao.getAclViewableSystemIDs(tenantName, unusedUser).isEmpty());
+      Assert.assertNotNull(dao.getAclSyncEntry(tenantName, usedUser));
+      Assert.assertEquals(dao.getAclViewableSystemIDs(tenantName, usedUser), Set.of(sys0.getId()));
+    }
+    finally
+    {
+      dao.removeAcl(tenantName, sys0.getId());
+      dao.invalidateAclSync(tenantName, usedUser);
+    }
+  }
+
+  // Test list queries that filter on the local ACL entries, including search and sort on share attributes
+  @Test
+  public void testGetSystemsUsingAcl() throws Exception
+  {
+    String aclUser = "aclListUser" + testKey;
+    String otherUser = "aclOtherUser" + testKey;
+    String publicGrantee = "~public";
+    // One system aclUser has READ on, one shared with aclUser and otherUser, one shared publicly
+    TSystem sysPerm = systems[33];
+    TSystem sysShared = systems[34];
+    TSystem sysPublic = systems[35];
+    for (TSystem sys : List.of(sysPerm, sysShared, sysPublic))
+    {
+      Assert.assertTrue(dao.createSystem(rOwner1, sys, gson.toJson(sys), rawDataEmptyJson));
+    }
+    String idSearch = SearchUtils.validateAndProcessSearchCondition(
+            "id.in." + String.join(",", sysPerm.getId(), sysShared.getId(), sysPublic.getId()));
+    try
+    {
+      Assert.assertTrue(dao.replaceAcl(tenantName, aclUser, Map.of(sysPerm.getId(), Set.of("READ")),
+                                       Set.of(sysShared.getId()), 0));
+      dao.addAclShares(tenantName, sysShared.getId(), Set.of(otherUser));
+      dao.addAclShares(tenantName, sysPublic.getId(), Set.of(publicGrantee));
+
+      // Authorization filtering using a join on the ACL entries. The ID sets are ignored.
+      List<TSystem> tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch), null, DEFAULT_LIMIT,
+                                                orderByListAsc, DEFAULT_SKIP, startAfterNull, showDeletedFalse,
+                                                listTypeAll, setOfIDsNull, setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.stream().map(TSystem::getId).collect(Collectors.toSet()),
+                          Set.of(sysPerm.getId(), sysShared.getId(), sysPublic.getId()));
+      Assert.assertEquals(dao.getSystemsCount(rOwner1, aclUser, List.of(idSearch), null, orderByListNull,
+                                              startAfterNull, showDeletedFalse, listTypeAll, setOfIDsNull,
+                                              setOfIDsNull, true), 3);
+      tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch), null, DEFAULT_LIMIT, orderByListNull,
+                                  DEFAULT_SKIP, startAfterNull, showDeletedFalse, listTypePublic, setOfIDsNull,
+                                  setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.size(), 1);
+      Assert.assertEquals(tmpSystems.get(0).getId(), sysPublic.getId());
+      // Not visible to a user with no entries
+      Assert.assertEquals(dao.getSystemsCount(rOwner1, "aclNoneUser" + testKey, List.of(idSearch), null,
+                                              orderByListNull, startAfterNull, showDeletedFalse, listTypeAll,
+                                              setOfIDsNull, setOfIDsNull, true), 1);
+
+      // Search and sort on share attributes
+      String publicSearch = SearchUtils.validateAndProcessSearchCondition("isPublic.eq.true");
+      tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch, publicSearch), null, DEFAULT_LIMIT,
+                                  orderByListNull, DEFAULT_SKIP, startAfterNull, showDeletedFalse, listTypeAll,
+                                  setOfIDsNull, setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.size(), 1);
+      Assert.assertEquals(tmpSystems.get(0).getId(), sysPublic.getId());
+      String sharedSearch = SearchUtils.validateAndProcessSearchCondition("sharedWithUsers.contains." + otherUser);
+      tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch, sharedSearch), null, DEFAULT_LIMIT,
+                                  orderByListNull, DEFAULT_SKIP, startAfterNull, showDeletedFalse, listTypeAll,
+                                  setOfIDsNull, setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.size(), 1);
+      Assert.assertEquals(tmpSystems.get(0).getId(), sysShared.getId());
+      tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch), null, DEFAULT_LIMIT,
+                                  List.of(OrderBy.fromString("isPublic(desc)"), OrderBy.fromString("id(asc)")),
+                                  DEFAULT_SKIP, startAfterNull, showDeletedFalse, listTypeAll, setOfIDsNull,
+                                  setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.get(0).getId(), sysPublic.getId());
+      tmpSystems = dao.getSystems(rOwner1, aclUser, List.of(idSearch), null, DEFAULT_LIMIT,
+                                  List.of(OrderBy.fromString("sharedWithUsers(desc)")), DEFAULT_SKIP,
+                                  startAfterNull, showDeletedFalse, listTypeAll, setOfIDsNull, setOfIDsNull, true);
+      Assert.assertEquals(tmpSystems.get(0).getId(), sysShared.getId());
+
+      // Share attributes may not be used when the ACL entries are not used
+      try
+      {
+        dao.getSystems(rOwner1, aclUser, List.of(publicSearch), null, DEFAULT_LIMIT, orderByListNull, DEFAULT_SKIP,
+                       startAfterNull, showDeletedFalse, listTypeAll, setOfIDsNull, setOfIDsNull);
+        Assert.fail("Search on isPublic should fail when ACL entries are not used");
+      }
+      catch (TapisException e) { Assert.assertTrue(e.getMessage().contains("SYSLIB_DB_SRCH_ATTR_ACL")); }
+
+      // Changes to the entries are seen by the next query
+      dao.removeAclShares(tenantName, sysShared.getId(), Set.of(aclUser));
+      Assert.assertEquals(dao.getSystemsCount(rOwner1, aclUser, List.of(idSearch), null, orderByListNull,
+                                              startAfterNull, showDeletedFalse, listTypeAll, setOfIDsNull,
+                                              setOfIDsNull, true), 2);
+    }
+    finally
+    {
+      for (TSystem sys : List.of(sysPerm, sysShared, sysPublic)) { dao.removeAcl(tenantName, sys.getId()); }
+      for (String grantee : List.of(aclUser, otherUser)) { dao.invalidateAclSync(tenantName, grantee); }
+    }
+  }
+
+  // Test queuing, claiming and removing SK outbox entries
+  @Test
+  public void testSkOutbox() throws Exception
+  {
+    String sysId0 = "outboxSys0" + testKey;
+    String sysId1 = "outboxSys1" + testKey;
+    String outboxUser = "outboxUser" + testKey;
+    var e0 = new SkOutboxEntry(tenantName, sysId0, SkOutboxOperation.GRANT_PERM, outboxUser, "files:perm0");
+    var e1 = new SkOutboxEntry(tenantName, sysId0, SkOutboxOperation.REVOKE_PERM, outboxUser, "files:perm1");
+    var e2 = new SkOutboxEntry(tenantName, sysId1, SkOutboxOperation.REVOKE_ALL_PERMS, null, null);
+    try
+    {
+      // Queuing an entry a second time has no effect
+      dao.addSkOutboxEntries(List.of(e0, e1, e2));
+      dao.addSkOutboxEntries(List.of(e0));
+      Assert.assertTrue(dao.hasSkOutboxEntries(tenantName, sysId0));
+      Assert.assertTrue(dao.hasSkOutboxEntries(tenantName, sysId1));
+
+      // Only the oldest entry for a system can be claimed, and a claimed entry is not claimed again
+      Instant lease = Instant.now().plusSeconds(60);
+      List<SkOutboxEntry> claimed = dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease);
+      Assert.assertEquals(claimed.size(), 1);
+      Assert.assertEquals(claimed.get(0).getIdempotencyKey(), e0.getIdempotencyKey());
+      Assert.assertEquals(claimed.get(0).getOperation(), SkOutboxOperation.GRANT_PERM);
+      Assert.assertEquals(claimed.get(0).getPermSpec(), "files:perm0");
+      Assert.assertTrue(dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease).isEmpty());
+
+      // A failed attempt is counted and the entry is claimable again once due
+      int seqId0 = claimed.get(0).getSeqId();
+      dao.rescheduleSkOutboxEntry(seqId0, Instant.now().minusSeconds(1), "test error");
+      claimed = dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease);
+      Assert.assertEquals(claimed.size(), 1);
+      Assert.assertEquals(claimed.get(0).getSeqId(), seqId0);
+      Assert.assertEquals(claimed.get(0).getAttempts(), 1);
+
+      // A dead letter is not claimed even when due and holds up later entries for the system
+      dao.deadLetterSkOutboxEntry(seqId0, "test dead letter");
+      dao.rescheduleSkOutboxEntry(seqId0, Instant.now().minusSeconds(1), "test dead letter");
+      Assert.assertTrue(dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease).isEmpty());
+      Assert.assertTrue(dao.hasSkOutboxEntries(tenantName, sysId0));
+      List<SkOutboxEntry> deadLetters = dao.getDeadLetterSkOutboxEntries(tenantName).stream()
+                                           .filter(e -> sysId0.equals(e.getSystemId())).collect(Collectors.toList());
+      Assert.assertEquals(deadLetters.size(), 1);
+      Assert.assertEquals(deadLetters.get(0).getSeqId(), seqId0);
+      Assert.assertTrue(deadLetters.get(0).isDeadLetter());
+      Assert.assertEquals(deadLetters.get(0).getLastError(), "test dead letter");
+
+      // A requeued dead letter is claimable right away with a new attempt count
+      Assert.assertEquals(dao.requeueSkOutboxEntries(tenantName, sysId0), 1);
+      claimed = dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease);
+      Assert.assertEquals(claimed.size(), 1);
+      Assert.assertEquals(claimed.get(0).getSeqId(), seqId0);
+      Assert.assertEquals(claimed.get(0).getAttempts(), 0);
+      Assert.assertFalse(claimed.get(0).isDeadLetter());
+
+      // Discarding only removes dead letters. Removing the oldest entry makes the next one for the system eligible.
+      Assert.assertEquals(dao.discardSkOutboxEntries(tenantName, sysId0), 0);
+      dao.deadLetterSkOutboxEntry(seqId0, "test dead letter");
+      Assert.assertEquals(dao.discardSkOutboxEntries(tenantName, sysId0), 1);
+      claimed = dao.claimSkOutboxEntries(tenantName, sysId0, 10, lease);
+      Assert.assertEquals(claimed.size(), 1);
+      Assert.assertEquals(claimed.get(0).getIdempotencyKey(), e1.getIdempotencyKey());
+      dao.deleteSkOutboxEntry(claimed.get(0).getSeqId());
+      Assert.assertFalse(dao.hasSkOutboxEntries(tenantName, sysId0));
+
+      claimed = dao.claimSkOutboxEntries(tenantName, sysId1, 10, lease);
+      Assert.assertEquals(claimed.size(), 1);
+      Assert.assertNull(claimed.get(0).getTargetUser());
+      dao.deleteSkOutboxEntry(claimed.get(0).getSeqId());
+      Assert.assertFalse(dao.hasSkOutboxEntries(tenantName, sysId1));
+    }
+    finally
+    {
+      // Clean up anything left by a failed assertion
+      Instant now = Instant.now();
+      for (String sysId : List.of(sysId0, sysId1))
+      {
+        while (dao.hasSkOutboxEntries(tenantName, sysId))
+        {
+          for (SkOutboxEntry e : dao.claimSkOutboxEntries(tenantName, sysId, 10, now)) dao.deleteSkOutboxEntry(e.getSeqId());
+        }
+      }
+    }
+  }
+
   // Test hard deleting a single item
   @Test
   public void testHardDeleteSystem() throws Exception
@@ -344,7 +752,7 @@ public class SystemsDaoTest
     TSystem sys0 = systems[12];
     boolean itemCreated = dao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson);
     Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
-    List<SystemHistoryItem> systemHistory = dao.getSystemHistory(tenantName, sys0.getId());
+    List<SystemHistoryItem> systemHistory = dao.getSystemHistory(tenantName, sys0.getId(), null, null);
 
     Assert.assertNotNull(systemHistory, "Failed to create system history for item: " + sys0.getId());
     System.out.println("Found system history item: " + sys0.getId());
@@ -359,6 +767,347 @@ public class SystemsDaoTest
       Assert.assertNotNull(item.getDescription(), "Fetched Json should not be null");
       Assert.assertNotNull(item.getCreated(), "Fetched created timestamp should not be null");
     }
+    // Limit by time range
+    Instant created = systemHistory.get(0).getCreated();
+    Assert.assertEquals(dao.getSystemHistory(tenantName, sys0.getId(), created, created.plusSeconds(1)).size(), 1);
+    Assert.assertTrue(dao.getSystemHistory(tenantName, sys0.getId(), created.plusSeconds(1), null).isEmpty());
+    Assert.assertTrue(dao.getSystemHistory(tenantName, sys0.getId(), null, created).isEmpty());
+  }
+
+  // Test creating partitions of the system_updates table
+  @Test
+  public void testCreateSystemUpdatesPartitions() throws Exception {
+    YearMonth through = YearMonth.now(ZoneOffset.UTC).plusMonths(1);
+    dao.createSystemUpdatesPartitions(through);
+    // Partitions now exist so nothing more is created
+    Assert.assertTrue(dao.createSystemUpdatesPartitions(through).isEmpty());
+    // Nothing is archived for a partition that is not detached
+    Assert.assertEquals(dao.archiveSystemUpdatesPartition("system_updates_p" + through.format(DateTimeFormatter.ofPattern("yyyyMM")),
+                                                          Path.of(System.getProperty("java.io.tmpdir"), "sysUpdTest.ndjson.gz")), -1);
+  }
+
+  // Test that rows in the default partition of system_updates are moved into a monthly partition when it is created
+  @Test
+  public void testCreateSystemUpdatesPartitionMovesRows() throws Exception {
+    // Month after those created by the DB migration and by testCreateSystemUpdatesPartitions
+    YearMonth month = YearMonth.now(ZoneOffset.UTC).plusMonths(6);
+    var partition = SYSTEM_UPDATES.rename("system_updates_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM")));
+    var defaultPartition = SYSTEM_UPDATES.rename("system_updates_default");
+    int seqId;
+    try (Connection conn = getRawConnection())
+    {
+      DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+      // Partition is left by an earlier run. Drop it so that the row goes to the default partition.
+      db.dropTableIfExists(partition).execute();
+      seqId = insertUpdateRecord(db, defaultPartition, "partMove" + testKey, SystemOperation.modify, null,
+                                 month.atDay(15).atStartOfDay());
+    }
+    List<String> created = dao.createSystemUpdatesPartitions(month);
+    Assert.assertTrue(created.contains(partition.getName()), "Partition not created: " + partition.getName());
+    try (Connection conn = getRawConnection())
+    {
+      DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+      Assert.assertEquals(db.fetchCount(partition, partition.SEQ_ID.eq(seqId)), 1, "Row not in monthly partition");
+      Assert.assertEquals(db.fetchCount(defaultPartition, defaultPartition.SEQ_ID.eq(seqId)), 0,
+                          "Row still in default partition");
+      db.deleteFrom(partition).where(partition.SEQ_ID.eq(seqId)).execute();
+    }
+  }
+
+  // Test detaching a monthly partition of system_updates and archiving it to a file
+  @Test
+  public void testArchiveSystemUpdatesPartition() throws Exception {
+    // Month well before any rows written by the service, so only this test has a partition for it
+    YearMonth month = YearMonth.of(2000, 1);
+    var partition = SYSTEM_UPDATES.rename("system_updates_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM")));
+    String sysId = "partArchive" + testKey;
+    String rawData = "{\"id\":\"" + sysId + "\"}";
+    LocalDateTime created1 = month.atDay(10).atStartOfDay();
+    LocalDateTime created2 = month.atDay(20).atTime(12, 30);
+    int seqId1, seqId2;
+    try (Connection conn = getRawConnection())
+    {
+      DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+      // Cleanup anything leftover from previous failed run
+      db.dropTableIfExists(partition).execute();
+      db.execute("CREATE TABLE {0} PARTITION OF {1} FOR VALUES FROM ({2}) TO ({3})", partition, SYSTEM_UPDATES,
+                 DSL.inline(month.atDay(1).toString()), DSL.inline(month.plusMonths(1).atDay(1).toString()));
+      seqId1 = insertUpdateRecord(db, SYSTEM_UPDATES, sysId, SystemOperation.create, rawData, created1);
+      seqId2 = insertUpdateRecord(db, SYSTEM_UPDATES, sysId, SystemOperation.modify, null, created2);
+    }
+
+    List<String> detached = dao.detachSystemUpdatesPartitions(month.plusMonths(1));
+    Assert.assertTrue(detached.contains(partition.getName()), "Partition not detached: " + partition.getName());
+    Assert.assertTrue(dao.getDetachedSystemUpdatesPartitions().contains(partition.getName()));
+    // Rows are no longer part of system_updates
+    Assert.assertTrue(dao.getSystemHistory(partTenant, sysId, null, null).isEmpty());
+
+    Path archiveDir = Files.createTempDirectory("sysUpdArchive");
+    Path archiveFile = archiveDir.resolve(partition.getName() + ".ndjson.gz");
+    try
+    {
+      Assert.assertEquals(dao.archiveSystemUpdatesPartition(partition.getName(), archiveFile), 2);
+      Assert.assertFalse(dao.getDetachedSystemUpdatesPartitions().contains(partition.getName()),
+                         "Archived partition not dropped: " + partition.getName());
+      List<JsonObject> rows = new ArrayList<>();
+      try (var reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(archiveFile)),
+                                                                 StandardCharsets.UTF_8)))
+      {
+        for (String line = reader.readLine(); line != null; line = reader.readLine())
+        {
+          rows.add(gson.fromJson(line, JsonObject.class));
+        }
+      }
+      // One row per line in seq_id order
+      Assert.assertEquals(rows.size(), 2);
+      checkArchiveRow(rows.get(0), seqId1, sysId, SystemOperation.create, rawData, created1);
+      checkArchiveRow(rows.get(1), seqId2, sysId, SystemOperation.modify, null, created2);
+    }
+    finally
+    {
+      Files.deleteIfExists(archiveFile);
+      Files.deleteIfExists(archiveDir);
+    }
+  }
+
+  // Test writing a batch of update records as done by SystemUpdateWriter
+  @Test
+  public void testAddUpdateRecords() throws Exception {
+    TSystem sys0 = systems[21];
+    boolean itemCreated = dao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    var bus = SystemChangeBus.getInstance();
+    var sub = bus.subscribe(tenantName, Set.of(sys0.getId()), null, 10);
+    // Record for a system that does not exist is written without a system seq_id
+    dao.addUpdateRecords(List.of(
+            new SystemUpdateWriter.PendingUpdate(rOwner1, sys0.getId(), SystemOperation.grantPerms, "{\"perms\":[\"READ\"]}", null, false),
+            new SystemUpdateWriter.PendingUpdate(rOwner1, "noSuchSystem" + testKey, SystemOperation.grantPerms, null, null, false),
+            new SystemUpdateWriter.PendingUpdate(rOwner1, sys0.getId(), SystemOperation.revokePerms, null, null, false)));
+    SystemChangeEvent evt1 = sub.poll(1, TimeUnit.SECONDS);
+    SystemChangeEvent evt2 = sub.poll(1, TimeUnit.SECONDS);
+    bus.unsubscribe(sub);
+
+    List<SystemHistoryItem> systemHistory = dao.getSystemHistory(tenantName, sys0.getId(), null, null);
+    Assert.assertEquals(systemHistory.size(), 3);
+    Assert.assertEquals(systemHistory.get(1).getOperation(), SystemOperation.grantPerms);
+    Assert.assertEquals(systemHistory.get(1).getDescription().getAsJsonObject().get("perms").getAsJsonArray().size(), 1);
+    Assert.assertEquals(systemHistory.get(2).getOperation(), SystemOperation.revokePerms);
+    Assert.assertTrue(systemHistory.get(2).getDescription().getAsJsonObject().entrySet().isEmpty());
+    List<SystemHistoryItem> noSysHistory = dao.getSystemHistory(tenantName, "noSuchSystem" + testKey, null, null);
+    Assert.assertEquals(noSysHistory.size(), 1);
+    Assert.assertEquals(noSysHistory.get(0).getOperation(), SystemOperation.grantPerms);
+    // Records of the batch are written in the order listed, with one created time.
+    // The record for the missing system has no system seq_id or uuid.
+    try (Connection conn = getRawConnection())
+    {
+      DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+      var recs = db.select(SYSTEM_UPDATES.SEQ_ID, SYSTEM_UPDATES.SYSTEM_ID, SYSTEM_UPDATES.SYSTEM_SEQ_ID,
+                           SYSTEM_UPDATES.UUID, SYSTEM_UPDATES.CREATED)
+                   .from(SYSTEM_UPDATES)
+                   .where(SYSTEM_UPDATES.OBO_TENANT.eq(tenantName),
+                          SYSTEM_UPDATES.SYSTEM_ID.in(sys0.getId(), "noSuchSystem" + testKey),
+                          SYSTEM_UPDATES.OPERATION.in(SystemOperation.grantPerms, SystemOperation.revokePerms))
+                   .orderBy(SYSTEM_UPDATES.SEQ_ID).fetch();
+      Assert.assertEquals(recs.size(), 3);
+      Assert.assertEquals(recs.get(0).value2(), sys0.getId());
+      Assert.assertEquals(recs.get(1).value2(), "noSuchSystem" + testKey);
+      Assert.assertEquals(recs.get(2).value2(), sys0.getId());
+      Assert.assertNotNull(recs.get(0).value3());
+      Assert.assertNotNull(recs.get(0).value4());
+      Assert.assertNull(recs.get(1).value3());
+      Assert.assertNull(recs.get(1).value4());
+      Assert.assertEquals(recs.get(1).value5(), recs.get(0).value5());
+      Assert.assertEquals(recs.get(2).value5(), recs.get(0).value5());
+    }
+    // Events are published in the order the records were listed
+    Assert.assertNotNull(evt1);
+    Assert.assertNotNull(evt2);
+    Assert.assertEquals(evt1.getChange().getOperation(), SystemOperation.grantPerms);
+    Assert.assertEquals(evt2.getChange().getOperation(), SystemOperation.revokePerms);
+    Assert.assertTrue(evt1.getSeqId() < evt2.getSeqId());
+  }
+
+  // Test storing raw data of update records compressed and compressing existing raw data
+  @Test
+  public void testCompressSystemUpdatesRawData() throws Exception {
+    TSystem sys0 = systems[22];
+    SystemUpdatesStorage before = dao.getSystemUpdatesStorage();
+    // Raw data that compresses well is stored compressed
+    boolean itemCreated = dao.createSystem(rOwner1, sys0, gson.toJson(sys0), gson.toJson(sys0));
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    SystemUpdatesStorage after = dao.getSystemUpdatesStorage();
+    Assert.assertEquals(after.getRows(), before.getRows() + 1);
+    Assert.assertEquals(after.getRawDataGzRows(), before.getRawDataGzRows() + 1);
+    Assert.assertEquals(after.getRawDataRows(), before.getRawDataRows());
+    // Compressed raw data reads back as the original
+    try (Connection conn = getRawConnection())
+    {
+      DSLContext db = DSL.using(conn, SQLDialect.POSTGRES);
+      var r = db.select(SYSTEM_UPDATES.RAW_DATA, SYSTEM_UPDATES.RAW_DATA_GZ).from(SYSTEM_UPDATES)
+                .where(SYSTEM_UPDATES.OBO_TENANT.eq(tenantName)).and(SYSTEM_UPDATES.SYSTEM_ID.eq(sys0.getId()))
+                .and(SYSTEM_UPDATES.OPERATION.eq(SystemOperation.create)).fetchOne();
+      Assert.assertNotNull(r, "Create record not found for system: " + sys0.getId());
+      Assert.assertNull(r.value1(), "Raw data should only be stored compressed");
+      Assert.assertEquals(SystemsDaoImpl.decompressRawData(r.value2()), gson.toJson(sys0));
+    }
+    // Work through all rows. Rows with raw data that does not compress are left as is.
+    int lastSeqId = dao.compressSystemUpdatesRawData(0, 10);
+    while (lastSeqId > 0) lastSeqId = dao.compressSystemUpdatesRawData(lastSeqId, 10);
+    SystemUpdatesStorage compressed = dao.getSystemUpdatesStorage();
+    Assert.assertEquals(compressed.getRows(), after.getRows());
+    Assert.assertTrue(compressed.getRawDataRows() <= after.getRawDataRows());
+    Assert.assertEquals(compressed.getRawDataRows() + compressed.getRawDataGzRows(),
+                        after.getRawDataRows() + after.getRawDataGzRows());
+  }
+
+  /*
+   * Connection to the DB that does not go through the DAO, used to set up and check system_updates partitions
+   */
+  private static Connection getRawConnection() throws Exception
+  {
+    RuntimeParameters parms = RuntimeParameters.getInstance();
+    return DriverManager.getConnection(parms.getJdbcURL(), parms.getDbUser(), parms.getDbPassword());
+  }
+
+  /*
+   * Insert a system_updates row for a system that does not exist, as of the given time. Returns the seq_id.
+   */
+  private static int insertUpdateRecord(DSLContext db, SystemUpdates table, String sysId, SystemOperation op,
+                                        String rawData, LocalDateTime created)
+  {
+    JsonObject description = new JsonObject();
+    description.addProperty("operation", op.name());
+    return db.insertInto(table)
+             .set(table.OBO_TENANT, partTenant)
+             .set(table.OBO_USER, owner1)
+             .set(table.JWT_TENANT, partTenant)
+             .set(table.JWT_USER, owner1)
+             .set(table.SYSTEM_ID, sysId)
+             .set(table.OPERATION, op)
+             .set(table.DESCRIPTION, description)
+             .set(table.RAW_DATA, rawData)
+             .set(table.UUID, UUID.randomUUID())
+             .set(table.CREATED, created)
+             .returningResult(table.SEQ_ID)
+             .fetchOne().value1();
+  }
+
+  /*
+   * Check a row written to a system_updates archive file
+   */
+  private static void checkArchiveRow(JsonObject row, int seqId, String sysId, SystemOperation op, String rawData,
+                                      LocalDateTime created)
+  {
+    Assert.assertEquals(row.get("seq_id").getAsInt(), seqId);
+    Assert.assertEquals(row.get("obo_tenant").getAsString(), partTenant);
+    Assert.assertEquals(row.get("system_id").getAsString(), sysId);
+    Assert.assertEquals(row.get("operation").getAsString(), op.name());
+    Assert.assertEquals(row.getAsJsonObject("description").get("operation").getAsString(), op.name());
+    Assert.assertEquals(row.get("created").getAsString(), created.toInstant(ZoneOffset.UTC).toString());
+    if (rawData == null) Assert.assertFalse(row.has("raw_data"), "Unexpected raw_data: " + row);
+    else Assert.assertEquals(row.get("raw_data").getAsString(), rawData);
+  }
+
+  // Test retrieving changes using the change feed
+  @Test
+  public void testGetSystemChanges() throws Exception {
+    TSystem sys0 = systems[17];
+    // Watch for changes to our system. Events are published once the change is committed.
+    var bus = SystemChangeBus.getInstance();
+    var sub = bus.subscribe(tenantName, Set.of(sys0.getId()), null, 10);
+    boolean itemCreated = dao.createSystem(rOwner1, sys0, gson.toJson(sys0), rawDataEmptyJson);
+    Assert.assertTrue(itemCreated, "Item not created, id: " + sys0.getId());
+    dao.updateEnabled(rOwner1, tenantName, sys0.getId(), false);
+    SystemChangeEvent evt1 = sub.poll(1, TimeUnit.SECONDS);
+    SystemChangeEvent evt2 = sub.poll(1, TimeUnit.SECONDS);
+    bus.unsubscribe(sub);
+    Assert.assertNotNull(evt1);
+    Assert.assertNotNull(evt2);
+    Assert.assertEquals(evt1.getChange().getOperation(), SystemOperation.create);
+    Assert.assertEquals(evt2.getChange().getOperation(), SystemOperation.disable);
+    Assert.assertTrue(evt2.getSeqId() > evt1.getSeqId());
+    Assert.assertEquals(evt1.getTags(), new HashSet<>(Arrays.asList(sys0.getTags())));
+
+    // Find the changes for our system, should be a create followed by a disable
+    List<SystemChange> changes = dao.getSystemChanges(tenantName, 0, Integer.MAX_VALUE);
+    List<SystemChange> sysChanges = new ArrayList<>();
+    int lastSeqId = 0;
+    for (SystemChange change : changes)
+    {
+      Assert.assertTrue(change.getSeqId() > lastSeqId, "Changes made one after another should be in order of sequence id");
+      lastSeqId = change.getSeqId();
+      if (sys0.getId().equals(change.getSystemId())) sysChanges.add(change);
+    }
+    Assert.assertEquals(sysChanges.size(), 2);
+    Assert.assertEquals(sysChanges.get(0).getOperation(), SystemOperation.create);
+    Assert.assertEquals(sysChanges.get(1).getOperation(), SystemOperation.disable);
+    Assert.assertNotNull(sysChanges.get(0).getUuid());
+    Assert.assertNotNull(sysChanges.get(0).getCreated());
+
+    // Keyset paging. Starting just before the create and with a limit of 1 should return only the create.
+    int createSeqId = sysChanges.get(0).getSeqId();
+    changes = dao.getSystemChanges(tenantName, createSeqId - 1, 1);
+    Assert.assertEquals(changes.size(), 1);
+    Assert.assertEquals(changes.get(0).getSeqId(), createSeqId);
+    // Starting at the last change should return nothing
+    Assert.assertTrue(dao.getSystemChanges(tenantName, lastSeqId, 10).isEmpty());
+
+    // Resuming a watch from just before the create should return the same changes as were published
+    List<SystemChangeEvent> events = dao.getSystemChangeEvents(tenantName, new SystemChangeCursor(null, createSeqId - 1), 2);
+    Assert.assertEquals(events.size(), 2);
+    Assert.assertEquals(events.get(0).getSeqId(), evt1.getSeqId());
+    Assert.assertEquals(events.get(1).getSeqId(), evt2.getSeqId());
+    Assert.assertEquals(events.get(0).getTags(), evt1.getTags());
+    // Event cursors round trip and resuming from the first returns the second
+    SystemChangeCursor evtCursor = SystemChangeCursor.parse(events.get(0).getCursor().toString());
+    Assert.assertEquals(evtCursor.getTxid(), events.get(0).getCursor().getTxid());
+    Assert.assertEquals(evtCursor.getSeqId(), evt1.getSeqId());
+    events = dao.getSystemChangeEvents(tenantName, evtCursor, 10);
+    Assert.assertFalse(events.isEmpty());
+    Assert.assertEquals(events.get(0).getSeqId(), evt2.getSeqId());
+    SystemChangeCursor head = dao.getSystemChangesHead(tenantName);
+    Assert.assertEquals(head.getSeqId(), lastSeqId);
+    Assert.assertTrue(dao.getSystemChangeEvents(tenantName, head, 10).isEmpty());
+
+    // A change made by a transaction that is still running holds back changes committed after it started, so that
+    //   it is not skipped once it is committed.
+    var inTx = new CompletableFuture<Void>();
+    var release = new CompletableFuture<Void>();
+    var executor = Executors.newSingleThreadExecutor();
+    try
+    {
+      Future<Object> openTx = executor.submit(() -> dao.inTransaction(txDao -> {
+        txDao.addUpdateRecord(rOwner1, sys0.getId(), SystemOperation.grantPerms, null, null);
+        inTx.complete(null);
+        release.join();
+        return null;
+      }));
+      inTx.get(10, TimeUnit.SECONDS);
+      dao.updateEnabled(rOwner1, tenantName, sys0.getId(), true);
+      Assert.assertTrue(dao.getSystemChanges(tenantName, lastSeqId, 10).isEmpty());
+      Assert.assertTrue(dao.getSystemChangeEvents(tenantName, head, 10).isEmpty());
+      Assert.assertEquals(dao.getSystemChangesHead(tenantName).getSeqId(), head.getSeqId());
+      release.complete(null);
+      openTx.get(10, TimeUnit.SECONDS);
+    }
+    finally
+    {
+      release.complete(null);
+      executor.shutdown();
+    }
+    changes = dao.getSystemChanges(tenantName, lastSeqId, 10);
+    Assert.assertEquals(changes.size(), 2);
+    Assert.assertEquals(changes.get(0).getOperation(), SystemOperation.grantPerms);
+    Assert.assertEquals(changes.get(1).getOperation(), SystemOperation.enable);
+    // Resuming after the first returns only the second
+    changes = dao.getSystemChanges(tenantName, changes.get(0).getSeqId(), 10);
+    Assert.assertEquals(changes.size(), 1);
+    Assert.assertEquals(changes.get(0).getOperation(), SystemOperation.enable);
+    // A watcher at the head when the transaction started gets both, in the same order
+    events = dao.getSystemChangeEvents(tenantName, head, 10);
+    Assert.assertEquals(events.size(), 2);
+    Assert.assertEquals(events.get(0).getChange().getOperation(), SystemOperation.grantPerms);
+    Assert.assertEquals(events.get(1).getChange().getOperation(), SystemOperation.enable);
   }
   // ******************************************************************
   //   TapisUser to LoginUser mapping
@@ -498,4 +1247,121 @@ public class SystemsDaoTest
     Assert.assertNull(dao.getParent(rOwner1.getOboTenantId(), hasChildrenSys.getId()));
     Assert.assertNull(dao.getParent(rOwner1.getOboTenantId(), hasNoChildrenSys.getId()));
   }
+
+  // Test that a change to a parent made in a unit of work updates its children when committed
+  @Test
+  public void testPatchParentInTransaction() throws Exception {
+    TSystem parentSys = systems[23];
+    parentSys.setAllowChildren(true);
+    List<TSystem> children = makeChildSystems(parentSys, 24, 25);
+    Assert.assertTrue(dao.createSystem(rOwner1, parentSys, gson.toJson(parentSys), rawDataEmptyJson));
+    for (TSystem child : children) Assert.assertTrue(dao.createSystem(rOwner1, child, gson.toJson(child), rawDataEmptyJson));
+
+    // Children updated from the parent are published as changes once committed
+    var bus = SystemChangeBus.getInstance();
+    var childIds = children.stream().map(TSystem::getId).collect(Collectors.toSet());
+    var sub = bus.subscribe(tenantName, childIds, null, 10);
+    TSystem patchedSys = dao.getSystem(tenantName, parentSys.getId());
+    patchedSys.setDescription("patched in transaction");
+    Assert.assertTrue(dao.inTransaction(txDao -> txDao.patchSystem(rOwner1, parentSys.getId(), patchedSys, "{}", rawDataEmptyJson)));
+    var changedIds = new HashSet<String>();
+    for (int i = 0; i < children.size(); i++)
+    {
+      SystemChangeEvent evt = sub.poll(1, TimeUnit.SECONDS);
+      Assert.assertNotNull(evt);
+      Assert.assertEquals(evt.getChange().getOperation(), SystemOperation.modify);
+      Assert.assertNotNull(evt.getChange().getUuid());
+      changedIds.add(evt.getChange().getSystemId());
+    }
+    bus.unsubscribe(sub);
+    Assert.assertEquals(changedIds, childIds);
+    for (TSystem child : children)
+    {
+      Assert.assertEquals(dao.getSystem(tenantName, child.getId()).getDescription(), "patched in transaction");
+      List<SystemHistoryItem> history = dao.getSystemHistory(tenantName, child.getId(), null, null);
+      SystemHistoryItem last = history.get(history.size() - 1);
+      Assert.assertEquals(last.getOperation(), SystemOperation.modify);
+      Assert.assertEquals(last.getDescription().getAsJsonObject().get("parentId").getAsString(), parentSys.getId());
+    }
+    Assert.assertTrue(dao.getDueChildSyncEntries(tenantName, parentSys.getId(), 10).isEmpty());
+  }
+
+  // Test that the children of a parent with many children are all updated, in chunks, and that a failed update
+  //   resumes where it stopped.
+  @Test
+  public void testPatchParentChunked() throws Exception {
+    TSystem parentSys = systems[26];
+    parentSys.setAllowChildren(true);
+    List<TSystem> children = makeChildSystems(parentSys, 27, 28, 29, 30, 31);
+    Assert.assertTrue(dao.createSystem(rOwner1, parentSys, gson.toJson(parentSys), rawDataEmptyJson));
+    for (TSystem child : children) Assert.assertTrue(dao.createSystem(rOwner1, child, gson.toJson(child), rawDataEmptyJson));
+
+    int origChunkSize = SystemsDaoImpl.childUpdateChunkSize;
+    SystemsDaoImpl.childUpdateChunkSize = 2;
+    try
+    {
+      // More children than the chunk size, so the update is queued and no child is updated with the parent
+      TSystem patchedSys = dao.getSystem(tenantName, parentSys.getId());
+      patchedSys.setDescription("patched in chunks");
+      Assert.assertTrue(dao.inTransaction(txDao -> txDao.patchSystem(rOwner1, parentSys.getId(), patchedSys, "{}", rawDataEmptyJson)));
+      for (TSystem child : children)
+      {
+        Assert.assertNotEquals(dao.getSystem(tenantName, child.getId()).getDescription(), "patched in chunks");
+      }
+      List<ChildSyncEntry> entries = dao.getDueChildSyncEntries(tenantName, parentSys.getId(), 10);
+      Assert.assertEquals(entries.size(), 1);
+      Assert.assertEquals(entries.get(0).getFields(), List.of(SYSTEMS.DESCRIPTION.getName()));
+      Assert.assertEquals(entries.get(0).getLastSeqId(), 0);
+
+      // First chunk, then a failed attempt. The entry is not due until the next attempt and keeps its position.
+      Assert.assertTrue(dao.syncChildSystems(tenantName, parentSys.getId()));
+      dao.rescheduleChildSync(tenantName, parentSys.getId(), Instant.now().plusSeconds(60), "test error");
+      Assert.assertTrue(dao.getDueChildSyncEntries(tenantName, parentSys.getId(), 10).isEmpty());
+      Assert.assertFalse(dao.syncChildSystems(tenantName, parentSys.getId()));
+      dao.rescheduleChildSync(tenantName, parentSys.getId(), Instant.now().minusSeconds(1), "test error");
+      entries = dao.getDueChildSyncEntries(tenantName, parentSys.getId(), 10);
+      Assert.assertEquals(entries.size(), 1);
+      Assert.assertEquals(entries.get(0).getAttempts(), 2);
+      Assert.assertTrue(entries.get(0).getLastSeqId() > 0);
+
+      // Remaining chunks. Every child converges and the entry is removed.
+      int numChunks = 1;
+      boolean more;
+      do { more = dao.syncChildSystems(tenantName, parentSys.getId()); numChunks++; } while (more);
+      Assert.assertEquals(numChunks, 3);
+      for (TSystem child : children)
+      {
+        Assert.assertEquals(dao.getSystem(tenantName, child.getId()).getDescription(), "patched in chunks");
+        // Update of the child is recorded as made by the service
+        List<SystemHistoryItem> history = dao.getSystemHistory(tenantName, child.getId(), null, null);
+        SystemHistoryItem last = history.get(history.size() - 1);
+        Assert.assertEquals(last.getOperation(), SystemOperation.modify);
+        Assert.assertEquals(last.getJwtUser(), TapisConstants.SERVICE_NAME_SYSTEMS);
+      }
+      Assert.assertTrue(dao.getDueChildSyncEntries(tenantName, parentSys.getId(), 10).isEmpty());
+    }
+    finally
+    {
+      SystemsDaoImpl.childUpdateChunkSize = origChunkSize;
+      // Clean up anything left by a failed assertion
+      dao.rescheduleChildSync(tenantName, parentSys.getId(), Instant.now().minusSeconds(1), null);
+      while (dao.syncChildSystems(tenantName, parentSys.getId())) { }
+    }
+  }
+
+  /*
+   * Make child systems of a parent from the test systems at the given indices.
+   * parentId is not exposed in a setter, so it is set using reflection as in testHasChildrenAndGetParent.
+   */
+  private List<TSystem> makeChildSystems(TSystem parentSys, int... indices) throws Exception {
+    Field field = TSystem.class.getDeclaredField("parentId");
+    field.setAccessible(true);
+    var children = new ArrayList<TSystem>();
+    for (int i : indices)
+    {
+      field.set(systems[i], parentSys.getId());
+      children.add(systems[i]);
+    }
+    return children;
+  }
 }
@@ -0,0 +1,112 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/**
+ * Tests for the admin role cache. No external services are required.
+ */
+@Test(groups={"unit"})
+public class AdminRoleCacheTest
+{
+  private static final String tenant1 = "dev";
+  private static final String tenant2 = "admin";
+  private static final String user1 = "testuser1";
+  private static final String user2 = "testuser2";
+
+  @Test
+  public void testHitsAndFlush() throws Exception
+  {
+    var cache = new AdminRoleCache(60);
+    var loadCount = new AtomicInteger();
+    Assert.assertTrue(cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return true; }));
+    Assert.assertTrue(cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return false; }));
+    Assert.assertEquals(loadCount.get(), 1, "Second check should use cached value");
+    Assert.assertFalse(cache.hasAdminRole(tenant1, user2, () -> { loadCount.incrementAndGet(); return false; }));
+    Assert.assertTrue(cache.hasAdminRole(tenant2, user1, () -> { loadCount.incrementAndGet(); return true; }));
+    Assert.assertEquals(loadCount.get(), 3);
+    var stats = cache.getStats();
+    Assert.assertEquals(stats.getHits(), 1);
+    Assert.assertEquals(stats.getMisses(), 3);
+    Assert.assertEquals(stats.getSize(), 3);
+
+    // Flush a single user and then the rest of the tenant. Other tenants should not be affected.
+    Assert.assertEquals(cache.flush(tenant1, user1), 1);
+    Assert.assertEquals(cache.flush(tenant1, null), 1);
+    Assert.assertEquals(cache.getStats().getSize(), 1);
+    Assert.assertFalse(cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return false; }));
+    Assert.assertEquals(loadCount.get(), 4, "Check after flush should call loader");
+  }
+
+  @Test
+  public void testFailuresNotCached() throws Exception
+  {
+    var cache = new AdminRoleCache(60);
+    try
+    {
+      cache.hasAdminRole(tenant1, user1, () -> { throw new TapisException("SK unavailable"); });
+      Assert.fail("Exception from loader should be thrown");
+    }
+    catch (TapisException e) { Assert.assertEquals(e.getMessage(), "SK unavailable"); }
+    Assert.assertTrue(cache.hasAdminRole(tenant1, user1, () -> true));
+    Assert.assertEquals(cache.getStats().getLoadFailures(), 1);
+  }
+
+  @Test
+  public void testCachingOff() throws Exception
+  {
+    var cache = new AdminRoleCache(0);
+    var loadCount = new AtomicInteger();
+    cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return true; });
+    cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return true; });
+    Assert.assertEquals(loadCount.get(), 2);
+    Assert.assertEquals(cache.getStats().getSize(), 0);
+  }
+
+  @Test
+  public void testSingleFlight() throws Exception
+  {
+    int numThreads = 8;
+    var cache = new AdminRoleCache(60);
+    var loadCount = new AtomicInteger();
+    var loadStarted = new CountDownLatch(1);
+    var releaseLoad = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try
+    {
+      // First thread starts a slow load, the rest should wait for it rather than starting their own.
+      List<Future<Boolean>> results = new ArrayList<>();
+      results.add(executor.submit(() -> cache.hasAdminRole(tenant1, user1, () -> {
+        loadCount.incrementAndGet();
+        loadStarted.countDown();
+        try { releaseLoad.await(); }
+        catch (InterruptedException e) { throw new TapisException("Interrupted", e); }
+        return true;
+      })));
+      Assert.assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+      for (int i = 1; i < numThreads; i++)
+      {
+        results.add(executor.submit(() -> cache.hasAdminRole(tenant1, user1, () -> { loadCount.incrementAndGet(); return false; })));
+      }
+      releaseLoad.countDown();
+      for (Future<Boolean> result : results) Assert.assertTrue(result.get(5, TimeUnit.SECONDS));
+      Assert.assertEquals(loadCount.get(), 1, "Concurrent checks should share a single load");
+      Assert.assertEquals(cache.getStats().getSharedLoads() + cache.getStats().getHits(), numThreads - 1);
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the bounds on concurrent share tasks. No external services are required.
+ */
+@Test(groups={"unit"})
+public class ShareExecutorTest
+{
+  // A single request never has more than the allowed number of tasks queued or running
+  @Test
+  public void testTasksPerCallBounded() throws Exception
+  {
+    ExecutorService executor = AuthUtils.createShareExecutor(8, 32);
+    try
+    {
+      int maxInFlight = 3;
+      var running = new AtomicInteger();
+      var maxRunning = new AtomicInteger();
+      var tasks = new LinkedHashMap<String, Runnable>();
+      for (int i = 0; i < 50; i++)
+      {
+        tasks.put("user" + i, () -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try { Thread.sleep(5); }
+          catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+          finally { running.decrementAndGet(); }
+        });
+      }
+      Map<String, Future<?>> futures = AuthUtils.submitShareTasks(executor, tasks, maxInFlight);
+      Assert.assertEquals(futures.keySet(), tasks.keySet());
+      for (Future<?> f : futures.values()) { f.get(10, TimeUnit.SECONDS); }
+      Assert.assertTrue(maxRunning.get() <= maxInFlight, "Too many tasks in flight: " + maxRunning.get());
+    }
+    finally { executor.shutdownNow(); }
+  }
+
+  // When all threads are busy and the queue is full a task runs on the submitting thread
+  @Test
+  public void testCallerRunsWhenSaturated() throws Exception
+  {
+    ExecutorService executor = AuthUtils.createShareExecutor(1, 1);
+    var release = new CountDownLatch(1);
+    try
+    {
+      // Occupy the only thread and the only queue slot
+      executor.submit(() -> { release.await(); return null; });
+      executor.submit(() -> { release.await(); return null; });
+      Thread caller = Thread.currentThread();
+      var ranOn = new Thread[1];
+      var tasks = Map.<String, Runnable>of("user1", () -> ranOn[0] = Thread.currentThread());
+      AuthUtils.submitShareTasks(executor, tasks, 1).get("user1").get(10, TimeUnit.SECONDS);
+      Assert.assertSame(ranOn[0], caller, "Task should run on the caller when the executor is saturated");
+    }
+    finally
+    {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the JFR events in SystemsEvents. A recording is started in this JVM, no external services are required.
+ */
+@Test(groups={"unit"})
+public class SystemsEventsTest
+{
+  @Test
+  public void testEventsRecorded() throws Exception
+  {
+    Path file = Files.createTempFile("systems-events", ".jfr");
+    try (var recording = new Recording())
+    {
+      recording.enable(SystemsEvents.CredentialAccess.class);
+      recording.enable(SystemsEvents.DbStatement.class);
+      recording.start();
+
+      var credEvent = new SystemsEvents.CredentialAccess();
+      credEvent.begin();
+      credEvent.finish(SystemsEvents.CredentialAccess.FETCH, "dev", "sys1", "testuser1", "PASSWORD", true);
+      var dbEvent = new SystemsEvents.DbStatement();
+      dbEvent.begin();
+      dbEvent.finish("select * from systems where id = ?", 1);
+
+      recording.stop();
+      recording.dump(file);
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+      RecordedEvent cred = findEvent(events, "edu.utexas.tacc.tapis.systems.CredentialAccess");
+      Assert.assertEquals(cred.getString("action"), "fetch");
+      Assert.assertEquals(cred.getString("tenant"), "dev");
+      Assert.assertEquals(cred.getString("systemId"), "sys1");
+      Assert.assertEquals(cred.getString("authnMethod"), "PASSWORD");
+      Assert.assertTrue(cred.getBoolean("succeeded"));
+      Assert.assertNull(cred.getStackTrace(), "Stack trace should not be recorded");
+
+      RecordedEvent db = findEvent(events, "edu.utexas.tacc.tapis.systems.DbStatement");
+      Assert.assertEquals(db.getString("sql"), "select * from systems where id = ?");
+      Assert.assertEquals(db.getLong("rows"), 1L);
+      Assert.assertNotNull(db.getStackTrace());
+    }
+    finally
+    {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testNotRecording()
+  {
+    // With no recording running the event is not committed
+    var event = new SystemsEvents.JsonDecode();
+    event.begin();
+    Assert.assertFalse(event.shouldCommit());
+    event.finish("dev", "sys1");
+  }
+
+  private static RecordedEvent findEvent(List<RecordedEvent> events, String name)
+  {
+    return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst()
+                 .orElseThrow(() -> new AssertionError("Event not recorded: " + name));
+  }
+}
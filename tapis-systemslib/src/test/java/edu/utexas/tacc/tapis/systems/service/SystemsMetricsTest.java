@@ -0,0 +1,82 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+import static edu.utexas.tacc.tapis.systems.service.SystemsMetrics.*;
+
+/**
+ * Tests for metrics recorded by SystemsMetrics. No external services are required.
+ */
+@Test(groups={"unit"})
+public class SystemsMetricsTest
+{
+  // Simple interface used to check that calls made through an instrumented proxy are timed
+  public interface Greeter
+  {
+    String greet(String name) throws TapisException;
+  }
+
+  @Test
+  public void testInstrument() throws Exception
+  {
+    Greeter impl = name -> { if (name == null) throw new TapisException("No name"); return "Hello " + name; };
+    Greeter greeter = SystemsMetrics.instrument(Greeter.class, impl, "test");
+    Assert.assertEquals(greeter.greet("world"), "Hello world");
+    try
+    {
+      greeter.greet(null);
+      Assert.fail("Exception from implementation should be thrown");
+    }
+    catch (TapisException e) { Assert.assertEquals(e.getMessage(), "No name"); }
+
+    var registry = SystemsMetrics.getRegistry();
+    var success = registry.find("tapis.systems.calls").tags("layer", "test", "operation", "greet",
+                                                             "outcome", "success").timer();
+    var error = registry.find("tapis.systems.calls").tags("layer", "test", "operation", "greet",
+                                                           "outcome", "error").timer();
+    Assert.assertNotNull(success);
+    Assert.assertNotNull(error);
+    Assert.assertEquals(success.count(), 1L);
+    Assert.assertEquals(error.count(), 1L);
+    // Methods of Object are passed through and not timed
+    Assert.assertNotNull(greeter.toString());
+    Assert.assertNull(registry.find("tapis.systems.calls").tags("operation", "toString").timer());
+    // Exception type is not used as a tag
+    Assert.assertNull(registry.find("tapis.systems.calls").tagKeys("exception").timer());
+  }
+
+  @Test
+  public void testUntimedMethods() throws Exception
+  {
+    Greeter impl = name -> "Hi " + name;
+    Greeter greeter = SystemsMetrics.instrument(Greeter.class, impl, "untimed", Set.of("greet"));
+    Assert.assertEquals(greeter.greet("world"), "Hi world");
+    Assert.assertNull(SystemsMetrics.getRegistry().find("tapis.systems.calls").tags("layer", "untimed").timer());
+  }
+
+  @Test
+  public void testRemoteCalls() throws Exception
+  {
+    Assert.assertEquals(timeRemoteCall(TARGET_SK, "testCall", "abc", String::length), Integer.valueOf(3));
+    try
+    {
+      timeRemoteRun(TARGET_SK, "testRun", "abc", c -> { throw new TapisException("Remote failure"); });
+      Assert.fail("Exception from remote call should be thrown");
+    }
+    catch (TapisException e) { Assert.assertEquals(e.getMessage(), "Remote failure"); }
+
+    var registry = SystemsMetrics.getRegistry();
+    Assert.assertNotNull(registry.find("tapis.systems.remote.calls").tags("target", TARGET_SK, "operation", "testCall",
+                                                                          "outcome", "success").timer());
+    Assert.assertNotNull(registry.find("tapis.systems.remote.calls").tags("target", TARGET_SK, "operation", "testRun",
+                                                                          "outcome", "error").timer());
+    String scrape = SystemsMetrics.scrape();
+    Assert.assertTrue(scrape.contains("tapis_systems_remote_calls_seconds_bucket"), scrape);
+    Assert.assertTrue(scrape.contains("operation=\"testCall\""), scrape);
+  }
+}
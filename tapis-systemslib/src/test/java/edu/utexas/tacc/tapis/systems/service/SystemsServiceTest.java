@@ -777,6 +777,21 @@ public class SystemsServiceTest
     for (TSystem system : systems) {
       System.out.println("Found item with id: " + system.getId() + " and name: " + system.getId());
     }
+    // Conditions on paths within notes and jobCapabilities are validated and applied along with other conditions
+    var searchList = new ArrayList<>(List.of("id.eq." + sys0.getId(), "notes.project.eq.my proj1",
+                                             "jobCapabilities[category=HARDWARE,name=CoresPerNode].gt.2"));
+    systems = svc.getSystems(rOwner1, searchList, limitNone, orderByListNull, skipZero, startAferEmpty,
+                             showDeletedFalse, listTypeNull, fetchShareInfoFalse, impersonationIdNull);
+    Assert.assertEquals(systems.size(), 1, "Wrong number of systems for JSON path search: " + searchList);
+    searchList.set(2, "jobCapabilities[category=HARDWARE,name=CoresPerNode].gt.4");
+    systems = svc.getSystems(rOwner1, searchList, limitNone, orderByListNull, skipZero, startAferEmpty,
+                             showDeletedFalse, listTypeNull, fetchShareInfoFalse, impersonationIdNull);
+    Assert.assertTrue(systems.isEmpty(), "No systems should match JSON path search: " + searchList);
+    // Invalid JSON path condition is rejected
+    Assert.assertThrows(IllegalArgumentException.class,
+                        () -> svc.getSystems(rOwner1, List.of("jobCapabilities[noSuchAttr=x].gt.2"), limitNone,
+                                             orderByListNull, skipZero, startAferEmpty, showDeletedFalse, listTypeNull,
+                                             fetchShareInfoFalse, impersonationIdNull));
   }
 
   // Test getSystems using listType parameter
@@ -2468,7 +2483,7 @@ public class SystemsServiceTest
     svc.createSystem(rOwner1, sys0, skipCredCheckTrue, rawDataEmptyJson);
     
     // Test retrieval using specified authn method
-    List<SystemHistoryItem> systemHistory = svc.getSystemHistory(rOwner1, sys0.getId());
+    List<SystemHistoryItem> systemHistory = svc.getSystemHistory(rOwner1, sys0.getId(), null, null);
     
     System.out.println("Found item: " + sys0.getId());
     // Verify system history fields
@@ -2529,7 +2544,7 @@ public class SystemsServiceTest
     svc.deleteSystem(ownerUser, sysId);
 
     // Test retrieval of history
-    List<SystemHistoryItem> systemHistory = svc.getSystemHistory(ownerUser, sysId);
+    List<SystemHistoryItem> systemHistory = svc.getSystemHistory(ownerUser, sysId, null, null);
     Assert.assertNotNull(systemHistory);
 
     System.out.println("Found item: " + sysId);
@@ -2728,6 +2743,13 @@ public class SystemsServiceTest
     checkCommonParentChildAttrs(patchedSystem, child1);
     checkCommonParentChildAttrs(patchedSystem, child2);
     checkCommonParentChildAttrs(patchedSystem, child3);
+
+    // Children that already match the parent are not updated again
+    svc.patchSystem(rParentChild1, parentSystem.getId(),
+            TapisGsonUtils.getGson().fromJson(patchSystemJson, PatchSystem.class), rawDataEmptyJson);
+    TSystem child1Again = svc.getSystem(rParentChild1, child1.getId(), null, false, false,
+            null, null, null, fetchShareInfoFalse);
+    Assert.assertEquals(child1Again.getVersion(), child1.getVersion());
   }
 
   @Test
@@ -2874,7 +2896,7 @@ public class SystemsServiceTest
  private void displaySystemHistory(ResourceRequestUser rUser, String systemId) throws TapisException, TapisClientException
  {
    // Retrieve and display history for manual checking of display
-   List<SystemHistoryItem> systemHistory = svc.getSystemHistory(rUser, systemId);
+   List<SystemHistoryItem> systemHistory = svc.getSystemHistory(rUser, systemId, null, null);
    Assert.assertNotNull(systemHistory);
    System.out.println("===============================================================================");
    System.out.printf("History for system: %s Number of history records: %d%n", systemId, systemHistory.size());
@@ -0,0 +1,66 @@
+package edu.utexas.tacc.tapis.systems.service;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import okhttp3.OkHttpClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/**
+ * Tests for trace context handling in SystemsTracing. No external services are required.
+ * The exporter is not configured, so spans are not recorded, but trace context must still be propagated.
+ */
+@Test(groups={"unit"})
+public class SystemsTracingTest
+{
+  private static final String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+  private static final String spanId = "00f067aa0ba902b7";
+
+  // Simple interface used to check the trace context seen by calls made through a traced proxy
+  public interface TraceIdSource
+  {
+    String getTraceId() throws TapisException;
+  }
+
+  @Test
+  public void testContextPropagated() throws Exception
+  {
+    TraceIdSource impl = () -> Span.current().getSpanContext().getTraceId();
+    TraceIdSource traced = SystemsTracing.trace(TraceIdSource.class, impl);
+    var parent = SpanContext.createFromRemoteParent(traceId, spanId, TraceFlags.getSampled(), TraceState.getDefault());
+    try (Scope scope = Context.root().with(Span.wrap(parent)).makeCurrent())
+    {
+      Assert.assertEquals(traced.getTraceId(), traceId);
+      Assert.assertEquals(SystemsTracing.inSpan("test", SpanKind.CLIENT, impl::getTraceId), traceId);
+    }
+  }
+
+  @Test
+  public void testFailureRethrown()
+  {
+    TraceIdSource impl = () -> { throw new TapisException("Trace failure"); };
+    TraceIdSource traced = SystemsTracing.trace(TraceIdSource.class, impl);
+    try
+    {
+      traced.getTraceId();
+      Assert.fail("Exception from implementation should be thrown");
+    }
+    catch (TapisException e) { Assert.assertEquals(e.getMessage(), "Trace failure"); }
+  }
+
+  @Test
+  public void testWithTracingAddsOneInterceptor()
+  {
+    var httpClient = new OkHttpClient();
+    var traced = SystemsTracing.withTracing(httpClient);
+    Assert.assertEquals(traced.interceptors().size(), httpClient.interceptors().size() + 1);
+    Assert.assertSame(SystemsTracing.withTracing(traced), traced, "Interceptor should only be added once");
+  }
+}
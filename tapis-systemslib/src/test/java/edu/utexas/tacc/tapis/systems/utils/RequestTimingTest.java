@@ -0,0 +1,34 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the per-request timing context used to build the Server-Timing header.
+ */
+@Test(groups={"unit"})
+public class RequestTimingTest
+{
+  @Test
+  public void testHeaderValue()
+  {
+    RequestTiming.begin();
+    RequestTiming.record(RequestTiming.DB, 2_000_000L);
+    RequestTiming.record("sk", 5_250_000L);
+    RequestTiming.record(RequestTiming.DB, 1_500_000L);
+    RequestTiming timing = RequestTiming.end();
+    Assert.assertNotNull(timing);
+    String header = timing.toHeaderValue();
+    Assert.assertTrue(header.startsWith("db;dur=3.5;desc=\"2 calls\", sk;dur=5.3;desc=\"1 call\", total;dur="), header);
+    Assert.assertNull(RequestTiming.end(), "Context should be removed from thread");
+  }
+
+  @Test
+  public void testNoContext()
+  {
+    RequestTiming.end();
+    // Recording without a context is a no-op
+    RequestTiming.record(RequestTiming.DB, 1_000_000L);
+    Assert.assertNull(RequestTiming.end());
+  }
+}
@@ -0,0 +1,69 @@
+package edu.utexas.tacc.tapis.systems.utils;
+
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for detection of slow DB statements and outbound calls.
+ */
+@Test(groups={"unit"})
+public class SlowCallDetectorTest
+{
+  private static final long MS = 1_000_000L;
+
+  @AfterMethod
+  public void tearDown() { SlowCallDetector.configure(null, 100, 1.0); }
+
+  @Test
+  public void testThresholds()
+  {
+    SlowCallDetector.configure(Map.of("db", 10L), 10, 1.0);
+    Assert.assertEquals(SlowCallDetector.getThresholdMs("db"), 10L);
+    // Defaults kept for classes not configured, and used for unknown classes
+    Assert.assertEquals(SlowCallDetector.getThresholdMs("sk"), 1000L);
+    Assert.assertEquals(SlowCallDetector.getThresholdMs("other"), 1000L);
+
+    SlowCallDetector.check("db", "getSystem", 9 * MS, "select * from systems where id = ?", 1);
+    Assert.assertEquals(SlowCallDetector.getSnapshot().getSlowCallCount(), 0L);
+    SlowCallDetector.check("db", "getSystem", 10 * MS, "select * from systems where id = ?", 1);
+    SlowCallDetector.check("sk", "isAdmin", 20 * MS, null, -1);
+    SlowCallDetector.Snapshot snapshot = SlowCallDetector.getSnapshot();
+    Assert.assertEquals(snapshot.getSlowCallCount(), 1L);
+    Assert.assertEquals(snapshot.getEvents().size(), 1);
+    SlowCallDetector.SlowCallEvent event = snapshot.getEvents().get(0);
+    Assert.assertEquals(event.getOperation(), "getSystem");
+    Assert.assertEquals(event.getSql(), "select * from systems where id = ?");
+    Assert.assertEquals(event.getRows(), Long.valueOf(1L));
+    Assert.assertEquals(event.getDurationMs(), 10.0);
+  }
+
+  @Test
+  public void testBufferWraps()
+  {
+    SlowCallDetector.configure(Map.of("db", 0L), 3, 1.0);
+    for (int i = 1; i <= 5; i++) SlowCallDetector.check("db", "op" + i, MS, null, -1);
+    SlowCallDetector.Snapshot snapshot = SlowCallDetector.getSnapshot();
+    Assert.assertEquals(snapshot.getSlowCallCount(), 5L);
+    Assert.assertEquals(snapshot.getEvents().size(), 3);
+    // Most recent first
+    Assert.assertEquals(snapshot.getEvents().get(0).getOperation(), "op5");
+    Assert.assertEquals(snapshot.getEvents().get(2).getOperation(), "op3");
+    Assert.assertNull(snapshot.getEvents().get(0).getRows());
+  }
+
+  @Test
+  public void testSampling()
+  {
+    SlowCallDetector.configure(Map.of("db", 0L), 10, 0.0);
+    for (int i = 0; i < 5; i++) SlowCallDetector.check("db", "op", MS, null, -1);
+    SlowCallDetector.Snapshot snapshot = SlowCallDetector.getSnapshot();
+    // All slow calls are counted, none are kept
+    Assert.assertEquals(snapshot.getSlowCallCount(), 5L);
+    Assert.assertTrue(snapshot.getEvents().isEmpty());
+    // No tenant on this thread so no events for any tenant
+    Assert.assertTrue(snapshot.forTenant("dev").getEvents().isEmpty());
+  }
+}